@@ -13,6 +13,23 @@ public interface ProxyRepositoryConnectionPoolConfigurationService
 
     Client getRestClient();
 
+    /**
+     * Returns the client shared by all the requests to the remote repository with the given credentials, it's created
+     * once and is kept until {@link #closeRestClient(String, String, String)}. The client must not be closed by the
+     * caller.
+     */
+    Client getRestClient(String remoteRepositoryUrl,
+                         String username,
+                         String password);
+
+    /**
+     * Closes the shared client of the remote repository with the given credentials, if there is one. The next
+     * {@link #getRestClient(String, String, String)} creates a new client.
+     */
+    void closeRestClient(String remoteRepositoryUrl,
+                         String username,
+                         String password);
+
     CloseableHttpClient getHttpClient();
 
     void setMaxTotal(int max);
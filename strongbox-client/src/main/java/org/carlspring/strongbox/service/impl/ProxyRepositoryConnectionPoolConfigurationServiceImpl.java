@@ -2,6 +2,9 @@ package org.carlspring.strongbox.service.impl;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -10,6 +13,7 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 
 import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
@@ -21,6 +25,7 @@ import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurati
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
 import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 import org.glassfish.jersey.logging.LoggingFeature;
 import org.glassfish.jersey.logging.LoggingFeature.Verbosity;
 import org.slf4j.Logger;
@@ -42,12 +47,22 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
     private PoolingHttpClientConnectionManager poolingHttpClientConnectionManager;
     private IdleConnectionMonitorThread idleConnectionMonitorThread;
 
+    /**
+     * Key:     Remote repository URL and credentials
+     * Value:   The client shared by all the requests to the remote repository with these credentials.
+     */
+    private final ConcurrentMap<SharedRestClientKey, Client> sharedRestClients = new ConcurrentHashMap<>();
+
     @Value("${pool.maxConnections:200}")
     private int maxTotal;
     @Value("${pool.defaultConnectionsPerRoute:5}")
     private int defaultMaxPerRoute;
     @Value("${pool.idleConnectionsTimeoutInSeconds:60}")
     private int idleConnectionsTimeoutInSeconds;
+    @Value("${pool.validateAfterInactivityInMillis:2000}")
+    private int validateAfterInactivityInMillis;
+    @Value("${pool.payloadLogging:false}")
+    private boolean payloadLogging;
 
     @PostConstruct
     public void init()
@@ -55,6 +70,8 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         poolingHttpClientConnectionManager = new PoolingHttpClientConnectionManager();
         poolingHttpClientConnectionManager.setMaxTotal(maxTotal); //TODO value that depends on number of threads?
         poolingHttpClientConnectionManager.setDefaultMaxPerRoute(defaultMaxPerRoute);
+        // kept alive connections are reused, the stale ones are detected before they are leased
+        poolingHttpClientConnectionManager.setValidateAfterInactivity(validateAfterInactivityInMillis);
 
         // thread for monitoring unused connections
         idleConnectionMonitorThread =
@@ -71,6 +88,58 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
 
     @Override
     public Client getRestClient()
+    {
+        return newRestClient(newClientConfig());
+    }
+
+    @Override
+    public Client getRestClient(String remoteRepositoryUrl,
+                                String username,
+                                String password)
+    {
+        Objects.requireNonNull(remoteRepositoryUrl);
+
+        SharedRestClientKey key = new SharedRestClientKey(remoteRepositoryUrl, username, password);
+
+        return sharedRestClients.computeIfAbsent(key, k -> {
+            LOGGER.debug("Creating the shared client for the remote repository [{}].", remoteRepositoryUrl);
+
+            return newSharedRestClient(username, password);
+        });
+    }
+
+    @Override
+    public void closeRestClient(String remoteRepositoryUrl,
+                                String username,
+                                String password)
+    {
+        Client client = sharedRestClients.remove(new SharedRestClientKey(remoteRepositoryUrl, username, password));
+        if (client == null)
+        {
+            return;
+        }
+
+        LOGGER.debug("Closing the shared client for the remote repository [{}].", remoteRepositoryUrl);
+
+        // the connection manager is shared, so the connections leased by the requests in progress are kept
+        client.close();
+    }
+
+    private Client newSharedRestClient(String username,
+                                       String password)
+    {
+        ClientConfig config = newClientConfig();
+        config.property(ApacheClientProperties.REQUEST_CONFIG,
+                        RequestConfig.custom().setCircularRedirectsAllowed(true).build());
+        if (username != null && password != null)
+        {
+            config.register(HttpAuthenticationFeature.basic(username, password));
+        }
+
+        return newRestClient(config);
+    }
+
+    private ClientConfig newClientConfig()
     {
         ClientConfig config = new ClientConfig();
         config.connectorProvider(new ApacheConnectorProvider());
@@ -78,15 +147,18 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         // property to prevent closing connection manager when client is closed
         config.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true);
 
-        java.util.logging.Logger logger = java.util.logging.Logger.getLogger("org.carlspring.strongbox.RestClient");
+        return config;
+    }
 
-        // TODO set basic authentication here instead of setting it always in client?
-        /* CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-        credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(username, password));
-        config.property(ApacheClientProperties.CREDENTIALS_PROVIDER, credentialsProvider); */
+    private Client newRestClient(ClientConfig config)
+    {
+        java.util.logging.Logger logger = java.util.logging.Logger.getLogger("org.carlspring.strongbox.RestClient");
 
+        // the payload logging buffers the entities, so it's only enabled on demand
         return ClientBuilder.newBuilder()
-                            .register(new LoggingFeature(logger, Verbosity.PAYLOAD_TEXT))
+                            .register(new LoggingFeature(logger,
+                                                         payloadLogging ? Verbosity.PAYLOAD_TEXT :
+                                                         Verbosity.HEADERS_ONLY))
                             .withConfig(config)
                             .build();
     }
@@ -149,6 +221,9 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
     @Override
     public void shutdown()
     {
+        sharedRestClients.values().forEach(Client::close);
+        sharedRestClients.clear();
+
         idleConnectionMonitorThread.shutdown();
         poolingHttpClientConnectionManager.shutdown();
     }
@@ -191,6 +266,50 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
         return new HttpRoute(HttpHost.create(repository));
     }
 
+    private static final class SharedRestClientKey
+    {
+
+        private final String url;
+
+        private final String username;
+
+        private final String password;
+
+        SharedRestClientKey(String url,
+                            String username,
+                            String password)
+        {
+            this.url = url;
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof SharedRestClientKey))
+            {
+                return false;
+            }
+
+            SharedRestClientKey that = (SharedRestClientKey) o;
+
+            return url.equals(that.url) && Objects.equals(username, that.username) &&
+                   Objects.equals(password, that.password);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(url, username, password);
+        }
+
+    }
+
     private static final class IdleConnectionMonitorThread
             extends Thread
     {
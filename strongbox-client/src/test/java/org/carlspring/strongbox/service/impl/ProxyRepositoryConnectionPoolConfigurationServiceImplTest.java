@@ -0,0 +1,62 @@
+package org.carlspring.strongbox.service.impl;
+
+import javax.ws.rs.client.Client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProxyRepositoryConnectionPoolConfigurationServiceImplTest
+{
+
+    private static final String REPOSITORY_URL = "http://repo.spring.io/snapshot";
+
+    private ProxyRepositoryConnectionPoolConfigurationServiceImpl service;
+
+    @BeforeEach
+    public void setUp()
+    {
+        service = new ProxyRepositoryConnectionPoolConfigurationServiceImpl();
+        ReflectionTestUtils.setField(service, "maxTotal", 10);
+        ReflectionTestUtils.setField(service, "defaultMaxPerRoute", 2);
+        ReflectionTestUtils.setField(service, "idleConnectionsTimeoutInSeconds", 60);
+        ReflectionTestUtils.setField(service, "validateAfterInactivityInMillis", 2000);
+        service.init();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        service.destroy();
+    }
+
+    @Test
+    public void sharedRestClientIsKeyedByCredentials()
+    {
+        Client client = service.getRestClient(REPOSITORY_URL, "user", "password");
+        Client otherClient = service.getRestClient(REPOSITORY_URL, "user", "changed");
+
+        assertNotSame(client, otherClient);
+        assertSame(client, service.getRestClient(REPOSITORY_URL, "user", "password"));
+        assertSame(otherClient, service.getRestClient(REPOSITORY_URL, "user", "changed"));
+        assertSame(service.getRestClient(REPOSITORY_URL, null, null), service.getRestClient(REPOSITORY_URL, null, null));
+    }
+
+    @Test
+    public void closedSharedRestClientIsReplaced()
+    {
+        Client client = service.getRestClient(REPOSITORY_URL, "user", "password");
+        Client otherClient = service.getRestClient(REPOSITORY_URL, "user", "changed");
+
+        service.closeRestClient(REPOSITORY_URL, "user", "password");
+
+        assertThrows(IllegalStateException.class, () -> client.target(REPOSITORY_URL));
+        assertNotSame(client, service.getRestClient(REPOSITORY_URL, "user", "password"));
+        assertSame(otherClient, service.getRestClient(REPOSITORY_URL, "user", "changed"));
+    }
+
+}
@@ -55,6 +55,9 @@ public class PropertiesBooter
     @Value("${strongbox.revision}")
     private String strongboxRevision;
 
+    @Value("${strongbox.locator.parallelism:4}")
+    private int locatorParallelism;
+
     /**
      * Initialization method that sets default system properties, if none are set.
      */
@@ -206,4 +209,17 @@ public class PropertiesBooter
     {
         this.strongboxRevision = strongboxRevision;
     }
+
+    /**
+     * @return the number of threads walking the artifact directories of a repository
+     */
+    public int getLocatorParallelism()
+    {
+        return locatorParallelism;
+    }
+
+    public void setLocatorParallelism(int locatorParallelism)
+    {
+        this.locatorParallelism = locatorParallelism;
+    }
 }
@@ -12,6 +12,7 @@ import com.hazelcast.config.MaxSizeConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -43,6 +44,21 @@ public class HazelcastConfiguration
                                                                                      .setTimeToLiveSeconds(ARTIFACT_ENTRY_CACHE_INVALIDATE_INTERVAL));
     }
 
+    /**
+     * The distributed counterpart of the local checksum cache: the entries expire after the same idle time, and the
+     * same size bound applies on each node.
+     */
+    public static MapConfig checksumCacheConfig(String name,
+                                                int maxIdleSeconds,
+                                                int maxSizePerNode)
+    {
+        return new MapConfig().setName(name)
+                              .setMaxIdleSeconds(maxIdleSeconds)
+                              .setMaxSizeConfig(new MaxSizeConfig(maxSizePerNode,
+                                                                  MaxSizeConfig.MaxSizePolicy.PER_NODE))
+                              .setEvictionPolicy(EvictionPolicy.LRU);
+    }
+
     public static MapConfig newDefaultMapConfig(String name)
     {
         return new MapConfig().setName(name)
@@ -63,11 +79,16 @@ public class HazelcastConfiguration
     }
 
     @Bean
-    public Config hazelcastConfig(HazelcastInstanceId hazelcastInstanceId)
+    public Config hazelcastConfig(HazelcastInstanceId hazelcastInstanceId,
+                                  @Value("${strongbox.checksumCache.maxSize:10000}") int checksumCacheMaxSize,
+                                  @Value("${strongbox.checksumCache.lifetimeSeconds:60}") int checksumCacheLifetimeSeconds)
     {
         final Config config = new Config().setInstanceName(hazelcastInstanceId.getInstanceName())
                                           .addMapConfig(newDefaultMapConfig(CacheName.Repository.REMOTE_REPOSITORY_ALIVENESS))
                                           .addMapConfig(newDefaultMapConfig(CacheName.Artifact.TAGS))
+                                          .addMapConfig(checksumCacheConfig(CacheName.Artifact.CHECKSUMS,
+                                                                             checksumCacheLifetimeSeconds,
+                                                                             checksumCacheMaxSize))
                                           .addMapConfig(authenticationCacheConfig(CacheName.User.AUTHENTICATIONS));
         config.setGroupConfig(new GroupConfig("strongbox", "password"));
         config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
@@ -0,0 +1,22 @@
+package org.carlspring.strongbox.data.criteria;
+
+/**
+ * The {@link Paginator#getCursor()} isn't one returned as a {@link Paginator#getNextCursor()}, or it points to
+ * something which no longer exists.
+ */
+public class InvalidCursorException extends QueryParserException
+{
+
+    public InvalidCursorException(String cursor)
+    {
+        super(String.format("Invalid cursor [%s].", cursor));
+    }
+
+    public InvalidCursorException(String cursor,
+                                  Throwable cause)
+    {
+        this(cursor);
+        initCause(cause);
+    }
+
+}
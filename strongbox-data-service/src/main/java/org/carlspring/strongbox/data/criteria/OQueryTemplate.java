@@ -3,6 +3,7 @@ package org.carlspring.strongbox.data.criteria;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.persistence.EntityManager;
 
@@ -11,6 +12,7 @@ import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
@@ -25,6 +27,11 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 {
     private static final Logger logger = LoggerFactory.getLogger(OQueryTemplate.class);
 
+    /**
+     * The parameter of the record id which a {@link Paginator#getCursor()} page starts after.
+     */
+    public static final String CURSOR_PARAMETER = "cursor";
+
     protected EntityManager entityManager;
 
     public OQueryTemplate()
@@ -50,6 +57,12 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
         Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
 
+        String cursor = s.getPaginator() != null ? s.getPaginator().getCursorValue() : null;
+        if (cursor != null)
+        {
+            parameterMap.put(CURSOR_PARAMETER, toCursorRecordId(s.getPaginator().getCursor(), cursor));
+        }
+
         logger.debug(String.format("Executing SQL query:%n\t[%s]%nWith parameters:%n\t[%s]", sQuery, parameterMap));
 
         Object result = getEmDelegate().command(oQuery)
@@ -67,6 +80,23 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         }
     }
 
+    /**
+     * @return the cursor value as the record id it is, see {@link Paginator#getCursorProperty()}
+     * @throws InvalidCursorException if the cursor value isn't a record id
+     */
+    public static ORecordId toCursorRecordId(String cursor,
+                                             String cursorValue)
+    {
+        try
+        {
+            return new ORecordId(cursorValue);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+
     public OObjectDatabaseTx getEmDelegate()
     {
         return (OObjectDatabaseTx) entityManager.getDelegate();
@@ -74,25 +104,34 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 
     public Map<String, Object> exposeParameterMap(Predicate p)
     {
-        return exposeParameterMap(p, 0);
+        HashMap<String, Object> result = new HashMap<>();
+        exposeParameterMap(p, new AtomicInteger(), result);
+
+        return result;
     }
 
-    private Map<String, Object> exposeParameterMap(Predicate p,
-                                                   int tokenCount)
+    /**
+     * The expressions are numbered in the same order as in {@link #predicateToken(Predicate, AtomicInteger)}, so that
+     * the same property used in several expressions (like `coordinateTokens`) gets a distinct parameter each time.
+     */
+    private void exposeParameterMap(Predicate p,
+                                    AtomicInteger tokenCount,
+                                    Map<String, Object> result)
     {
-        HashMap<String, Object> result = new HashMap<>();
         Expression e = p.getExpression();
-        if (e != null && !ExpOperator.IS_NULL.equals(e.getOperator()) && !ExpOperator.IS_NOT_NULL.equals(e.getOperator()))
+        if (e != null)
         {
-            result.put(calculateParameterName(e.getProperty(), tokenCount), e.getValue());
+            int n = tokenCount.getAndIncrement();
+            if (!ExpOperator.IS_NULL.equals(e.getOperator()) && !ExpOperator.IS_NOT_NULL.equals(e.getOperator()))
+            {
+                result.put(calculateParameterName(e.getProperty(), n), e.getValue());
+            }
         }
 
         for (Predicate predicate : p.getChildPredicateList())
         {
-            result.putAll(exposeParameterMap(predicate, tokenCount++));
+            exposeParameterMap(predicate, tokenCount, result);
         }
-
-        return result;
     }
 
     public String calculateQueryString(Selector<T> selector)
@@ -102,21 +141,39 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         sb.append(" FROM ").append(selector.getTargetClass().getSimpleName());
 
         Predicate p = selector.getPredicate();
-        if (p.isEmpty())
+        Paginator paginator = selector.getPaginator();
+        boolean cursorPaging = paginator != null && paginator.isCursorPaging();
+        if (p.isEmpty() && !cursorPaging)
         {
             return sb.toString();
         }
 
         sb.append(" WHERE ");
-        sb.append(predicateToken(p, 0));
+        if (!cursorPaging)
+        {
+            sb.append(predicateToken(p, new AtomicInteger()));
+        }
+        else
+        {
+            // the keyset page: the records after the cursor in the cursor property order
+            String cursorProperty = paginator.getCursorProperty();
+            if (!p.isEmpty())
+            {
+                sb.append("(").append(predicateToken(p, new AtomicInteger())).append(")");
+            }
+            sb.append(p.isEmpty() ? "" : " AND ")
+              .append(paginator.getCursorValue() != null ?
+                      String.format("%s > :%s", cursorProperty, CURSOR_PARAMETER) : "true");
+            sb.append(String.format(" ORDER BY %s ASC", cursorProperty));
+        }
 
-        Paginator paginator = selector.getPaginator();
-        if (paginator != null && paginator.getProperty() != null && !paginator.getProperty().trim().isEmpty())
+        if (!cursorPaging && paginator != null && paginator.getProperty() != null &&
+            !paginator.getProperty().trim().isEmpty())
         {
             sb.append(String.format(" ORDER BY %s %s", paginator.getProperty(), paginator.getOrder()));
         }
 
-        if (paginator != null && paginator.getSkip() > 0)
+        if (!cursorPaging && paginator != null && paginator.getSkip() > 0)
         {
             sb.append(String.format(" SKIP %s", paginator.getSkip()));
         }
@@ -134,7 +191,7 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
     }
 
     protected String predicateToken(Predicate p,
-                                    int tokenCount)
+                                    AtomicInteger tokenCount)
     {
         if (p.isEmpty())
         {
@@ -144,7 +201,7 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         StringBuffer sb = new StringBuffer();
         if (p.getExpression() != null)
         {
-            sb.append(expressionToken(p.getExpression(), tokenCount));
+            sb.append(expressionToken(p.getExpression(), tokenCount.getAndIncrement()));
         }
 
         for (Predicate predicate : p.getChildPredicateList())
@@ -153,7 +210,7 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
             {
                 sb.append(String.format(" %s ", p.getOperator().name()));
             }
-            sb.append(predicateToken(predicate, tokenCount++));
+            sb.append(predicateToken(predicate, tokenCount));
         }
 
         if (p.isNested())
@@ -184,11 +241,11 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 
     protected String expressionLeftToken(Expression e)
     {
+        String property = e.getProperty();
         switch (e.getOperator())
         {
         case CONTAINS:
-            String property = e.getProperty();
-            return property.substring(0, property.indexOf("."));
+            return isValueCollection(property) ? property : property.substring(0, property.indexOf("."));
         default:
             break;
         }
@@ -198,10 +255,15 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
     protected String expressionRightToken(Expression e,
                                           int n)
     {
+        String property = e.getProperty();
         switch (e.getOperator())
         {
         case CONTAINS:
-            String property = e.getProperty();
+            if (isValueCollection(property))
+            {
+                // the plain value form can be served by an index on the collection
+                return String.format(":%s", calculateParameterName(property, n));
+            }
             property = property.substring(property.indexOf(".") + 1);
 
             return String.format("(%s = :%s)", property, calculateParameterName(property, n));
@@ -212,10 +274,18 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         default:
             break;
         }
-        String property = e.getProperty();
         return String.format(":%s", calculateParameterName(property, n));
     }
 
+    /**
+     * @return `true` if the property is a collection of values (like `coordinateTokens`) rather than a
+     *         `collection.property` path into a collection of records (like `tagSet.name`)
+     */
+    private boolean isValueCollection(String property)
+    {
+        return property.indexOf(".") < 0;
+    }
+
     private String calculateParameterName(String property,
                                           int n)
     {
@@ -1,16 +1,48 @@
 package org.carlspring.strongbox.data.criteria;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 public class Paginator
 {
 
     public static final Integer MAX_LIMIT = 1000;
 
+    /**
+     * The cursor of the first page.
+     */
+    public static final String FIRST_PAGE_CURSOR = "";
+
+    /**
+     * The default {@link #getCursorProperty()}.
+     */
+    public static final String RECORD_ID_PROPERTY = "@rid";
+
     private Integer skip;
     private Integer limit;
 
     private String property;
     private Order order = Order.ASC;
 
+    /**
+     * The opaque continuation token of the page. With a cursor the page starts after the record the cursor points to
+     * and is ordered by the {@link #getCursorProperty()}, instead of being selected with {@link #getSkip()}, so the
+     * cost of a page doesn't grow with its offset.
+     */
+    private String cursor;
+
+    /**
+     * The property which the cursor pages are ordered by, and which the cursor is a value of. It has to be unique and
+     * hold record ids. For the cost of a page to be bounded by its size, it should be the last field of an index whose
+     * other fields the query matches by equality, so that the page is read as a range of that index.
+     */
+    private String cursorProperty = RECORD_ID_PROPERTY;
+
+    /**
+     * The cursor of the page following the searched one, `null` if there are no more results.
+     */
+    private String nextCursor;
+
     public Integer getSkip()
     {
         return skip == null ? Integer.valueOf(0) : skip;
@@ -51,6 +83,69 @@ public class Paginator
         this.order = order;
     }
 
+    public String getCursor()
+    {
+        return cursor;
+    }
+
+    public void setCursor(String cursor)
+    {
+        this.cursor = cursor;
+    }
+
+    public String getCursorProperty()
+    {
+        return cursorProperty;
+    }
+
+    public void setCursorProperty(String cursorProperty)
+    {
+        this.cursorProperty = cursorProperty;
+    }
+
+    public boolean isCursorPaging()
+    {
+        return cursor != null;
+    }
+
+    /**
+     * @return the decoded value of the cursor, or `null` for the first page
+     */
+    public String getCursorValue()
+    {
+        return cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+    }
+
+    public String getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor)
+    {
+        this.nextCursor = nextCursor;
+    }
+
+    public static String encodeCursor(String value)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidCursorException if the cursor isn't one created by {@link #encodeCursor(String)}
+     */
+    public static String decodeCursor(String cursor)
+    {
+        try
+        {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+
     public static enum Order
     {
         ASC, DESC;
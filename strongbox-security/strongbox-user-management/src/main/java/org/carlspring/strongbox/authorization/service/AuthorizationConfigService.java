@@ -27,4 +27,10 @@ public interface AuthorizationConfigService
     boolean deleteRole(String roleName);
 
     void addPrivilegesToAnonymous(List<PrivilegeDto> privilegeList);
+
+    /**
+     * @return a number which changes with every change of the authorization config, so that the values derived from
+     *         the roles can be cached
+     */
+    long getVersion();
 }
@@ -16,6 +16,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -47,6 +48,8 @@ public class AuthorizationConfigServiceImpl
      */
     private AuthorizationConfigDto authorizationConfig;
 
+    private final AtomicLong version = new AtomicLong();
+
     private static void throwIfNotEmpty(Sets.SetView<String> intersectionView,
                                         String message)
     {
@@ -158,6 +161,12 @@ public class AuthorizationConfigServiceImpl
                      });
     }
 
+    @Override
+    public long getVersion()
+    {
+        return version.get();
+    }
+
     private void modifyInLock(final Consumer<AuthorizationConfigDto> operation)
     {
         modifyInLock(operation, true);
@@ -172,6 +181,7 @@ public class AuthorizationConfigServiceImpl
         try
         {
             operation.accept(authorizationConfig);
+            version.incrementAndGet();
 
             if (storeInFile)
             {
@@ -0,0 +1,157 @@
+package org.carlspring.strongbox.users.domain;
+
+import org.carlspring.strongbox.authorization.dto.PrivelegieReadContract;
+import org.carlspring.strongbox.users.dto.UserAccessModelReadContract;
+import org.carlspring.strongbox.users.dto.UserPathPrivelegiesReadContract;
+import org.carlspring.strongbox.users.dto.UserRepositoryReadContract;
+import org.carlspring.strongbox.users.dto.UserStorageReadContract;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * The {@link UserAccessModelReadContract} of a user compiled into a trie keyed by the `/storages/{storageId}/
+ * {repositoryId}/{path}` segments, so that the privileges for a request URL are found in O(path depth) instead of
+ * scanning all the storages, repositories and path privileges of the access model.
+ * <p>
+ * The repository privileges and the wildcard path privileges apply to their node and everything below it, the other
+ * path privileges only to their node.
+ */
+@Immutable
+public class PathPrivilegesTrie
+{
+
+    private static final String STORAGES_SEGMENT = "storages";
+
+    private static final PathPrivilegesTrie EMPTY = new PathPrivilegesTrie(new Node.Builder().build());
+
+    private final Node root;
+
+    private PathPrivilegesTrie(Node root)
+    {
+        this.root = root;
+    }
+
+    public static PathPrivilegesTrie of(UserAccessModelReadContract accessModel)
+    {
+        if (accessModel == null || accessModel.getStorages() == null)
+        {
+            return EMPTY;
+        }
+
+        Node.Builder root = new Node.Builder();
+        Node.Builder storages = root.child(STORAGES_SEGMENT);
+        for (UserStorageReadContract storage : accessModel.getStorages())
+        {
+            Node.Builder storageNode = storages.child(storage.getStorageId());
+            for (UserRepositoryReadContract repository : storage.getRepositories())
+            {
+                Node.Builder repositoryNode = storageNode.child(repository.getRepositoryId());
+                addNames(repositoryNode.wildcardPrivileges, repository.getRepositoryPrivileges());
+
+                for (UserPathPrivelegiesReadContract pathPrivilege : repository.getPathPrivileges())
+                {
+                    Node.Builder pathNode = repositoryNode;
+                    for (String segment : split(pathPrivilege.getPath()))
+                    {
+                        pathNode = pathNode.child(segment);
+                    }
+
+                    addNames(pathPrivilege.isWildcard() ? pathNode.wildcardPrivileges : pathNode.privileges,
+                             pathPrivilege.getPrivileges());
+                }
+            }
+        }
+
+        return new PathPrivilegesTrie(root.build());
+    }
+
+    /**
+     * @param url the request URL, starting with `/storages`
+     * @return the privileges which the access model grants for the URL
+     */
+    public Set<String> getPathPrivileges(String url)
+    {
+        Set<String> result = new HashSet<>();
+
+        Node node = root;
+        for (String segment : split(url))
+        {
+            node = node.children.get(segment);
+            if (node == null)
+            {
+                return result;
+            }
+            result.addAll(node.wildcardPrivileges);
+        }
+        result.addAll(node.privileges);
+
+        return result;
+    }
+
+    private static void addNames(Set<String> target,
+                                 Collection<? extends PrivelegieReadContract> privileges)
+    {
+        if (privileges == null)
+        {
+            return;
+        }
+
+        privileges.forEach(p -> target.add(p.getName()));
+    }
+
+    private static String[] split(String path)
+    {
+        return path != null ? StringUtils.split(path, '/') : new String[0];
+    }
+
+    @Immutable
+    private static class Node
+    {
+
+        private final Map<String, Node> children;
+
+        private final Set<String> privileges;
+
+        private final Set<String> wildcardPrivileges;
+
+        private Node(Builder builder)
+        {
+            ImmutableMap.Builder<String, Node> childrenBuilder = ImmutableMap.builder();
+            builder.children.forEach((k, v) -> childrenBuilder.put(k, v.build()));
+
+            this.children = childrenBuilder.build();
+            this.privileges = ImmutableSet.copyOf(builder.privileges);
+            this.wildcardPrivileges = ImmutableSet.copyOf(builder.wildcardPrivileges);
+        }
+
+        private static class Builder
+        {
+
+            private final Map<String, Builder> children = new HashMap<>();
+
+            private final Set<String> privileges = new HashSet<>();
+
+            private final Set<String> wildcardPrivileges = new HashSet<>();
+
+            private Builder child(String segment)
+            {
+                return children.computeIfAbsent(segment, s -> new Builder());
+            }
+
+            private Node build()
+            {
+                return new Node(this);
+            }
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.users.service.impl;
 
+import org.carlspring.strongbox.authorization.service.AuthorizationConfigService;
 import org.carlspring.strongbox.data.CacheName;
 import org.carlspring.strongbox.users.domain.User;
 import org.carlspring.strongbox.users.domain.Users;
@@ -40,12 +41,21 @@ public class InMemoryUserService implements UserService
 
     private final ReadWriteLock usersLock = new ReentrantReadWriteLock();
 
+    /**
+     * The users with their authorities resolved, dropped when the users change and rebuilt when the authorization
+     * config changes.
+     */
+    private final Map<String, CachedUser> cachedUsers = new ConcurrentHashMap<>();
+
     @Inject
     private SecurityTokenProvider tokenProvider;
 
     @Inject
     private AuthoritiesProvider authoritiesProvider;
 
+    @Inject
+    private AuthorizationConfigService authorizationConfigService;
+
     @Override
     public Users findAll()
     {
@@ -71,33 +81,13 @@ public class InMemoryUserService implements UserService
         {
             return null;
         }
-        
+
         final Lock readLock = usersLock.readLock();
         readLock.lock();
 
         try
         {
-            Optional<UserDto> optionalUserDto = Optional.ofNullable(userMap.get(username));
-
-            if (optionalUserDto.isPresent())
-            {
-                UserDto userDto = optionalUserDto.get();
-
-                Set<String> authorities = userDto.getRoles()
-                                                 .stream()
-                                                 .map(this::getGrantedAuthorities)
-                                                 .map(this::getAuthoritiesAsString)
-                                                 .flatMap(Collection::stream)
-                                                 .collect(Collectors.toCollection(HashSet::new));
-
-                if (authorities.size() > 0)
-                {
-                    userDto.setAuthorities(authorities);
-                    optionalUserDto = Optional.of(userDto);
-                }
-            }
-
-            return optionalUserDto.map(User::new).orElse(null);
+            return Optional.ofNullable(getCachedUser(username)).map(CachedUser::getUser).orElse(null);
         }
         finally
         {
@@ -105,6 +95,42 @@ public class InMemoryUserService implements UserService
         }
     }
 
+    private CachedUser getCachedUser(final String username)
+    {
+        long authorizationConfigVersion = authorizationConfigService.getVersion();
+
+        CachedUser cachedUser = cachedUsers.get(username);
+        if (cachedUser != null && cachedUser.getAuthorizationConfigVersion() == authorizationConfigVersion)
+        {
+            return cachedUser;
+        }
+
+        UserDto userDto = userMap.get(username);
+        if (userDto == null)
+        {
+            cachedUsers.remove(username);
+
+            return null;
+        }
+
+        Set<String> authorities = userDto.getRoles()
+                                         .stream()
+                                         .map(this::getGrantedAuthorities)
+                                         .map(this::getAuthoritiesAsString)
+                                         .flatMap(Collection::stream)
+                                         .collect(Collectors.toCollection(HashSet::new));
+
+        if (authorities.size() > 0)
+        {
+            userDto.setAuthorities(authorities);
+        }
+
+        cachedUser = new CachedUser(new User(userDto), authorizationConfigVersion);
+        cachedUsers.put(username, cachedUser);
+
+        return cachedUser;
+    }
+
     @Override
     public String generateSecurityToken(final String username)
             throws JoseException
@@ -233,7 +259,7 @@ public class InMemoryUserService implements UserService
         try
         {
             operation.accept(userMap);
-
+            cachedUsers.clear();
         }
         finally
         {
@@ -253,6 +279,31 @@ public class InMemoryUserService implements UserService
                           .collect(Collectors.toCollection(HashSet::new));
     }
 
+    private static class CachedUser
+    {
+
+        private final User user;
+
+        private final long authorizationConfigVersion;
+
+        private CachedUser(User user,
+                           long authorizationConfigVersion)
+        {
+            this.user = user;
+            this.authorizationConfigVersion = authorizationConfigVersion;
+        }
+
+        private User getUser()
+        {
+            return user;
+        }
+
+        private long getAuthorizationConfigVersion()
+        {
+            return authorizationConfigVersion;
+        }
+    }
+
     @Documented
     @Retention(RUNTIME)
     @Qualifier
@@ -4,6 +4,7 @@ import org.carlspring.strongbox.authorization.dto.PrivilegeDto;
 import org.carlspring.strongbox.config.DataServiceConfig;
 import org.carlspring.strongbox.config.UsersConfig;
 import org.carlspring.strongbox.users.domain.AccessModel;
+import org.carlspring.strongbox.users.domain.PathPrivilegesTrie;
 import org.carlspring.strongbox.users.domain.User;
 import org.carlspring.strongbox.users.dto.UserDto;
 import org.carlspring.strongbox.users.dto.UserAccessModelDto;
@@ -385,4 +386,83 @@ public class UserServiceTest
                    "User " + testUserName + " is still present in the database. Delete operation failed!");
     }
 
+    @Test
+    public void testPathPrivilegesTrieFollowsAccessModelUpdates()
+    {
+        String testUserName = "test-path-privileges-user";
+
+        UserDto userAdd = new UserDto();
+        userAdd.setEnabled(true);
+        userAdd.setUsername(testUserName);
+        userAdd.setPassword("test-password");
+        userAdd.setUserAccessModel(createAccessModel("org/carlspring", "ARTIFACTS_VIEW"));
+
+        userService.save(userAdd);
+
+        // the access model instance is kept until the user changes, so a trie compiled from it can be reused
+        UserAccessModelReadContract accessModel = userService.findByUserName(testUserName).getUserAccessModel();
+        assertNotNull(accessModel);
+        assertSame(accessModel, userService.findByUserName(testUserName).getUserAccessModel());
+
+        PathPrivilegesTrie pathPrivilegesTrie = PathPrivilegesTrie.of(accessModel);
+
+        Collection<String> privileges = pathPrivilegesTrie.getPathPrivileges("/storages/storage0/releases/" +
+                                                                             "org/carlspring/foo/1.1/foo-1.1.jar");
+        assertThat(privileges.size(), CoreMatchers.equalTo(2));
+        assertTrue(privileges.contains("ARTIFACTS_RESOLVE"));
+        assertTrue(privileges.contains("ARTIFACTS_VIEW"));
+
+        // path privileges match whole path segments only
+        privileges = pathPrivilegesTrie.getPathPrivileges("/storages/storage0/releases/" +
+                                                          "org/carlspringx/foo/1.1/foo-1.1.jar");
+        assertThat(privileges.size(), CoreMatchers.equalTo(1));
+        assertTrue(privileges.contains("ARTIFACTS_RESOLVE"));
+
+        privileges = pathPrivilegesTrie.getPathPrivileges("/storages/storage0/releases-x/" +
+                                                          "org/carlspring/foo/1.1/foo-1.1.jar");
+        assertTrue(privileges.isEmpty());
+
+        userService.updateAccessModel(testUserName, createAccessModel("com/mycorp", "ARTIFACTS_DEPLOY"));
+
+        UserAccessModelReadContract updatedAccessModel = userService.findByUserName(testUserName).getUserAccessModel();
+        assertNotSame(accessModel, updatedAccessModel);
+
+        pathPrivilegesTrie = PathPrivilegesTrie.of(updatedAccessModel);
+
+        privileges = pathPrivilegesTrie.getPathPrivileges("/storages/storage0/releases/" +
+                                                          "org/carlspring/foo/1.1/foo-1.1.jar");
+        assertThat(privileges.size(), CoreMatchers.equalTo(1));
+        assertTrue(privileges.contains("ARTIFACTS_RESOLVE"));
+
+        privileges = pathPrivilegesTrie.getPathPrivileges("/storages/storage0/releases/" +
+                                                          "com/mycorp/foo/1.2/foo-1.2.jar");
+        assertThat(privileges.size(), CoreMatchers.equalTo(2));
+        assertTrue(privileges.contains("ARTIFACTS_DEPLOY"));
+
+        userService.delete(testUserName);
+    }
+
+    private UserAccessModelDto createAccessModel(String path,
+                                                 String pathPrivilege)
+    {
+        UserPathPrivilegesDto userPathPrivilegesDto = new UserPathPrivilegesDto();
+        userPathPrivilegesDto.setPath(path);
+        userPathPrivilegesDto.setWildcard(true);
+        userPathPrivilegesDto.getPrivileges().add(new PrivilegeDto(pathPrivilege, pathPrivilege));
+
+        UserRepositoryDto userRepositoryDto = new UserRepositoryDto();
+        userRepositoryDto.setRepositoryId("releases");
+        userRepositoryDto.getRepositoryPrivileges().add(new PrivilegeDto("ARTIFACTS_RESOLVE", "ARTIFACTS_RESOLVE"));
+        userRepositoryDto.getPathPrivileges().add(userPathPrivilegesDto);
+
+        UserStorageDto userStorageDto = new UserStorageDto();
+        userStorageDto.setStorageId("storage0");
+        userStorageDto.getRepositories().add(userRepositoryDto);
+
+        UserAccessModelDto userAccessModelDto = new UserAccessModelDto();
+        userAccessModelDto.getStorages().add(userStorageDto);
+
+        return userAccessModelDto;
+    }
+
 }
@@ -0,0 +1,449 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind accumulator for {@link ArtifactEntry} download statistics.
+ * <p>
+ * Downloads are counted in memory per {@link ArtifactEntry} UUID and periodically flushed into the database with bulk
+ * `UPDATE ... INCREMENT` statements, instead of locking and saving the whole {@link ArtifactEntry} for every
+ * download. A flush happens every `flushIntervalMillis`, or as soon as `flushThreshold` distinct entries are pending.
+ * When `maxPendingEntries` distinct entries are pending (for example, because the database is unavailable), downloads
+ * of other entries are dropped and counted in {@link #getDroppedDownloads()}.
+ * <p>
+ * With the journal enabled every download is also appended into {@link ArtifactDownloadStatisticsJournal}, so the
+ * pending statistics survive a process crash.
+ */
+@Component
+public class ArtifactDownloadStatisticsAccumulator
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDownloadStatisticsAccumulator.class);
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.artifact.downloadStatistics.flushIntervalMillis:5000}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.artifact.downloadStatistics.flushThreshold:1000}")
+    private int flushThreshold;
+
+    @Value("${strongbox.artifact.downloadStatistics.maxPendingEntries:100000}")
+    private int maxPendingEntries;
+
+    @Value("${strongbox.artifact.downloadStatistics.lastUsedResolutionMillis:1000}")
+    private long lastUsedResolutionMillis;
+
+    @Value("${strongbox.artifact.downloadStatistics.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${strongbox.artifact.downloadStatistics.journal.file:${strongbox.vault}/journal/artifact-downloads.journal}")
+    private String journalFile;
+
+    private final Map<String, PendingDownloads> pendingDownloads = new ConcurrentHashMap<>();
+
+    /**
+     * Makes journal append and map update atomic in relation to the journal checkpoint and the map drain, so that the
+     * checkpoint always covers every drained download. Used only when the journal is enabled.
+     */
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong oldestPendingTimestamp = new AtomicLong();
+
+    private final LongAdder recordedDownloads = new LongAdder();
+
+    private final LongAdder flushedDownloads = new LongAdder();
+
+    private final LongAdder droppedDownloads = new LongAdder();
+
+    private final LongAdder failedFlushes = new LongAdder();
+
+    private volatile long lastFlushDurationMillis;
+
+    private ArtifactDownloadStatisticsJournal journal;
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+        throws IOException
+    {
+        if (journalEnabled)
+        {
+            journal = new ArtifactDownloadStatisticsJournal(Paths.get(journalFile));
+            journal.replay(this::accumulate);
+            journal.open();
+
+            logger.info(String.format("Replayed [%s] pending artifact download statistics entries from [%s].",
+                                      pendingDownloads.size(), journalFile));
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "artifact-download-statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly,
+                                        flushIntervalMillis,
+                                        flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy()
+        throws IOException
+    {
+        executor.shutdown();
+        try
+        {
+            executor.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        flushQuietly();
+
+        if (journal != null)
+        {
+            journal.close();
+        }
+    }
+
+    /**
+     * Counts one download of the {@link ArtifactEntry} with given UUID.
+     */
+    public void record(String uuid)
+    {
+        long now = System.currentTimeMillis();
+
+        if (pendingDownloads.size() >= maxPendingEntries && !pendingDownloads.containsKey(uuid))
+        {
+            droppedDownloads.increment();
+            logger.debug(String.format("Dropped download statistics for [%s], [%s] entries already pending.", uuid,
+                                       maxPendingEntries));
+
+            return;
+        }
+
+        if (journal == null)
+        {
+            accumulate(uuid, now);
+        }
+        else
+        {
+            recordJournaled(uuid, now);
+        }
+
+        recordedDownloads.increment();
+
+        if (pendingDownloads.size() >= flushThreshold && flushRequested.compareAndSet(false, true))
+        {
+            executor.execute(this::flushQuietly);
+        }
+    }
+
+    private void recordJournaled(String uuid,
+                                 long now)
+    {
+        Lock lock = journalLock.readLock();
+        lock.lock();
+        try
+        {
+            journal.append(uuid, now);
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to journal download statistics for [%s].", uuid), e);
+        }
+        finally
+        {
+            accumulate(uuid, now);
+            lock.unlock();
+        }
+    }
+
+    private void accumulate(String uuid,
+                            long lastUsed)
+    {
+        accumulate(uuid, 1, lastUsed);
+    }
+
+    private void accumulate(String uuid,
+                            int count,
+                            long lastUsed)
+    {
+        oldestPendingTimestamp.compareAndSet(0, lastUsed);
+
+        pendingDownloads.compute(uuid, (k,
+                                        v) -> {
+            PendingDownloads result = v == null ? new PendingDownloads() : v;
+            result.count += count;
+            result.lastUsed = Math.max(result.lastUsed, lastUsed);
+
+            return result;
+        });
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush artifact download statistics.", e);
+        }
+    }
+
+    /**
+     * Writes all the pending download statistics into the database. If the write fails, the statistics are put back
+     * to be retried with the next flush.
+     */
+    public synchronized void flush()
+        throws IOException
+    {
+        flushRequested.set(false);
+
+        Map<String, PendingDownloads> batch = drain();
+        if (batch.isEmpty())
+        {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try
+        {
+            new TransactionTemplate(transactionManager).execute(t -> {
+                groupByCountAndLastUsed(batch).forEach(
+                        (key,
+                         group) -> artifactEntryService.incrementDownloadCount(group.uuids,
+                                                                               key.count,
+                                                                               new Date(group.lastUsed)));
+                return null;
+            });
+        }
+        catch (RuntimeException e)
+        {
+            failedFlushes.increment();
+            batch.forEach((uuid,
+                           pending) -> accumulate(uuid, pending.count, pending.lastUsed));
+
+            throw e;
+        }
+
+        if (journal != null)
+        {
+            journal.commit();
+        }
+
+        long total = batch.values().stream().mapToLong(p -> p.count).sum();
+        flushedDownloads.add(total);
+        lastFlushDurationMillis = System.currentTimeMillis() - start;
+
+        logger.debug(String.format("Flushed [%s] downloads of [%s] artifacts in [%s] ms.", total, batch.size(),
+                                   lastFlushDurationMillis));
+    }
+
+    private Map<String, PendingDownloads> drain()
+        throws IOException
+    {
+        if (journal == null)
+        {
+            return drainPending();
+        }
+
+        Lock lock = journalLock.writeLock();
+        lock.lock();
+        try
+        {
+            journal.checkpoint();
+
+            return drainPending();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, PendingDownloads> drainPending()
+    {
+        oldestPendingTimestamp.set(0);
+
+        Map<String, PendingDownloads> result = new HashMap<>();
+        for (String uuid : pendingDownloads.keySet())
+        {
+            PendingDownloads pending = pendingDownloads.remove(uuid);
+            if (pending != null)
+            {
+                result.put(uuid, pending);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Most of the artifacts are downloaded the same number of times between two flushes (usually once), so grouping
+     * by download count, and by last used time truncated to `lastUsedResolutionMillis`, allows to update all of them
+     * with a few statements. The artifacts of a group share the latest last used time of the group, which is less than
+     * `lastUsedResolutionMillis` later than their own, however long they have been pending.
+     */
+    private Map<UpdateKey, UpdateGroup> groupByCountAndLastUsed(Map<String, PendingDownloads> batch)
+    {
+        long resolution = Math.max(1, lastUsedResolutionMillis);
+
+        Map<UpdateKey, UpdateGroup> result = new HashMap<>();
+        batch.forEach((uuid,
+                       pending) -> {
+            UpdateKey key = new UpdateKey(pending.count, pending.lastUsed - pending.lastUsed % resolution);
+
+            UpdateGroup group = result.computeIfAbsent(key, k -> new UpdateGroup());
+            group.uuids.add(uuid);
+            group.lastUsed = Math.max(group.lastUsed, pending.lastUsed);
+        });
+
+        return result;
+    }
+
+    /**
+     * @return number of distinct artifacts with downloads not yet flushed into the database
+     */
+    public int getPendingEntries()
+    {
+        return pendingDownloads.size();
+    }
+
+    /**
+     * @return age of the oldest download not yet flushed into the database, in milliseconds
+     */
+    public long getFlushLagMillis()
+    {
+        long oldest = oldestPendingTimestamp.get();
+
+        return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    public long getLastFlushDurationMillis()
+    {
+        return lastFlushDurationMillis;
+    }
+
+    public long getRecordedDownloads()
+    {
+        return recordedDownloads.sum();
+    }
+
+    public long getFlushedDownloads()
+    {
+        return flushedDownloads.sum();
+    }
+
+    public long getDroppedDownloads()
+    {
+        return droppedDownloads.sum();
+    }
+
+    public long getFailedFlushes()
+    {
+        return failedFlushes.sum();
+    }
+
+    private static class PendingDownloads
+    {
+
+        private int count;
+
+        private long lastUsed;
+
+    }
+
+    private static class UpdateKey
+    {
+
+        private final int count;
+
+        private final long lastUsedFrom;
+
+        private UpdateKey(int count,
+                          long lastUsedFrom)
+        {
+            this.count = count;
+            this.lastUsedFrom = lastUsedFrom;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof UpdateKey))
+            {
+                return false;
+            }
+
+            UpdateKey that = (UpdateKey) o;
+
+            return count == that.count && lastUsedFrom == that.lastUsedFrom;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(count, lastUsedFrom);
+        }
+
+    }
+
+    private static class UpdateGroup
+    {
+
+        private final List<String> uuids = new ArrayList<>();
+
+        private long lastUsed;
+
+    }
+
+}
@@ -0,0 +1,148 @@
+package org.carlspring.strongbox.artifact;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjLongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only local journal of artifact downloads which were accepted by
+ * {@link ArtifactDownloadStatisticsAccumulator} but not yet written into the database.
+ * <p>
+ * Every download is written as a single `uuid lastUsed` line into the current journal file. Before a flush the
+ * current file is moved into the checkpoint file, and the checkpoint is removed once the flush has been committed.
+ * On startup both files are replayed, so a process crash loses no downloads. A crash between the database commit
+ * and the checkpoint removal can count the checkpointed downloads twice.
+ */
+public class ArtifactDownloadStatisticsJournal implements Closeable
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDownloadStatisticsJournal.class);
+
+    private final Path journalPath;
+
+    private final Path checkpointPath;
+
+    private BufferedWriter writer;
+
+    public ArtifactDownloadStatisticsJournal(Path journalPath)
+    {
+        this.journalPath = journalPath;
+        this.checkpointPath = journalPath.resolveSibling(journalPath.getFileName() + ".checkpoint");
+    }
+
+    public synchronized void open()
+        throws IOException
+    {
+        Files.createDirectories(journalPath.getParent());
+        writer = Files.newBufferedWriter(journalPath,
+                                         StandardCharsets.UTF_8,
+                                         StandardOpenOption.CREATE,
+                                         StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Reads every download recorded in the checkpoint and the current journal files.
+     */
+    public synchronized void replay(ObjLongConsumer<String> consumer)
+        throws IOException
+    {
+        replay(checkpointPath, consumer);
+        replay(journalPath, consumer);
+    }
+
+    private void replay(Path path,
+                        ObjLongConsumer<String> consumer)
+        throws IOException
+    {
+        if (!Files.exists(path))
+        {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                int idx = line.indexOf(' ');
+                if (idx <= 0)
+                {
+                    logger.warn(String.format("Skip malformed journal record [%s] in [%s].", line, path));
+                    continue;
+                }
+
+                try
+                {
+                    consumer.accept(line.substring(0, idx), Long.parseLong(line.substring(idx + 1)));
+                }
+                catch (NumberFormatException e)
+                {
+                    logger.warn(String.format("Skip malformed journal record [%s] in [%s].", line, path));
+                }
+            }
+        }
+    }
+
+    public synchronized void append(String uuid,
+                                    long lastUsed)
+        throws IOException
+    {
+        writer.write(uuid);
+        writer.write(' ');
+        writer.write(Long.toString(lastUsed));
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Moves all the records written so far into the checkpoint file, appending them to the records of a previous
+     * checkpoint which has not been committed yet.
+     */
+    public synchronized void checkpoint()
+        throws IOException
+    {
+        writer.close();
+
+        if (Files.exists(checkpointPath))
+        {
+            Files.write(checkpointPath, Files.readAllBytes(journalPath), StandardOpenOption.APPEND);
+            Files.delete(journalPath);
+        }
+        else
+        {
+            Files.move(journalPath, checkpointPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        open();
+    }
+
+    /**
+     * Drops the checkpoint records, should be called after they have been committed into the database.
+     */
+    public synchronized void commit()
+        throws IOException
+    {
+        Files.deleteIfExists(checkpointPath);
+    }
+
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        if (writer != null)
+        {
+            writer.close();
+        }
+    }
+
+}
@@ -9,18 +9,45 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 
 import com.orientechnologies.common.concur.ONeedRetryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.transaction.ChainedTransactionManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Base class for the {@link ArtifactEntry} updates triggered by artifact events.
+ * <p>
+ * Every handler runs the updates on its own bounded executor, so that a burst of events doesn't turn into a burst of
+ * threads waiting for the same locks. An event for a path which is already queued, but not yet started, is coalesced
+ * with the queued one. What happens with the events which don't fit into the queue is defined by
+ * {@link RejectionPolicy}.
+ */
 public abstract class AsyncArtifactEntryHandler
 {
 
@@ -28,6 +55,13 @@ public abstract class AsyncArtifactEntryHandler
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncArtifactEntryHandler.class);
 
+    /**
+     * Set while a handler task runs. An event delivered on such a thread (synchronously, on the task transaction
+     * commit) is queued without waiting for it: a handler worker waiting for the tasks queued behind it, on its own or
+     * another handler executor, could exhaust the workers and deadlock.
+     */
+    private static final ThreadLocal<Boolean> HANDLING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
     @Inject
     private ArtifactEntryService artifactEntryService;
 
@@ -37,48 +71,246 @@ public abstract class AsyncArtifactEntryHandler
     @Inject
     private PlatformTransactionManager transactionManager;
 
-    private final ArtifactEventTypeEnum eventType;
+    @Value("${strongbox.artifactEntryHandler.poolSize:4}")
+    private int poolSize;
+
+    @Value("${strongbox.artifactEntryHandler.queueSize:1000}")
+    private int queueSize;
+
+    @Value("${strongbox.artifactEntryHandler.rejectionPolicy:COALESCE}")
+    private RejectionPolicy rejectionPolicy;
+
+    private final Set<ArtifactEventTypeEnum> eventTypes;
 
-    public AsyncArtifactEntryHandler(ArtifactEventTypeEnum eventType)
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Tasks which are queued, deferred or not yet started, by path.
+     */
+    private final Map<String, HandlerTask> queuedTasks = new ConcurrentHashMap<>();
+
+    /**
+     * Tasks which didn't fit into the executor queue with {@link RejectionPolicy#COALESCE}, at most `queueSize` of
+     * them.
+     */
+    private BlockingDeque<HandlerTask> deferredTasks;
+
+    private final LongAdder handledEvents = new LongAdder();
+
+    private final LongAdder handlingNanos = new LongAdder();
+
+    private final LongAdder coalescedEvents = new LongAdder();
+
+    private final LongAdder rejectedEvents = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    public AsyncArtifactEntryHandler(ArtifactEventTypeEnum eventType,
+                                     ArtifactEventTypeEnum... eventTypes)
     {
         super();
-        this.eventType = eventType;
+        this.eventTypes = EnumSet.of(eventType, eventTypes);
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        deferredTasks = new LinkedBlockingDeque<>(queueSize);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                                          new ArrayBlockingQueue<>(queueSize),
+                                          new CustomizableThreadFactory(getClass().getSimpleName() + "-"))
+        {
+
+            @Override
+            protected void afterExecute(Runnable r,
+                                        Throwable t)
+            {
+                submitDeferred();
+            }
+
+        };
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * The queued tasks are still handled, the deferred ones can't be submitted anymore and are dropped.
+     */
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdown();
+
+        dropDeferred();
     }
 
+    /**
+     * Completes and forgets the deferred tasks, so that nobody waits for them or coalesces with them.
+     */
+    private void dropDeferred()
+    {
+        List<HandlerTask> droppedTasks = new ArrayList<>();
+        deferredTasks.drainTo(droppedTasks);
+        if (droppedTasks.isEmpty())
+        {
+            return;
+        }
+
+        logger.warn(String.format("Drop [%s] deferred events of [%s] on shutdown.", droppedTasks.size(),
+                                  getClass().getSimpleName()));
+        for (HandlerTask task : droppedTasks)
+        {
+            logger.debug(String.format("Drop deferred event for [%s].", task.repositoryPath));
+            queuedTasks.remove(task.key, task);
+            task.complete(null);
+        }
+    }
+
+    /**
+     * The event is handled in a new transaction on the handler executor, the caller waits until it's done unless the
+     * event has been dropped or deferred, or the caller is a handler task itself.
+     */
     @AsyncEventListener
     public void handleEvent(final ArtifactEvent<RepositoryPath> event)
         throws IOException,
         InterruptedException
     {
-        if (eventType.getType() != event.getType())
+        if (eventTypes.stream().noneMatch(t -> t.getType() == event.getType()))
         {
             return;
         }
 
         RepositoryPath repositoryPath = (RepositoryPath) event.getPath();
-        if (!RepositoryFiles.isArtifact(repositoryPath))
+        if (!RepositoryFiles.isArtifact(repositoryPath) || !supports(repositoryPath))
+        {
+            return;
+        }
+
+        submit(repositoryPath);
+    }
+
+    void submit(RepositoryPath repositoryPath)
+        throws InterruptedException
+    {
+        boolean await = !HANDLING.get();
+
+        String key = repositoryPath.toUri().toString();
+        HandlerTask task = new HandlerTask(key, repositoryPath);
+        HandlerTask queuedTask = queuedTasks.putIfAbsent(key, task);
+        if (queuedTask != null)
+        {
+            coalescedEvents.increment();
+
+            if (await)
+            {
+                await(queuedTask);
+            }
+
+            return;
+        }
+
+        try
+        {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e)
+        {
+            if (!reject(task))
+            {
+                return;
+            }
+        }
+
+        if (await)
+        {
+            await(task);
+        }
+    }
+
+    /**
+     * @return `true` if the task has been handled in place and the caller should wait for it
+     */
+    private boolean reject(HandlerTask task)
+    {
+        rejectedEvents.increment();
+
+        switch (rejectionPolicy)
+        {
+        case CALLER_RUNS:
+            task.run();
+
+            return true;
+        case COALESCE:
+            if (!deferredTasks.offerLast(task))
+            {
+                logger.debug(String.format("Deferred events of [%s] are full, handle [%s] in place.",
+                                           getClass().getSimpleName(), task.repositoryPath));
+                task.run();
+
+                return true;
+            }
+
+            logger.debug(String.format("Queue of [%s] is full, defer [%s].", getClass().getSimpleName(),
+                                       task.repositoryPath));
+            // Covers the executor having been drained, or shut down, before the task was deferred.
+            submitDeferred();
+
+            return false;
+        case DROP:
+        default:
+            logger.warn(String.format("Queue of [%s] is full, drop event for [%s].", getClass().getSimpleName(),
+                                      task.repositoryPath));
+            queuedTasks.remove(task.key, task);
+
+            return false;
+        }
+    }
+
+    private void submitDeferred()
+    {
+        if (executor.isShutdown())
         {
+            dropDeferred();
+
             return;
         }
 
-        // TODO: this is needed just as workadound to have new transaction
-        // within this async event (expected to be replaced with
-        // just Propagation.REQUIRES_NEW after SB-1200)
-        Thread threadWithNewTransactionContext = new Thread(() -> {
+        HandlerTask task;
+        while (!executor.isShutdown() && (task = deferredTasks.pollFirst()) != null)
+        {
             try
             {
-                handleLocked(repositoryPath);
+                executor.execute(task);
             }
-            catch (Exception e)
+            catch (RejectedExecutionException e)
             {
-                logger.error(String.format("Failed to handle async event [%s]",
-                                           AsyncArtifactEntryHandler.this.getClass().getSimpleName()),
-                             e);
+                if (!deferredTasks.offerFirst(task))
+                {
+                    // Other tasks have been deferred in the meantime, this one has waited long enough.
+                    task.run();
+                }
+                else if (executor.isShutdown())
+                {
+                    dropDeferred();
+                }
+
+                return;
             }
-        });
+        }
+    }
 
-        threadWithNewTransactionContext.start();
-        threadWithNewTransactionContext.join();
+    private void await(HandlerTask task)
+        throws InterruptedException
+    {
+        try
+        {
+            task.get();
+        }
+        catch (ExecutionException e)
+        {
+            // Failures are logged by the task itself.
+        }
     }
 
     private void handleLocked(RepositoryPath repositoryPath)
@@ -127,6 +359,7 @@ public abstract class AsyncArtifactEntryHandler
             {
                 logger.debug(String.format("Retry event [%s] for path [%s]", this.getClass().getSimpleName(),
                                            repositoryPath));
+                retries.increment();
                 propogateIfNeeded(i, repositoryPath, e);
             }
 
@@ -173,7 +406,133 @@ public abstract class AsyncArtifactEntryHandler
         });
     }
 
+    /**
+     * @return `false` if the handler doesn't apply to the artifact, all the artifacts are handled by default
+     */
+    protected boolean supports(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        return true;
+    }
+
     protected abstract ArtifactEntry handleEvent(RepositoryPath repositoryPath)
         throws IOException;
 
+    public int getQueueDepth()
+    {
+        return executor.getQueue().size() + deferredTasks.size();
+    }
+
+    public int getActiveCount()
+    {
+        return executor.getActiveCount();
+    }
+
+    public long getHandledEvents()
+    {
+        return handledEvents.sum();
+    }
+
+    /**
+     * @return total time, from the event submission to the handling completion, of the handled events
+     */
+    public double getTotalHandlingTime(TimeUnit unit)
+    {
+        return (double) handlingNanos.sum() / TimeUnit.NANOSECONDS.convert(1, unit);
+    }
+
+    public long getCoalescedEvents()
+    {
+        return coalescedEvents.sum();
+    }
+
+    public long getRejectedEvents()
+    {
+        return rejectedEvents.sum();
+    }
+
+    public long getRetries()
+    {
+        return retries.sum();
+    }
+
+    public long getFailures()
+    {
+        return failures.sum();
+    }
+
+    /**
+     * Defines what happens with the event which doesn't fit into the handler queue.
+     */
+    public enum RejectionPolicy
+    {
+
+        /**
+         * The event is discarded.
+         */
+        DROP,
+
+        /**
+         * The event is handled by the thread which delivered it.
+         */
+        CALLER_RUNS,
+
+        /**
+         * The event is kept aside, at most once per path, and queued as soon as there is room in the queue. Once
+         * `queueSize` events are kept aside, the event is handled by the thread which delivered it.
+         */
+        COALESCE
+
+    }
+
+    private class HandlerTask
+            extends CompletableFuture<Void>
+            implements Runnable
+    {
+
+        private final String key;
+
+        private final RepositoryPath repositoryPath;
+
+        private final long submittedAt = System.nanoTime();
+
+        private HandlerTask(String key,
+                            RepositoryPath repositoryPath)
+        {
+            this.key = key;
+            this.repositoryPath = repositoryPath;
+        }
+
+        @Override
+        public void run()
+        {
+            // From now on, the events for this path need to be handled once again.
+            queuedTasks.remove(key, this);
+
+            Boolean handling = HANDLING.get();
+            HANDLING.set(Boolean.TRUE);
+            try
+            {
+                handleLocked(repositoryPath);
+            }
+            catch (Exception e)
+            {
+                failures.increment();
+                logger.error(String.format("Failed to handle async event [%s]",
+                                           AsyncArtifactEntryHandler.this.getClass().getSimpleName()),
+                             e);
+            }
+            finally
+            {
+                HANDLING.set(handling);
+
+                handlingNanos.add(System.nanoTime() - submittedAt);
+                handledEvents.increment();
+
+                complete(null);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,76 @@
+package org.carlspring.strongbox.artifact.criteria;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link ArtifactEntry#getCoordinateTokens()} format, and the {@link Predicate}s which match the artifact
+ * coordinates against it.
+ * <p>
+ * The tokens are case-insensitive. An {@link #equal(String, String)} predicate can be served by the
+ * `(storageId, repositoryId, coordinateTokens)` index; a {@link #like(String, String)} predicate uses only the
+ * storage and repository part of it and is then evaluated against the tokens of each entry of the repository.
+ */
+public final class CoordinateTokens
+{
+
+    public static final String PROPERTY = "coordinateTokens";
+
+    private CoordinateTokens()
+    {
+    }
+
+    /**
+     * @return the normalized form of the coordinate, as it's stored in {@link ArtifactEntry#getCoordinateTokens()}
+     */
+    public static String token(String name,
+                               String value)
+    {
+        return name + "=" + value.toLowerCase();
+    }
+
+    public static Set<String> tokens(ArtifactCoordinates coordinates)
+    {
+        if (coordinates == null)
+        {
+            return Collections.emptySet();
+        }
+
+        return tokens((Map<String, String>) coordinates.getCoordinates());
+    }
+
+    public static Set<String> tokens(Map<String, String> coordinates)
+    {
+        return coordinates.entrySet()
+                          .stream()
+                          .filter(e -> e.getValue() != null)
+                          .map(e -> token(e.getKey(), e.getValue()))
+                          .collect(Collectors.toSet());
+    }
+
+    /**
+     * Matches the entries with the coordinate equal to the value, ignoring the case.
+     */
+    public static Predicate equal(String name,
+                                  String value)
+    {
+        return Predicate.of(ExpOperator.CONTAINS.of(PROPERTY, token(name, value)));
+    }
+
+    /**
+     * Matches the entries with the coordinate matching the `LIKE` pattern (with `%` wildcards), ignoring the case.
+     */
+    public static Predicate like(String name,
+                                 String pattern)
+    {
+        return Predicate.of(ExpOperator.LIKE.of(PROPERTY, token(name, pattern)));
+    }
+
+}
@@ -1,17 +1,47 @@
 package org.carlspring.strongbox.artifact.locator;
 
 import org.carlspring.strongbox.artifact.locator.handlers.ArtifactDirectoryOperation;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Walks the directories below the starting path depth first, listing and sorting one directory at a time instead of
+ * sorting the whole tree, and executes the {@link ArtifactDirectoryOperation} on each of them.
+ * <p>
+ * The tree is split into subtrees at {@link #partitionDepth} below the starting path. The directories above the
+ * subtrees, and the subtree roots themselves, are visited by the operation in the calling thread; the directories
+ * inside the subtrees are visited by {@link ArtifactDirectoryOperation#fork()}ed operations on a pool of
+ * {@link #parallelism} threads, one operation per subtree. Operations which can't be forked visit the whole tree in
+ * the calling thread, in the same order as before.
+ * <p>
+ * With a {@link #checkpointPath}, the last subtree which was completed together with all the subtrees before it is
+ * recorded, and an interrupted or failed walk of the same starting path, with the same {@link #checkpointKey},
+ * resumes after it.
+ *
  * @author mtodorov
  */
 public class ArtifactDirectoryLocator
@@ -19,6 +49,8 @@ public class ArtifactDirectoryLocator
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactDirectoryLocator.class);
 
+    private static final String CHECKPOINT_EXTENSION = ".checkpoint";
+
     private ArtifactDirectoryOperation operation;
 
     /**
@@ -27,22 +59,57 @@ public class ArtifactDirectoryLocator
      */
     private RepositoryPath basedir;
 
+    /**
+     * The number of threads visiting the subtrees concurrently.
+     */
+    private int parallelism = 1;
+
+    /**
+     * The depth, relative to the starting path, of the subtrees which are visited concurrently and checkpointed.
+     */
+    private int partitionDepth = 2;
+
+    /**
+     * The file in which the last completed subtree is recorded, no checkpoints are recorded if it's `null`.
+     */
+    private Path checkpointPath;
+
+    /**
+     * The parameters of the operation which change the result of a visit, a checkpoint recorded with other ones is
+     * discarded.
+     */
+    private String checkpointKey = "";
+
     public void locateArtifactDirectories()
         throws IOException
     {
         long startTime = System.currentTimeMillis();
 
         RepositoryPath startingPath = getStartingPath();
+        String[] checkpoint = readCheckpoint(startingPath);
 
-        try (Stream<Path> pathStream = Files.walk(startingPath))
+        ArtifactDirectoryOperation forkedOperation = parallelism > 1 ? operation.fork() : null;
+        if (forkedOperation == null)
         {
-            pathStream.filter(Files::isDirectory)
-                      // Skip directories which start with a dot (like, for example: .index)
-                      .filter(path -> !path.getFileName().toString().startsWith("."))
-                      // Note: Sorting can be expensive:
-                      .sorted()
-                      .forEach(this::execute);
+            locate(startingPath, checkpoint, new SubtreeExecutor(startingPath));
         }
+        else
+        {
+            ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+            try
+            {
+                ParallelSubtreeExecutor subtreeExecutor = new ParallelSubtreeExecutor(startingPath, executorService,
+                                                                                      forkedOperation);
+                locate(startingPath, checkpoint, subtreeExecutor);
+                subtreeExecutor.await();
+            }
+            finally
+            {
+                executorService.shutdownNow();
+            }
+        }
+
+        deleteCheckpoint();
 
         long endTime = System.currentTimeMillis();
 
@@ -52,6 +119,200 @@ public class ArtifactDirectoryLocator
         getOperation().getVisitedRootPaths().clear();
     }
 
+    private void locate(RepositoryPath startingPath,
+                        String[] checkpoint,
+                        SubtreeExecutor subtreeExecutor)
+        throws IOException
+    {
+        if (isHidden(startingPath))
+        {
+            return;
+        }
+        if (checkpoint == null)
+        {
+            execute(operation, startingPath);
+        }
+
+        Deque<Iterator<RepositoryPath>> stack = new ArrayDeque<>();
+        stack.push(listDirectories(startingPath).iterator());
+        while (!stack.isEmpty())
+        {
+            Iterator<RepositoryPath> siblings = stack.peek();
+            if (!siblings.hasNext())
+            {
+                stack.pop();
+                continue;
+            }
+
+            RepositoryPath directory = siblings.next();
+            String[] segments = relativeSegments(startingPath, directory);
+            if (checkpoint != null && compare(segments, checkpoint) <= 0 && !isAncestor(segments, checkpoint))
+            {
+                // completed before the checkpoint was recorded
+                continue;
+            }
+
+            boolean completedAncestor = checkpoint != null && isAncestor(segments, checkpoint);
+            if (!completedAncestor)
+            {
+                execute(operation, directory);
+            }
+
+            if (segments.length < partitionDepth)
+            {
+                stack.push(listDirectories(directory).iterator());
+            }
+            else
+            {
+                subtreeExecutor.submit(directory, segments);
+            }
+        }
+    }
+
+    private static void walk(ArtifactDirectoryOperation operation,
+                             RepositoryPath subtreeRoot)
+        throws IOException
+    {
+        Deque<Iterator<RepositoryPath>> stack = new ArrayDeque<>();
+        stack.push(listDirectories(subtreeRoot).iterator());
+        while (!stack.isEmpty())
+        {
+            Iterator<RepositoryPath> siblings = stack.peek();
+            if (!siblings.hasNext())
+            {
+                stack.pop();
+                continue;
+            }
+
+            RepositoryPath directory = siblings.next();
+            execute(operation, directory);
+            stack.push(listDirectories(directory).iterator());
+        }
+    }
+
+    private static List<RepositoryPath> listDirectories(RepositoryPath directory)
+        throws IOException
+    {
+        List<RepositoryPath> result = new ArrayList<>();
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(directory))
+        {
+            for (Path child : children)
+            {
+                // Skip directories which start with a dot (like, for example: .index)
+                if (Files.isDirectory(child) && !isHidden(child))
+                {
+                    result.add((RepositoryPath) child);
+                }
+            }
+        }
+        result.sort(null);
+
+        return result;
+    }
+
+    private static boolean isHidden(Path path)
+    {
+        return path.getFileName() != null && path.getFileName().toString().startsWith(".");
+    }
+
+    private static String[] relativeSegments(RepositoryPath startingPath,
+                                             RepositoryPath directory)
+    {
+        Path relativePath = startingPath.relativize(directory);
+        String[] result = new String[relativePath.getNameCount()];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = relativePath.getName(i).toString();
+        }
+
+        return result;
+    }
+
+    /**
+     * Compares the paths in the order in which they are visited.
+     */
+    private static int compare(String[] first,
+                               String[] second)
+    {
+        for (int i = 0; i < Math.min(first.length, second.length); i++)
+        {
+            int result = first[i].compareTo(second[i]);
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+
+        return Integer.compare(first.length, second.length);
+    }
+
+    private static boolean isAncestor(String[] path,
+                                      String[] descendant)
+    {
+        return path.length < descendant.length && compare(path, Arrays.copyOf(descendant, path.length)) == 0;
+    }
+
+    private String[] readCheckpoint(RepositoryPath startingPath)
+        throws IOException
+    {
+        if (checkpointPath == null || !Files.exists(checkpointPath))
+        {
+            return null;
+        }
+
+        // the starting path of the walk, the operation parameters, and the last completed subtree
+        List<String> lines = Files.readAllLines(checkpointPath, StandardCharsets.UTF_8);
+        if (lines.size() != 3 || !lines.get(0).equals(startingPath.toString()) || !lines.get(1).equals(checkpointKey))
+        {
+            return null;
+        }
+
+        logger.info(String.format("Resuming [%s] in [%s] after [%s].", operation.getClass().getSimpleName(),
+                                  startingPath, lines.get(2)));
+
+        return lines.get(2).split("/");
+    }
+
+    private void writeCheckpoint(RepositoryPath startingPath,
+                                 String[] subtree)
+        throws IOException
+    {
+        if (checkpointPath == null)
+        {
+            return;
+        }
+
+        Files.createDirectories(checkpointPath.getParent());
+
+        // the checkpoint is replaced at once, so that it's never read half written
+        Path tempPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        Files.write(tempPath, Arrays.asList(startingPath.toString(), checkpointKey, String.join("/", subtree)),
+                    StandardCharsets.UTF_8);
+        Files.move(tempPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteCheckpoint()
+        throws IOException
+    {
+        if (checkpointPath != null)
+        {
+            Files.deleteIfExists(checkpointPath);
+        }
+    }
+
+    /**
+     * @return the checkpoint file of the named operation, in the temporary directory of the repository, as a storage
+     *         path, so that it's written bypassing the layout
+     */
+    public static Path resolveCheckpointPath(RepositoryPath repositoryPath,
+                                             String name)
+    {
+        return RepositoryFiles.unwrap(repositoryPath.getFileSystem()
+                                                    .getRootDirectory()
+                                                    .resolve(LayoutFileSystem.TEMP)
+                                                    .resolve(name + CHECKPOINT_EXTENSION));
+    }
+
     public RepositoryPath getStartingPath()
     {
         // The root path
@@ -88,7 +349,48 @@ public class ArtifactDirectoryLocator
         this.basedir = basedir;
     }
 
-    void execute(Path path)
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism)
+    {
+        this.parallelism = parallelism;
+    }
+
+    public int getPartitionDepth()
+    {
+        return partitionDepth;
+    }
+
+    public void setPartitionDepth(int partitionDepth)
+    {
+        this.partitionDepth = partitionDepth;
+    }
+
+    public Path getCheckpointPath()
+    {
+        return checkpointPath;
+    }
+
+    public void setCheckpointPath(Path checkpointPath)
+    {
+        this.checkpointPath = checkpointPath;
+    }
+
+    public String getCheckpointKey()
+    {
+        return checkpointKey;
+    }
+
+    public void setCheckpointKey(String checkpointKey)
+    {
+        this.checkpointKey = checkpointKey != null ? checkpointKey : "";
+    }
+
+    static void execute(ArtifactDirectoryOperation operation,
+                        Path path)
     {
         try
         {
@@ -99,5 +401,172 @@ public class ArtifactDirectoryLocator
             logger.error(String.format("Failed to execute operation [%s]", operation.getClass().getSimpleName()), e);
         }
     }
-    
+
+    /**
+     * Visits the subtrees one after another in the calling thread, with the operation of the locator.
+     */
+    private class SubtreeExecutor
+    {
+
+        protected final RepositoryPath startingPath;
+
+        private SubtreeExecutor(RepositoryPath startingPath)
+        {
+            this.startingPath = startingPath;
+        }
+
+        void submit(RepositoryPath subtreeRoot,
+                    String[] segments)
+            throws IOException
+        {
+            walk(operation, subtreeRoot);
+            writeCheckpoint(startingPath, segments);
+        }
+
+    }
+
+    /**
+     * Visits the subtrees concurrently, with a forked operation each, and records the checkpoint when a subtree and
+     * all the subtrees submitted before it are completed.
+     */
+    private class ParallelSubtreeExecutor
+            extends SubtreeExecutor
+    {
+
+        private final ExecutorService executorService;
+
+        /**
+         * Bounds the number of submitted subtrees, so that the walk doesn't run ahead of the pool.
+         */
+        private final Semaphore permits;
+
+        /**
+         * The subtrees completed out of order, by their submission index.
+         */
+        private final Map<Integer, String[]> completedSubtrees = new HashMap<>();
+
+        private ArtifactDirectoryOperation nextOperation;
+
+        private int submittedCount;
+
+        private int completedCount;
+
+        private Throwable failure;
+
+        private ParallelSubtreeExecutor(RepositoryPath startingPath,
+                                        ExecutorService executorService,
+                                        ArtifactDirectoryOperation forkedOperation)
+        {
+            super(startingPath);
+            this.executorService = executorService;
+            this.permits = new Semaphore(parallelism * 2);
+            this.nextOperation = forkedOperation;
+        }
+
+        @Override
+        void submit(RepositoryPath subtreeRoot,
+                    String[] segments)
+            throws IOException
+        {
+            try
+            {
+                permits.acquire();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(String.format("Interrupted while visiting [%s].", subtreeRoot));
+            }
+
+            ArtifactDirectoryOperation subtreeOperation = nextOperation != null ? nextOperation : operation.fork();
+            nextOperation = null;
+
+            int index = submittedCount++;
+
+            executorService.execute(() -> {
+                boolean completed = false;
+                try
+                {
+                    walk(subtreeOperation, subtreeRoot);
+                    completed = true;
+                }
+                catch (Throwable e)
+                {
+                    logger.error(String.format("Failed to visit [%s].", subtreeRoot), e);
+                    fail(e);
+                }
+                finally
+                {
+                    permits.release();
+                }
+
+                if (completed)
+                {
+                    complete(index, segments);
+                }
+            });
+        }
+
+        private synchronized void fail(Throwable e)
+        {
+            if (failure == null)
+            {
+                failure = e;
+            }
+        }
+
+        private synchronized void complete(int index,
+                                           String[] segments)
+        {
+            completedSubtrees.put(index, segments);
+
+            // a failed subtree is never completed, so the checkpoint stays before it
+            String[] checkpoint = null;
+            while (completedSubtrees.containsKey(completedCount))
+            {
+                checkpoint = completedSubtrees.remove(completedCount++);
+            }
+            if (checkpoint == null)
+            {
+                return;
+            }
+
+            try
+            {
+                writeCheckpoint(startingPath, checkpoint);
+            }
+            catch (IOException e)
+            {
+                logger.warn(String.format("Failed to record the checkpoint of [%s].", startingPath), e);
+            }
+        }
+
+        void await()
+            throws IOException
+        {
+            executorService.shutdown();
+            try
+            {
+                while (!executorService.awaitTermination(1, TimeUnit.MINUTES))
+                {
+                    logger.debug(String.format("Visiting [%s]...", startingPath));
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(String.format("Interrupted while visiting [%s].", startingPath));
+            }
+
+            synchronized (this)
+            {
+                if (failure != null)
+                {
+                    throw new IOException(String.format("Failed to visit [%s].", startingPath), failure);
+                }
+            }
+        }
+
+    }
+
 }
@@ -24,5 +24,16 @@ public interface ArtifactDirectoryOperation
     LinkedHashMap<RepositoryPath, List<RepositoryPath>> getVisitedRootPaths();
 
     RepositoryPath getBasePath();
-    
+
+    /**
+     * Creates an independent copy of this operation, with the same settings and no visited paths, which visits a
+     * subtree concurrently with the other copies.
+     *
+     * @return the copy, or `null` if the operation has to visit the whole tree in a single thread
+     */
+    default ArtifactDirectoryOperation fork()
+    {
+        return null;
+    }
+
 }
@@ -88,6 +88,16 @@ public class ArtifactLocationGenerateChecksumOperation
         provider.storeChecksum(basePath, forceRegeneration);
     }
 
+    @Override
+    public ArtifactLocationGenerateChecksumOperation fork()
+    {
+        ArtifactLocationGenerateChecksumOperation result = new ArtifactLocationGenerateChecksumOperation();
+        result.setBasePath(getBasePath());
+        result.setForceRegeneration(forceRegeneration);
+
+        return result;
+    }
+
     public boolean getForceRegeneration()
     {
         return forceRegeneration;
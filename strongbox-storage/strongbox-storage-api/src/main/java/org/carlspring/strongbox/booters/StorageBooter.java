@@ -17,13 +17,22 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
 /**
  * @author mtodorov
@@ -48,8 +57,16 @@ public class StorageBooter
     @Inject
     private PropertiesBooter propertiesBooter;
 
+    /**
+     * The number of the repositories which are initialized at the same time.
+     */
+    @Value("${strongbox.booter.parallelism:4}")
+    private int parallelism = 4;
+
     private Path lockFile;
 
+    private final AtomicLong repositoriesTimeNanos = new AtomicLong();
+
 
     public StorageBooter()
     {
@@ -64,29 +81,27 @@ public class StorageBooter
         if (!lockExists())
         {
             createLockFile();
-            
+
             final Configuration configuration = configurationManager.getConfiguration();
 
+            long start = System.nanoTime();
+
             initializeStorages(configuration.getStorages());
 
-            Collection<Repository> repositories = getRepositoriesHierarchy(configuration.getStorages());
+            long storagesEnd = System.nanoTime();
 
-            if (!repositories.isEmpty())
-            {
-                logger.info(" -> Initializing repositories...");
-            }
+            int repositories = initializeRepositories(configuration.getStorages());
 
-            for (Repository repository : repositories)
-            {
-                try
-                {
-                    initializeRepository(repository);
-                }
-                catch (IOException e)
-                {
-                    throw new RuntimeException("Failed to initialize the repository '" + repository + "'.", e);
-                }
-            }
+            long end = System.nanoTime();
+
+            logger.info(String.format("Storage booter finished in [%s] ms: storages [%s] ms, [%s] repositories " +
+                                      "[%s] ms (sum of the repository initializations [%s] ms, parallelism [%s]).",
+                                      TimeUnit.NANOSECONDS.toMillis(end - start),
+                                      TimeUnit.NANOSECONDS.toMillis(storagesEnd - start),
+                                      repositories,
+                                      TimeUnit.NANOSECONDS.toMillis(end - storagesEnd),
+                                      TimeUnit.NANOSECONDS.toMillis(repositoriesTimeNanos.get()),
+                                      parallelism));
         }
         else
         {
@@ -148,55 +163,131 @@ public class StorageBooter
         logger.info("  * Initializing " + storage.getId() + "...");
     }
 
-    private void initializeRepository(Repository repository)
-            throws IOException, RepositoryManagementStrategyException
+    /**
+     * Initializes the repositories on a bounded pool. A group repository is initialized after all of its members.
+     *
+     * @return the number of the initialized repositories
+     */
+    private int initializeRepositories(final Map<String, Storage> storages)
+            throws RepositoryManagementStrategyException
     {
-        logger.info("  * Initializing " + repository.getStorage().getId() + ":" + repository.getId() + "...");
-
-        if (layoutProviderRegistry.getProvider(repository.getLayout()) == null)
+        final Map<String, CompletableFuture<Void>> initializations = new LinkedHashMap<>();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread thread = new Thread(r, "storage-booter-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try
         {
-            logger.error(String.format("Failed to resolve layout [%s] for repository [%s].",
-                                       repository.getLayout(),
-                                       repository.getId()));
-            return;
-        }
+            for (final Storage storage : storages.values())
+            {
+                for (final Repository repository : storage.getRepositories().values())
+                {
+                    scheduleInitialization(repository, initializations, new HashSet<>(), executor);
+                }
+            }
 
-        repositoryManagementService.createRepository(repository.getStorage().getId(), repository.getId());
+            if (!initializations.isEmpty())
+            {
+                logger.info(" -> Initializing repositories...");
+            }
 
-        if (RepositoryStatusEnum.IN_SERVICE.getStatus().equals(repository.getStatus()))
+            CompletableFuture.allOf(initializations.values().toArray(new CompletableFuture[0])).join();
+        }
+        catch (CompletionException e)
         {
-            repositoryManagementService.putInService(repository.getStorage().getId(), repository.getId());
+            if (e.getCause() instanceof RepositoryManagementStrategyException)
+            {
+                throw (RepositoryManagementStrategyException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
         }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return initializations.size();
     }
 
-    private Collection<Repository> getRepositoriesHierarchy(final Map<String, Storage> storages)
+    private CompletableFuture<Void> scheduleInitialization(final Repository repository,
+                                                           final Map<String, CompletableFuture<Void>> initializations,
+                                                           final Set<String> path,
+                                                           final ExecutorService executor)
     {
-        final Map<String, Repository> repositoriesHierarchy = new LinkedHashMap<>();
-        for (final Storage storage : storages.values())
+        final String key = repository.getStorage().getId() + ":" + repository.getId();
+
+        CompletableFuture<Void> result = initializations.get(key);
+        if (result != null)
+        {
+            return result;
+        }
+
+        CompletableFuture<?>[] members = new CompletableFuture[0];
+        if (repository.isGroupRepository())
         {
-            for (final Repository repository : storage.getRepositories().values())
+            path.add(key);
+            members = groupRepositorySetCollector.collect(repository)
+                                                 .stream()
+                                                 .filter(m -> !path.contains(m.getStorage().getId() + ":" + m.getId()))
+                                                 .map(m -> scheduleInitialization(m, initializations, path, executor))
+                                                 .toArray(CompletableFuture[]::new);
+            path.remove(key);
+        }
+
+        result = CompletableFuture.allOf(members).thenRunAsync(() -> {
+            try
             {
-                addRepositoriesByChildrenFirst(repositoriesHierarchy, repository);
+                initializeRepository(repository);
             }
-        }
+            catch (IOException e)
+            {
+                throw new RuntimeException("Failed to initialize the repository '" + repository + "'.", e);
+            }
+            catch (RepositoryManagementStrategyException e)
+            {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        initializations.put(key, result);
 
-        return repositoriesHierarchy.values();
+        return result;
     }
 
-    private void addRepositoriesByChildrenFirst(final Map<String, Repository> repositoriesHierarchy,
-                                                final Repository repository)
+    private void initializeRepository(Repository repository)
+            throws IOException, RepositoryManagementStrategyException
     {
-        if (!repository.isGroupRepository())
-        {
-            repositoriesHierarchy.putIfAbsent(repository.getId(), repository);
+        logger.info("  * Initializing " + repository.getStorage().getId() + ":" + repository.getId() + "...");
 
+        if (layoutProviderRegistry.getProvider(repository.getLayout()) == null)
+        {
+            logger.error(String.format("Failed to resolve layout [%s] for repository [%s].",
+                                       repository.getLayout(),
+                                       repository.getId()));
             return;
         }
 
-        groupRepositorySetCollector.collect(repository, true)
-                                   .stream().forEach(r -> addRepositoriesByChildrenFirst(repositoriesHierarchy, r));
+        long start = System.nanoTime();
+
+        repositoryManagementService.createRepository(repository.getStorage().getId(), repository.getId());
+
+        if (RepositoryStatusEnum.IN_SERVICE.getStatus().equals(repository.getStatus()))
+        {
+            repositoryManagementService.putInService(repository.getStorage().getId(), repository.getId());
+        }
+
+        long time = System.nanoTime() - start;
+        repositoriesTimeNanos.addAndGet(time);
 
-        repositoriesHierarchy.putIfAbsent(repository.getId(), repository);
+        logger.debug("  * Initialized " + repository.getStorage().getId() + ":" + repository.getId() + " in [" +
+                     TimeUnit.NANOSECONDS.toMillis(time) + "] ms.");
     }
 
     public RepositoryManagementService getRepositoryManagementService()
@@ -2,13 +2,18 @@ package org.carlspring.strongbox.config;
 
 import org.carlspring.strongbox.booters.StorageBooter;
 import org.carlspring.strongbox.booters.TempDirBooter;
+import org.carlspring.strongbox.config.hazelcast.HazelcastConfiguration;
+import org.carlspring.strongbox.data.CacheName;
 import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
 import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
 
 import javax.inject.Inject;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import com.hazelcast.core.HazelcastInstance;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -34,12 +39,24 @@ public class StorageApiConfig
     @Inject
     private List<ArtifactCoordinatesValidator> versionValidators;
 
+    /**
+     * With `strongbox.checksumCache.clustered` the checksums are shared between the cluster nodes, their lifetime
+     * and size bound are applied by {@link HazelcastConfiguration#checksumCacheConfig(String, int, int)} then.
+     */
     @Bean
-    ChecksumCacheManager checksumCacheManager()
+    ChecksumCacheManager checksumCacheManager(HazelcastInstance hazelcastInstance,
+                                              @Value("${strongbox.checksumCache.clustered:false}") boolean clustered,
+                                              @Value("${strongbox.checksumCache.maxSize:10000}") long maxSize,
+                                              @Value("${strongbox.checksumCache.lifetimeSeconds:60}") long lifetimeSeconds)
     {
+        if (clustered)
+        {
+            return new ChecksumCacheManager(hazelcastInstance.getMap(CacheName.Artifact.CHECKSUMS));
+        }
+
         ChecksumCacheManager checksumCacheManager = new ChecksumCacheManager();
-        checksumCacheManager.setCachedChecksumExpiredCheckInterval(300000);
-        checksumCacheManager.setCachedChecksumLifetime(60000);
+        checksumCacheManager.setCachedChecksumLifetime(TimeUnit.SECONDS.toMillis(lifetimeSeconds));
+        checksumCacheManager.setMaxSize(maxSize);
 
         return checksumCacheManager;
     }
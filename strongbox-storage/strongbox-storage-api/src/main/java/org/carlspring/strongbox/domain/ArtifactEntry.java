@@ -10,6 +10,7 @@ import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.OneToOne;
 import javax.persistence.Transient;
 import java.util.Date;
 import java.util.HashSet;
@@ -37,6 +38,12 @@ public class ArtifactEntry
                            CascadeType.REFRESH })
     private AbstractArtifactCoordinates artifactCoordinates;
 
+    /**
+     * Lower-cased `name=value` pairs of the {@link #artifactCoordinates}, populated on save so that the coordinate
+     * queries can use the `(storageId, repositoryId, coordinateTokens)` index.
+     */
+    private Set<String> coordinateTokens;
+
     @ManyToMany(targetEntity = ArtifactTagEntry.class)
     private Set<ArtifactTag> tagSet;
 
@@ -45,6 +52,12 @@ public class ArtifactEntry
     @Embedded
     private ArtifactArchiveListing artifactArchiveListing;
 
+    @OneToOne(cascade = { CascadeType.DETACH,
+                          CascadeType.MERGE,
+                          CascadeType.PERSIST,
+                          CascadeType.REFRESH })
+    private ArtifactMetadata artifactMetadata;
+
     private Long sizeInBytes;
 
     private Date lastUpdated;
@@ -89,6 +102,16 @@ public class ArtifactEntry
         this.artifactCoordinates = (AbstractArtifactCoordinates) artifactCoordinates;
     }
 
+    public Set<String> getCoordinateTokens()
+    {
+        return coordinateTokens = Optional.ofNullable(coordinateTokens).orElse(new HashSet<>());
+    }
+
+    public void setCoordinateTokens(Set<String> coordinateTokens)
+    {
+        this.coordinateTokens = coordinateTokens;
+    }
+
     public Set<ArtifactTag> getTagSet()
     {
         return tagSet = Optional.ofNullable(tagSet).orElse(new HashSet<>());
@@ -169,6 +192,16 @@ public class ArtifactEntry
         this.artifactArchiveListing = artifactArchiveListing;
     }
 
+    public ArtifactMetadata getArtifactMetadata()
+    {
+        return artifactMetadata;
+    }
+
+    public void setArtifactMetadata(ArtifactMetadata artifactMetadata)
+    {
+        this.artifactMetadata = artifactMetadata;
+    }
+
     @Transient
     public String getArtifactPath()
     {
@@ -189,6 +222,7 @@ public class ArtifactEntry
         sb.append(", objectId='").append(objectId).append('\'');
         sb.append(", uuid='").append(uuid).append('\'');
         sb.append(", artifactArchiveListing=").append(artifactArchiveListing);
+        sb.append(", artifactMetadata=").append(artifactMetadata);
         sb.append(", entityVersion=").append(entityVersion);
         sb.append(", sizeInBytes=").append(sizeInBytes);
         sb.append(", lastUpdated=").append(lastUpdated);
@@ -2,11 +2,16 @@ package org.carlspring.strongbox.domain;
 
 import org.carlspring.strongbox.data.domain.GenericEntity;
 
+import javax.persistence.Entity;
 import java.io.Serializable;
 
 /**
+ * Layout specific artifact metadata, like the package descriptor fields, extracted once when the artifact is stored
+ * so that it can be served without reading the artifact file.
+ *
  * @author carlspring
  */
+@Entity
 public class ArtifactMetadata extends GenericEntity
         implements Serializable
 {
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.util.Arrays;
@@ -152,6 +153,15 @@ public abstract class RepositoryFiles
         return p.getFileSystem().provider().getTrashPath(p);
     }
 
+    /**
+     * @return the path in the storage file system, which is read and written bypassing the layout (checksums,
+     *         artifact events, trash)
+     */
+    public static Path unwrap(RepositoryPath p)
+    {
+        return p.getTarget();
+    }
+
     public static String relativizePath(RepositoryPath p)
             throws IOException
     {
@@ -2,14 +2,18 @@ package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.GroupRepositoryIndex;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Component;
 
@@ -29,13 +33,41 @@ public class RepositoryPathResolver
     @Inject
     protected RepositoryFileSystemRegistry fileSystemRegistry;
 
+    /**
+     * `storageId:repositoryId` to the {@link LayoutFileSystem} created for the {@link Repository} instance.
+     * <p>
+     * The {@link Repository} instances of a configuration snapshot are immutable, so a file system is reused only for
+     * the very same instance, and the configuration changes, which publish new instances, replace it.
+     */
+    private final Map<String, LayoutFileSystem> fileSystems = new ConcurrentHashMap<>();
+
     public RootRepositoryPath resolve(final Repository repository)
     {
         Objects.requireNonNull(repository, "Repository should be provided");
 
+        return resolveFileSystem(repository).getRootDirectory();
+    }
+
+    private LayoutFileSystem resolveFileSystem(final Repository repository)
+    {
         LayoutFileSystemFactory fileSystemFactory = fileSystemRegistry.lookupRepositoryFileSystemFactory(repository);
+        if (!(repository instanceof ImmutableRepository))
+        {
+            return fileSystemFactory.create(repository);
+        }
+
+        String key = GroupRepositoryIndex.key(repository);
+
+        LayoutFileSystem fileSystem = fileSystems.get(key);
+        if (fileSystem != null && fileSystem.getRepository() == repository)
+        {
+            return fileSystem;
+        }
+
+        fileSystem = fileSystemFactory.create(repository);
+        fileSystems.put(key, fileSystem);
 
-        return fileSystemFactory.create(repository).getRootDirectory();
+        return fileSystem;
     }
 
     public RepositoryPath resolve(String storageId,
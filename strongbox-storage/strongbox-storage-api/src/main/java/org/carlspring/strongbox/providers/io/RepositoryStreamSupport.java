@@ -3,7 +3,11 @@ package org.carlspring.strongbox.providers.io;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -203,6 +207,65 @@ public abstract class RepositoryStreamSupport implements RepositoryStreamCallbac
             open();
         }
 
+        /**
+         * @return `true` if the file can be read with {@link #transferTo(WritableByteChannel)}
+         */
+        public boolean isTransferable()
+        {
+            RepositoryPath path = (RepositoryPath) getContext().getPath();
+
+            return path.getTarget().getFileSystem() == FileSystems.getDefault();
+        }
+
+        /**
+         * Writes the whole file into given channel with {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+         * bypassing the decorated stream. The path lock and read callbacks are the same as for regular reads, so the
+         * stream still needs to be closed afterwards.
+         * <p>
+         * The transfer stops early if the channel accepts no bytes, so the caller should compare the returned number of
+         * bytes with the expected length.
+         *
+         * @return number of bytes transferred
+         */
+        public long transferTo(WritableByteChannel target)
+            throws IOException
+        {
+            return transferTo(target, 0, Long.MAX_VALUE);
+        }
+
+        /**
+         * Same as {@link #transferTo(WritableByteChannel)}, but only for the given region of the file, which is read
+         * with positional reads, so the regions can be requested in any order.
+         *
+         * @return number of bytes transferred
+         */
+        public long transferTo(WritableByteChannel target,
+                               long position,
+                               long count)
+            throws IOException
+        {
+            open();
+
+            RepositoryPath path = (RepositoryPath) getContext().getPath();
+            try (FileChannel channel = FileChannel.open(path.getTarget(), StandardOpenOption.READ))
+            {
+                long end = Math.min(channel.size(), position + Math.min(count, Long.MAX_VALUE - position));
+                long current = position;
+                while (current < end)
+                {
+                    long transferred = channel.transferTo(current, end - current, target);
+                    if (transferred <= 0)
+                    {
+                        // The file was truncated, or the target doesn't accept more bytes.
+                        break;
+                    }
+                    current += transferred;
+                }
+
+                return current - position;
+            }
+        }
+
         @Override
         public void close()
             throws IOException
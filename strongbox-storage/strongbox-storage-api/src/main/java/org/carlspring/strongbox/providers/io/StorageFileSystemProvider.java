@@ -604,12 +604,18 @@ public abstract class StorageFileSystemProvider
         }
     }
 
-    
-    private class TempOutputStream extends ProxyOutputStream
+
+    /**
+     * Writes into the {@link TempRepositoryPath} and moves it into the original location once closed, unless the
+     * write has been discarded.
+     */
+    public class TempOutputStream extends ProxyOutputStream
     {
 
         private TempRepositoryPath path;
 
+        private boolean discarded;
+
         public TempOutputStream(TempRepositoryPath path,
                                 OpenOption... options)
             throws IOException
@@ -619,6 +625,15 @@ public abstract class StorageFileSystemProvider
             this.path = path;
         }
 
+        /**
+         * Marks the write as failed, so that the temporary file is removed on close instead of replacing the original
+         * one.
+         */
+        public void discard()
+        {
+            discarded = true;
+        }
+
         @Override
         public void close()
             throws IOException
@@ -627,8 +642,11 @@ public abstract class StorageFileSystemProvider
 
             try
             {
-                moveFromTemporaryDirectory(path);
-            } 
+                if (!discarded)
+                {
+                    moveFromTemporaryDirectory(path);
+                }
+            }
             finally
             {
                 if (Files.exists(path))
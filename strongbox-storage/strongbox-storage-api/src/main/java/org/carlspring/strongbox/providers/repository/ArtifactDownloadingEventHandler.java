@@ -1,32 +1,59 @@
 package org.carlspring.strongbox.providers.repository;
 
 import java.io.IOException;
-import java.util.Date;
 
-import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler;
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsAccumulator;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
 import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+/**
+ * Counts artifact downloads with {@link ArtifactDownloadStatisticsAccumulator}, which writes them into the database
+ * in batches, so there is no {@link ArtifactEntry} lock or transaction per download.
+ */
 @Component
-public class ArtifactDownloadingEventHandler extends AsyncArtifactEntryHandler
+public class ArtifactDownloadingEventHandler
 {
 
-    public ArtifactDownloadingEventHandler()
-    {
-        super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING);
-    }
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDownloadingEventHandler.class);
+
+    @Inject
+    private ArtifactDownloadStatisticsAccumulator artifactDownloadStatisticsAccumulator;
 
-    @Override
-    protected ArtifactEntry handleEvent(RepositoryPath repositoryPath) throws IOException
+    @AsyncEventListener
+    public void handleEvent(final ArtifactEvent<RepositoryPath> event)
+        throws IOException
     {
+        if (ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING.getType() != event.getType())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = (RepositoryPath) event.getPath();
+        if (!RepositoryFiles.isArtifact(repositoryPath))
+        {
+            return;
+        }
+
         ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
-        
-        artifactEntry.setDownloadCount(artifactEntry.getDownloadCount() + 1);
-        artifactEntry.setLastUsed(new Date());
+        if (artifactEntry == null)
+        {
+            logger.warn(String.format("No [%s] for [%s].",
+                                      ArtifactEntry.class.getSimpleName(),
+                                      repositoryPath));
+
+            return;
+        }
 
-        return artifactEntry;
+        artifactDownloadStatisticsAccumulator.record(artifactEntry.getUuid());
     }
 
 }
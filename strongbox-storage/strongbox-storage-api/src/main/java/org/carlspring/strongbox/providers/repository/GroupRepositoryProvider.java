@@ -6,6 +6,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
@@ -20,6 +22,7 @@ import javax.persistence.PersistenceContext;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationUtils;
+import org.carlspring.strongbox.data.criteria.InvalidCursorException;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
@@ -31,10 +34,15 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryPathCache;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryStreamThrough;
 import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -50,6 +58,8 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
 
     private static final String ALIAS = "group";
 
+    private static final char CURSOR_SEPARATOR = '|';
+
     @Inject
     private ArtifactRoutingRulesChecker artifactRoutingRulesChecker;
 
@@ -58,6 +68,12 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
 
     @Inject
     private GroupRepositorySetCollector groupRepositorySetCollector;
+
+    @Inject
+    private GroupRepositoryPathCache groupRepositoryPathCache;
+
+    @Inject
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -88,11 +104,70 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
         {
             return result;
         }
-        
-        return resolvePathTraversal(repositoryPath);
+
+        GroupRepositoryPathCache.Lookup lookup = groupRepositoryPathCache.lookup(repositoryPath);
+        if (lookup.isNotFound())
+        {
+            return null;
+        }
+
+        Traversal traversal = new Traversal();
+        if (lookup.isResolved())
+        {
+            result = resolvePathFromCachedMember(repositoryPath, lookup.getMemberKey(), traversal);
+            if (result != null)
+            {
+                return result;
+            }
+
+            groupRepositoryPathCache.evict(repositoryPath);
+        }
+
+        result = resolvePathTraversal(repositoryPath, traversal);
+        if (result == null && traversal.isIncomplete())
+        {
+            // A member might have the path, but couldn't tell: it's missing for now, not for the negative TTL.
+            logger.debug(String.format("Not caching [%s] as not found, a member failed to resolve it.",
+                                       repositoryPath));
+        }
+        else if (result == null)
+        {
+            groupRepositoryPathCache.putNotFound(repositoryPath, lookup);
+        }
+        else
+        {
+            groupRepositoryPathCache.putResolved(repositoryPath, result.getRepository(), lookup);
+        }
+
+        return result;
+    }
+
+    private RepositoryPath resolvePathFromCachedMember(RepositoryPath repositoryPath,
+                                                       String memberKey,
+                                                       Traversal traversal)
+        throws IOException
+    {
+        String storageId = repositoryPath.getRepository().getStorage().getId();
+        Storage storage = getConfiguration().getStorage(ConfigurationUtils.getStorageId(storageId, memberKey));
+        Repository member = storage == null ? null
+                : storage.getRepository(ConfigurationUtils.getRepositoryId(memberKey));
+        if (member == null || !member.isInService())
+        {
+            return null;
+        }
+
+        return resolvePathFromGroupMemberOrTraverse(repositoryPathResolver.resolve(member, repositoryPath),
+                                                    traversal);
     }
     
     protected RepositoryPath resolvePathTraversal(RepositoryPath repositoryPath) throws IOException
+    {
+        return resolvePathTraversal(repositoryPath, new Traversal());
+    }
+
+    private RepositoryPath resolvePathTraversal(RepositoryPath repositoryPath,
+                                                Traversal traversal)
+        throws IOException
     {
         Repository groupRepository = repositoryPath.getRepository();
         Storage storage = groupRepository.getStorage();
@@ -114,7 +189,7 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
                 continue;
             }
             
-            result = resolvePathFromGroupMemberOrTraverse(result);
+            result = resolvePathFromGroupMemberOrTraverse(result, traversal);
             if (result == null)
             {
                 continue;
@@ -138,23 +213,58 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
 
     protected RepositoryPath resolvePathFromGroupMemberOrTraverse(RepositoryPath repositoryPath)
         throws IOException
+    {
+        return resolvePathFromGroupMemberOrTraverse(repositoryPath, new Traversal());
+    }
+
+    private RepositoryPath resolvePathFromGroupMemberOrTraverse(RepositoryPath repositoryPath,
+                                                                Traversal traversal)
+        throws IOException
     {
         Repository repository = repositoryPath.getRepository();
         if (getAlias().equals(repository.getType()))
         {
-            return resolvePathTraversal(repositoryPath);
+            return resolvePathTraversal(repositoryPath, traversal);
         }
         
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
+        RepositoryPath result;
         try
         {
-            return (RepositoryPath) provider.fetchPath(repositoryPath);
+            result = (RepositoryPath) provider.fetchPath(repositoryPath);
         }
         catch (IOException e)
         {
             logger.error(String.format("Failed to resolve path [%s]", repositoryPath));
+            if (ProxyRepositoryStreamThrough.isStarted())
+            {
+                // The member has already written a part of the response, another member can't complete it.
+                throw e;
+            }
+
+            traversal.setIncomplete();
+
             return null;
         }
+
+        if (result == null && isRemoteDown(repository))
+        {
+            traversal.setIncomplete();
+        }
+
+        return result;
+    }
+
+    private boolean isRemoteDown(Repository repository)
+    {
+        if (!repository.isProxyRepository())
+        {
+            return false;
+        }
+
+        RemoteRepository remoteRepository = ((ImmutableRepository) repository).getRemoteRepository();
+
+        return remoteRepository != null && !remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository);
     }
 
     @Override
@@ -186,6 +296,11 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
             return new LinkedList<>();
         }
 
+        if (paginator.isCursorPaging())
+        {
+            return searchByCursor(new ArrayList<>(groupRepositorySet), predicate, paginator);
+        }
+
         int skip = paginator.getSkip();
         int limit = paginator.getLimit();
 
@@ -248,6 +363,108 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
         return resultList.subList(skip, toIndex);
     }
 
+    /**
+     * Pages through the group members one after another, each one from its own cursor, so no member is re-queried
+     * from the start. The group cursor is the current member with its cursor. The artifacts which are also in a
+     * preceding member are served by that member, so they are left out.
+     */
+    private List<Path> searchByCursor(List<Repository> groupRepositories,
+                                      Predicate predicate,
+                                      Paginator paginator)
+    {
+        int limit = paginator.getLimit();
+
+        int memberIndex = 0;
+        String memberCursor = Paginator.FIRST_PAGE_CURSOR;
+
+        String cursor = paginator.getCursorValue();
+        if (cursor != null)
+        {
+            int separatorIndex = cursor.indexOf(CURSOR_SEPARATOR);
+            if (separatorIndex < 0)
+            {
+                throw new InvalidCursorException(paginator.getCursor());
+            }
+            String memberId = cursor.substring(0, separatorIndex);
+
+            memberIndex = IntStream.range(0, groupRepositories.size())
+                                   .filter(i -> memberId.equals(getMemberId(groupRepositories.get(i))))
+                                   .findFirst()
+                                   // the member has been removed from the group since the cursor was returned
+                                   .orElseThrow(() -> new InvalidCursorException(paginator.getCursor()));
+            memberCursor = cursor.substring(separatorIndex + 1);
+        }
+
+        Map<ArtifactCoordinates, Path> resultMap = new LinkedHashMap<>();
+        String nextCursor = null;
+
+        for (int i = memberIndex; i < groupRepositories.size() && resultMap.size() < limit; i++)
+        {
+            Repository r = groupRepositories.get(i);
+            RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(r.getType());
+            List<Repository> precedingRepositories = groupRepositories.subList(0, i);
+
+            do
+            {
+                Paginator paginatorLocal = new Paginator();
+                paginatorLocal.setCursor(memberCursor);
+                paginatorLocal.setLimit(limit - resultMap.size());
+
+                for (Path p : repositoryProvider.search(r.getStorage().getId(), r.getId(), predicate, paginatorLocal))
+                {
+                    if (!existsInAny(precedingRepositories, (RepositoryPath) p))
+                    {
+                        resultMap.putIfAbsent(getArtifactCoordinates(p), p);
+                    }
+                }
+
+                memberCursor = paginatorLocal.getNextCursor();
+            }
+            while (memberCursor != null && resultMap.size() < limit);
+
+            if (memberCursor != null)
+            {
+                nextCursor = getMemberId(r) + CURSOR_SEPARATOR + memberCursor;
+            }
+            else if (resultMap.size() >= limit && i + 1 < groupRepositories.size())
+            {
+                nextCursor = getMemberId(groupRepositories.get(i + 1)) + CURSOR_SEPARATOR;
+            }
+
+            memberCursor = Paginator.FIRST_PAGE_CURSOR;
+        }
+
+        paginator.setNextCursor(nextCursor != null ? Paginator.encodeCursor(nextCursor) : null);
+
+        return new LinkedList<>(resultMap.values());
+    }
+
+    private String getMemberId(Repository repository)
+    {
+        return repository.getStorage().getId() + ":" + repository.getId();
+    }
+
+    private boolean existsInAny(List<Repository> repositories,
+                                RepositoryPath path)
+    {
+        try
+        {
+            for (Repository repository : repositories)
+            {
+                if (RepositoryFiles.artifactExists(repositoryPathResolver.resolve(repository, path)))
+                {
+                    return true;
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(String.format("Failed to resolve [%s]", path), e);
+        }
+
+        return false;
+    }
+
     private ArtifactCoordinates getArtifactCoordinates(Path p)
     {
         try
@@ -289,4 +506,25 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
     }
 
     
+    /**
+     * The state of a member traversal: whether any member failed to resolve the path, or couldn't ask its remote
+     * repository, so that the path not being found doesn't mean it's missing from the group.
+     */
+    private static class Traversal
+    {
+
+        private boolean incomplete;
+
+        boolean isIncomplete()
+        {
+            return incomplete;
+        }
+
+        void setIncomplete()
+        {
+            incomplete = true;
+        }
+
+    }
+
 }
@@ -20,6 +20,7 @@ import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryTemplate;
 import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.AbstractRepositoryProvider;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
@@ -44,6 +45,11 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
 
     private static final String ALIAS = "hosted";
 
+    /**
+     * The {@link Paginator#getCursorProperty()} of the search, the last field of the `idx_artifact` index.
+     */
+    static final String CURSOR_PROPERTY = "artifactCoordinates";
+
     @PersistenceContext
     private EntityManager entityManager;
     
@@ -94,6 +100,12 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
         Storage storage = configurationManager.getConfiguration().getStorage(storageId);
         Repository repository = storage.getRepository(repositoryId);
         
+        if (paginator != null && paginator.isCursorPaging())
+        {
+            // the pages are read as ranges of the `(storageId, repositoryId, artifactCoordinates)` index
+            paginator.setCursorProperty(CURSOR_PROPERTY);
+        }
+
         Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).with(paginator).fetch();
         
         QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(entityManager);
@@ -114,10 +126,21 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
                 continue;
             }
         }
+
+        if (paginator != null && paginator.isCursorPaging())
+        {
+            paginator.setNextCursor(searchResult.size() < paginator.getLimit() ? null :
+                                    Paginator.encodeCursor(getCursorValue(searchResult.get(searchResult.size() - 1))));
+        }
         
         return result;
     }
 
+    private String getCursorValue(ArtifactEntry artifactEntry)
+    {
+        return ((GenericEntity) artifactEntry.getArtifactCoordinates()).getObjectId();
+    }
+
     @Override
     public Long count(String storageId,
                       String repositoryId,
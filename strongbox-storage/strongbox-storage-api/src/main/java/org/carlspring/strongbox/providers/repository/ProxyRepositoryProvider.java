@@ -8,7 +8,6 @@ import org.carlspring.strongbox.domain.RemoteArtifactEntry;
 import org.carlspring.strongbox.providers.io.AbstractRepositoryProvider;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
@@ -20,8 +19,6 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,9 +43,6 @@ public class ProxyRepositoryProvider
     @Inject
     private HostedRepositoryProvider hostedRepositoryProvider;
 
-    @Inject
-    private RepositoryPathLock repositoryPathLock;
-
     @Override
     public String getAlias()
     {
@@ -80,25 +74,18 @@ public class ProxyRepositoryProvider
         return targetPath;
     }
 
+    /**
+     * Concurrent requests for the same missing path are coalesced by the {@link ProxyRepositoryArtifactResolver}, so
+     * that only one of them downloads it. That one checks the local cache again before the download, because things
+     * might have changed since the first check.
+     */
     private RepositoryPath resolvePathExclusive(RepositoryPath repositoryPath)
             throws IOException
     {
-
-        ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "pre-remote-fetch");
-        Lock lock = lockSource.writeLock();
-        lock.lock();
-
         try
         {
-            // This is the second attempt, but this time inside exclusive write lock
-            // Things might have changed.
-            RepositoryPath targetPath = hostedRepositoryProvider.fetchPath(repositoryPath);
-            if (targetPath != null)
-            {
-                return targetPath;
-
-            }
-            return proxyRepositoryArtifactResolver.fetchRemoteResource(repositoryPath);
+            return proxyRepositoryArtifactResolver.fetchRemoteResourceIfMissing(repositoryPath,
+                                                                                hostedRepositoryProvider::fetchPath);
         }
         catch (IOException e)
         {
@@ -107,10 +94,6 @@ public class ProxyRepositoryProvider
 
             throw e;
         }
-        finally
-        {
-            lock.unlock();
-        }
     }
 
     @Override
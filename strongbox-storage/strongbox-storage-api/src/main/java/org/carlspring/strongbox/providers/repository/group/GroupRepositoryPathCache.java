@@ -0,0 +1,353 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.GroupRepositoryIndex;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which member of a group repository a path was resolved from, and which paths were not found in any of
+ * the members, so that {@link org.carlspring.strongbox.providers.repository.GroupRepositoryProvider} doesn't need to
+ * walk through all the members for every request.
+ * <p>
+ * Entries are evicted for all the groups containing a repository when a path is stored into or deleted from it, and
+ * all entries are dropped when the {@link Configuration} changes. Negative entries have their own, usually shorter,
+ * lifetime because proxy members can start serving a path without any local event.
+ * <p>
+ * A {@link Lookup} carries the invalidation generation of its key, and the result of the member traversal which
+ * followed it is only cached when no invalidation of that key happened in between, so that a path stored while the
+ * members were being walked isn't remembered as missing.
+ */
+@Component
+public class GroupRepositoryPathCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupRepositoryPathCache.class);
+
+    /**
+     * Events after which a path may appear in, or disappear from, a group member.
+     */
+    private static final Set<Integer> INVALIDATING_EVENT_TYPES = ImmutableSet.of(
+            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType(),
+            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType(),
+            ArtifactEventTypeEnum.EVENT_ARTIFACT_METADATA_STORED.getType(),
+            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE.getType(),
+            ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType());
+
+    /**
+     * Number of the invalidation generation stripes, must be a power of two.
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Value("${strongbox.group.pathCache.maxSize:100000}")
+    private long maxSize;
+
+    @Value("${strongbox.group.pathCache.ttlSeconds:300}")
+    private long ttlSeconds;
+
+    @Value("${strongbox.group.pathCache.negativeTtlSeconds:60}")
+    private long negativeTtlSeconds;
+
+    /**
+     * `storageId:groupRepositoryId:path` to `storageId:repositoryId` of the member the path was resolved from.
+     */
+    private Cache<String, String> resolvedPaths;
+
+    /**
+     * `storageId:groupRepositoryId:path` of the paths which were not found in any of the members.
+     */
+    private Cache<String, Boolean> notFoundPaths;
+
+    private volatile long configurationVersion = -1;
+
+    /**
+     * Incremented before the entries of the keys of a stripe are invalidated.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * Incremented before all the entries are invalidated.
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder negativeHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    @PostConstruct
+    public void init()
+    {
+        resolvedPaths = CacheBuilder.newBuilder()
+                                    .maximumSize(maxSize)
+                                    .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                                    .build();
+        notFoundPaths = CacheBuilder.newBuilder()
+                                    .maximumSize(maxSize)
+                                    .expireAfterWrite(negativeTtlSeconds, TimeUnit.SECONDS)
+                                    .build();
+    }
+
+    public Lookup lookup(RepositoryPath groupRepositoryPath)
+        throws IOException
+    {
+        checkConfigurationVersion();
+
+        String key = key(groupRepositoryPath.getRepository(), RepositoryFiles.relativizePath(groupRepositoryPath));
+        // Read before the entries, so that an invalidation racing with this lookup makes the generation stale.
+        long generation = generation(key);
+        if (notFoundPaths.getIfPresent(key) != null)
+        {
+            negativeHits.increment();
+
+            return Lookup.NOT_FOUND;
+        }
+
+        String memberKey = resolvedPaths.getIfPresent(key);
+        if (memberKey == null)
+        {
+            misses.increment();
+
+            return new Lookup(null, generation);
+        }
+
+        hits.increment();
+
+        return new Lookup(memberKey, generation);
+    }
+
+    /**
+     * Caches the member which the path was resolved from, unless the path was invalidated after the `lookup`.
+     */
+    public void putResolved(RepositoryPath groupRepositoryPath,
+                            Repository member,
+                            Lookup lookup)
+        throws IOException
+    {
+        String key = key(groupRepositoryPath.getRepository(), RepositoryFiles.relativizePath(groupRepositoryPath));
+        if (generation(key) != lookup.getGeneration())
+        {
+            return;
+        }
+
+        notFoundPaths.invalidate(key);
+        resolvedPaths.put(key, GroupRepositoryIndex.key(member));
+
+        // The invalidation could have happened between the check and the put, while missing the new entry.
+        if (generation(key) != lookup.getGeneration())
+        {
+            resolvedPaths.invalidate(key);
+        }
+    }
+
+    /**
+     * Caches that the path is missing in all the members, unless the path was invalidated after the `lookup`.
+     */
+    public void putNotFound(RepositoryPath groupRepositoryPath,
+                            Lookup lookup)
+        throws IOException
+    {
+        String key = key(groupRepositoryPath.getRepository(), RepositoryFiles.relativizePath(groupRepositoryPath));
+        if (generation(key) != lookup.getGeneration())
+        {
+            return;
+        }
+
+        resolvedPaths.invalidate(key);
+        notFoundPaths.put(key, Boolean.TRUE);
+
+        // The invalidation could have happened between the check and the put, while missing the new entry.
+        if (generation(key) != lookup.getGeneration())
+        {
+            notFoundPaths.invalidate(key);
+        }
+    }
+
+    public void evict(RepositoryPath groupRepositoryPath)
+        throws IOException
+    {
+        String key = key(groupRepositoryPath.getRepository(), RepositoryFiles.relativizePath(groupRepositoryPath));
+        resolvedPaths.invalidate(key);
+        notFoundPaths.invalidate(key);
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (!INVALIDATING_EVENT_TYPES.contains(event.getType()))
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = event.getPath();
+        Repository repository = repositoryPath.getRepository();
+        String path;
+        try
+        {
+            path = RepositoryFiles.relativizePath(repositoryPath);
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to resolve path [%s], drop all cached group paths.", repositoryPath), e);
+
+            invalidateAll();
+            invalidations.increment();
+
+            return;
+        }
+
+        for (Repository group : configurationManager.getConfiguration()
+                                                    .getGroupRepositoryIndex()
+                                                    .getTransitiveParents(repository.getStorage().getId(),
+                                                                          repository.getId()))
+        {
+            String key = key(group, path);
+            generations.incrementAndGet(stripe(key));
+            resolvedPaths.invalidate(key);
+            notFoundPaths.invalidate(key);
+        }
+
+        invalidations.increment();
+    }
+
+    private void checkConfigurationVersion()
+    {
+        long currentVersion = configurationManager.getConfiguration().getSnapshotVersion();
+        if (currentVersion == configurationVersion)
+        {
+            return;
+        }
+
+        synchronized (this)
+        {
+            if (currentVersion == configurationVersion)
+            {
+                return;
+            }
+
+            invalidateAll();
+            configurationVersion = currentVersion;
+        }
+    }
+
+    private void invalidateAll()
+    {
+        epoch.incrementAndGet();
+        resolvedPaths.invalidateAll();
+        notFoundPaths.invalidateAll();
+    }
+
+    private long generation(String key)
+    {
+        // Both counters only grow, so the sum changes whenever either of them does.
+        return epoch.get() + generations.get(stripe(key));
+    }
+
+    private int stripe(String key)
+    {
+        int hash = key.hashCode();
+
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private String key(Repository groupRepository,
+                       String path)
+    {
+        return GroupRepositoryIndex.key(groupRepository) + ":" + path;
+    }
+
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    public long getNegativeHits()
+    {
+        return negativeHits.sum();
+    }
+
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    public long getInvalidations()
+    {
+        return invalidations.sum();
+    }
+
+    public long getSize()
+    {
+        return resolvedPaths.size() + notFoundPaths.size();
+    }
+
+    public static class Lookup
+    {
+
+        public static final Lookup NOT_FOUND = new Lookup(null, -1);
+
+        private final String memberKey;
+
+        private final long generation;
+
+        private Lookup(String memberKey,
+                       long generation)
+        {
+            this.memberKey = memberKey;
+            this.generation = generation;
+        }
+
+        /**
+         * @return `storageId:repositoryId` of the member the path was resolved from
+         */
+        public String getMemberKey()
+        {
+            return memberKey;
+        }
+
+        public boolean isResolved()
+        {
+            return memberKey != null;
+        }
+
+        public boolean isNotFound()
+        {
+            return this == NOT_FOUND;
+        }
+
+        long getGeneration()
+        {
+            return generation;
+        }
+
+    }
+
+}
@@ -2,12 +2,14 @@ package org.carlspring.strongbox.providers.repository.group;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.configuration.ConfigurationUtils;
+import org.carlspring.strongbox.configuration.GroupRepositoryIndex;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -31,6 +33,23 @@ public class GroupRepositorySetCollector
 
     public Set<Repository> collect(Repository groupRepository,
                                    boolean traverse)
+    {
+        GroupRepositoryIndex groupRepositoryIndex = configurationManager.getConfiguration().getGroupRepositoryIndex();
+        String storageId = groupRepository.getStorage().getId();
+        List<Repository> members = traverse ?
+                                   groupRepositoryIndex.getFlattenedMembers(storageId, groupRepository.getId()) :
+                                   groupRepositoryIndex.getDirectMembers(storageId, groupRepository.getId());
+        if (members != null)
+        {
+            // callers are allowed to modify the result
+            return new LinkedHashSet<>(members);
+        }
+
+        return resolve(groupRepository, traverse);
+    }
+
+    private Set<Repository> resolve(Repository groupRepository,
+                                    boolean traverse)
     {
         Set<Repository> result = groupRepository.getGroupRepositories()
                                                 .stream()
@@ -54,7 +73,7 @@ public class GroupRepositorySetCollector
             }
 
             i.remove();
-            traverseResult.addAll(collect(r, true));
+            traverseResult.addAll(resolve(r, true));
         }
 
         return traverseResult;
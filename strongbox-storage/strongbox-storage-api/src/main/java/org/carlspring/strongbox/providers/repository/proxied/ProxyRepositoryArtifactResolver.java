@@ -3,6 +3,7 @@ package org.carlspring.strongbox.providers.repository.proxied;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.services.ArtifactManagementService;
@@ -11,16 +12,28 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.commons.io.input.TeeInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 /**
@@ -46,15 +59,64 @@ public class ProxyRepositoryArtifactResolver
     @Inject
     private ArtifactManagementService artifactManagementService;
 
+    /**
+     * Remote fetches in progress on this node, concurrent fetches of the same path wait for the first one instead of
+     * downloading it again.
+     */
+    private final Map<String, RemoteFetch> inFlightFetches = new ConcurrentHashMap<>();
+
+    private final LongAdder remoteFetches = new LongAdder();
+
+    private final LongAdder coalescedFetches = new LongAdder();
+
+    private final LongAdder failedFetches = new LongAdder();
+
+    /**
+     * Copies the streamed through artifacts into the clients, while the fetching threads download them into the cache.
+     * Each copy is awaited by its fetching thread, so the pool doesn't grow beyond the number of concurrent downloads.
+     */
+    private final ExecutorService streamThroughExecutor = Executors.newCachedThreadPool(
+            new CustomizableThreadFactory("proxy-stream-through-"));
+
+    @PreDestroy
+    public void destroy()
+    {
+        streamThroughExecutor.shutdownNow();
+    }
+
     /**
      * This method has been developed to force fetch resource from remote.
      *
      * It should not contain any local / cache existence checks.
      *
+     * Concurrent calls for the same path are coalesced: only the first one downloads the resource, the others wait
+     * for its result.
+     *
      * Update this method carefully.
      */
     public RepositoryPath fetchRemoteResource(RepositoryPath repositoryPath)
         throws IOException
+    {
+        return fetchRemoteResource(repositoryPath, null);
+    }
+
+    /**
+     * Same as {@link #fetchRemoteResource(RepositoryPath)}, but the caller which ends up downloading the resource
+     * first checks with the `localResolver` whether it has been cached in the meantime (for example by a fetch which
+     * completed right before this one started).
+     *
+     * This is how the callers which have already checked the local cache should download a missing resource.
+     */
+    public RepositoryPath fetchRemoteResourceIfMissing(RepositoryPath repositoryPath,
+                                                       LocalResolver localResolver)
+        throws IOException
+    {
+        return fetchRemoteResource(repositoryPath, localResolver);
+    }
+
+    private RepositoryPath fetchRemoteResource(RepositoryPath repositoryPath,
+                                               LocalResolver localResolver)
+        throws IOException
     {
         Repository repository = repositoryPath.getFileSystem().getRepository();
         final RemoteRepository remoteRepository = ((ImmutableRepository)repository).getRemoteRepository();
@@ -65,22 +127,140 @@ public class ProxyRepositoryArtifactResolver
             return null;
         }
 
-        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+        String flightKey = repositoryPath.toUri().toString();
+        RemoteFetch flight = new RemoteFetch();
+        RemoteFetch existingFlight = inFlightFetches.putIfAbsent(flightKey, flight);
+        if (existingFlight != null && existingFlight.owner == Thread.currentThread())
+        {
+            // Reentrant fetch of the same path from within the fetch itself, waiting would never end.
+            return fetchRemoteResourceExclusive(remoteRepository, repositoryPath, null, null);
+        }
+        else if (existingFlight != null)
+        {
+            coalescedFetches.increment();
+            logger.debug(String.format("Wait for in-flight remote fetch of [%s].", repositoryPath));
 
-        ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
-        Lock lock = lockSource.writeLock();
-        lock.lock();
+            return awaitFetch(existingFlight, repositoryPath);
+        }
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        try
+        {
+            RepositoryPath result = localResolver == null ? null : localResolver.resolve(repositoryPath);
+            if (result == null)
+            {
+                remoteFetches.increment();
+                result = fetchRemoteResourceExclusive(remoteRepository, repositoryPath, localResolver, flight);
+            }
+            flight.complete(result);
+
+            return result;
+        }
+        catch (IOException | RuntimeException e)
         {
-            return doFetch(repositoryPath, is);
+            failedFetches.increment();
+            flight.completeExceptionally(e);
+
+            throw e;
         }
         finally
         {
-            lock.unlock();
+            inFlightFetches.remove(flightKey, flight);
         }
     }
 
+    /**
+     * Waits for the fetch started by another caller. The result is the caller's own {@link RepositoryPath} instance,
+     * because {@link RepositoryPath} carries mutable state which should not be shared between threads.
+     */
+    private RepositoryPath awaitFetch(CompletableFuture<RepositoryPath> flight,
+                                      RepositoryPath repositoryPath)
+        throws IOException
+    {
+        RepositoryPath result;
+        try
+        {
+            result = flight.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IOException(String.format("Interrupted while waiting for [%s].", repositoryPath), e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+
+            throw new IOException(String.format("Failed to fetch [%s].", repositoryPath), cause);
+        }
+
+        return result == null ? null : repositoryPath;
+    }
+
+    /**
+     * The in-flight fetches are only coalesced on this node, so once the cluster wide "remote-fetch" lock is taken
+     * the `localResolver` is asked again: another node may have cached the path while this one was waiting for it.
+     *
+     * @param flight the in-flight fetch of the path, which may be completed before this returns, `null` if the fetch
+     *               is not coalesced
+     */
+    private RepositoryPath fetchRemoteResourceExclusive(RemoteRepository remoteRepository,
+                                                        RepositoryPath repositoryPath,
+                                                        LocalResolver localResolver,
+                                                        RemoteFetch flight)
+        throws IOException
+    {
+        // closing the resolver releases the shared client, which is closed after a configuration change only when
+        // it's not used by any fetch
+        try (RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository))
+        {
+            ProxyRepositoryStreamThrough streamThrough = ProxyRepositoryStreamThrough.current();
+            if (streamThrough != null && RepositoryFiles.isArtifact(repositoryPath))
+            {
+                return fetchStreamingThrough(client, repositoryPath, streamThrough, localResolver, flight);
+            }
+
+            ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
+            Lock lock = lockSource.writeLock();
+            lock.lock();
+            try
+            {
+                RepositoryPath cached = resolveLocally(repositoryPath, localResolver);
+                if (cached != null)
+                {
+                    return cached;
+                }
+
+                try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+                {
+                    return doFetch(repositoryPath, is);
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+    private RepositoryPath resolveLocally(RepositoryPath repositoryPath,
+                                          LocalResolver localResolver)
+        throws IOException
+    {
+        RepositoryPath result = localResolver == null ? null : localResolver.resolve(repositoryPath);
+        if (result != null)
+        {
+            logger.debug(String.format("[%s] has been cached while waiting for the remote fetch lock.",
+                                       repositoryPath));
+        }
+
+        return result;
+    }
+
     private RepositoryPath doFetch(RepositoryPath repositoryPath,
                                    InputStream is)
         throws IOException
@@ -102,6 +282,170 @@ public class ProxyRepositoryArtifactResolver
         return result;
     }
 
+    /**
+     * Stores the artifact while copying it into the stream-through target. It is written once, into the repository's
+     * {@link org.carlspring.strongbox.providers.io.TempRepositoryPath}, and moved into place as with any other store.
+     * The lock is only taken before the download, to check whether another node has cached the artifact in the
+     * meantime; concurrent writes of the path are still serialized by its write lock.
+     * <p>
+     * The client is served from a {@link StreamThroughSpool} by another thread, so the artifact is downloaded and
+     * cached at the speed of the remote repository, whatever the pace of the client: the path's write lock is released
+     * and the coalesced fetches waiting for the `flight` are completed as soon as the artifact is cached. Only the
+     * calling thread waits for the client to be served.
+     * <p>
+     * The target is flushed only after the artifact has been cached and fully copied into it. Any upstream, store or
+     * checksum failure is thrown to the caller, once the bytes downloaded so far have been copied, and the caller must
+     * abort the response instead of completing it, so that the client never takes a partial or unverified artifact as
+     * complete. A failed download is not moved into place.
+     */
+    private RepositoryPath fetchStreamingThrough(RestArtifactResolver client,
+                                                 RepositoryPath repositoryPath,
+                                                 ProxyRepositoryStreamThrough streamThrough,
+                                                 LocalResolver localResolver,
+                                                 RemoteFetch flight)
+        throws IOException
+    {
+        ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
+        Lock lock = lockSource.writeLock();
+        lock.lock();
+        try
+        {
+            RepositoryPath cached = resolveLocally(repositoryPath, localResolver);
+            if (cached != null)
+            {
+                return cached;
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        OutputStream target;
+        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        {
+            //We need this to force initialize lazy connection to remote repository.
+            int available = is.available();
+            logger.debug(String.format("Got [%s] avaliable bytes for [%s].", available, repositoryPath));
+
+            // Opened only once the remote repository has responded, so that a missing artifact can still be looked up
+            // elsewhere.
+            target = streamThrough.start(repositoryPath);
+            if (target == null)
+            {
+                artifactManagementService.storeWithoutTransaction(repositoryPath, is);
+                artifactEventListenerRegistry.dispatchArtifactFetchedFromRemoteEvent(repositoryPath);
+
+                return repositoryPath;
+            }
+
+            logger.debug(String.format("Stream through [%s].", repositoryPath));
+
+            storeStreamingThrough(repositoryPath, is, new StreamThroughOutputStream(target, repositoryPath), flight);
+        }
+
+        // The client has been served without reading the cached file, so the download is accounted here.
+        artifactEventListenerRegistry.dispatchArtifactDownloadingEvent(repositoryPath);
+        artifactEventListenerRegistry.dispatchArtifactDownloadedEvent(repositoryPath);
+
+        try
+        {
+            target.flush();
+        }
+        catch (IOException e)
+        {
+            logger.debug(String.format("Failed to flush stream through [%s].", repositoryPath), e);
+        }
+
+        return repositoryPath;
+    }
+
+    private void storeStreamingThrough(RepositoryPath repositoryPath,
+                                       InputStream is,
+                                       OutputStream target,
+                                       RemoteFetch flight)
+        throws IOException
+    {
+        try (StreamThroughSpool spool = new StreamThroughSpool())
+        {
+            Future<?> copy = streamThroughExecutor.submit(() -> {
+                spool.copyTo(target);
+
+                return null;
+            });
+
+            try
+            {
+                artifactManagementService.storeWithoutTransaction(repositoryPath, new TeeInputStream(is, spool));
+            }
+            catch (IOException | RuntimeException e)
+            {
+                spool.finish();
+                try
+                {
+                    awaitStreamThrough(copy, repositoryPath);
+                }
+                catch (IOException copyFailure)
+                {
+                    e.addSuppressed(copyFailure);
+                }
+
+                throw e;
+            }
+            spool.finish();
+
+            artifactEventListenerRegistry.dispatchArtifactFetchedFromRemoteEvent(repositoryPath);
+            if (flight != null)
+            {
+                // the artifact is cached, the coalesced fetches don't need to wait for the client
+                flight.complete(repositoryPath);
+            }
+
+            awaitStreamThrough(copy, repositoryPath);
+        }
+    }
+
+    private void awaitStreamThrough(Future<?> copy,
+                                    RepositoryPath repositoryPath)
+        throws IOException
+    {
+        try
+        {
+            copy.get();
+        }
+        catch (InterruptedException e)
+        {
+            copy.cancel(true);
+            Thread.currentThread().interrupt();
+
+            throw new IOException(String.format("Interrupted while streaming through [%s].", repositoryPath), e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IOException(String.format("Failed to stream through [%s].", repositoryPath), e.getCause());
+        }
+    }
+
+    public long getRemoteFetches()
+    {
+        return remoteFetches.sum();
+    }
+
+    public long getCoalescedFetches()
+    {
+        return coalescedFetches.sum();
+    }
+
+    public long getFailedFetches()
+    {
+        return failedFetches.sum();
+    }
+
+    public int getInFlightFetches()
+    {
+        return inFlightFetches.size();
+    }
+
     protected RepositoryPath onSuccessfulProxyRepositoryResponse(InputStream is,
                                                                  RepositoryPath repositoryPath)
             throws IOException
@@ -116,4 +460,110 @@ public class ProxyRepositoryArtifactResolver
         return repositoryPath;
     }
 
+    /**
+     * Resolves the path from the local cache, `null` means that the path has not been cached.
+     */
+    @FunctionalInterface
+    public interface LocalResolver
+    {
+
+        RepositoryPath resolve(RepositoryPath repositoryPath)
+            throws IOException;
+
+    }
+
+    private static class RemoteFetch
+            extends CompletableFuture<RepositoryPath>
+    {
+
+        private final Thread owner = Thread.currentThread();
+
+    }
+
+    /**
+     * Stops copying into the stream-through target once it fails (usually because the client has gone away), so
+     * that the download into the cache can still complete.
+     */
+    private static class StreamThroughOutputStream
+            extends OutputStream
+    {
+
+        private final OutputStream target;
+
+        private final RepositoryPath repositoryPath;
+
+        private boolean failed;
+
+        private StreamThroughOutputStream(OutputStream target,
+                                          RepositoryPath repositoryPath)
+        {
+            this.target = target;
+            this.repositoryPath = repositoryPath;
+        }
+
+        @Override
+        public void write(int b)
+        {
+            write(new byte[]{ (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b,
+                          int off,
+                          int len)
+        {
+            if (failed)
+            {
+                return;
+            }
+
+            try
+            {
+                target.write(b, off, len);
+            }
+            catch (IOException e)
+            {
+                onFailure(e);
+            }
+        }
+
+        @Override
+        public void flush()
+        {
+            if (failed)
+            {
+                return;
+            }
+
+            try
+            {
+                target.flush();
+            }
+            catch (IOException e)
+            {
+                onFailure(e);
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            try
+            {
+                target.close();
+            }
+            catch (IOException e)
+            {
+                onFailure(e);
+            }
+        }
+
+        private void onFailure(IOException e)
+        {
+            failed = true;
+            logger.debug(String.format("Stream through [%s] failed, continue caching.", repositoryPath), e);
+        }
+
+    }
+
 }
@@ -0,0 +1,69 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Receives the bytes of a proxied artifact while {@link ProxyRepositoryArtifactResolver} downloads it from the remote
+ * repository and caches it, so the client doesn't need to wait for the whole download before the first byte.
+ * <p>
+ * The instance is bound to the current thread with {@link #bind(ProxyRepositoryStreamThrough)} around the path
+ * resolution and is used only if the resolution actually downloads the artifact. The cached file is committed only if
+ * the download completes, failures of the stream-through target itself don't affect the caching.
+ * <p>
+ * Once {@link #isStarted()}, the response has been committed, so the download failures must be propagated to abort
+ * it, instead of falling back to another source.
+ */
+public abstract class ProxyRepositoryStreamThrough
+{
+
+    private static final ThreadLocal<ProxyRepositoryStreamThrough> current = new ThreadLocal<>();
+
+    private boolean started;
+
+    public static void bind(ProxyRepositoryStreamThrough streamThrough)
+    {
+        current.set(streamThrough);
+    }
+
+    public static void unbind()
+    {
+        current.remove();
+    }
+
+    static ProxyRepositoryStreamThrough current()
+    {
+        return current.get();
+    }
+
+    /**
+     * @return `true` if the stream-through bound to the current thread has been opened for an artifact
+     */
+    public static boolean isStarted()
+    {
+        ProxyRepositoryStreamThrough streamThrough = current.get();
+
+        return streamThrough != null && streamThrough.started;
+    }
+
+    OutputStream start(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        OutputStream os = open(repositoryPath);
+        started = started || os != null;
+
+        return os;
+    }
+
+    /**
+     * Called before the first byte of given artifact has been downloaded.
+     *
+     * @return stream to copy the artifact bytes into, or `null` if the artifact should be served after it has been
+     *         cached
+     */
+    protected abstract OutputStream open(RepositoryPath repositoryPath)
+        throws IOException;
+
+}
@@ -2,15 +2,31 @@ package org.carlspring.strongbox.providers.repository.proxied;
 
 import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
 import javax.inject.Inject;
+import javax.ws.rs.client.Client;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
+import org.javatuples.Triplet;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 /**
@@ -29,23 +45,41 @@ public class RestArtifactResolverFactory
     @Inject
     private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
 
+    /**
+     * `url`, `username` and `password` of the shared clients which were requested, so that the ones which are no
+     * longer used by any remote repository can be closed.
+     */
+    private final Set<Triplet<String, String, String>> sharedClients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of the resolvers, not closed yet, by shared client. Guarded by `this`.
+     */
+    private final Map<Triplet<String, String, String>, Integer> leases = new HashMap<>();
+
+    /**
+     * Shared clients which are no longer used by any remote repository, but are still leased by the fetches started
+     * before. They are closed once the last resolver is closed. Guarded by `this`.
+     */
+    private final Set<Triplet<String, String, String>> retiredClients = new HashSet<>();
+
+    private volatile long configurationVersion = -1;
+
     public RestArtifactResolver newInstance(RemoteRepository repository)
     {
         Objects.requireNonNull(repository);
+
+        checkConfigurationVersion();
         
         RemoteRepositoryRetryArtifactDownloadConfiguration configuration = configurationManager.getConfiguration()
                                                                                                .getRemoteRepositoriesConfiguration()
                                                                                                .getRemoteRepositoryRetryArtifactDownloadConfiguration();
         
-        String username = repository.getUsername();
-        String password = repository.getPassword();
-        String url = repository.getUrl();
-        
-        final HttpAuthenticationFeature authenticationFeature = (username != null && password != null) ? HttpAuthenticationFeature.basic(username, password) : null;
-                
-        return new RestArtifactResolver(proxyRepositoryConnectionPoolConfigurationService.getRestClient(), url,
-                                        configuration,
-                                        authenticationFeature)
+        // the client is shared by the repository requests and holds the repository credentials
+        Triplet<String, String, String> key = sharedClientKey(repository);
+        Client client = leaseSharedClient(key);
+        AtomicBoolean released = new AtomicBoolean();
+
+        return new RestArtifactResolver(client, repository.getUrl(), configuration)
                                 {
                         
                                     @Override
@@ -53,8 +87,143 @@ public class RestArtifactResolverFactory
                                     {
                                         return remoteRepositoryAlivenessCacheManager.isAlive(repository);
                                     }
+
+                                    @Override
+                                    public void close()
+                                    {
+                                        // the shared client is kept open for the next requests
+                                        if (released.compareAndSet(false, true))
+                                        {
+                                            releaseSharedClient(key);
+                                        }
+                                    }
                         
                                 };
     }
 
+    private synchronized Client leaseSharedClient(Triplet<String, String, String> key)
+    {
+        sharedClients.add(key);
+        // requested again, so it's checked against the configuration once more on the next change
+        retiredClients.remove(key);
+        leases.merge(key, 1, Integer::sum);
+
+        return proxyRepositoryConnectionPoolConfigurationService.getRestClient(key.getValue0(),
+                                                                               key.getValue1(),
+                                                                               key.getValue2());
+    }
+
+    private synchronized void releaseSharedClient(Triplet<String, String, String> key)
+    {
+        if (leases.merge(key, -1, Integer::sum) > 0)
+        {
+            return;
+        }
+
+        leases.remove(key);
+        if (retiredClients.remove(key))
+        {
+            doCloseSharedClient(key);
+        }
+    }
+
+    /**
+     * The event is dispatched before the repository is removed from the configuration, so its client is closed here
+     * unless another remote repository uses the same URL and credentials.
+     */
+    @EventListener
+    public void handle(RepositoryEvent event)
+    {
+        if (event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType())
+        {
+            return;
+        }
+
+        Configuration configuration = configurationManager.getConfiguration();
+        Storage storage = configuration.getStorage(event.getStorageId());
+        Repository repository = storage != null ? storage.getRepository(event.getRepositoryId()) : null;
+        if (repository == null || ((ImmutableRepository) repository).getRemoteRepository() == null)
+        {
+            return;
+        }
+
+        Triplet<String, String, String> key = sharedClientKey(((ImmutableRepository) repository).getRemoteRepository());
+        boolean used = remoteRepositories(configuration).filter(r -> r != repository)
+                                                        .map(r -> sharedClientKey(r.getRemoteRepository()))
+                                                        .anyMatch(key::equals);
+        if (!used)
+        {
+            closeSharedClient(key);
+        }
+    }
+
+    /**
+     * Closes the shared clients of the remote repositories whose URL or credentials were changed, or which were
+     * removed, after the configuration was modified.
+     */
+    private void checkConfigurationVersion()
+    {
+        Configuration configuration = configurationManager.getConfiguration();
+        if (configuration.getSnapshotVersion() == configurationVersion)
+        {
+            return;
+        }
+
+        synchronized (this)
+        {
+            configuration = configurationManager.getConfiguration();
+            if (configuration.getSnapshotVersion() == configurationVersion)
+            {
+                return;
+            }
+
+            Set<Triplet<String, String, String>> used = remoteRepositories(configuration).map(
+                    r -> sharedClientKey(r.getRemoteRepository())).collect(Collectors.toSet());
+            sharedClients.stream()
+                         .filter(key -> !used.contains(key))
+                         .collect(Collectors.toList())
+                         .forEach(this::closeSharedClient);
+
+            configurationVersion = configuration.getSnapshotVersion();
+        }
+    }
+
+    /**
+     * The client is closed once the fetches which are still using it are done.
+     */
+    private synchronized void closeSharedClient(Triplet<String, String, String> key)
+    {
+        sharedClients.remove(key);
+        if (leases.containsKey(key))
+        {
+            retiredClients.add(key);
+
+            return;
+        }
+
+        doCloseSharedClient(key);
+    }
+
+    private void doCloseSharedClient(Triplet<String, String, String> key)
+    {
+        proxyRepositoryConnectionPoolConfigurationService.closeRestClient(key.getValue0(),
+                                                                          key.getValue1(),
+                                                                          key.getValue2());
+    }
+
+    private static Stream<ImmutableRepository> remoteRepositories(Configuration configuration)
+    {
+        return configuration.getStorages()
+                            .values()
+                            .stream()
+                            .flatMap(storage -> storage.getRepositories().values().stream())
+                            .map(ImmutableRepository.class::cast)
+                            .filter(repository -> repository.getRemoteRepository() != null);
+    }
+
+    private static Triplet<String, String, String> sharedClientKey(RemoteRepository remoteRepository)
+    {
+        return Triplet.with(remoteRepository.getUrl(), remoteRepository.getUsername(), remoteRepository.getPassword());
+    }
+
 }
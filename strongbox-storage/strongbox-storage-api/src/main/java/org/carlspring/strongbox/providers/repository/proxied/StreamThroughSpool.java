@@ -0,0 +1,134 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Temporary file which decouples the download of a streamed through artifact from its client: the downloaded bytes
+ * are appended to it at the speed of the remote repository, while {@link #copyTo(OutputStream)} copies them into the
+ * client at the client's own pace, from another thread.
+ * <p>
+ * {@link #close()} deletes the file, it has to be called once both the writer and the reader are done.
+ */
+class StreamThroughSpool
+        extends OutputStream
+{
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path file;
+
+    private final OutputStream out;
+
+    /**
+     * The number of bytes written so far, guarded by `this`.
+     */
+    private long length;
+
+    /**
+     * Whether no more bytes will be written, guarded by `this`.
+     */
+    private boolean finished;
+
+    StreamThroughSpool()
+        throws IOException
+    {
+        file = Files.createTempFile("stream-through-", ".tmp");
+        // not buffered, so that the written bytes can be read as soon as they are accounted
+        out = Files.newOutputStream(file);
+    }
+
+    @Override
+    public void write(int b)
+        throws IOException
+    {
+        write(new byte[]{ (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b,
+                      int off,
+                      int len)
+        throws IOException
+    {
+        out.write(b, off, len);
+
+        synchronized (this)
+        {
+            length += len;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Marks the end of the written bytes, the reader stops once it has copied them all.
+     */
+    synchronized void finish()
+    {
+        finished = true;
+        notifyAll();
+    }
+
+    /**
+     * Copies the bytes into the target as they are written, until the spool is finished and all of them are copied.
+     */
+    void copyTo(OutputStream target)
+        throws IOException,
+               InterruptedException
+    {
+        try (InputStream in = Files.newInputStream(file))
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long position = 0;
+            while (true)
+            {
+                long available;
+                synchronized (this)
+                {
+                    while (length == position && !finished)
+                    {
+                        wait();
+                    }
+                    available = length - position;
+                }
+
+                if (available == 0)
+                {
+                    return;
+                }
+
+                while (available > 0)
+                {
+                    int n = in.read(buffer, 0, (int) Math.min(buffer.length, available));
+                    if (n < 0)
+                    {
+                        throw new EOFException(String.format("Unexpected end of [%s].", file));
+                    }
+
+                    target.write(buffer, 0, n);
+                    position += n;
+                    available -= n;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            out.close();
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.providers.search;
 
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.search.SearchRequest;
 import org.carlspring.strongbox.storage.search.SearchResult;
@@ -7,6 +9,7 @@ import org.carlspring.strongbox.storage.search.SearchResults;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -75,13 +78,29 @@ public class OrientDbSearchProvider
             }
             while (matcher.find());
 
+            Paginator paginator = searchRequest.getPaginator();
+            List<ArtifactEntry> artifactEntries;
+            if (paginator != null)
+            {
+                artifactEntries = artifactEntryService.findArtifactList(searchRequest.getStorageId(),
+                                                                        searchRequest.getRepositoryId(),
+                                                                        coordinates,
+                                                                        Collections.emptySet(),
+                                                                        paginator,
+                                                                        false);
+                searchResults.setNextCursor(paginator.getNextCursor());
+            }
+            else
+            {
+                artifactEntries = artifactEntryService.findArtifactList(searchRequest.getStorageId(),
+                                                                        searchRequest.getRepositoryId(),
+                                                                        coordinates, false);
+            }
+
             List<SearchResult> results = new LinkedList<>();
-            results.addAll(artifactEntryService.findArtifactList(searchRequest.getStorageId(),
-                                                                 searchRequest.getRepositoryId(),
-                                                                 coordinates, false)
-                                               .stream()
-                                               .map(this::createSearchResult)
-                                               .collect(Collectors.toList()));
+            results.addAll(artifactEntries.stream()
+                                          .map(this::createSearchResult)
+                                          .collect(Collectors.toList()));
 
             searchResults.getResults().addAll(results);
 
@@ -1,12 +1,14 @@
 package org.carlspring.strongbox.services;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.service.CrudService;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
@@ -39,6 +41,10 @@ public interface ArtifactEntryService
                                          String repositoryId,
                                          ArtifactCoordinates coordinates);
 
+    /**
+     * The coordinates are matched ignoring the case, against the {@link ArtifactEntry#getCoordinateTokens()}. With
+     * `strict` each coordinate value must be equal to the given one, otherwise it must contain it as a substring.
+     */
     List<ArtifactEntry> findArtifactList(String storageId,
                                          String repositoryId,
                                          Map<String, String> coordinates,
@@ -53,6 +59,19 @@ public interface ArtifactEntryService
                                          String orderBy,
                                          boolean strict);
 
+    /**
+     * Returns the page of the artifacts after the {@link Paginator#getCursor()}, in the
+     * {@link ArtifactEntry#getArtifactCoordinates()} record order, and sets the cursor of the following page into the
+     * paginator. Within a repository the page is read as a range of the `idx_artifact` index, so its cost doesn't
+     * grow with the number of the pages before it.
+     */
+    List<ArtifactEntry> findArtifactList(String storageId,
+                                         String repositoryId,
+                                         Map<String, String> coordinates,
+                                         Set<ArtifactTag> tagSet,
+                                         Paginator paginator,
+                                         boolean strict);
+
     List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
                                      PagingCriteria pagingCriteria);
 
@@ -79,4 +98,21 @@ public interface ArtifactEntryService
 
     int delete(List<ArtifactEntry> artifactEntries);
 
+    /**
+     * Increments {@link ArtifactEntry#getDownloadCount()} by the given delta and sets
+     * {@link ArtifactEntry#getLastUsed()} for every entry with one of the given UUIDs, within a single
+     * `UPDATE ... INCREMENT` statement.
+     *
+     * @param uuids
+     *            {@link ArtifactEntry} UUIDs to update
+     * @param delta
+     *            value to add to the download count
+     * @param lastUsed
+     *            the last time the artifacts were downloaded
+     * @return number of updated records
+     */
+    int incrementDownloadCount(Collection<String> uuids,
+                               int delta,
+                               Date lastUsed);
+
 }
@@ -27,6 +27,7 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryOutputStream;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider.TempOutputStream;
 import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
@@ -42,6 +43,7 @@ import org.carlspring.strongbox.storage.validation.resource.ArtifactOperationsVa
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.FileSystemUtils;
 
@@ -99,6 +101,19 @@ public class ArtifactManagementService
         return doStore(repositoryPath, is);
     }
 
+    /**
+     * Same as {@link #store(RepositoryPath, InputStream)}, but outside of any transaction, for the streams which may
+     * be read slowly (like a remote download which is copied into a client response at the same time). The artifact
+     * entry is then saved in its own short transactions.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long storeWithoutTransaction(RepositoryPath repositoryPath,
+                                        InputStream is)
+        throws IOException
+    {
+        return doStore(repositoryPath, is);
+    }
+
     private long doStore(RepositoryPath repositoryPath,
                          InputStream is)
             throws IOException
@@ -113,7 +128,21 @@ public class ArtifactManagementService
         
         try (final RepositoryOutputStream aos = artifactResolutionService.getOutputStream(repositoryPath))
         {
-            result = writeArtifact(repositoryPath, is, aos);
+            try
+            {
+                result = writeArtifact(repositoryPath, is, aos);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                // Don't let a partially written file replace the original one.
+                TempOutputStream tos = StreamUtils.findSource(TempOutputStream.class, aos);
+                if (tos != null)
+                {
+                    tos.discard();
+                }
+
+                throw e;
+            }
             aos.flush();
         }
         catch (IOException e)
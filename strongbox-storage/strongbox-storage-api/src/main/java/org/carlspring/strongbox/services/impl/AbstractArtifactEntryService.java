@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.services.impl;
 
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
 import org.carlspring.strongbox.data.service.CommonCrudService;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
@@ -9,4 +10,12 @@ public abstract class AbstractArtifactEntryService
         implements ArtifactEntryService
 {
 
+    @Override
+    protected <S extends ArtifactEntry> S cascadeEntitySave(ArtifactEntry entity)
+    {
+        entity.setCoordinateTokens(CoordinateTokens.tokens(entity.getArtifactCoordinates()));
+
+        return super.cascadeEntitySave(entity);
+    }
+
 }
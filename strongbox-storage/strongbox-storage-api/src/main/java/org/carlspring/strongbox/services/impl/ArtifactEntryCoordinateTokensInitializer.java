@@ -0,0 +1,129 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * Declares the {@link ArtifactEntry#getCoordinateTokens()} property with its
+ * `(storageId, repositoryId, coordinateTokens)` index, and populates the tokens of the entries which were stored
+ * before the property existed.
+ * <p>
+ * The entries are populated once, in `@rid` order, and the completion is recorded in the
+ * {@link #POPULATED_MARKER} custom attribute of the `ArtifactEntry` class, so that the next starts don't scan the
+ * entries again. The entries stored meanwhile get their tokens when they are saved.
+ */
+@Component
+@DependsOn("liquibase")
+class ArtifactEntryCoordinateTokensInitializer
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryCoordinateTokensInitializer.class);
+
+    static final String INDEX_NAME = "idx_artifact_entry_coordinate_tokens";
+
+    static final String POPULATED_MARKER = "coordinateTokensPopulated";
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @PostConstruct
+    public void init()
+    {
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            session.command("CREATE PROPERTY ArtifactEntry.coordinateTokens IF NOT EXISTS EMBEDDEDSET STRING").close();
+            session.command(String.format("CREATE INDEX %s IF NOT EXISTS ON ArtifactEntry (storageId, repositoryId, coordinateTokens) NOTUNIQUE",
+                                          INDEX_NAME))
+                   .close();
+
+            OClass artifactEntryClass = session.getMetadata().getSchema().getClass("ArtifactEntry");
+            if (Boolean.parseBoolean(artifactEntryClass.getCustom(POPULATED_MARKER)))
+            {
+                return;
+            }
+
+            long populated = 0;
+            ORID last = new ORecordId();
+            List<ORID> batch;
+            do
+            {
+                batch = populateBatch(session, last);
+                if (!batch.isEmpty())
+                {
+                    last = batch.get(batch.size() - 1);
+                }
+                populated += batch.size();
+            }
+            while (batch.size() == BATCH_SIZE);
+
+            artifactEntryClass.setCustom(POPULATED_MARKER, Boolean.TRUE.toString());
+
+            logger.info(String.format("Populated coordinate tokens of [%s] artifact entries.", populated));
+        }
+    }
+
+    /**
+     * @return the entries populated after the given one, in `@rid` order
+     */
+    private List<ORID> populateBatch(ODatabaseSession session,
+                                     ORID after)
+    {
+        List<ORID> result = new ArrayList<>();
+
+        session.begin();
+        try (OResultSet resultSet = session.query(String.format("SELECT FROM ArtifactEntry WHERE @rid > ? AND coordinateTokens IS NULL ORDER BY @rid LIMIT %s",
+                                                                BATCH_SIZE),
+                                                  after))
+        {
+            while (resultSet.hasNext())
+            {
+                OResult entry = resultSet.next();
+                OElement element = entry.getElement().orElseThrow(IllegalStateException::new);
+
+                element.setProperty("coordinateTokens", coordinateTokens(element));
+                element.save();
+
+                result.add(element.getIdentity());
+            }
+        }
+        session.commit();
+
+        return result;
+    }
+
+    private Set<String> coordinateTokens(OElement artifactEntry)
+    {
+        Map<String, String> coordinates = Optional.ofNullable(artifactEntry.<OIdentifiable>getProperty("artifactCoordinates"))
+                                                  .map(c -> c.<OElement>getRecord())
+                                                  .map(c -> c.<Map<String, String>>getProperty("coordinates"))
+                                                  .orElse(Collections.emptyMap());
+
+        return CoordinateTokens.tokens(coordinates);
+    }
+
+}
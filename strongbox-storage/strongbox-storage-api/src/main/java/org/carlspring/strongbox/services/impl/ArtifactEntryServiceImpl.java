@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.services.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -17,6 +18,10 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
@@ -45,6 +50,11 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryService.class);
 
+    /**
+     * The order of the keyset pages, the last field of the `idx_artifact` index, see {@link Paginator#getCursor()}.
+     */
+    private static final String CURSOR_PROPERTY = "artifactCoordinates";
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
@@ -81,24 +91,63 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                                 int limit,
                                                 String orderBy,
                                                 boolean strict)
+    {
+        return findArtifactList(storageId, repositoryId, coordinates, tagSet, skip, limit, orderBy, null, strict);
+    }
+
+    @Override
+    @Transactional
+    public List<ArtifactEntry> findArtifactList(String storageId,
+                                                String repositoryId,
+                                                Map<String, String> coordinates,
+                                                Set<ArtifactTag> tagSet,
+                                                Paginator paginator,
+                                                boolean strict)
+    {
+        paginator.setCursorProperty(CURSOR_PROPERTY);
+
+        int limit = paginator.getLimit();
+        List<ArtifactEntry> entries = findArtifactList(storageId, repositoryId, coordinates, tagSet, 0, limit,
+                                                       CURSOR_PROPERTY, paginator.getCursorValue(), strict);
+
+        paginator.setNextCursor(entries.size() < limit ? null :
+                                Paginator.encodeCursor(((GenericEntity) entries.get(entries.size() - 1)
+                                                                               .getArtifactCoordinates()).getObjectId()));
+
+        return entries;
+    }
+
+    private List<ArtifactEntry> findArtifactList(String storageId,
+                                                 String repositoryId,
+                                                 Map<String, String> coordinates,
+                                                 Set<ArtifactTag> tagSet,
+                                                 int skip,
+                                                 int limit,
+                                                 String orderBy,
+                                                 String cursor,
+                                                 boolean strict)
     {
         if (orderBy == null)
         {
             orderBy = "uuid";
         }
 
-        coordinates = prepareParameterMap(coordinates, strict);
+        Set<String> coordinateNames = coordinateNames(coordinates);
 
         Map<String, ArtifactTagEntry> tagMap = tagSet.stream()
                                                      .collect(Collectors.toMap(t -> String.format("%sTag", t.getName().replaceAll("-", "")),
                                                                                t -> (ArtifactTagEntry) t));
 
-        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinates.keySet(), tagMap.keySet(),
+        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinateNames, tagMap.keySet(),
                                               skip,
-                                              limit, orderBy, strict);
+                                              limit, orderBy, cursor != null, strict);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = prepareParameterMap(coordinates, strict);
+        if (cursor != null)
+        {
+            parameterMap.put(OQueryTemplate.CURSOR_PARAMETER, OQueryTemplate.toCursorRecordId(cursor, cursor));
+        }
         if (storageId != null && !storageId.trim().isEmpty())
         {
             parameterMap.put("storageId0", storageId);
@@ -175,12 +224,11 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                  Map<String, String> coordinates,
                                  boolean strict)
     {
-        coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinateNames(coordinates), Collections.emptySet(), 0, 0, null, strict);
         sQuery = sQuery.replace("*", "count(distinct(artifactCoordinates))");
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = prepareParameterMap(coordinates, strict);
 
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
@@ -207,12 +255,11 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                Map<String, String> coordinates,
                                boolean strict)
     {
-        coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinateNames(coordinates), Collections.emptySet(), 0, 0, null, strict);
         sQuery = sQuery.replace("*", "count(*)");
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = prepareParameterMap(coordinates, strict);
 
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
@@ -257,34 +304,58 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                            int limit,
                                            String orderBy,
                                            boolean strict)
+    {
+        return buildCoordinatesQuery(storageRepositoryPairList, parameterNameSet, tagNameSet, skip, limit, orderBy,
+                                     false, strict);
+    }
+
+    /**
+     * @param afterCursor whether only the records whose {@link #CURSOR_PROPERTY} follows the
+     *                    {@link OQueryTemplate#CURSOR_PARAMETER} record id should be selected
+     */
+    protected String buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
+                                           Set<String> parameterNameSet,
+                                           Set<String> tagNameSet,
+                                           int skip,
+                                           int limit,
+                                           String orderBy,
+                                           boolean afterCursor,
+                                           boolean strict)
     {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT * FROM ").append(getEntityClass().getSimpleName());
 
         Pair<String, String>[] storageRepositoryPairArray = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
-        // COORDINATES
-        StringBuffer c1 = new StringBuffer();
-        parameterNameSet.stream()
-                        .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
-                                        .append("artifactCoordinates.coordinates.")
-                                        .append(e)
-                                        .append(".toLowerCase()")
-                                        .append(strict ? " = " : " like ")
-                                        .append(String.format(":%s", e)));
-        sb.append(" WHERE ").append(c1.length() > 0 ? c1.append(" AND ").toString() : " true = true AND ");
-
         //REPOSITORIES
+        // the `(storageId, repositoryId, coordinateTokens)` index is used only if the repository condition goes first
         StringBuffer c2 = new StringBuffer();
         IntStream.range(0, storageRepositoryPairList.size())
                  .forEach(idx -> c2.append(idx > 0 ? " OR " : "")
                                    .append(calculateStorageAndRepositoryCondition(storageRepositoryPairArray[idx], idx)));
-        sb.append(c2.length() > 0 ? c2.toString() : "true");
+        sb.append(" WHERE ").append(c2.length() > 0 ? "(" + c2.toString() + ")" : "true");
+
+        // COORDINATES
+        // the coordinates are matched against the normalized tokens: strict ones as the whole token, others as a
+        // substring of the token value
+        parameterNameSet.stream()
+                        .forEach(e -> sb.append(strict ? String.format(" AND coordinateTokens CONTAINS :%s", e)
+                                                       : String.format(" AND coordinateTokens LIKE :%s", e)));
 
         //TAGS
         tagNameSet.stream().forEach(t -> sb.append(String.format(" AND tagSet contains (name = :%s)", t)));
 
+        //CURSOR
+        if (afterCursor)
+        {
+            sb.append(String.format(" AND %s > :%s", CURSOR_PROPERTY, OQueryTemplate.CURSOR_PARAMETER));
+        }
+
         //ORDER
-        if ("uuid".equals(orderBy))
+        if (CURSOR_PROPERTY.equals(orderBy))
+        {
+            sb.append(String.format(" ORDER BY %s", CURSOR_PROPERTY));
+        }
+        else if ("uuid".equals(orderBy))
         {
             sb.append(" ORDER BY artifactCoordinates.uuid");
         }
@@ -341,24 +412,30 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return result.toString();
     }
 
-    private Map<String, String> prepareParameterMap(Map<String, String> coordinates,
-                                                    boolean strict)
+    private Set<String> coordinateNames(Map<String, String> coordinates)
     {
         return coordinates.entrySet()
                           .stream()
                           .filter(e -> e.getValue() != null)
-                          .collect(Collectors.toMap(Map.Entry::getKey,
-                                                    e -> calculateParameterValue(e, strict)));
+                          .map(Map.Entry::getKey)
+                          .collect(Collectors.toSet());
     }
 
-    private String calculateParameterValue(Entry<String, String> e,
-                                           boolean strict)
+    private Map<String, Object> prepareParameterMap(Map<String, String> coordinates,
+                                                    boolean strict)
     {
-        String result = e.getValue() == null ? null : e.getValue().toLowerCase();
-        if (!strict)
+        Map<String, Object> result = new HashMap<>();
+        for (Entry<String, String> e : coordinates.entrySet())
         {
-            result = "%" + result + "%";
+            if (e.getValue() == null)
+            {
+                continue;
+            }
+
+            result.put(e.getKey(), strict ? CoordinateTokens.token(e.getKey(), e.getValue())
+                                          : CoordinateTokens.token(e.getKey(), "%" + e.getValue() + "%"));
         }
+
         return result;
     }
 
@@ -418,6 +495,30 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return getDelegate().command(oCommandSQL).execute(parameterMap);
     }
 
+    @Override
+    public int incrementDownloadCount(Collection<String> uuids,
+                                      int delta,
+                                      Date lastUsed)
+    {
+        if (CollectionUtils.isEmpty(uuids))
+        {
+            return 0;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("UPDATE ")
+          .append(getEntityClass().getSimpleName())
+          .append(" INCREMENT downloadCount = :delta SET lastUsed = :lastUsed WHERE uuid in :uuids");
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("delta", delta);
+        parameterMap.put("lastUsed", lastUsed);
+        parameterMap.put("uuids", new ArrayList<>(uuids));
+
+        OCommandSQL oCommandSQL = new OCommandSQL(sb.toString());
+        return getDelegate().command(oCommandSQL).execute(parameterMap);
+    }
+
     private ORID findArtifactEntryId(String storageId,
                                      String repositoryId,
                                      String path)
@@ -466,6 +567,10 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     {
         ArtifactEntry result = super.detach(entity);
         result.setArtifactCoordinates(getDelegate().detachAll(entity.getArtifactCoordinates(), true));
+        if (entity.getArtifactMetadata() != null)
+        {
+            result.setArtifactMetadata(getDelegate().detachAll(entity.getArtifactMetadata(), true));
+        }
 
         return result;
     }
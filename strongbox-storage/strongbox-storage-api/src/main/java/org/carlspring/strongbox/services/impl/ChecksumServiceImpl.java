@@ -2,6 +2,7 @@ package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
 import org.carlspring.strongbox.artifact.locator.handlers.ArtifactLocationGenerateChecksumOperation;
+import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -38,6 +39,9 @@ public class ChecksumServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
     @Override
     public void regenerateChecksum(String storageId,
                                    String repositoryId,
@@ -67,6 +71,10 @@ public class ChecksumServiceImpl
 
         ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
         locator.setOperation(operation);
+        locator.setParallelism(propertiesBooter.getLocatorParallelism());
+        locator.setCheckpointPath(ArtifactDirectoryLocator.resolveCheckpointPath(repositoryBasePath,
+                                                                                 "regenerate-checksum"));
+        locator.setCheckpointKey("forceRegeneration=" + forceRegeneration);
         locator.locateArtifactDirectories();
     }
 
@@ -17,8 +17,8 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
@@ -38,7 +38,9 @@ public class ConfigurationManagementServiceImpl
         implements ConfigurationManagementService
 {
 
-    private final ReadWriteLock configurationLock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock configurationLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong configurationVersion = new AtomicLong();
 
     @Inject
     private ConfigurationFileManager configurationFileManager;
@@ -64,6 +66,14 @@ public class ConfigurationManagementServiceImpl
      */
     private MutableConfiguration configuration;
 
+    /**
+     * Immutable copy of the {@link #configuration}, which is rebuilt only within {@link #modifyInLock(Consumer)}, so
+     * that readers need neither the lock nor a copy.
+     *
+     * @see #getConfiguration()
+     */
+    private volatile Configuration configurationSnapshot;
+
     @PostConstruct
     public void init()
     {
@@ -102,17 +112,7 @@ public class ConfigurationManagementServiceImpl
     @Override
     public Configuration getConfiguration()
     {
-        final Lock readLock = configurationLock.readLock();
-        readLock.lock();
-
-        try
-        {
-            return new Configuration(configuration);
-        }
-        finally
-        {
-            readLock.unlock();
-        }
+        return configurationSnapshot;
     }
 
     @Override
@@ -575,6 +575,12 @@ public class ConfigurationManagementServiceImpl
             {
                 configurationFileManager.store(configuration);
             }
+
+            // Nested modifications are published once, by the outermost one, and only if it has completed.
+            if (configurationLock.getWriteHoldCount() == 1)
+            {
+                publishConfigurationSnapshot();
+            }
         }
         finally
         {
@@ -582,4 +588,9 @@ public class ConfigurationManagementServiceImpl
         }
     }
 
+    private void publishConfigurationSnapshot()
+    {
+        configurationSnapshot = new Configuration(configuration, configurationVersion.incrementAndGet());
+    }
+
 }
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.storage.checksum;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -9,6 +10,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @author mtodorov
  */
 public class ArtifactChecksum
+        implements Serializable
 {
 
     /**
@@ -31,6 +33,14 @@ public class ArtifactChecksum
         updateLastAccessedTime();
     }
 
+    public ArtifactChecksum(ArtifactChecksum source)
+    {
+        this.checksums = new LinkedHashMap<>(source.getChecksums());
+        this.numberOfChecksums = new AtomicInteger(source.numberOfChecksums.get());
+        this.numberOfValidatedChecksums = new AtomicInteger(source.numberOfValidatedChecksums.get());
+        updateLastAccessedTime();
+    }
+
     public synchronized void addChecksum(String algorithm,
                                          String checksum)
     {
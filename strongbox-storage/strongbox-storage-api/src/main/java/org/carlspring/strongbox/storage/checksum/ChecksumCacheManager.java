@@ -1,11 +1,14 @@
 package org.carlspring.strongbox.storage.checksum;
 
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,9 +25,14 @@ import org.slf4j.LoggerFactory;
  * - a match is found, but does not match, trigger an event and log this, then remove
  * the checksum from the cache. (If the checksums set is empty, remove the respective
  * Checksum from the cachedChecksums).
- * - a checksum is not claimed within cachedChecksumLifetime, trigger an event and log
- * this, then remove the checksum from the cache. (If this checksums set is empty,
- * remove the respective Checksum from the cachedChecksums).
+ * - a checksum is not claimed within cachedChecksumLifetime, it's evicted from the cache.
+ * <p>
+ * The checksums are kept either in a size bounded local cache, or in a Hazelcast {@link IMap}, so that a checksum
+ * uploaded to one cluster node is validated against the artifact uploaded to another one. In the latter case the
+ * size bound and the lifetime are defined by the map configuration, which is built from the same
+ * `strongbox.checksumCache.*` properties.
+ * <p>
+ * The {@link ArtifactChecksum} instances are never modified once cached, every change replaces the whole entry.
  *
  * @author mtodorov
  */
@@ -33,28 +41,72 @@ public class ChecksumCacheManager
 
     private static Logger logger = LoggerFactory.getLogger(ChecksumCacheManager.class);
 
+    public static final long DEFAULT_MAX_SIZE = 10000;
+
     /**
      * Key:     Artifact path
      * Value:   Artifact checksum.
      */
-    private Map<String, ArtifactChecksum> cachedChecksums = new LinkedHashMap<>();
+    private ConcurrentMap<String, ArtifactChecksum> cachedChecksums;
+
+    /**
+     * The local cache, `null` if the checksums are kept in Hazelcast.
+     */
+    private Cache<String, ArtifactChecksum> localCache;
+
+    private long maxSize = DEFAULT_MAX_SIZE;
 
     /**
-     * Specifies how long to keep the cached checksums.
+     * Specifies how long to keep the cached checksums after they have been accessed last time.
      * <p>
      * The default is five minutes.
      */
     private long cachedChecksumLifetime = 5 * 60000;
 
+    private final Ticker ticker;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public ChecksumCacheManager()
+    {
+        this(Ticker.systemTicker());
+    }
+
+    ChecksumCacheManager(Ticker ticker)
+    {
+        this.ticker = ticker;
+        this.localCache = newLocalCache();
+        this.cachedChecksums = localCache.asMap();
+    }
+
     /**
-     * Specifies at what interval to check if the checksums have expired.
-     * The default is to check once every minute.
+     * Creates the cache manager which keeps the checksums in the given, usually distributed, map.
      */
-    private long cachedChecksumExpiredCheckInterval = 60000L;
+    public ChecksumCacheManager(IMap<String, ArtifactChecksum> cachedChecksums)
+    {
+        this.ticker = null;
+        this.cachedChecksums = cachedChecksums;
 
+        cachedChecksums.addLocalEntryListener((EntryEvictedListener<String, ArtifactChecksum>) e -> evictions.increment());
+    }
 
-    public ChecksumCacheManager()
+    private Cache<String, ArtifactChecksum> newLocalCache()
     {
+        return CacheBuilder.newBuilder()
+                           .maximumSize(maxSize)
+                           .expireAfterAccess(cachedChecksumLifetime, TimeUnit.MILLISECONDS)
+                           .ticker(ticker)
+                           .<String, ArtifactChecksum>removalListener(n -> {
+                               if (n.wasEvicted())
+                               {
+                                   evictions.increment();
+                               }
+                           })
+                           .build();
     }
 
     public boolean containsArtifactPath(String artifactPath)
@@ -71,12 +123,12 @@ public class ChecksumCacheManager
     public String getArtifactChecksum(String artifactBasePath,
                                       String algorithm)
     {
-        if (!cachedChecksums.containsKey(artifactBasePath))
+        final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
+        if (artifactChecksum == null)
         {
             return null;
         }
 
-        final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
         final String checksum = artifactChecksum.getChecksum(algorithm);
         if (checksum != null)
         {
@@ -88,81 +140,77 @@ public class ChecksumCacheManager
 
     public ArtifactChecksum getArtifactChecksum(String artifactBasePath)
     {
-        return cachedChecksums.get(artifactBasePath);
+        ArtifactChecksum result = cachedChecksums.get(artifactBasePath);
+        if (result == null)
+        {
+            misses.increment();
+        }
+        else
+        {
+            hits.increment();
+        }
+
+        return result;
     }
 
     public boolean validateChecksum(String artifactPath,
                                     String algorithm,
                                     String checksum)
     {
-        return getArtifactChecksum(artifactPath, algorithm).equals(checksum);
+        return checksum != null && checksum.equals(getArtifactChecksum(artifactPath, algorithm));
     }
 
-    public synchronized void addArtifactChecksum(String artifactBasePath,
-                                                 String algorithm,
-                                                 String checksum)
+    public void addArtifactChecksum(String artifactBasePath,
+                                    String algorithm,
+                                    String checksum)
     {
         logger.debug("Adding checksum '" + checksum + "' [" + algorithm + "]" + " for '" + artifactBasePath + "' in cache.");
 
-        if (cachedChecksums.containsKey(artifactBasePath))
-        {
-            final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
-            artifactChecksum.addChecksum(algorithm, checksum);
-        }
-        else
-        {
-            ArtifactChecksum artifactChecksum = new ArtifactChecksum();
-            artifactChecksum.addChecksum(algorithm, checksum);
-
-            cachedChecksums.put(artifactBasePath, artifactChecksum);
-        }
-    }
+        cachedChecksums.compute(artifactBasePath, (k, ac) -> {
+            ArtifactChecksum result = ac == null ? new ArtifactChecksum() : new ArtifactChecksum(ac);
+            result.addChecksum(algorithm, checksum);
 
-    public synchronized void removeArtifactChecksum(String artifactBasePath,
-                                                    String algorithm)
-    {
-        Optional.ofNullable(getArtifactChecksum(artifactBasePath)).map(ac -> {
-            logger.debug(ac.removeChecksum(algorithm)
-                           .map(c -> String.format("Removed [%s] artifact checksum value [%s] from cache.",
-                                                   artifactBasePath,
-                                                   c))
-                           .orElseGet(() -> String.format("Checksum algorithm [%s] not found for [%s] in cache.",
-                                                          algorithm,
-                                                          artifactBasePath)));
-            return ac;
-        }).filter(ac -> ac.getChecksums().isEmpty()).ifPresent(ac -> cachedChecksums.values().remove(ac));
+            return result;
+        });
     }
 
-    public synchronized void removeArtifactChecksum(String artifactBasePath)
+    public void removeArtifactChecksum(String artifactBasePath,
+                                       String algorithm)
     {
-        Optional.ofNullable(cachedChecksums.remove(artifactBasePath))
-                .ifPresent(ac -> logger.debug(String.format("Removed [%s] artifact checksum value [%s] from cache.",
-                                                            artifactBasePath, ac)));
+        cachedChecksums.computeIfPresent(artifactBasePath, (k, ac) -> {
+            ArtifactChecksum result = new ArtifactChecksum(ac);
+            logger.debug(result.removeChecksum(algorithm)
+                               .map(c -> String.format("Removed [%s] artifact checksum value [%s] from cache.",
+                                                       artifactBasePath,
+                                                       c))
+                               .orElseGet(() -> String.format("Checksum algorithm [%s] not found for [%s] in cache.",
+                                                              algorithm,
+                                                              artifactBasePath)));
+
+            return result.getChecksums().isEmpty() ? null : result;
+        });
     }
 
-    public synchronized void removeExpiredChecksums()
+    public void removeArtifactChecksum(String artifactBasePath)
     {
-        for (String checksum : getExpiredChecksums())
+        ArtifactChecksum removed = cachedChecksums.remove(artifactBasePath);
+        if (removed != null)
         {
-            removeArtifactChecksum(checksum);
+            logger.debug(String.format("Removed [%s] artifact checksum value [%s] from cache.",
+                                       artifactBasePath, removed));
         }
     }
 
-    private Set<String> getExpiredChecksums()
+    /**
+     * Expired checksums are never returned, and are cleaned up along with the cache reads and writes anyway, this only
+     * releases the memory held by them right away.
+     */
+    public void removeExpiredChecksums()
     {
-        Set<String> expiredChecksums = new LinkedHashSet<>();
-
-        for (Map.Entry<String, ArtifactChecksum> artifactChecksumEntry : cachedChecksums.entrySet())
+        if (localCache != null)
         {
-            ArtifactChecksum checksum = artifactChecksumEntry.getValue();
-
-            if (System.currentTimeMillis() - checksum.getLastAccessed() > cachedChecksumLifetime)
-            {
-                expiredChecksums.add(artifactChecksumEntry.getKey());
-            }
+            localCache.cleanUp();
         }
-
-        return expiredChecksums;
     }
 
     public long getCachedChecksumLifetime()
@@ -170,19 +218,40 @@ public class ChecksumCacheManager
         return cachedChecksumLifetime;
     }
 
+    /**
+     * Should be set before the cache is used, the cached checksums are dropped. Has no effect on the distributed
+     * cache.
+     */
     public void setCachedChecksumLifetime(long cachedChecksumLifetime)
     {
         this.cachedChecksumLifetime = cachedChecksumLifetime;
+        resetLocalCache();
     }
 
-    public long getCachedChecksumExpiredCheckInterval()
+    public long getMaxSize()
     {
-        return cachedChecksumExpiredCheckInterval;
+        return maxSize;
     }
 
-    public void setCachedChecksumExpiredCheckInterval(long cachedChecksumExpiredCheckInterval)
+    /**
+     * Should be set before the cache is used, the cached checksums are dropped. Has no effect on the distributed
+     * cache.
+     */
+    public void setMaxSize(long maxSize)
+    {
+        this.maxSize = maxSize;
+        resetLocalCache();
+    }
+
+    private void resetLocalCache()
     {
-        this.cachedChecksumExpiredCheckInterval = cachedChecksumExpiredCheckInterval;
+        if (localCache == null)
+        {
+            return;
+        }
+
+        localCache = newLocalCache();
+        cachedChecksums = localCache.asMap();
     }
 
     public long getSize()
@@ -190,37 +259,19 @@ public class ChecksumCacheManager
         return cachedChecksums.size();
     }
 
-    public void startMonitor()
+    public long getHits()
     {
-        new CachedChecksumExpirer();
+        return hits.sum();
     }
 
-    private class CachedChecksumExpirer
-            extends Thread
+    public long getMisses()
     {
+        return misses.sum();
+    }
 
-        private CachedChecksumExpirer()
-        {
-            start();
-        }
-
-        @Override
-        public void run()
-        {
-            try
-            {
-                //noinspection InfiniteLoopStatement
-                while (true)
-                {
-                    Thread.sleep(getCachedChecksumExpiredCheckInterval());
-                    removeExpiredChecksums();
-                }
-            }
-            catch (InterruptedException e)
-            {
-                logger.error(e.getMessage(), e);
-            }
-        }
+    public long getEvictions()
+    {
+        return evictions.sum();
     }
 
 }
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.storage.search;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.providers.search.OrientDbSearchProvider;
 
 import java.util.LinkedHashMap;
@@ -27,6 +28,12 @@ public class SearchRequest
 
     private ArtifactCoordinates artifactCoordinates;
 
+    /**
+     * The page of the results, `null` for all of them. The cursor of the following page is returned in
+     * {@link SearchResults#getNextCursor()}.
+     */
+    private Paginator paginator;
+
 
     public SearchRequest()
     {
@@ -139,5 +146,15 @@ public class SearchRequest
     {
         this.artifactCoordinates = artifactCoordinates;
     }
+
+    public Paginator getPaginator()
+    {
+        return paginator;
+    }
+
+    public void setPaginator(Paginator paginator)
+    {
+        this.paginator = paginator;
+    }
     
 }
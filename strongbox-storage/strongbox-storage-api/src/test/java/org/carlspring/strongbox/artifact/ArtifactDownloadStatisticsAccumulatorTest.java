@@ -0,0 +1,198 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class ArtifactDownloadStatisticsAccumulatorTest
+{
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ArtifactDownloadStatisticsAccumulator accumulator;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        accumulator = new ArtifactDownloadStatisticsAccumulator();
+        ReflectionTestUtils.setField(accumulator, "artifactEntryService", artifactEntryService);
+        ReflectionTestUtils.setField(accumulator, "transactionManager", transactionManager);
+        // Long enough for the scheduled flush not to interfere with the tests.
+        ReflectionTestUtils.setField(accumulator, "flushIntervalMillis", 60000L);
+        ReflectionTestUtils.setField(accumulator, "flushThreshold", 1000);
+        ReflectionTestUtils.setField(accumulator, "maxPendingEntries", 1000);
+        ReflectionTestUtils.setField(accumulator, "lastUsedResolutionMillis", 1000L);
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws Exception
+    {
+        accumulator.destroy();
+    }
+
+    /**
+     * The artifacts downloaded the same number of times, within the same last used resolution, are updated with one
+     * statement.
+     */
+    @Test
+    public void testThresholdTriggersFlush()
+        throws Exception
+    {
+        ReflectionTestUtils.setField(accumulator, "flushThreshold", 2);
+        // A single resolution period, so that the downloads below can't fall into different ones.
+        ReflectionTestUtils.setField(accumulator, "lastUsedResolutionMillis", Long.MAX_VALUE);
+        accumulator.afterPropertiesSet();
+
+        accumulator.record("a");
+        Thread.sleep(5);
+        accumulator.record("b");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (accumulator.getFlushedDownloads() < 2)
+            {
+                Thread.sleep(10);
+            }
+        });
+
+        ArgumentCaptor<Collection<String>> uuids = uuidsCaptor();
+        Mockito.verify(artifactEntryService).incrementDownloadCount(uuids.capture(), eq(1), any(Date.class));
+        assertEquals(2, uuids.getValue().size());
+        assertEquals(0, accumulator.getPendingEntries());
+    }
+
+    /**
+     * The artifacts last used in different resolution periods keep their own last used time.
+     */
+    @Test
+    public void testLastUsedIsKeptWithinResolution()
+        throws Exception
+    {
+        ReflectionTestUtils.setField(accumulator, "lastUsedResolutionMillis", 1L);
+        accumulator.afterPropertiesSet();
+
+        accumulator.record("a");
+        Thread.sleep(5);
+        accumulator.record("b");
+
+        accumulator.flush();
+
+        ArgumentCaptor<Collection<String>> uuids = uuidsCaptor();
+        ArgumentCaptor<Date> lastUsed = ArgumentCaptor.forClass(Date.class);
+        Mockito.verify(artifactEntryService, Mockito.times(2))
+               .incrementDownloadCount(uuids.capture(), eq(1), lastUsed.capture());
+
+        Map<String, Date> lastUsedByUuid = new HashMap<>();
+        for (int i = 0; i < uuids.getAllValues().size(); i++)
+        {
+            Date date = lastUsed.getAllValues().get(i);
+            uuids.getAllValues().get(i).forEach(uuid -> lastUsedByUuid.put(uuid, date));
+        }
+        assertTrue(lastUsedByUuid.get("a").before(lastUsedByUuid.get("b")));
+    }
+
+    @Test
+    public void testFailedFlushIsAccumulatedAgain()
+        throws Exception
+    {
+        accumulator.afterPropertiesSet();
+
+        accumulator.record("a");
+        accumulator.record("a");
+        accumulator.record("b");
+
+        Mockito.when(artifactEntryService.incrementDownloadCount(anyCollection(), anyInt(), any(Date.class)))
+               .thenThrow(new IllegalStateException("Database is down."));
+
+        assertThrows(IllegalStateException.class, () -> accumulator.flush());
+        assertEquals(1, accumulator.getFailedFlushes());
+        assertEquals(2, accumulator.getPendingEntries());
+
+        Mockito.reset(artifactEntryService);
+        accumulator.record("a");
+        accumulator.flush();
+
+        assertEquals(Integer.valueOf(3), flushedCounts().get("a"));
+        assertEquals(Integer.valueOf(1), flushedCounts().get("b"));
+        assertEquals(4, accumulator.getFlushedDownloads());
+        assertEquals(0, accumulator.getPendingEntries());
+    }
+
+    @Test
+    public void testDownloadsBeyondMaxPendingEntriesAreDropped()
+        throws Exception
+    {
+        ReflectionTestUtils.setField(accumulator, "maxPendingEntries", 2);
+        accumulator.afterPropertiesSet();
+
+        accumulator.record("a");
+        accumulator.record("b");
+        accumulator.record("c");
+        // Already pending entries are still counted.
+        accumulator.record("a");
+
+        assertEquals(1, accumulator.getDroppedDownloads());
+        assertEquals(3, accumulator.getRecordedDownloads());
+        assertEquals(2, accumulator.getPendingEntries());
+
+        accumulator.flush();
+
+        Map<String, Integer> counts = flushedCounts();
+        assertEquals(Integer.valueOf(2), counts.get("a"));
+        assertEquals(Integer.valueOf(1), counts.get("b"));
+        assertFalse(counts.containsKey("c"));
+    }
+
+    private Map<String, Integer> flushedCounts()
+    {
+        ArgumentCaptor<Collection<String>> uuids = uuidsCaptor();
+        ArgumentCaptor<Integer> counts = ArgumentCaptor.forClass(Integer.class);
+        Mockito.verify(artifactEntryService, Mockito.atLeastOnce())
+               .incrementDownloadCount(uuids.capture(), counts.capture(), any(Date.class));
+
+        Map<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < uuids.getAllValues().size(); i++)
+        {
+            Integer count = counts.getAllValues().get(i);
+            uuids.getAllValues().get(i).forEach(uuid -> result.merge(uuid, count, Integer::sum));
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<Collection<String>> uuidsCaptor()
+    {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+
+}
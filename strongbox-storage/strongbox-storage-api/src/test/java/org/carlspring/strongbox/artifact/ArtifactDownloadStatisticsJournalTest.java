@@ -0,0 +1,73 @@
+package org.carlspring.strongbox.artifact;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArtifactDownloadStatisticsJournalTest
+{
+
+    @Test
+    public void testReplayCheckpointAndCurrentRecords(@TempDir Path tempDir)
+        throws Exception
+    {
+        Path journalPath = tempDir.resolve("journal").resolve("downloads.journal");
+
+        try (ArtifactDownloadStatisticsJournal journal = new ArtifactDownloadStatisticsJournal(journalPath))
+        {
+            journal.open();
+            journal.append("a", 1L);
+            journal.append("b", 2L);
+            journal.checkpoint();
+            journal.append("a", 3L);
+            journal.checkpoint();
+            journal.append("c", 4L);
+        }
+
+        Map<String, Integer> counts = replay(journalPath);
+
+        assertEquals(3, counts.size());
+        assertEquals(Integer.valueOf(2), counts.get("a"));
+        assertEquals(Integer.valueOf(1), counts.get("b"));
+        assertEquals(Integer.valueOf(1), counts.get("c"));
+    }
+
+    @Test
+    public void testCommitDropsCheckpointedRecords(@TempDir Path tempDir)
+        throws Exception
+    {
+        Path journalPath = tempDir.resolve("downloads.journal");
+
+        try (ArtifactDownloadStatisticsJournal journal = new ArtifactDownloadStatisticsJournal(journalPath))
+        {
+            journal.open();
+            journal.append("a", 1L);
+            journal.checkpoint();
+            journal.append("b", 2L);
+            journal.commit();
+        }
+
+        Map<String, Integer> counts = replay(journalPath);
+
+        assertEquals(1, counts.size());
+        assertEquals(Integer.valueOf(1), counts.get("b"));
+        assertTrue(Files.exists(journalPath));
+    }
+
+    private Map<String, Integer> replay(Path journalPath)
+        throws Exception
+    {
+        Map<String, Integer> result = new HashMap<>();
+        new ArtifactDownloadStatisticsJournal(journalPath).replay((uuid,
+                                                                   lastUsed) -> result.merge(uuid, 1, Integer::sum));
+
+        return result;
+    }
+
+}
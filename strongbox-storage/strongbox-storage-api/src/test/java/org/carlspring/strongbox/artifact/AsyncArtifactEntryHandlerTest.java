@@ -0,0 +1,272 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler.RejectionPolicy;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class AsyncArtifactEntryHandlerTest
+{
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private RepositoryPathLock repositoryPathLock;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TestArtifactEntryHandler handler;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(repositoryPathLock.lock(any(RepositoryPath.class), anyString()))
+               .thenAnswer(invocation -> new ReentrantReadWriteLock());
+
+        handler = new TestArtifactEntryHandler();
+        ReflectionTestUtils.setField(handler, "artifactEntryService", artifactEntryService);
+        ReflectionTestUtils.setField(handler, "repositoryPathLock", repositoryPathLock);
+        ReflectionTestUtils.setField(handler, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(handler, "poolSize", 1);
+        ReflectionTestUtils.setField(handler, "queueSize", 1);
+        ReflectionTestUtils.setField(handler, "rejectionPolicy", RejectionPolicy.COALESCE);
+        handler.init();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        handler.destroy();
+    }
+
+    @Test
+    public void testCallerWaitsForHandling()
+        throws Exception
+    {
+        handler.submit(path("a"));
+
+        assertEquals(Integer.valueOf(1), handler.handled.get("a"));
+        Mockito.verify(artifactEntryService).save(any(ArtifactEntry.class));
+    }
+
+    /**
+     * An event delivered on the only worker, while it handles another one, must not wait for the worker to be free.
+     */
+    @Test
+    public void testEventFromHandlerTaskDoesNotDeadlock()
+    {
+        CountDownLatch nestedHandled = new CountDownLatch(1);
+        handler.onHandle = p -> {
+            if (p.toUri().toString().endsWith("a"))
+            {
+                submitUnchecked(path("b"));
+            }
+            else
+            {
+                nestedHandled.countDown();
+            }
+        };
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            handler.submit(path("a"));
+
+            assertTrue(nestedHandled.await(5, TimeUnit.SECONDS));
+        });
+    }
+
+    @Test
+    public void testQueuedEventsAreCoalesced()
+        throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        handler.onHandle = p -> {
+            if (p.toUri().toString().endsWith("a"))
+            {
+                started.countDown();
+                awaitUnchecked(release);
+            }
+        };
+
+        Thread first = new Thread(() -> submitUnchecked(path("a")));
+        first.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The worker is busy, so both events for `b` wait in the queue as one task.
+        Thread second = new Thread(() -> submitUnchecked(path("b")));
+        Thread third = new Thread(() -> submitUnchecked(path("b")));
+        second.start();
+        third.start();
+        while (handler.getCoalescedEvents() < 1)
+        {
+            Thread.sleep(10);
+        }
+
+        release.countDown();
+        first.join(5000);
+        second.join(5000);
+        third.join(5000);
+
+        assertEquals(Integer.valueOf(1), handler.handled.get("a"));
+        assertEquals(Integer.valueOf(1), handler.handled.get("b"));
+        assertEquals(1, handler.getCoalescedEvents());
+    }
+
+    /**
+     * Once the queue and the deferred events are full, the event is handled by the caller instead of being kept.
+     */
+    @Test
+    public void testEventBeyondDeferredLimitIsHandledInPlace()
+        throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        handler.onHandle = p -> {
+            if (p.toUri().toString().endsWith("a"))
+            {
+                started.countDown();
+                awaitUnchecked(release);
+            }
+        };
+
+        Thread first = new Thread(() -> submitUnchecked(path("a")));
+        first.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // `b` fills the queue, `c` the deferred events.
+        Thread second = new Thread(() -> submitUnchecked(path("b")));
+        second.start();
+        while (handler.getQueueDepth() < 1)
+        {
+            Thread.sleep(10);
+        }
+        handler.submit(path("c"));
+        assertEquals(2, handler.getQueueDepth());
+
+        handler.submit(path("d"));
+
+        assertEquals(Integer.valueOf(1), handler.handled.get("d"));
+        assertEquals(2, handler.getRejectedEvents());
+        assertEquals(2, handler.getQueueDepth());
+
+        release.countDown();
+        first.join(5000);
+        second.join(5000);
+        while (handler.getHandledEvents() < 4)
+        {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Integer.valueOf(1), handler.handled.get("b"));
+        assertEquals(Integer.valueOf(1), handler.handled.get("c"));
+    }
+
+    /**
+     * An event which arrives after the shutdown is dropped, and the later events for the same path don't wait for it.
+     */
+    @Test
+    public void testEventAfterShutdownIsDropped()
+    {
+        handler.destroy();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            handler.submit(path("a"));
+            handler.submit(path("a"));
+        });
+
+        assertEquals(0, handler.getQueueDepth());
+        assertEquals(0, handler.getCoalescedEvents());
+        assertNull(handler.handled.get("a"));
+    }
+
+    private void submitUnchecked(RepositoryPath repositoryPath)
+    {
+        try
+        {
+            handler.submit(repositoryPath);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitUnchecked(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RepositoryPath path(String name)
+    {
+        RepositoryPath repositoryPath = Mockito.mock(RepositoryPath.class);
+        Mockito.when(repositoryPath.toUri()).thenReturn(URI.create("strongbox:/storage0/releases/" + name));
+
+        return repositoryPath;
+    }
+
+    private static class TestArtifactEntryHandler
+            extends AsyncArtifactEntryHandler
+    {
+
+        private final Map<String, Integer> handled = new ConcurrentHashMap<>();
+
+        private volatile Consumer<RepositoryPath> onHandle = p -> {
+        };
+
+        private TestArtifactEntryHandler()
+        {
+            super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED);
+        }
+
+        @Override
+        protected ArtifactEntry handleEvent(RepositoryPath repositoryPath)
+        {
+            onHandle.accept(repositoryPath);
+
+            String uri = repositoryPath.toUri().toString();
+            handled.merge(uri.substring(uri.lastIndexOf('/') + 1), 1, Integer::sum);
+
+            return new ArtifactEntry();
+        }
+
+    }
+
+}
@@ -0,0 +1,181 @@
+package org.carlspring.strongbox.booters;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.layout.LayoutProvider;
+import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.services.RepositoryManagementService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class StorageBooterTest
+{
+
+    private static final String STORAGE0 = "storage0";
+
+    private static final String STORAGE1 = "storage1";
+
+    private static final String LAYOUT = "test-layout";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private Configuration configuration;
+
+    @Mock
+    private LayoutProviderRegistry layoutProviderRegistry;
+
+    @Mock
+    private RepositoryManagementService repositoryManagementService;
+
+    @Mock
+    private GroupRepositorySetCollector groupRepositorySetCollector;
+
+    @Mock
+    private PropertiesBooter propertiesBooter;
+
+    private final Map<String, Storage> storages = new LinkedHashMap<>();
+
+    private final List<String> initialized = Collections.synchronizedList(new ArrayList<>());
+
+    private StorageBooter storageBooter;
+
+    @BeforeEach
+    public void setUp(@TempDir Path vaultDirectory)
+        throws Exception
+    {
+        MockitoAnnotations.initMocks(this);
+
+        Mockito.when(propertiesBooter.getVaultDirectory()).thenReturn(vaultDirectory.toString());
+        Mockito.when(configurationManager.getConfiguration()).thenReturn(configuration);
+        Mockito.when(configuration.getStorages()).thenReturn(storages);
+        Mockito.when(layoutProviderRegistry.getProvider(LAYOUT)).thenReturn(Mockito.mock(LayoutProvider.class));
+        Mockito.doAnswer(invocation -> {
+            String key = invocation.getArgument(0) + ":" + invocation.getArgument(1);
+            if (!key.contains("group"))
+            {
+                // give a group, which doesn't wait for its members, the chance to overtake them
+                Thread.sleep(50);
+            }
+            initialized.add(key);
+
+            return null;
+        }).when(repositoryManagementService).createRepository(anyString(), anyString());
+
+        storageBooter = new StorageBooter();
+        ReflectionTestUtils.setField(storageBooter, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(storageBooter, "layoutProviderRegistry", layoutProviderRegistry);
+        ReflectionTestUtils.setField(storageBooter, "repositoryManagementService", repositoryManagementService);
+        ReflectionTestUtils.setField(storageBooter, "groupRepositorySetCollector", groupRepositorySetCollector);
+        ReflectionTestUtils.setField(storageBooter, "propertiesBooter", propertiesBooter);
+        ReflectionTestUtils.setField(storageBooter, "parallelism", 4);
+    }
+
+    @Test
+    public void testGroupsAreInitializedAfterTheirMembers()
+        throws Exception
+    {
+        Storage storage0 = storage(STORAGE0);
+
+        // the groups come first, so that they are the ones to schedule their members
+        Repository group = repository(storage0, "group");
+        Repository nestedGroup = repository(storage0, "nested-group");
+        Repository releases = repository(storage0, "releases");
+        Repository snapshots = repository(storage0, "snapshots");
+
+        group(group, releases, nestedGroup);
+        group(nestedGroup, snapshots);
+
+        storageBooter.initialize();
+
+        assertEquals(4, initialized.size(), initialized.toString());
+        assertTrue(initialized.indexOf("storage0:releases") < initialized.indexOf("storage0:group"),
+                   initialized.toString());
+        assertTrue(initialized.indexOf("storage0:nested-group") < initialized.indexOf("storage0:group"),
+                   initialized.toString());
+        assertTrue(initialized.indexOf("storage0:snapshots") < initialized.indexOf("storage0:nested-group"),
+                   initialized.toString());
+    }
+
+    @Test
+    public void testSameNamedRepositoriesOfOtherStoragesAreInitialized()
+        throws Exception
+    {
+        Storage storage0 = storage(STORAGE0);
+        Storage storage1 = storage(STORAGE1);
+
+        Repository group0 = repository(storage0, "group");
+        Repository releases0 = repository(storage0, "releases");
+        Repository group1 = repository(storage1, "group");
+        Repository releases1 = repository(storage1, "releases");
+
+        group(group0, releases0);
+        group(group1, releases1);
+
+        storageBooter.initialize();
+
+        assertEquals(4, initialized.size(), initialized.toString());
+        Mockito.verify(repositoryManagementService).createRepository(STORAGE0, "releases");
+        Mockito.verify(repositoryManagementService).createRepository(STORAGE1, "releases");
+        Mockito.verify(repositoryManagementService).createRepository(STORAGE0, "group");
+        Mockito.verify(repositoryManagementService).createRepository(STORAGE1, "group");
+        assertTrue(initialized.indexOf("storage1:releases") < initialized.indexOf("storage1:group"),
+                   initialized.toString());
+    }
+
+    private Storage storage(String storageId)
+    {
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.getId()).thenReturn(storageId);
+        Mockito.doReturn(new LinkedHashMap<String, Repository>()).when(storage).getRepositories();
+
+        storages.put(storageId, storage);
+
+        return storage;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Repository repository(Storage storage,
+                                  String repositoryId)
+    {
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getId()).thenReturn(repositoryId);
+        Mockito.when(repository.getStorage()).thenReturn(storage);
+        Mockito.when(repository.getLayout()).thenReturn(LAYOUT);
+
+        ((Map<String, Repository>) storage.getRepositories()).put(repositoryId, repository);
+
+        return repository;
+    }
+
+    private void group(Repository group,
+                       Repository... members)
+    {
+        Mockito.when(group.isGroupRepository()).thenReturn(true);
+        Mockito.when(groupRepositorySetCollector.collect(group))
+               .thenReturn(new LinkedHashSet<>(Arrays.asList(members)));
+    }
+
+}
@@ -0,0 +1,152 @@
+package org.carlspring.strongbox.configuration;
+
+import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
+import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.services.impl.ConfigurationManagementServiceImpl;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Measures {@link ConfigurationManagementServiceImpl#getConfiguration()}, on its own and while another thread keeps
+ * modifying the configuration through the service, against the former read path (read lock with a
+ * {@link Configuration} copy per call).
+ * <p>
+ * The collaborators of the service are mocked, so that a modification costs only the lock and the snapshot rebuild.
+ * <p>
+ * Run with: `mvn test-compile exec:java -Dexec.mainClass=org.carlspring.strongbox.configuration.ConfigurationReadBenchmark -Dexec.classpathScope=test`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigurationReadBenchmark
+{
+
+    @Param({ "10", "100", "500" })
+    private int repositoryCount;
+
+    @Mock
+    private ConfigurationFileManager configurationFileManager;
+
+    @Mock
+    private RepositoryEventListenerRegistry repositoryEventListenerRegistry;
+
+    @Mock
+    private LayoutProviderRegistry layoutProviderRegistry;
+
+    @Mock
+    private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ConfigurationManagementServiceImpl configurationManagementService;
+
+    private final ReadWriteLock configurationLock = new ReentrantReadWriteLock();
+
+    private final AtomicInteger modificationCount = new AtomicInteger();
+
+    private MutableConfiguration configuration;
+
+    @Setup
+    public void setup()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        configuration = new MutableConfiguration();
+
+        MutableStorage storage = new MutableStorage("storage0");
+        for (int i = 0; i < repositoryCount; i++)
+        {
+            MutableRepository repository = new MutableRepository("repository" + i);
+            repository.setStorage(storage);
+            repository.setLayout("Maven 2");
+            repository.setType(i % 10 == 0 ? RepositoryTypeEnum.GROUP.getType() : RepositoryTypeEnum.HOSTED.getType());
+            storage.addRepository(repository);
+        }
+        configuration.addStorage(storage);
+
+        configurationManagementService.setConfiguration(configuration);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Configuration lockAndCopy()
+    {
+        Lock readLock = configurationLock.readLock();
+        readLock.lock();
+        try
+        {
+            return new Configuration(configuration);
+        }
+        finally
+        {
+            readLock.unlock();
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Configuration getConfiguration()
+    {
+        return configurationManagementService.getConfiguration();
+    }
+
+    @Benchmark
+    @Group("readWhileModifying")
+    @GroupThreads(7)
+    public Configuration getConfigurationWhileModifying()
+    {
+        return configurationManagementService.getConfiguration();
+    }
+
+    @Benchmark
+    @Group("readWhileModifying")
+    @GroupThreads(1)
+    public void modifyConfiguration()
+    {
+        configurationManagementService.setInstanceName("strongbox-" + modificationCount.incrementAndGet());
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(ConfigurationReadBenchmark.class.getSimpleName())
+                                       .addProfiler("gc")
+                                       .build()).run();
+    }
+
+}
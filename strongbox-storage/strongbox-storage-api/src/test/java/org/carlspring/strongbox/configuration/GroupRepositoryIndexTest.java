@@ -0,0 +1,113 @@
+package org.carlspring.strongbox.configuration;
+
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GroupRepositoryIndexTest
+{
+
+    private GroupRepositoryIndex index;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MutableStorage storage0 = new MutableStorage("storage0");
+        addRepository(storage0, "releases");
+        addRepository(storage0, "snapshots");
+        addRepository(storage0, "group-inner", "snapshots", "releases");
+        addRepository(storage0, "group-empty");
+
+        MutableStorage storage1 = new MutableStorage("storage1");
+        addRepository(storage1, "releases");
+        addRepository(storage1, "group-outer", "storage0:group-inner", "releases", "storage0:group-empty",
+                      "storage0:releases");
+
+        MutableConfiguration configuration = new MutableConfiguration();
+        configuration.addStorage(storage0);
+        configuration.addStorage(storage1);
+
+        index = new Configuration(configuration).getGroupRepositoryIndex();
+    }
+
+    @Test
+    public void testParents()
+    {
+        assertEquals(Arrays.asList("storage0:group-inner", "storage1:group-outer"),
+                     keys(index.getDirectParents("storage0", "releases")));
+        assertEquals(Arrays.asList("storage0:group-inner"),
+                     keys(index.getDirectParents("storage0", "snapshots")));
+        assertEquals(Arrays.asList("storage0:group-inner", "storage1:group-outer"),
+                     keys(index.getTransitiveParents("storage0", "snapshots")));
+        assertTrue(index.getDirectParents("storage1", "group-outer").isEmpty());
+    }
+
+    @Test
+    public void testMembers()
+    {
+        assertEquals(Arrays.asList("storage0:group-inner", "storage1:releases", "storage0:group-empty",
+                                   "storage0:releases"),
+                     keys(index.getDirectMembers("storage1", "group-outer")));
+        assertEquals(Arrays.asList("storage0:snapshots", "storage0:releases", "storage1:releases",
+                                   "storage0:group-empty"),
+                     keys(index.getFlattenedMembers("storage1", "group-outer")));
+        assertNull(index.getFlattenedMembers("storage0", "releases"));
+    }
+
+    /**
+     * Groups which include each other, directly or not, are traversed only once.
+     */
+    @Test
+    public void testCyclicGroups()
+    {
+        MutableStorage storage = new MutableStorage("storage0");
+        addRepository(storage, "releases");
+        addRepository(storage, "snapshots");
+        addRepository(storage, "group-a", "group-b", "releases");
+        addRepository(storage, "group-b", "group-a", "snapshots");
+
+        MutableConfiguration configuration = new MutableConfiguration();
+        configuration.addStorage(storage);
+
+        GroupRepositoryIndex cyclicIndex = new Configuration(configuration).getGroupRepositoryIndex();
+
+        assertEquals(Arrays.asList("storage0:snapshots", "storage0:releases"),
+                     keys(cyclicIndex.getFlattenedMembers("storage0", "group-a")));
+        assertEquals(Arrays.asList("storage0:releases", "storage0:snapshots"),
+                     keys(cyclicIndex.getFlattenedMembers("storage0", "group-b")));
+        assertEquals(Arrays.asList("storage0:group-a", "storage0:group-b"),
+                     keys(cyclicIndex.getTransitiveParents("storage0", "releases")));
+        // Each group of the cycle is a transitive parent of itself.
+        assertEquals(Arrays.asList("storage0:group-b", "storage0:group-a"),
+                     keys(cyclicIndex.getTransitiveParents("storage0", "group-a")));
+    }
+
+    private List<String> keys(List<Repository> repositories)
+    {
+        return repositories.stream().map(GroupRepositoryIndex::key).collect(Collectors.toList());
+    }
+
+    private void addRepository(MutableStorage storage,
+                               String repositoryId,
+                               String... members)
+    {
+        MutableRepository repository = new MutableRepository(repositoryId);
+        repository.setStorage(storage);
+        repository.setType(members.length > 0 || repositoryId.startsWith("group") ?
+                           RepositoryTypeEnum.GROUP.getType() : RepositoryTypeEnum.HOSTED.getType());
+        Arrays.stream(members).forEach(repository::addRepositoryToGroup);
+        storage.addRepository(repository);
+    }
+
+}
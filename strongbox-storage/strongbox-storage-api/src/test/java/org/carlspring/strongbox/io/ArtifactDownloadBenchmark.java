@@ -0,0 +1,193 @@
+package org.carlspring.strongbox.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the artifact download paths of
+ * {@link org.carlspring.strongbox.controllers.BaseArtifactController}, writing into a loopback socket which is
+ * drained by another thread:
+ * <ul>
+ * <li>the `4 KB` copy loop through the {@link ByteRangeInputStream} and {@link LayoutInputStream} decorators;</li>
+ * <li>{@link FileChannel#transferTo(long, long, WritableByteChannel)} into a channel over the socket output stream,
+ * which is what the controller gets from the Servlet API (a buffered copy, without the checksum calculation);</li>
+ * <li>{@link FileChannel#transferTo(long, long, WritableByteChannel)} into the {@link SocketChannel} itself, which is
+ * the kernel `sendfile` path the controller could only use with a container specific socket channel.</li>
+ * </ul>
+ * <p>
+ * Run with: `mvn test-compile exec:java -Dexec.mainClass=org.carlspring.strongbox.io.ArtifactDownloadBenchmark -Dexec.classpathScope=test`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArtifactDownloadBenchmark
+{
+
+    @Param({ "1048576", "67108864", "268435456" })
+    private int fileSize;
+
+    private Path file;
+
+    private ServerSocketChannel serverChannel;
+
+    private SocketChannel socketChannel;
+
+    private Thread sink;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        file = Files.createTempFile("artifact-download-benchmark", ".jar");
+
+        byte[] chunk = new byte[1024 * 1024];
+        new Random(fileSize).nextBytes(chunk);
+        try (OutputStream os = Files.newOutputStream(file))
+        {
+            for (int written = 0; written < fileSize; written += chunk.length)
+            {
+                os.write(chunk, 0, Math.min(chunk.length, fileSize - written));
+            }
+        }
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        socketChannel = SocketChannel.open(serverChannel.getLocalAddress());
+
+        SocketChannel accepted = serverChannel.accept();
+        sink = new Thread(() -> drain(accepted), "artifact-download-benchmark-sink");
+        sink.setDaemon(true);
+        sink.start();
+    }
+
+    private static void drain(SocketChannel channel)
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (SocketChannel c = channel)
+        {
+            while (c.read(buffer) >= 0)
+            {
+                buffer.clear();
+            }
+        }
+        catch (IOException e)
+        {
+            // The client side was closed.
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException, InterruptedException
+    {
+        socketChannel.close();
+        sink.join(TimeUnit.SECONDS.toMillis(10));
+        serverChannel.close();
+
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long decoratedStreamCopy()
+        throws IOException, NoSuchAlgorithmException
+    {
+        ByteRangeInputStream bris = new ByteRangeInputStream(Files.newInputStream(file));
+        bris.setLength(fileSize);
+
+        // The socket stream is not closed, as it would close the connection.
+        OutputStream os = socketChannel.socket().getOutputStream();
+        try (InputStream is = new LayoutInputStream(bris))
+        {
+            long totalBytes = 0;
+            int readLength;
+            byte[] bytes = new byte[4096];
+            while ((readLength = is.read(bytes, 0, bytes.length)) != -1)
+            {
+                os.write(bytes, 0, readLength);
+                os.flush();
+
+                totalBytes += readLength;
+            }
+
+            return totalBytes;
+        }
+    }
+
+    @Benchmark
+    public long transferToStreamChannel()
+        throws IOException
+    {
+        return transferTo(Channels.newChannel(socketChannel.socket().getOutputStream()));
+    }
+
+    @Benchmark
+    public long transferToSocketChannel()
+        throws IOException
+    {
+        return transferTo(socketChannel);
+    }
+
+    private long transferTo(WritableByteChannel target)
+        throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            long position = 0;
+            while (position < size)
+            {
+                long transferred = channel.transferTo(position, size - position, target);
+                if (transferred <= 0)
+                {
+                    break;
+                }
+                position += transferred;
+            }
+
+            return position;
+        }
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(ArtifactDownloadBenchmark.class.getSimpleName())
+                                       .addProfiler("gc")
+                                       .build()).run();
+    }
+
+}
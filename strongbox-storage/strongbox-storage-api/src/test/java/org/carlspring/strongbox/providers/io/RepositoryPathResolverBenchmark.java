@@ -0,0 +1,132 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.testing.NullFileSystem;
+import org.carlspring.strongbox.testing.NullFileSystemProvider;
+import org.carlspring.strongbox.testing.NullLayoutConfiguration;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Compares {@link RepositoryPathResolver#resolve(Repository, String)} with the per repository
+ * {@link LayoutFileSystem} cache against creating the file system for every call, as it was done before.
+ * <p>
+ * Run with: `mvn test-compile exec:java -Dexec.mainClass=org.carlspring.strongbox.providers.io.RepositoryPathResolverBenchmark -Dexec.classpathScope=test`
+ * <p>
+ * The allocation rate is reported by the `gc` profiler which the runner enables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RepositoryPathResolverBenchmark
+{
+
+    private static final String PATH = "org/carlspring/strongbox/test/1.0/test-1.0.jar";
+
+    private Path storagesDirectory;
+
+    private LayoutFileSystemFactory fileSystemFactory;
+
+    private RepositoryPathResolver repositoryPathResolver;
+
+    private Repository repository;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        storagesDirectory = Files.createTempDirectory("repository-path-resolver-benchmark");
+
+        PropertiesBooter propertiesBooter = new PropertiesBooter();
+        Field basedirField = ReflectionUtils.findField(PropertiesBooter.class, "storageBooterBasedir");
+        ReflectionUtils.makeAccessible(basedirField);
+        ReflectionUtils.setField(basedirField, propertiesBooter, storagesDirectory.toString());
+
+        FileSystem storageFileSystem = FileSystems.getDefault();
+        fileSystemFactory = (r) -> new NullFileSystem(propertiesBooter, r, storageFileSystem,
+                                                      new NullFileSystemProvider(storageFileSystem.provider()));
+
+        RepositoryFileSystemRegistry fileSystemRegistry = new RepositoryFileSystemRegistry();
+        fileSystemRegistry.setFyleSystemFactories(Collections.singletonMap(NullLayoutConfiguration.FILE_SYSTEM_ALIAS,
+                                                                           fileSystemFactory));
+
+        repositoryPathResolver = new RepositoryPathResolver();
+        repositoryPathResolver.fileSystemRegistry = fileSystemRegistry;
+
+        MutableStorage storage = new MutableStorage("storage0");
+        MutableRepository mutableRepository = new MutableRepository("releases");
+        mutableRepository.setStorage(storage);
+        mutableRepository.setLayout(NullArtifactCoordinates.LAYOUT_NAME);
+        mutableRepository.setType(RepositoryTypeEnum.HOSTED.getType());
+        storage.addRepository(mutableRepository);
+
+        MutableConfiguration configuration = new MutableConfiguration();
+        configuration.addStorage(storage);
+
+        repository = new Configuration(configuration, 1).getStorage("storage0").getRepository("releases");
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException
+    {
+        FileUtils.deleteDirectory(storagesDirectory.toFile());
+    }
+
+    @Benchmark
+    public RepositoryPath createFileSystem()
+    {
+        return fileSystemFactory.create(repository).getRootDirectory().resolve(PATH);
+    }
+
+    @Benchmark
+    public RepositoryPath cachedFileSystem()
+    {
+        return repositoryPathResolver.resolve(repository, PATH);
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(RepositoryPathResolverBenchmark.class.getSimpleName())
+                                       .addProfiler("gc")
+                                       .build()).run();
+    }
+
+}
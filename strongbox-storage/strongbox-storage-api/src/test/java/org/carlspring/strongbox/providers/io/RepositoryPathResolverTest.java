@@ -0,0 +1,115 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.testing.NullLayoutConfiguration;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+
+public class RepositoryPathResolverTest
+{
+
+    @Mock
+    private LayoutFileSystemFactory fileSystemFactory;
+
+    private RepositoryPathResolver repositoryPathResolver;
+
+    private MutableConfiguration configuration;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(fileSystemFactory.create(any(Repository.class)))
+               .thenAnswer(invocation -> fileSystem(invocation.getArgument(0)));
+
+        RepositoryFileSystemRegistry fileSystemRegistry = new RepositoryFileSystemRegistry();
+        fileSystemRegistry.setFyleSystemFactories(Collections.singletonMap(NullLayoutConfiguration.FILE_SYSTEM_ALIAS,
+                                                                           fileSystemFactory));
+
+        repositoryPathResolver = new RepositoryPathResolver();
+        repositoryPathResolver.fileSystemRegistry = fileSystemRegistry;
+
+        MutableStorage storage = new MutableStorage("storage0");
+        MutableRepository repository = new MutableRepository("releases");
+        repository.setStorage(storage);
+        repository.setLayout(NullArtifactCoordinates.LAYOUT_NAME);
+        repository.setType(RepositoryTypeEnum.HOSTED.getType());
+        storage.addRepository(repository);
+
+        configuration = new MutableConfiguration();
+        configuration.addStorage(storage);
+    }
+
+    @Test
+    public void testFileSystemIsReusedForTheSameRepository()
+    {
+        Repository repository = releases(new Configuration(configuration, 1));
+
+        RootRepositoryPath first = repositoryPathResolver.resolve(repository);
+        RootRepositoryPath second = repositoryPathResolver.resolve(repository);
+
+        assertSame(first, second);
+        Mockito.verify(fileSystemFactory).create(repository);
+    }
+
+    /**
+     * A configuration change publishes new repository instances, which must not get the file system of the previous
+     * ones.
+     */
+    @Test
+    public void testConfigurationChangeReplacesFileSystem()
+    {
+        Repository repository = releases(new Configuration(configuration, 1));
+        RootRepositoryPath previous = repositoryPathResolver.resolve(repository);
+
+        Repository changedRepository = releases(new Configuration(configuration, 2));
+        RootRepositoryPath current = repositoryPathResolver.resolve(changedRepository);
+
+        assertNotSame(previous, current);
+        assertSame(changedRepository, current.getFileSystem().getRepository());
+        assertSame(current, repositoryPathResolver.resolve(changedRepository));
+        Mockito.verify(fileSystemFactory, Mockito.times(2)).create(any(Repository.class));
+    }
+
+    @Test
+    public void testMutableRepositoryIsNotCached()
+    {
+        Repository repository = configuration.getStorage("storage0").getRepository("releases");
+
+        assertNotSame(repositoryPathResolver.resolve(repository), repositoryPathResolver.resolve(repository));
+        Mockito.verify(fileSystemFactory, Mockito.times(2)).create(repository);
+    }
+
+    private Repository releases(Configuration configuration)
+    {
+        return configuration.getStorage("storage0").getRepository("releases");
+    }
+
+    private LayoutFileSystem fileSystem(Repository repository)
+    {
+        LayoutFileSystem fileSystem = Mockito.mock(LayoutFileSystem.class);
+        RootRepositoryPath rootDirectory = Mockito.mock(RootRepositoryPath.class);
+
+        Mockito.when(fileSystem.getRepository()).thenReturn(repository);
+        Mockito.when(fileSystem.getRootDirectory()).thenReturn(rootDirectory);
+        Mockito.when(rootDirectory.getFileSystem()).thenReturn(fileSystem);
+
+        return fileSystem;
+    }
+
+}
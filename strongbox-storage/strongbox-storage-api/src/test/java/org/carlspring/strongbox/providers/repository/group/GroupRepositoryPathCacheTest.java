@@ -0,0 +1,175 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GroupRepositoryPathCacheTest
+{
+
+    private static final String PATH = "org/carlspring/strongbox/gprc/1.0/gprc-1.0.jar";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @InjectMocks
+    private GroupRepositoryPathCache groupRepositoryPathCache;
+
+    private Configuration configuration;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MutableStorage storage = new MutableStorage("storage0");
+        addRepository(storage, "releases");
+        addRepository(storage, "snapshots");
+        addRepository(storage, "group", "releases", "snapshots");
+
+        MutableConfiguration mutableConfiguration = new MutableConfiguration();
+        mutableConfiguration.addStorage(storage);
+        configuration = new Configuration(mutableConfiguration, 1);
+
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        ReflectionTestUtils.setField(groupRepositoryPathCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(groupRepositoryPathCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(groupRepositoryPathCache, "negativeTtlSeconds", 60L);
+        groupRepositoryPathCache.init();
+    }
+
+    @Test
+    public void testResolvedPathIsCached()
+        throws IOException
+    {
+        RepositoryPath groupPath = repositoryPath("group", PATH);
+
+        GroupRepositoryPathCache.Lookup lookup = groupRepositoryPathCache.lookup(groupPath);
+        assertFalse(lookup.isResolved());
+        assertFalse(lookup.isNotFound());
+
+        groupRepositoryPathCache.putResolved(groupPath, repository("snapshots"), lookup);
+
+        lookup = groupRepositoryPathCache.lookup(groupPath);
+        assertTrue(lookup.isResolved());
+        assertEquals("storage0:snapshots", lookup.getMemberKey());
+        assertEquals(1, groupRepositoryPathCache.getHits());
+        assertEquals(1, groupRepositoryPathCache.getMisses());
+    }
+
+    @Test
+    public void testNotFoundPathIsCached()
+        throws IOException
+    {
+        RepositoryPath groupPath = repositoryPath("group", PATH);
+
+        groupRepositoryPathCache.putNotFound(groupPath, groupRepositoryPathCache.lookup(groupPath));
+
+        assertTrue(groupRepositoryPathCache.lookup(groupPath).isNotFound());
+        assertEquals(1, groupRepositoryPathCache.getNegativeHits());
+    }
+
+    @Test
+    public void testStoredPathInvalidatesTheGroupEntries()
+        throws IOException
+    {
+        RepositoryPath groupPath = repositoryPath("group", PATH);
+        RepositoryPath otherGroupPath = repositoryPath("group", PATH + ".sha1");
+
+        groupRepositoryPathCache.putNotFound(groupPath, groupRepositoryPathCache.lookup(groupPath));
+        groupRepositoryPathCache.putNotFound(otherGroupPath, groupRepositoryPathCache.lookup(otherGroupPath));
+
+        groupRepositoryPathCache.handle(new ArtifactEvent<>(repositoryPath("releases", PATH),
+                                                            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        GroupRepositoryPathCache.Lookup lookup = groupRepositoryPathCache.lookup(groupPath);
+        assertFalse(lookup.isNotFound());
+        assertFalse(lookup.isResolved());
+        assertTrue(groupRepositoryPathCache.lookup(otherGroupPath).isNotFound());
+        assertEquals(1, groupRepositoryPathCache.getInvalidations());
+    }
+
+    @Test
+    public void testPathStoredDuringTraversalIsNotCachedAsNotFound()
+        throws IOException
+    {
+        RepositoryPath groupPath = repositoryPath("group", PATH);
+
+        GroupRepositoryPathCache.Lookup lookup = groupRepositoryPathCache.lookup(groupPath);
+
+        // The path is stored into a member after it was checked by the traversal, but before the result is cached.
+        groupRepositoryPathCache.handle(new ArtifactEvent<>(repositoryPath("snapshots", PATH),
+                                                            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+        groupRepositoryPathCache.putNotFound(groupPath, lookup);
+
+        assertFalse(groupRepositoryPathCache.lookup(groupPath).isNotFound());
+    }
+
+    @Test
+    public void testConfigurationChangeInvalidatesAllEntries()
+        throws IOException
+    {
+        RepositoryPath groupPath = repositoryPath("group", PATH);
+
+        GroupRepositoryPathCache.Lookup lookup = groupRepositoryPathCache.lookup(groupPath);
+        groupRepositoryPathCache.putResolved(groupPath, repository("releases"), lookup);
+
+        Mockito.when(configurationManager.getConfiguration())
+               .thenReturn(new Configuration(new MutableConfiguration(), 2));
+
+        lookup = groupRepositoryPathCache.lookup(groupPath);
+        assertFalse(lookup.isResolved());
+        assertEquals(0, groupRepositoryPathCache.getSize());
+    }
+
+    private RepositoryPath repositoryPath(String repositoryId,
+                                          String path)
+    {
+        RepositoryPath repositoryPath = Mockito.mock(RepositoryPath.class);
+        Mockito.when(repositoryPath.getRepository()).thenReturn(repository(repositoryId));
+        ReflectionTestUtils.setField(repositoryPath, "path", path);
+
+        return repositoryPath;
+    }
+
+    private Repository repository(String repositoryId)
+    {
+        return configuration.getStorage("storage0").getRepository(repositoryId);
+    }
+
+    private void addRepository(MutableStorage storage,
+                               String repositoryId,
+                               String... members)
+    {
+        MutableRepository repository = new MutableRepository(repositoryId);
+        repository.setStorage(storage);
+        repository.setType(members.length > 0 ? RepositoryTypeEnum.GROUP.getType() :
+                           RepositoryTypeEnum.HOSTED.getType());
+        for (String member : members)
+        {
+            repository.addRepositoryToGroup(member);
+        }
+        storage.addRepository(repository);
+    }
+
+}
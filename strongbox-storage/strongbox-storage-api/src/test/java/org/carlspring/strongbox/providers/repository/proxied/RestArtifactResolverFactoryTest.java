@@ -0,0 +1,131 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.storage.MutableStorage;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.storage.repository.remote.MutableRemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+
+import javax.ws.rs.client.Client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.verification.VerificationMode;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class RestArtifactResolverFactoryTest
+{
+
+    private static final String CENTRAL_URL = "https://repo.maven.apache.org/maven2/";
+
+    private static final String OTHER_URL = "https://repo.example.com/maven2/";
+
+    @Mock
+    private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    private RestArtifactResolverFactory factory;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(proxyRepositoryConnectionPoolConfigurationService.getRestClient(anyString(), anyString(),
+                                                                                     anyString()))
+               .thenAnswer(invocation -> Mockito.mock(Client.class));
+
+        factory = new RestArtifactResolverFactory();
+        ReflectionTestUtils.setField(factory, "proxyRepositoryConnectionPoolConfigurationService",
+                                     proxyRepositoryConnectionPoolConfigurationService);
+        ReflectionTestUtils.setField(factory, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(factory, "remoteRepositoryAlivenessCacheManager",
+                                     remoteRepositoryAlivenessCacheManager);
+    }
+
+    /**
+     * A fetch started before the remote repository was changed keeps its client until it's done.
+     */
+    @Test
+    public void testClientInUseIsClosedOnRelease()
+    {
+        RemoteRepository central = useConfiguration(1, CENTRAL_URL);
+        RestArtifactResolver resolver = factory.newInstance(central);
+
+        RemoteRepository other = useConfiguration(2, OTHER_URL);
+        factory.newInstance(other).close();
+
+        verifyClosed(CENTRAL_URL, Mockito.never());
+
+        resolver.close();
+        resolver.close();
+
+        verifyClosed(CENTRAL_URL, Mockito.times(1));
+        verifyClosed(OTHER_URL, Mockito.never());
+    }
+
+    @Test
+    public void testUnusedClientIsClosedOnConfigurationChange()
+    {
+        RemoteRepository central = useConfiguration(1, CENTRAL_URL);
+        factory.newInstance(central).close();
+
+        RemoteRepository other = useConfiguration(2, OTHER_URL);
+        RestArtifactResolver resolver = factory.newInstance(other);
+
+        verifyClosed(CENTRAL_URL, Mockito.times(1));
+
+        resolver.close();
+
+        verifyClosed(OTHER_URL, Mockito.never());
+    }
+
+    private RemoteRepository useConfiguration(long snapshotVersion,
+                                              String url)
+    {
+        MutableRemoteRepository remoteRepository = new MutableRemoteRepository();
+        remoteRepository.setUrl(url);
+        remoteRepository.setUsername("user");
+        remoteRepository.setPassword("password");
+
+        MutableStorage storage = new MutableStorage("storage0");
+        MutableRepository repository = new MutableRepository("proxy");
+        repository.setStorage(storage);
+        repository.setType(RepositoryTypeEnum.PROXY.getType());
+        repository.setRemoteRepository(remoteRepository);
+        storage.addRepository(repository);
+
+        MutableConfiguration mutableConfiguration = new MutableConfiguration();
+        mutableConfiguration.addStorage(storage);
+
+        Configuration configuration = new Configuration(mutableConfiguration, snapshotVersion);
+        Mockito.when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        ImmutableRepository proxy = (ImmutableRepository) configuration.getStorage("storage0").getRepository("proxy");
+
+        return proxy.getRemoteRepository();
+    }
+
+    private void verifyClosed(String url,
+                              VerificationMode mode)
+    {
+        Mockito.verify(proxyRepositoryConnectionPoolConfigurationService, mode)
+               .closeRestClient(url, "user", "password");
+    }
+
+}
@@ -0,0 +1,173 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link ArtifactEntryServiceImpl} coordinate queries: `toLowerCase()` and `like` predicates over the
+ * linked `artifactCoordinates.coordinates` map against the indexed
+ * {@link org.carlspring.strongbox.domain.ArtifactEntry#getCoordinateTokens()}.
+ * <p>
+ * The schema mirrors the production one (the coordinates are a separate, linked record), the queries are run through
+ * the same `OSQLSynchQuery` executor as the service, and most of the entries are in one large repository, as with a
+ * proxy of a public repository, while the queried repository is a small one next to it.
+ * <p>
+ * Run with: `mvn test-compile exec:java -Dexec.mainClass=org.carlspring.strongbox.services.impl.ArtifactEntryCoordinatesQueryBenchmark -Dexec.classpathScope=test`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArtifactEntryCoordinatesQueryBenchmark
+{
+
+    private static final String DATABASE = "artifact-entry-benchmark";
+
+    @Param({ "100000", "1000000" })
+    private int entryCount;
+
+    /**
+     * The repository of every tenth entry; all the others are in `proxy`.
+     */
+    @Param({ "releases", "proxy" })
+    private String repositoryId;
+
+    private OrientDB orientDB;
+
+    private ODatabaseSession session;
+
+    @Setup
+    public void setup()
+    {
+        orientDB = new OrientDB("memory:", OrientDBConfig.defaultConfig());
+        orientDB.create(DATABASE, ODatabaseType.MEMORY);
+        session = orientDB.open(DATABASE, "admin", "admin");
+
+        session.command("CREATE CLASS ArtifactCoordinates").close();
+        session.command("CREATE PROPERTY ArtifactCoordinates.coordinates EMBEDDEDMAP STRING").close();
+        session.command("CREATE CLASS ArtifactEntry").close();
+        session.command("CREATE PROPERTY ArtifactEntry.storageId STRING").close();
+        session.command("CREATE PROPERTY ArtifactEntry.repositoryId STRING").close();
+        session.command("CREATE PROPERTY ArtifactEntry.artifactCoordinates LINK ArtifactCoordinates").close();
+        session.command("CREATE PROPERTY ArtifactEntry.coordinateTokens EMBEDDEDSET STRING").close();
+        session.command(String.format("CREATE INDEX %s ON ArtifactEntry (storageId, repositoryId, coordinateTokens) NOTUNIQUE",
+                                      ArtifactEntryCoordinateTokensInitializer.INDEX_NAME))
+               .close();
+
+        for (int i = 0; i < entryCount; i++)
+        {
+            Map<String, String> coordinates = new LinkedHashMap<>();
+            coordinates.put("groupId", "org.carlspring.group" + (i % 1000));
+            coordinates.put("artifactId", "Artifact-" + i);
+            coordinates.put("version", "1.0." + (i % 7));
+            coordinates.put("extension", "jar");
+
+            OElement artifactCoordinates = session.newElement("ArtifactCoordinates");
+            artifactCoordinates.setProperty("coordinates", coordinates);
+            artifactCoordinates.save();
+
+            OElement entry = session.newElement("ArtifactEntry");
+            entry.setProperty("storageId", "storage0");
+            entry.setProperty("repositoryId", i % 10 == 0 ? "releases" : "proxy");
+            entry.setProperty("artifactCoordinates", artifactCoordinates);
+            entry.setProperty("coordinateTokens", CoordinateTokens.tokens(coordinates));
+            entry.save();
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        session.close();
+        orientDB.drop(DATABASE);
+        orientDB.close();
+    }
+
+    @Benchmark
+    public int strictLowerCaseScan()
+    {
+        return count("SELECT FROM ArtifactEntry WHERE artifactCoordinates.coordinates.artifactId.toLowerCase() = :artifactId" +
+                     " AND artifactCoordinates.coordinates.version.toLowerCase() = :version" +
+                     " AND (storageId = :storageId AND repositoryId = :repositoryId)",
+                     "artifactId", "artifact-4240",
+                     "version", "1.0.5");
+    }
+
+    @Benchmark
+    public int strictCoordinateTokens()
+    {
+        return count("SELECT FROM ArtifactEntry WHERE (storageId = :storageId AND repositoryId = :repositoryId)" +
+                     " AND coordinateTokens CONTAINS :artifactId AND coordinateTokens CONTAINS :version",
+                     "artifactId", CoordinateTokens.token("artifactId", "Artifact-4240"),
+                     "version", CoordinateTokens.token("version", "1.0.5"));
+    }
+
+    @Benchmark
+    public int substringLikeScan()
+    {
+        return count("SELECT FROM ArtifactEntry WHERE artifactCoordinates.coordinates.groupId.toLowerCase() like :groupId" +
+                     " AND (storageId = :storageId AND repositoryId = :repositoryId)",
+                     "groupId", "%group42%");
+    }
+
+    @Benchmark
+    public int substringCoordinateTokens()
+    {
+        return count("SELECT FROM ArtifactEntry WHERE (storageId = :storageId AND repositoryId = :repositoryId)" +
+                     " AND coordinateTokens LIKE :groupId",
+                     "groupId", CoordinateTokens.token("groupId", "%group42%"));
+    }
+
+    private int count(String query,
+                      String... parameterNameValuePairs)
+    {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("storageId", "storage0");
+        parameters.put("repositoryId", repositoryId);
+        for (int i = 0; i < parameterNameValuePairs.length; i += 2)
+        {
+            parameters.put(parameterNameValuePairs[i], parameterNameValuePairs[i + 1]);
+        }
+
+        List<ODocument> result = session.command(new OSQLSynchQuery<ODocument>(query)).execute(parameters);
+
+        return result.size();
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(ArtifactEntryCoordinatesQueryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -3,18 +3,34 @@ package org.carlspring.strongbox.services.impl;
 import org.carlspring.strongbox.StorageApiTestConfig;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.data.criteria.InvalidCursorException;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 
 import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
 import org.apache.commons.lang3.time.DateUtils;
 import org.hamcrest.CoreMatchers;
+import org.javatuples.Pair;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
@@ -24,6 +40,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.annotation.Transactional;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,6 +73,9 @@ public class ArtifactEntryServiceTest
     @Inject
     ArtifactEntryService artifactEntryService;
 
+    @PersistenceContext
+    EntityManager entityManager;
+
 
     @Test
     public void saveEntityShouldWork()
@@ -297,6 +318,117 @@ public class ArtifactEntryServiceTest
         artifactEntryService.deleteAll();
     }
 
+    /**
+     * The coordinates are matched ignoring the case, strict ones as a whole and others as a substring.
+     */
+    @Test
+    public void searchByCoordinateTokens()
+    {
+        artifactEntryService.deleteAll();
+        createArtifacts(groupId, artifactId, storageId, repositoryId);
+
+        Map<String, String> coordinates = Collections.singletonMap("path",
+                                                                   "ORG.Carlspring.Strongbox/Coordinates-Test/1.2.3/JAR");
+        assertEquals(1, artifactEntryService.findArtifactList(storageId, repositoryId, coordinates, true).size());
+
+        coordinates = Collections.singletonMap("path", "Coordinates-Test123");
+        assertTrue(artifactEntryService.findArtifactList(storageId, repositoryId, coordinates, true).isEmpty());
+        assertEquals(1, artifactEntryService.findArtifactList(storageId, repositoryId, coordinates, false).size());
+
+        coordinates = Collections.singletonMap("path", "/COORDINATES-TEST");
+        assertEquals(3, artifactEntryService.findArtifactList(storageId, repositoryId, coordinates, false).size());
+
+        artifactEntryService.deleteAll();
+    }
+
+    /**
+     * The cursor pages follow each other without gaps or repetitions, and the last one has no next cursor.
+     */
+    @Test
+    public void searchByCursor()
+    {
+        artifactEntryService.deleteAll();
+        createArtifacts(groupId, artifactId, storageId, repositoryId);
+
+        Map<String, String> coordinates = Collections.singletonMap("path", groupId);
+        Set<String> paths = new HashSet<>();
+        String cursor = Paginator.FIRST_PAGE_CURSOR;
+        int pages = 0;
+        while (cursor != null)
+        {
+            Paginator paginator = new Paginator();
+            paginator.setLimit(2);
+            paginator.setCursor(cursor);
+
+            List<ArtifactEntry> page = artifactEntryService.findArtifactList(storageId, repositoryId, coordinates,
+                                                                             Collections.emptySet(), paginator,
+                                                                             false);
+            assertTrue(page.size() <= 2);
+            page.stream()
+                .map(e -> ((NullArtifactCoordinates) e.getArtifactCoordinates()).getPath())
+                .forEach(path -> assertTrue(paths.add(path), path));
+
+            cursor = paginator.getNextCursor();
+            pages++;
+        }
+
+        assertEquals(3, paths.size());
+        assertEquals(2, pages);
+
+        Paginator paginator = new Paginator();
+        paginator.setCursor(Paginator.encodeCursor("not-a-record-id"));
+        assertThrows(InvalidCursorException.class,
+                     () -> artifactEntryService.findArtifactList(storageId, repositoryId, coordinates,
+                                                                 Collections.emptySet(), paginator, false));
+
+        artifactEntryService.deleteAll();
+    }
+
+    /**
+     * Strict coordinates are looked up through the `(storageId, repositoryId, coordinateTokens)` index, and the others
+     * at least through its storage and repository part.
+     */
+    @Test
+    @Transactional
+    public void coordinateQueriesShouldUseIndex()
+    {
+        ArtifactEntryServiceImpl target = AopTestUtils.getUltimateTargetObject(artifactEntryService);
+        List<Pair<String, String>> storageRepositoryPairList = Collections.singletonList(Pair.with(storageId,
+                                                                                                   repositoryId));
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId0", storageId);
+        parameterMap.put("repositoryId0", repositoryId);
+
+        parameterMap.put("path", CoordinateTokens.token("path", "org.carlspring.strongbox/coordinates-test/1.2.3/jar"));
+        List<String> involvedIndexes = explain(target.buildCoordinatesQuery(storageRepositoryPairList,
+                                                                           Collections.singleton("path"),
+                                                                           Collections.emptySet(), 0, 0, null,
+                                                                           false, true),
+                                               parameterMap);
+        assertThat(involvedIndexes, CoreMatchers.hasItem(ArtifactEntryCoordinateTokensInitializer.INDEX_NAME));
+
+        parameterMap.put("path", CoordinateTokens.token("path", "%coordinates-test%"));
+        involvedIndexes = explain(target.buildCoordinatesQuery(storageRepositoryPairList,
+                                                              Collections.singleton("path"),
+                                                              Collections.emptySet(), 0, 0, null,
+                                                              false, false),
+                                  parameterMap);
+        assertFalse(involvedIndexes.isEmpty());
+    }
+
+    private List<String> explain(String sQuery,
+                                 Map<String, Object> parameterMap)
+    {
+        OObjectDatabaseTx db = (OObjectDatabaseTx) entityManager.getDelegate();
+        ODocument plan = db.command(new OCommandSQL("EXPLAIN " + sQuery)).execute(parameterMap);
+
+        logger.debug("Query [{}] plan:\n[{}]", sQuery, plan.toJSON());
+
+        return Optional.ofNullable(plan.<Collection<String>>field("involvedIndexes"))
+                       .map(ArrayList::new)
+                       .orElse(new ArrayList<>());
+    }
+
     public void displayAllEntries()
     {
         List<ArtifactEntry> result = artifactEntryService.findAll()
@@ -1,59 +1,106 @@
 package org.carlspring.strongbox.storage.checksum;
 
 import org.carlspring.commons.encryption.EncryptionAlgorithmsEnum;
+import org.carlspring.strongbox.config.hazelcast.HazelcastConfiguration;
+import org.carlspring.strongbox.config.hazelcast.HazelcastInstanceId;
+import org.carlspring.strongbox.data.CacheName;
 import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.junit.jupiter.api.Disabled;
+import com.google.common.base.Ticker;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author mtodorov
  */
-@Disabled
 public class ChecksumCacheManagerTest
 {
 
+    private static final String ARTIFACT1_BASE_PATH = "storage0/repositories/snapshots/org/carlspring/maven/test-project/1.0-SNAPSHOT/maven-metadata.xml";
+
+    private static final String ARTIFACT2_BASE_PATH = "storage0/repositories/snapshots/org/carlspring/maven/test-project/1.0-SNAPSHOT/test-project-1.0-20131004.115330-1.jar";
 
     @Test
     public void testChecksumManagement()
-            throws Exception
     {
         ChecksumCacheManager manager = new ChecksumCacheManager();
-        manager.setCachedChecksumLifetime(3000L);
-        manager.setCachedChecksumExpiredCheckInterval(500L);
 
-        CheckingThread checkerThread = new CheckingThread(manager);
+        manager.addArtifactChecksum(ARTIFACT1_BASE_PATH, "md5", "d0s#3E59jszLsPj3#edp!$");
+        manager.addArtifactChecksum(ARTIFACT1_BASE_PATH, "sha1", "d0s#3E59jszLsPj3#edp!$");
 
-        final String artifact1BasePath = "storage0/repositories/snapshots/org/carlspring/maven/test-project/1.0-SNAPSHOT/maven-metadata.xml";
-        final String artifact2BasePath = "storage0/repositories/snapshots/org/carlspring/maven/test-project/1.0-SNAPSHOT/test-project-1.0-20131004.115330-1.jar";
+        assertTrue(manager.validateChecksum(ARTIFACT1_BASE_PATH, "md5", "d0s#3E59jszLsPj3#edp!$"));
+        assertFalse(manager.validateChecksum(ARTIFACT1_BASE_PATH, "md5", "eps0#!_)fs0-qWadg#)s1!"));
 
-        manager.addArtifactChecksum(artifact1BasePath, "md5", "d0s#3E59jszLsPj3#edp!$");
-        manager.addArtifactChecksum(artifact1BasePath, "sha1", "d0s#3E59jszLsPj3#edp!$");
-        manager.addArtifactChecksum(artifact2BasePath, "md5", "eps0#!_)fs0-qWadg#)s1!");
-        manager.addArtifactChecksum(artifact2BasePath, "sha1", "eps0#!_)fs0-qWadg#)s1!");
+        manager.removeArtifactChecksum(ARTIFACT1_BASE_PATH, "md5");
+        assertNull(manager.getArtifactChecksum(ARTIFACT1_BASE_PATH, "md5"));
+        assertTrue(manager.containsArtifactPath(ARTIFACT1_BASE_PATH));
 
-        manager.startMonitor();
+        manager.removeArtifactChecksum(ARTIFACT1_BASE_PATH, "sha1");
+        assertFalse(manager.containsArtifactPath(ARTIFACT1_BASE_PATH));
+    }
 
-        checkerThread.start();
+    @Test
+    public void testChecksumsExpireAfterLastAccess()
+    {
+        FakeTicker ticker = new FakeTicker();
+        ChecksumCacheManager manager = new ChecksumCacheManager(ticker);
+        manager.setCachedChecksumLifetime(3000L);
+
+        manager.addArtifactChecksum(ARTIFACT1_BASE_PATH, "md5", "d0s#3E59jszLsPj3#edp!$");
+        manager.addArtifactChecksum(ARTIFACT2_BASE_PATH, "md5", "eps0#!_)fs0-qWadg#)s1!");
 
-        Thread.sleep(3000L);
+        ticker.advance(2000L);
+        assertNotNull(manager.getArtifactChecksum(ARTIFACT1_BASE_PATH, "md5"));
 
-        manager.getArtifactChecksum(artifact1BasePath, "md5");
+        ticker.advance(2000L);
+        assertNotNull(manager.getArtifactChecksum(ARTIFACT1_BASE_PATH, "md5"));
+        assertNull(manager.getArtifactChecksum(ARTIFACT2_BASE_PATH, "md5"));
 
-        System.out.println("Slept " + checkerThread.getTimeSlept() + " ms");
+        ticker.advance(3001L);
+        assertNull(manager.getArtifactChecksum(ARTIFACT1_BASE_PATH, "md5"));
+
+        manager.removeExpiredChecksums();
+        assertEquals(0, manager.getSize());
+        assertEquals(2, manager.getEvictions());
+    }
 
-        if (checkerThread.getTimeSlept() > (checkerThread.getMaxTime() + checkerThread.getTolerance()))
+    @Test
+    public void testChecksumsAreBoundedBySize()
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager();
+        manager.setMaxSize(10);
+
+        for (int i = 0; i < 100; i++)
         {
-            fail("Failed to expire the cache on time!");
+            manager.addArtifactChecksum(ARTIFACT2_BASE_PATH + i, "md5", "eps0#!_)fs0-qWadg#)s1!");
         }
 
-        checkerThread.interrupt();
+        assertTrue(manager.getSize() <= 10);
+        assertEquals(100 - manager.getSize(), manager.getEvictions());
+        assertNotNull(manager.getArtifactChecksum(ARTIFACT2_BASE_PATH + 99, "md5"));
+    }
+
+    @Test
+    public void testDistributedChecksumsUseCacheProperties()
+    {
+        MapConfig mapConfig = new HazelcastConfiguration().hazelcastConfig(new HazelcastInstanceId("test"), 500, 30)
+                                                          .getMapConfig(CacheName.Artifact.CHECKSUMS);
+
+        assertEquals(30, mapConfig.getMaxIdleSeconds());
+        assertEquals(500, mapConfig.getMaxSizeConfig().getSize());
+        assertEquals(MaxSizeConfig.MaxSizePolicy.PER_NODE, mapConfig.getMaxSizeConfig().getMaxSizePolicy());
     }
 
     @Test
@@ -78,71 +125,21 @@ public class ChecksumCacheManagerTest
         System.out.println("sha1: " + sha1);
     }
 
-    private class CheckingThread extends Thread
+    private static class FakeTicker
+            extends Ticker
     {
-        ChecksumCacheManager manager;
 
-        int sleepInterval = 100; // 100 ms
-        int timeSlept;
-        int maxTime = 3000;      // 3 secs
-        int tolerance = 1000;    // 1 sec
-
-        private CheckingThread(ChecksumCacheManager manager)
-        {
-            this.manager = manager;
-        }
+        private final AtomicLong nanos = new AtomicLong();
 
         @Override
-        public void run()
-        {
-
-            try
-            {
-                while (timeSlept < (maxTime + tolerance))
-                {
-                    if (manager.getSize() == 1)
-                    {
-                        break; // This was expected
-                    }
-
-                    if (timeSlept > maxTime)
-                    {
-                        System.out.println("The process has exceeded the defined limit of " + maxTime + " by " + (timeSlept - maxTime) + " ms...");
-                    }
-
-                    sleep(sleepInterval);
-                    timeSlept += sleepInterval;
-                }
-            }
-            catch (InterruptedException e)
-            {
-                // This is okay.
-            }
-        }
-
-        public ChecksumCacheManager getManager()
-        {
-            return manager;
-        }
-
-        public int getSleepInterval()
-        {
-            return sleepInterval;
-        }
-
-        public int getTimeSlept()
-        {
-            return timeSlept;
-        }
-
-        public int getMaxTime()
+        public long read()
         {
-            return maxTime;
+            return nanos.get();
         }
 
-        public int getTolerance()
+        private void advance(long millis)
         {
-            return tolerance;
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
         }
 
     }
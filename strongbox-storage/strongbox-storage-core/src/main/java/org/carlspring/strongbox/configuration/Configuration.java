@@ -51,8 +51,19 @@ public class Configuration
 
     private final SmtpConfiguration smtpConfiguration;
 
+    private final long snapshotVersion;
+
+    private final GroupRepositoryIndex groupRepositoryIndex;
+
     public Configuration(final MutableConfiguration delegate)
     {
+        this(delegate, 0);
+    }
+
+    public Configuration(final MutableConfiguration delegate,
+                         final long snapshotVersion)
+    {
+        this.snapshotVersion = snapshotVersion;
 
         id = delegate.getId();
         instanceName = delegate.getInstanceName();
@@ -68,6 +79,7 @@ public class Configuration
         routingRules = immuteRoutingRules(delegate.getRoutingRules());
         corsConfiguration = immuteCorsConfiguration(delegate.getCorsConfiguration());
         smtpConfiguration = immuteSmtpConfiguration(delegate.getSmtpConfiguration());
+        groupRepositoryIndex = new GroupRepositoryIndex(storages);
     }
 
     private ProxyConfiguration immuteProxyConfiguration(final MutableProxyConfiguration source)
@@ -126,6 +138,14 @@ public class Configuration
         return revision;
     }
 
+    /**
+     * @return monotonically increasing number of the configuration modification this snapshot was built from
+     */
+    public long getSnapshotVersion()
+    {
+        return snapshotVersion;
+    }
+
     public String getBaseUrl()
     {
         return baseUrl;
@@ -218,22 +238,12 @@ public class Configuration
     public List<Repository> getGroupRepositoriesContaining(String storageId,
                                                            String repositoryId)
     {
-        String storageAndRepositoryId = storageId + ":" + repositoryId;
-        List<Repository> groupRepositories = getGroupRepositories();
-        for (Iterator<Repository> it = groupRepositories.iterator(); it.hasNext(); )
-        {
-            Repository repository = it.next();
-            Optional<String> exists = repository.getGroupRepositories()
-                                                .stream()
-                                                .filter(groupName -> (groupName.equals(storageAndRepositoryId) ||
-                                                                      (repository.getStorage().getId().equals(storageId) && groupName.equals(repositoryId))))
-                                                .findFirst();
-            if (!exists.isPresent())
-            {
-                it.remove();
-            }
-        }
-        return groupRepositories;
+        return new ArrayList<>(groupRepositoryIndex.getDirectParents(storageId, repositoryId));
+    }
+
+    public GroupRepositoryIndex getGroupRepositoryIndex()
+    {
+        return groupRepositoryIndex;
     }
 
     public HttpConnectionPool getHttpConnectionPoolConfiguration(String storageId,
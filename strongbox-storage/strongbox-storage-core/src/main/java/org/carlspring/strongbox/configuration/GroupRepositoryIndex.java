@@ -0,0 +1,195 @@
+package org.carlspring.strongbox.configuration;
+
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Group repository membership of one {@link Configuration}, precomputed in both directions, so that the lookups
+ * don't need to scan all the repositories of all the storages.
+ * <p>
+ * Repositories are identified by the `storageId:repositoryId` key, see {@link #key(String, String)}.
+ *
+ * @see Configuration#getGroupRepositoryIndex()
+ */
+@Immutable
+public class GroupRepositoryIndex
+{
+
+    private final Map<String, List<Repository>> directParents;
+
+    private final Map<String, List<Repository>> transitiveParents;
+
+    private final Map<String, List<Repository>> directMembers;
+
+    private final Map<String, List<Repository>> flattenedMembers;
+
+    public GroupRepositoryIndex(final Map<String, Storage> storages)
+    {
+        Map<String, Repository> repositories = new LinkedHashMap<>();
+        storages.values()
+                .forEach(s -> s.getRepositories()
+                               .values()
+                               .forEach(r -> repositories.put(key(s.getId(), r.getId()), r)));
+
+        Map<String, List<Repository>> directMembersLocal = new HashMap<>();
+        Map<String, List<Repository>> directParentsLocal = new HashMap<>();
+        for (Repository repository : repositories.values())
+        {
+            if (!repository.isGroupRepository())
+            {
+                continue;
+            }
+
+            String storageId = repository.getStorage().getId();
+
+            Set<Repository> members = new LinkedHashSet<>();
+            for (String memberId : repository.getGroupRepositories())
+            {
+                Repository member = repositories.get(key(ConfigurationUtils.getStorageId(storageId, memberId),
+                                                         ConfigurationUtils.getRepositoryId(memberId)));
+                if (member != null)
+                {
+                    members.add(member);
+                }
+            }
+
+            directMembersLocal.put(key(repository), new ArrayList<>(members));
+            members.forEach(m -> directParentsLocal.computeIfAbsent(key(m), k -> new ArrayList<>()).add(repository));
+        }
+
+        Map<String, List<Repository>> transitiveParentsLocal = new HashMap<>();
+        for (String repositoryKey : repositories.keySet())
+        {
+            Set<Repository> parents = new LinkedHashSet<>();
+            collectParents(repositoryKey, directParentsLocal, parents);
+            if (!parents.isEmpty())
+            {
+                transitiveParentsLocal.put(repositoryKey, new ArrayList<>(parents));
+            }
+        }
+
+        Map<String, List<Repository>> flattenedMembersLocal = new HashMap<>();
+        for (String groupKey : directMembersLocal.keySet())
+        {
+            Set<Repository> members = new LinkedHashSet<>();
+            collectMembers(groupKey, directMembersLocal, members, new HashSet<>());
+            flattenedMembersLocal.put(groupKey, new ArrayList<>(members));
+        }
+
+        directParents = immute(directParentsLocal);
+        transitiveParents = immute(transitiveParentsLocal);
+        directMembers = immute(directMembersLocal);
+        flattenedMembers = immute(flattenedMembersLocal);
+    }
+
+    private void collectParents(String repositoryKey,
+                                Map<String, List<Repository>> directParentsLocal,
+                                Set<Repository> result)
+    {
+        for (Repository parent : directParentsLocal.getOrDefault(repositoryKey, Collections.emptyList()))
+        {
+            if (result.add(parent))
+            {
+                collectParents(key(parent), directParentsLocal, result);
+            }
+        }
+    }
+
+    /**
+     * Same order as {@link Repository#getGroupRepositories()} depth-first traversal, nested groups are replaced with
+     * their members unless they have no members at all.
+     */
+    private void collectMembers(String groupKey,
+                                Map<String, List<Repository>> directMembersLocal,
+                                Set<Repository> result,
+                                Set<String> visitedGroups)
+    {
+        if (!visitedGroups.add(groupKey))
+        {
+            return;
+        }
+
+        for (Repository member : directMembersLocal.getOrDefault(groupKey, Collections.emptyList()))
+        {
+            if (member.getGroupRepositories() == null || member.getGroupRepositories().isEmpty())
+            {
+                result.add(member);
+                continue;
+            }
+
+            collectMembers(key(member), directMembersLocal, result, visitedGroups);
+        }
+    }
+
+    private static Map<String, List<Repository>> immute(Map<String, List<Repository>> source)
+    {
+        Map<String, List<Repository>> result = new HashMap<>();
+        source.forEach((k,
+                        v) -> result.put(k, ImmutableList.copyOf(v)));
+
+        return ImmutableMap.copyOf(result);
+    }
+
+    public static String key(String storageId,
+                             String repositoryId)
+    {
+        return storageId + ":" + repositoryId;
+    }
+
+    public static String key(Repository repository)
+    {
+        return key(repository.getStorage().getId(), repository.getId());
+    }
+
+    /**
+     * @return group repositories which directly include given repository
+     */
+    public List<Repository> getDirectParents(String storageId,
+                                             String repositoryId)
+    {
+        return directParents.getOrDefault(key(storageId, repositoryId), Collections.emptyList());
+    }
+
+    /**
+     * @return all the group repositories which include given repository, directly or through other groups
+     */
+    public List<Repository> getTransitiveParents(String storageId,
+                                                 String repositoryId)
+    {
+        return transitiveParents.getOrDefault(key(storageId, repositoryId), Collections.emptyList());
+    }
+
+    /**
+     * @return direct members of given group repository, or `null` if there is no such group repository
+     */
+    public List<Repository> getDirectMembers(String storageId,
+                                             String repositoryId)
+    {
+        return directMembers.get(key(storageId, repositoryId));
+    }
+
+    /**
+     * @return non group members of given group repository, including members of nested groups, in resolution order;
+     *         or `null` if there is no such group repository
+     */
+    public List<Repository> getFlattenedMembers(String storageId,
+                                                String repositoryId)
+    {
+        return flattenedMembers.get(key(storageId, repositoryId));
+    }
+
+}
@@ -32,6 +32,12 @@ public class MutableRemoteRepository
 
     private Integer checkIntervalSeconds = DEFAULT_HEARTBEAT_INTERVAL_SECONDS;
 
+    /**
+     * How long after its expiration a maven-metadata.xml is still served while it's revalidated in the background,
+     * zero revalidates it on the request thread.
+     */
+    private Integer metadataStaleWindowSeconds = 0;
+
     private boolean allowsDirectoryBrowsing = true;
 
     private boolean autoImportRemoteSSLCertificate;
@@ -118,6 +124,16 @@ public class MutableRemoteRepository
         this.checkIntervalSeconds = checkIntervalSeconds;
     }
 
+    public Integer getMetadataStaleWindowSeconds()
+    {
+        return metadataStaleWindowSeconds;
+    }
+
+    public void setMetadataStaleWindowSeconds(Integer metadataStaleWindowSeconds)
+    {
+        this.metadataStaleWindowSeconds = metadataStaleWindowSeconds;
+    }
+
     public void setAllowsDirectoryBrowsing(boolean allowsDirectoryBrowsing)
     {
         this.allowsDirectoryBrowsing = allowsDirectoryBrowsing;
@@ -32,6 +32,8 @@ public class RemoteRepository
 
     private Integer checkIntervalSeconds;
 
+    private Integer metadataStaleWindowSeconds;
+
     private boolean allowsDirectoryBrowsing;
 
     private boolean autoImportRemoteSSLCertificate;
@@ -55,6 +57,7 @@ public class RemoteRepository
         this.password = other.getPassword();
         this.checksumPolicy = other.getChecksumPolicy();
         this.checkIntervalSeconds = other.getCheckIntervalSeconds();
+        this.metadataStaleWindowSeconds = other.getMetadataStaleWindowSeconds();
         this.allowsDirectoryBrowsing = other.allowsDirectoryBrowsing();
         this.autoImportRemoteSSLCertificate = other.isAutoImportRemoteSSLCertificate();
         this.customConfiguration = immuteRemoteRepositoryConfiguration(other.getCustomConfiguration());
@@ -100,6 +103,11 @@ public class RemoteRepository
         return checkIntervalSeconds;
     }
 
+    public Integer getMetadataStaleWindowSeconds()
+    {
+        return metadataStaleWindowSeconds;
+    }
+
     public boolean allowsDirectoryBrowsing()
     {
         return allowsDirectoryBrowsing;
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.storage.metadata;
 
 import org.carlspring.maven.commons.util.ArtifactUtils;
+import org.carlspring.strongbox.storage.metadata.comparators.VersionComparator;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -95,6 +96,71 @@ public class MetadataMerger
         return metadata;
     }
 
+    /**
+     * Merges a single version into the existing artifact level metadata, the same way as a full regeneration from
+     * all the version directories would order it: the versions stay sorted, `latest` (and, in a release repository,
+     * `release`) is the highest version.
+     *
+     * @return `true` if the version has been added
+     */
+    public boolean mergeVersion(Metadata metadata,
+                                String version,
+                                boolean release)
+    {
+        Versioning versioning = metadata.getVersioning();
+        if (versioning == null)
+        {
+            versioning = new Versioning();
+            metadata.setVersioning(versioning);
+        }
+
+        List<String> versions = versioning.getVersions();
+        if (versions.contains(version))
+        {
+            return false;
+        }
+
+        VersionComparator versionComparator = new VersionComparator();
+
+        int index = Collections.binarySearch(versions, version, versionComparator);
+        versions.add(index < 0 ? -index - 1 : index, version);
+
+        if (versioning.getLatest() == null || versionComparator.compare(version, versioning.getLatest()) > 0)
+        {
+            versioning.setLatest(version);
+        }
+        if (release &&
+            (versioning.getRelease() == null || versionComparator.compare(version, versioning.getRelease()) > 0))
+        {
+            versioning.setRelease(version);
+        }
+
+        MetadataHelper.setLastUpdated(versioning);
+
+        return true;
+    }
+
+    /**
+     * Adds the plugins which aren't in the group level metadata yet.
+     *
+     * @return `true` if any plugin has been added
+     */
+    public boolean mergePlugins(Metadata metadata,
+                                List<Plugin> plugins)
+    {
+        boolean result = false;
+        for (Plugin plugin : plugins)
+        {
+            if (metadata.getPlugins().stream().noneMatch(p -> p.getArtifactId().equals(plugin.getArtifactId())))
+            {
+                metadata.addPlugin(plugin);
+                result = true;
+            }
+        }
+
+        return result;
+    }
+
     /**
      * This method looks at the existing maven-metadata.xml plugins list and compares with incoming PluginArtifact.
      * If the incoming artifact plugin is not present in the existing Metadata then it tries to add the information
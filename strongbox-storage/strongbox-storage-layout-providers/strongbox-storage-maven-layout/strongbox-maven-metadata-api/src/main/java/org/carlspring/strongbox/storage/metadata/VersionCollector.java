@@ -65,62 +65,10 @@ public class VersionCollector
         // Add all versions
         for (Path versionDirectoryPath : versionPaths)
         {
-            try
+            MetadataVersion metadataVersion = collectVersion(artifactBasePath, versionDirectoryPath, request);
+            if (metadataVersion != null)
             {
-                Path pomArtifactPath = getPomPath(artifactBasePath, versionDirectoryPath);
-
-                // No pom, no metadata.
-                if (pomArtifactPath != null)
-                {
-                    Model pom = getPom(pomArtifactPath);
-
-                    BasicFileAttributes fileAttributes = Files.readAttributes(versionDirectoryPath,
-                                                                              BasicFileAttributes.class);
-
-                    // TODO: This will not work for versionless POM-s which extend the version from a parent.
-                    // TODO: If pom.getVersion() == null, walk the parents until a parent with
-                    // TODO: a non-null version is found and use that as the version.
-                    String version = pom.getVersion() != null ? pom.getVersion() :
-                                     (pom.getParent() != null ? pom.getVersion() : null);
-
-                    if (version == null)
-                    {
-                        continue;
-                    }
-
-                    if (ArtifactUtils.isSnapshot(version))
-                    {
-                        version = ArtifactUtils.getSnapshotBaseVersion(version);
-                    }
-
-                    MetadataVersion metadataVersion = new MetadataVersion();
-                    metadataVersion.setVersion(version);
-                    metadataVersion.setCreatedDate(fileAttributes.lastModifiedTime());
-
-                    versions.add(metadataVersion);
-
-                    if (artifactIsPlugin(pom))
-                    {
-                        String name = pom.getName() != null ? pom.getName() : pom.getArtifactId();
-
-                        // TODO: SB-339: Get the maven plugin's prefix properly when generating metadata
-                        // TODO: This needs to be addressed properly, as it's not correct.
-                        // TODO: This can be obtained from the jar's META-INF/maven/plugin.xml and should be read
-                        // TODO: either via a ZipInputStream, or using TrueZip.
-                        // String prefix = pom.getArtifactId().replace("maven-plugin", "").replace("-plugin$", "");
-
-                        Plugin plugin = new Plugin();
-                        plugin.setName(name);
-                        plugin.setArtifactId(pom.getArtifactId());
-                        plugin.setPrefix(PluginDescriptor.getGoalPrefixFromArtifactId(pom.getArtifactId()));
-
-                        request.addPlugin(plugin);
-                    }
-                }
-            }
-            catch (XmlPullParserException | IOException e)
-            {
-                logger.error("POM file '" + versionDirectoryPath.toAbsolutePath() + "' appears to be corrupt.", e);
+                versions.add(metadataVersion);
             }
         }
 
@@ -136,6 +84,99 @@ public class VersionCollector
         return request;
     }
 
+    /**
+     * Collects a single version directory, for updating the existing metadata without reading the POM-s of all the
+     * other versions.
+     *
+     * @return the request with the version, if it has a POM, and its plugin
+     */
+    public VersionCollectionRequest collectVersion(Path artifactBasePath,
+                                                   Path versionDirectoryPath)
+    {
+        VersionCollectionRequest request = new VersionCollectionRequest();
+        request.setArtifactBasePath(artifactBasePath);
+
+        List<MetadataVersion> versions = new ArrayList<>();
+
+        MetadataVersion metadataVersion = collectVersion(artifactBasePath, versionDirectoryPath, request);
+        if (metadataVersion != null)
+        {
+            versions.add(metadataVersion);
+        }
+
+        request.setMetadataVersions(versions);
+        request.setVersioning(generateVersioning(versions));
+
+        return request;
+    }
+
+    private MetadataVersion collectVersion(Path artifactBasePath,
+                                           Path versionDirectoryPath,
+                                           VersionCollectionRequest request)
+    {
+        try
+        {
+            Path pomArtifactPath = getPomPath(artifactBasePath, versionDirectoryPath);
+
+            // No pom, no metadata.
+            if (pomArtifactPath == null)
+            {
+                return null;
+            }
+
+            Model pom = getPom(pomArtifactPath);
+
+            BasicFileAttributes fileAttributes = Files.readAttributes(versionDirectoryPath,
+                                                                      BasicFileAttributes.class);
+
+            // TODO: This will not work for versionless POM-s which extend the version from a parent.
+            // TODO: If pom.getVersion() == null, walk the parents until a parent with
+            // TODO: a non-null version is found and use that as the version.
+            String version = pom.getVersion() != null ? pom.getVersion() :
+                             (pom.getParent() != null ? pom.getVersion() : null);
+
+            if (version == null)
+            {
+                return null;
+            }
+
+            if (ArtifactUtils.isSnapshot(version))
+            {
+                version = ArtifactUtils.getSnapshotBaseVersion(version);
+            }
+
+            MetadataVersion metadataVersion = new MetadataVersion();
+            metadataVersion.setVersion(version);
+            metadataVersion.setCreatedDate(fileAttributes.lastModifiedTime());
+
+            if (artifactIsPlugin(pom))
+            {
+                String name = pom.getName() != null ? pom.getName() : pom.getArtifactId();
+
+                // TODO: SB-339: Get the maven plugin's prefix properly when generating metadata
+                // TODO: This needs to be addressed properly, as it's not correct.
+                // TODO: This can be obtained from the jar's META-INF/maven/plugin.xml and should be read
+                // TODO: either via a ZipInputStream, or using TrueZip.
+                // String prefix = pom.getArtifactId().replace("maven-plugin", "").replace("-plugin$", "");
+
+                Plugin plugin = new Plugin();
+                plugin.setName(name);
+                plugin.setArtifactId(pom.getArtifactId());
+                plugin.setPrefix(PluginDescriptor.getGoalPrefixFromArtifactId(pom.getArtifactId()));
+
+                request.addPlugin(plugin);
+            }
+
+            return metadataVersion;
+        }
+        catch (XmlPullParserException | IOException e)
+        {
+            logger.error("POM file '" + versionDirectoryPath.toAbsolutePath() + "' appears to be corrupt.", e);
+        }
+
+        return null;
+    }
+
     private Path getPomPath(Path artifactBasePath,
                             Path versionDirectoryPath)
     {
@@ -398,6 +398,53 @@ public class MetadataHelperTest
         assertEquals("", metadata.getPlugins().get(0).getPrefix());
     }
 
+    @Test
+    public void mergeVersionKeepsVersionsOrderedTest()
+    {
+        // Given
+        Metadata metadata = createArtifactLevelMetadata();
+        metadataMerger.mergeVersion(metadata, "1.10", true);
+
+        // When
+        boolean merged = metadataMerger.mergeVersion(metadata, VERSION, true);
+
+        // Then
+        assertTrue(merged);
+        assertEquals(Arrays.asList(PRE_VERSION, VERSION, "1.10"), metadata.getVersioning().getVersions());
+        assertEquals("1.10", metadata.getVersioning().getLatest());
+        assertEquals("1.10", metadata.getVersioning().getRelease());
+        assertNotNull(metadata.getVersioning().getLastUpdated());
+    }
+
+    @Test
+    public void mergeVersionExistsTest()
+    {
+        // Given
+        Metadata metadata = createArtifactLevelMetadata();
+
+        // When
+        boolean merged = metadataMerger.mergeVersion(metadata, PRE_VERSION, true);
+
+        // Then
+        assertFalse(merged);
+        assertEquals(1, metadata.getVersioning().getVersions().size());
+    }
+
+    @Test
+    public void mergeVersionSnapshotTest()
+    {
+        // Given
+        Metadata metadata = createArtifactLevelMetadata();
+
+        // When
+        metadataMerger.mergeVersion(metadata, SNAPSHOT_VERSION, false);
+
+        // Then
+        assertEquals(Arrays.asList(SNAPSHOT_VERSION, PRE_VERSION), metadata.getVersioning().getVersions());
+        assertEquals(PRE_VERSION, metadata.getVersioning().getLatest());
+        assertEquals(PRE_VERSION, metadata.getVersioning().getRelease());
+    }
+
     private Metadata createGroupLevelMetadata()
     {
         Metadata metadata = new Metadata();
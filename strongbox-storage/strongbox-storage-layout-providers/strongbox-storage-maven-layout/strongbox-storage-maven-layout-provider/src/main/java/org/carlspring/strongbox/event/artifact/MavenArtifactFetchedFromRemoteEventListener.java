@@ -108,12 +108,11 @@ public class MavenArtifactFetchedFromRemoteEventListener
     {
         Repository repository = metadataPath.getRepository();
         RemoteRepository remoteRepository = ((ImmutableRepository)repository).getRemoteRepository();
-        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
-        
         Lock lock = repositoryPathLock.lock(metadataPath).writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, metadataPath)))
+        try (RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+             InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, metadataPath)))
         {
             mergeMetadata(artifactAbsolutePath, is);
         } 
@@ -2,6 +2,7 @@ package org.carlspring.strongbox.event.artifact;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.repository.group.metadata.MavenMetadataGroupRepositoryAggregator;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
@@ -20,6 +21,9 @@ public class MavenArtifactMetadataStoredEventListener
     @Inject
     private Maven2LayoutProvider maven2LayoutProvider;
 
+    @Inject
+    private MavenMetadataGroupRepositoryAggregator mavenMetadataGroupRepositoryAggregator;
+
     /**
      * Why not @{@link org.carlspring.strongbox.event.AsyncEventListener}:
      * <p>
@@ -29,6 +33,9 @@ public class MavenArtifactMetadataStoredEventListener
      * Then this listener will be invoked and it will update all groups containing this proxy repository.
      * We need to have updated initial group when we return from the initial call.
      * Async update could be done a bit later.
+     * <p>
+     * The metadata stored into the other repositories is aggregated in the background, see
+     * {@link MavenMetadataGroupRepositoryAggregator}.
      */
     @EventListener
     public void handle(final ArtifactEvent<RepositoryPath> event)
@@ -50,7 +57,13 @@ public class MavenArtifactMetadataStoredEventListener
             return;
         }
 
-        updateMetadataInGroupsContainingRepository(event, RepositoryPath::getParent);
+        if (repository.isProxyRepository())
+        {
+            updateMetadataInGroupsContainingRepository(event, RepositoryPath::getParent);
+            return;
+        }
+
+        mavenMetadataGroupRepositoryAggregator.aggregate(event.getPath());
     }
 
 }
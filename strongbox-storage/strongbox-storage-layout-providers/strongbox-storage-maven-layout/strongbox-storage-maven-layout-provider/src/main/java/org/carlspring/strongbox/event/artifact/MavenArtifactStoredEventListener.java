@@ -0,0 +1,62 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Merges the version of a POM stored into a hosted repository into the `maven-metadata.xml` of its artifact, when
+ * `strongbox.maven.metadata.updateOnStore` is enabled. Only the stored version is read, the full rebuild from all the
+ * version directories is left to {@link org.carlspring.strongbox.services.ArtifactMetadataService#rebuildMetadata}.
+ */
+@Component
+public class MavenArtifactStoredEventListener
+        extends BaseMavenArtifactEventListener
+{
+
+    private static final String POM_EXTENSION = ".pom";
+
+    @Value("${strongbox.maven.metadata.updateOnStore:false}")
+    private boolean updateOnStore;
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (!updateOnStore || event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+        {
+            return;
+        }
+
+        final Repository repository = getRepository(event);
+
+        if (!Maven2LayoutProvider.ALIAS.equals(repository.getLayout()) || !repository.isHostedRepository())
+        {
+            return;
+        }
+
+        final RepositoryPath repositoryPath = event.getPath();
+        if (!repositoryPath.getFileName().toString().endsWith(POM_EXTENSION))
+        {
+            return;
+        }
+
+        try
+        {
+            artifactMetadataService.updateMetadata(repository.getStorage().getId(),
+                                                   repository.getId(),
+                                                   RepositoryFiles.relativizePath(repositoryPath.getParent()));
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to update the metadata of " + repositoryPath, e);
+        }
+    }
+
+}
@@ -35,6 +35,16 @@ public class GenerateMavenMetadataOperation
         this.artifactEventListenerRegistry = artifactEventListenerRegistry;
     }
 
+    @Override
+    public GenerateMavenMetadataOperation fork()
+    {
+        GenerateMavenMetadataOperation result = new GenerateMavenMetadataOperation(mavenMetadataManager,
+                                                                                   artifactEventListenerRegistry);
+        result.setBasePath(getBasePath());
+
+        return result;
+    }
+
     @Override
     public void executeOperation(VersionCollectionRequest request,
                                  RepositoryPath artifactGroupDirectoryPath,
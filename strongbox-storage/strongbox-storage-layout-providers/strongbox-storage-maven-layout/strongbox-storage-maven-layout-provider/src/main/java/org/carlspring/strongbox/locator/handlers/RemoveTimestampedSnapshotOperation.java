@@ -120,6 +120,17 @@ public class RemoveTimestampedSnapshotOperation
         }
     }
 
+    @Override
+    public RemoveTimestampedSnapshotOperation fork()
+    {
+        RemoveTimestampedSnapshotOperation result = new RemoveTimestampedSnapshotOperation(mavenSnapshotManager);
+        result.setBasePath(getBasePath());
+        result.setNumberToKeep(numberToKeep);
+        result.setKeepPeriod(keepPeriod);
+
+        return result;
+    }
+
     public MavenSnapshotManager getMavenSnapshotManager()
     {
         return mavenSnapshotManager;
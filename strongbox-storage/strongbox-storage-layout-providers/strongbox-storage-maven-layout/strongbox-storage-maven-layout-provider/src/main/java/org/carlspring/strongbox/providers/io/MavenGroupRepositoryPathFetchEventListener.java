@@ -7,6 +7,7 @@ import org.carlspring.strongbox.providers.repository.GroupRepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.repository.group.metadata.MavenMetadataGroupRepositoryAggregator;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -47,6 +48,9 @@ public class MavenGroupRepositoryPathFetchEventListener
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
+    @Inject
+    private MavenMetadataGroupRepositoryAggregator mavenMetadataGroupRepositoryAggregator;
+
     @EventListener
     public void handle(final GroupRepositoryPathFetchEvent event)
             throws IOException
@@ -63,6 +67,8 @@ public class MavenGroupRepositoryPathFetchEventListener
         }
 
         fetchInSubRepositories(repositoryPath);
+
+        mavenMetadataGroupRepositoryAggregator.awaitAggregation(repositoryPath);
     }
 
     /**
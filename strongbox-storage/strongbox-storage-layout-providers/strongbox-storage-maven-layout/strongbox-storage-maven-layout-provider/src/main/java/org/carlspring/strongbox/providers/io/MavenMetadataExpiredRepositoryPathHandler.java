@@ -1,21 +1,43 @@
 package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.commons.encryption.EncryptionAlgorithmsEnum;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
 import org.carlspring.strongbox.storage.repository.ImmutableRepository;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import static org.carlspring.strongbox.providers.io.MavenMetadataExpiredRepositoryPathHandler.Decision.*;
 
 /**
+ * Revalidates the expired proxied maven-metadata.xml against the remote checksums.
+ * <p>
+ * When the remote repository has {@link RemoteRepository#getMetadataStaleWindowSeconds()} set, the metadata which
+ * expired within the window, measured from the {@link Maven2LayoutProvider#METADATA_EXPIRATION}, is served as is,
+ * while a single background revalidation per path refreshes it. Older metadata is revalidated on the request thread.
+ * If the remote repository is down the local metadata is served without revalidation.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -28,6 +50,40 @@ public class MavenMetadataExpiredRepositoryPathHandler
     @Inject
     private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
 
+    @Inject
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Value("${strongbox.metadataRevalidation.poolSize:2}")
+    private int poolSize;
+
+    @Value("${strongbox.metadataRevalidation.queueSize:100}")
+    private int queueSize;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * URIs of the paths being revalidated in the background.
+     */
+    private final Set<String> revalidations = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init()
+    {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                                          new ArrayBlockingQueue<>(queueSize),
+                                          new CustomizableThreadFactory("maven-metadata-revalidation-"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
     @Override
     public boolean supports(final RepositoryPath repositoryPath)
     {
@@ -54,6 +110,81 @@ public class MavenMetadataExpiredRepositoryPathHandler
     @Override
     public void handleExpiration(final RepositoryPath repositoryPath)
             throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+        RemoteRepository remoteRepository = ((ImmutableRepository) repository).getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            logger.debug("Remote repository [{}] is down, serving the expired [{}].", remoteRepository.getUrl(),
+                         repositoryPath);
+            return;
+        }
+
+        Integer staleWindowSeconds = remoteRepository.getMetadataStaleWindowSeconds();
+        if (staleWindowSeconds == null || staleWindowSeconds <= 0)
+        {
+            revalidate(repositoryPath);
+            return;
+        }
+
+        // the window starts when the metadata expires, not when it was last modified
+        Instant staleBefore = Instant.now()
+                                     .minus(Maven2LayoutProvider.METADATA_EXPIRATION)
+                                     .minusSeconds(staleWindowSeconds);
+        if (!RepositoryFiles.wasModifiedAfter(repositoryPath, staleBefore))
+        {
+            revalidate(repositoryPath);
+            return;
+        }
+
+        revalidateInBackground(repositoryPath);
+    }
+
+    private void revalidateInBackground(final RepositoryPath repositoryPath)
+            throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+        String path = RepositoryFiles.relativizePath(repositoryPath);
+        String key = repositoryPath.toUri().toString();
+        if (!revalidations.add(key))
+        {
+            logger.debug("Revalidation of [{}] is already in progress.", repositoryPath);
+            return;
+        }
+
+        try
+        {
+            executor.execute(() -> {
+                try
+                {
+                    // RepositoryPath is not meant to be shared between threads
+                    RepositoryPath stalePath = repositoryPathResolver.resolve(repository, path);
+                    if (revalidate(stalePath) == NO_LEAVE_IT)
+                    {
+                        // the metadata is fresh again until the next expiration
+                        Files.setLastModifiedTime(stalePath, FileTime.from(Instant.now()));
+                    }
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    logger.warn(String.format("Failed to revalidate [%s], the stale copy is kept.", key), e);
+                }
+                finally
+                {
+                    revalidations.remove(key);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            revalidations.remove(key);
+            logger.debug("Revalidation of [{}] was rejected, it will be retried with the next request.",
+                         repositoryPath);
+        }
+    }
+
+    private Decision revalidate(final RepositoryPath repositoryPath)
+            throws IOException
     {
         Decision refetchMetadata = determineMetadataRefetch(repositoryPath,
                                                             EncryptionAlgorithmsEnum.SHA1);
@@ -66,7 +197,7 @@ public class MavenMetadataExpiredRepositoryPathHandler
         {
             // checksums match - do nothing
             logger.debug("Local and remote checksums match - no need to re-fetch maven-metadata.xml.");
-            return;
+            return refetchMetadata;
         }
         if (refetchMetadata == I_DONT_KNOW)
         {
@@ -77,6 +208,8 @@ public class MavenMetadataExpiredRepositoryPathHandler
             logger.debug("maven-metadata.xml will be re-fetched. Checksums differ.");
         }
         proxyRepositoryArtifactResolver.fetchRemoteResource(repositoryPath);
+
+        return refetchMetadata;
     }
 
     private Decision determineMetadataRefetch(final RepositoryPath repositoryPath,
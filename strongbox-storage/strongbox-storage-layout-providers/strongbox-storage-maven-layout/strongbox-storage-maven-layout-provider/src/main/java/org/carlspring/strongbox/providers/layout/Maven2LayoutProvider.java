@@ -2,8 +2,8 @@ package org.carlspring.strongbox.providers.layout;
 
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +38,11 @@ public class Maven2LayoutProvider
 
     public static final String ALIAS = MavenArtifactCoordinates.LAYOUT_NAME;
 
+    /**
+     * The proxied maven-metadata.xml expires this long after it was last modified.
+     */
+    public static final Duration METADATA_EXPIRATION = Duration.ofSeconds(10);
+
     private static final Logger logger = LoggerFactory.getLogger(Maven2LayoutProvider.class);
 
     @Inject
@@ -98,11 +103,11 @@ public class Maven2LayoutProvider
 
                     break;
                 case EXPIRED:
-                    final Instant tenSecondsAgo = Instant.now().minus(10, ChronoUnit.SECONDS);
+                    final Instant expiredBefore = Instant.now().minus(METADATA_EXPIRATION);
                     value = BooleanUtils.isTrue((Boolean) value) || (isMavenMetadata(repositoryPath)
                                                                      &&
                                                                      !RepositoryFiles.wasModifiedAfter(repositoryPath,
-                                                                                                       tenSecondsAgo));
+                                                                                                       expiredBefore));
 
                     result.put(attributeType, value);
 
@@ -164,6 +164,8 @@ public class IndexedMavenRepositoryFeatures
             throws IOException
     {
         RepositoryIndexer indexer = getIndexer(storageId, repositoryId);
+        indexer.flush();
+
         IndexingContext context = indexer.getIndexingContext();
         Path indexPath = resolveIndexPath(storageId, repositoryId, null);
         final IndexSearcher indexSearcher = context.acquireIndexSearcher();
@@ -17,7 +17,10 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
+import org.apache.lucene.index.IndexFileNames;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
@@ -60,16 +63,21 @@ public class IndexedMavenRepositoryManagementStrategy
             if (repository.isProxyRepository())
             {
                 // Create a remote index
-                createRepositoryIndexer(storageId, repositoryId, IndexTypeEnum.REMOTE.getType(), repositoryBasedir);
+                registerRepositoryIndexer(storageId, repositoryId, IndexTypeEnum.REMOTE.getType(), repositoryBasedir);
 
                 // Create a scheduled task for downloading the remote's index
                 createRemoteIndexDownloaderCronTask(storageId, repositoryId);
             }
             
             // Create a local index
-            createRepositoryIndexer(storageId, repositoryId, IndexTypeEnum.LOCAL.getType(), repositoryBasedir);
-
-            createRebuildMavenIndexCronJob(storageId, repositoryId);
+            registerRepositoryIndexer(storageId, repositoryId, IndexTypeEnum.LOCAL.getType(), repositoryBasedir);
+
+            // An index which was closed with all its updates applied is only opened on its first use and rebuilt by
+            // the nightly job, any other index is rebuilt right away
+            RepositoryPath localIndexDir = repositoryBasedir.resolve(".index").resolve(IndexTypeEnum.LOCAL.getType());
+            boolean upToDate = indexExists(localIndexDir) &&
+                               Files.exists(RepositoryIndexer.getCleanShutdownMarker(localIndexDir));
+            createRebuildMavenIndexCronJob(storageId, repositoryId, !upToDate);
         }
     }
 
@@ -116,7 +124,8 @@ public class IndexedMavenRepositoryManagementStrategy
     }
 
     private void createRebuildMavenIndexCronJob(String storageId,
-                                                String repositoryId)
+                                                String repositoryId,
+                                                boolean immediateExecution)
             throws RepositoryManagementStrategyException
     {
         CronTaskConfigurationDto configuration = new CronTaskConfigurationDto();
@@ -125,7 +134,7 @@ public class IndexedMavenRepositoryManagementStrategy
         configuration.setCronExpression("0 0 2 * * ?");
         configuration.addProperty("storageId", storageId);
         configuration.addProperty("repositoryId", repositoryId);
-        configuration.setImmediateExecution(true);
+        configuration.setImmediateExecution(immediateExecution);
 
         try
         {
@@ -137,11 +146,60 @@ public class IndexedMavenRepositoryManagementStrategy
         }
     }
 
+    /**
+     * @return `true` if the directory holds a committed Lucene index
+     */
+    private boolean indexExists(RepositoryPath indexDir)
+            throws IOException
+    {
+        if (!Files.isDirectory(indexDir))
+        {
+            return false;
+        }
+
+        try (Stream<Path> files = Files.list(indexDir))
+        {
+            return files.anyMatch(p -> p.getFileName().toString().startsWith(IndexFileNames.SEGMENTS));
+        }
+    }
+
     public RepositoryIndexer createRepositoryIndexer(String storageId,
                                                      String repositoryId,
                                                      String indexType,
                                                      RepositoryPath repositoryBasedir)
             throws IOException
+    {
+        RepositoryIndexer repositoryIndexer = openRepositoryIndexer(storageId, repositoryId, indexType,
+                                                                    repositoryBasedir);
+
+        String contextId = storageId + ":" + repositoryId + ":" + indexType;
+
+        repositoryIndexManager.addRepositoryIndexer(contextId, repositoryIndexer);
+
+        return repositoryIndexer;
+    }
+
+    /**
+     * Registers the indexer to be opened on its first use, so that opening the indexing contexts doesn't slow down
+     * the repository initialization.
+     */
+    private void registerRepositoryIndexer(String storageId,
+                                           String repositoryId,
+                                           String indexType,
+                                           RepositoryPath repositoryBasedir)
+    {
+        String contextId = storageId + ":" + repositoryId + ":" + indexType;
+
+        repositoryIndexManager.registerRepositoryIndexer(contextId,
+                                                         () -> openRepositoryIndexer(storageId, repositoryId,
+                                                                                     indexType, repositoryBasedir));
+    }
+
+    private RepositoryIndexer openRepositoryIndexer(String storageId,
+                                                    String repositoryId,
+                                                    String indexType,
+                                                    RepositoryPath repositoryBasedir)
+            throws IOException
     {
         RepositoryPath repositoryIndexDir = repositoryBasedir.resolve(".index").resolve(indexType);
 
@@ -151,16 +209,15 @@ public class IndexedMavenRepositoryManagementStrategy
             Files.createDirectories(repositoryIndexDir);
         }
 
+        // from now on the index may have updates which are not applied yet, until it's closed
+        Files.deleteIfExists(RepositoryIndexer.getCleanShutdownMarker(repositoryIndexDir));
+
         RepositoryIndexer repositoryIndexer = repositoryIndexerFactory.createRepositoryIndexer(storageId,
                                                                                                repositoryId,
                                                                                                indexType,
                                                                                                repositoryBasedir,
                                                                                                repositoryIndexDir);
 
-        String contextId = storageId + ":" + repositoryId + ":" + indexType;
-
-        repositoryIndexManager.addRepositoryIndexer(contextId, repositoryIndexer);
-
         return repositoryIndexer;
     }
 
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.repository;
 
 import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
+import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.config.MavenIndexerDisabledCondition;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
@@ -57,6 +58,9 @@ public class MavenRepositoryFeatures
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
     private Set<String> defaultArtifactCoordinateValidators;
 
 
@@ -89,6 +93,10 @@ public class MavenRepositoryFeatures
 
             ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
             locator.setOperation(operation);
+            locator.setParallelism(propertiesBooter.getLocatorParallelism());
+            locator.setCheckpointPath(ArtifactDirectoryLocator.resolveCheckpointPath(repositoryPath,
+                                                                                     "remove-timestamped-snapshots"));
+            locator.setCheckpointKey(String.format("numberToKeep=%s,keepPeriod=%s", numberToKeep, keepPeriod));
             locator.locateArtifactDirectories();
         }
         else
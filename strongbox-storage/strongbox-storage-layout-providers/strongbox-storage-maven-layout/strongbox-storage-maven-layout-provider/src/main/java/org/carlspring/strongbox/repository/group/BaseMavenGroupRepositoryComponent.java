@@ -61,8 +61,9 @@ public abstract class BaseMavenGroupRepositoryComponent
     {
         Repository repository = repositoryPath.getRepository();
         final List<Repository> directParents = configurationManagementService.getConfiguration()
-                                                                             .getGroupRepositoriesContaining(repository.getStorage().getId(),
-                                                                                                                      repository.getId());
+                                                                             .getGroupRepositoryIndex()
+                                                                             .getDirectParents(repository.getStorage().getId(),
+                                                                                               repository.getId());
         if (CollectionUtils.isEmpty(directParents))
         {
             return;
@@ -118,8 +119,9 @@ public abstract class BaseMavenGroupRepositoryComponent
     {
         Repository repository = repositoryPath.getRepository();
         final List<Repository> groupRepositories = configurationManagementService.getConfiguration()
-                                                                                 .getGroupRepositoriesContaining(repository.getStorage().getId(),
-                                                                                                                 repository.getId());
+                                                                                 .getGroupRepositoryIndex()
+                                                                                 .getDirectParents(repository.getStorage().getId(),
+                                                                                                   repository.getId());
         if (CollectionUtils.isEmpty(groupRepositories))
         {
             return;
@@ -0,0 +1,241 @@
+package org.carlspring.strongbox.repository.group.metadata;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates the `maven-metadata.xml` of a repository into the group repositories containing it in the background.
+ * The stores of the same metadata within `strongbox.maven.metadata.groupAggregationDelayMillis` are coalesced into a
+ * single {@link MavenMetadataGroupRepositoryComponent#updateGroupsContaining(RepositoryPath)}, which reads the
+ * metadata when it starts, so a store which happens after that is aggregated again.
+ * <p>
+ * The group metadata is only stale until it's requested: {@link #awaitAggregation(RepositoryPath)} runs the pending
+ * aggregations of the path before the group serves it. A delay of `0` aggregates synchronously.
+ * <p>
+ * The aggregations run on `strongbox.maven.metadata.groupAggregationThreads` single threaded executors, picked by the
+ * metadata path, so the aggregations which write the same group metadata run one after another, while the other paths
+ * don't wait for them.
+ */
+@Component
+public class MavenMetadataGroupRepositoryAggregator
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenMetadataGroupRepositoryAggregator.class);
+
+    /**
+     * K: storageId:repositoryId:path
+     * V: the aggregation which hasn't started yet, or is running
+     */
+    private final Map<String, Aggregation> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong coalescedUpdates = new AtomicLong();
+
+    private final AtomicLong aggregations = new AtomicLong();
+
+    @Inject
+    private MavenMetadataGroupRepositoryComponent mavenMetadataGroupRepositoryComponent;
+
+    @Value("${strongbox.maven.metadata.groupAggregationDelayMillis:500}")
+    private long delayMillis;
+
+    @Value("${strongbox.maven.metadata.groupAggregationThreads:4}")
+    private int threads = 4;
+
+    private ScheduledExecutorService[] executors;
+
+    @PostConstruct
+    private void init()
+    {
+        executors = new ScheduledExecutorService[Math.max(1, threads)];
+        for (int i = 0; i < executors.length; i++)
+        {
+            String name = "maven-metadata-group-aggregation-" + (i + 1);
+            executors[i] = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Schedules the aggregation of the metadata into the groups containing its repository, unless one is already
+     * waiting for it.
+     *
+     * @param metadataPath the stored `maven-metadata.xml`
+     */
+    public void aggregate(RepositoryPath metadataPath)
+    {
+        Aggregation aggregation;
+        try
+        {
+            aggregation = new Aggregation(metadataPath);
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to update parent group repositories metadata of file " + metadataPath, e);
+            return;
+        }
+
+        if (delayMillis <= 0)
+        {
+            aggregation.run();
+            return;
+        }
+
+        Aggregation scheduled = pending.compute(aggregation.key,
+                                                (k, v) -> v != null && !v.started.get() ? v : aggregation);
+        if (scheduled != aggregation)
+        {
+            coalescedUpdates.incrementAndGet();
+            return;
+        }
+
+        executors[Math.floorMod(aggregation.path.hashCode(), executors.length)].schedule(aggregation::run,
+                                                                                          delayMillis,
+                                                                                          TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs, or waits for, the pending aggregations of the metadata path in any repository.
+     *
+     * @param metadataPath the `maven-metadata.xml` requested from a group repository
+     */
+    public void awaitAggregation(RepositoryPath metadataPath)
+            throws IOException
+    {
+        if (pending.isEmpty())
+        {
+            return;
+        }
+
+        String path = RepositoryFiles.relativizePath(metadataPath);
+
+        List<Aggregation> aggregations = new ArrayList<>();
+        pending.values().stream().filter(a -> a.path.equals(path)).forEach(aggregations::add);
+
+        aggregations.forEach(Aggregation::await);
+    }
+
+    /**
+     * @return the number of the aggregations which haven't finished yet
+     */
+    public int getPendingAggregations()
+    {
+        return pending.size();
+    }
+
+    /**
+     * @return the number of the metadata stores which have been merged into an already scheduled aggregation
+     */
+    public long getCoalescedUpdates()
+    {
+        return coalescedUpdates.get();
+    }
+
+    public long getAggregations()
+    {
+        return aggregations.get();
+    }
+
+    @PreDestroy
+    private void close()
+            throws InterruptedException
+    {
+        // the delayed aggregations still run after the shutdown
+        for (ScheduledExecutorService executor : executors)
+        {
+            executor.shutdown();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delayMillis, 0) + 5000);
+        for (ScheduledExecutorService executor : executors)
+        {
+            if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+            {
+                logger.warn("Aborting {} pending group metadata aggregations.", pending.size());
+                for (ScheduledExecutorService e : executors)
+                {
+                    e.shutdownNow();
+                }
+
+                return;
+            }
+        }
+    }
+
+    private class Aggregation
+    {
+
+        private final RepositoryPath metadataPath;
+
+        private final String path;
+
+        private final String key;
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Aggregation(RepositoryPath metadataPath)
+                throws IOException
+        {
+            Repository repository = metadataPath.getRepository();
+
+            this.metadataPath = metadataPath;
+            this.path = RepositoryFiles.relativizePath(metadataPath);
+            this.key = repository.getStorage().getId() + ":" + repository.getId() + ":" + path;
+        }
+
+        private void run()
+        {
+            if (!started.compareAndSet(false, true))
+            {
+                return;
+            }
+
+            try
+            {
+                mavenMetadataGroupRepositoryComponent.updateGroupsContaining(metadataPath.getParent());
+                aggregations.incrementAndGet();
+            }
+            catch (Exception e)
+            {
+                logger.error("Unable to update parent group repositories metadata of file " + metadataPath, e);
+            }
+            finally
+            {
+                pending.remove(key, this);
+                done.complete(null);
+            }
+        }
+
+        private void await()
+        {
+            run();
+            done.join();
+        }
+    }
+
+}
@@ -68,6 +68,20 @@ public interface ArtifactMetadataService
                          String artifactPath)
             throws IOException, XmlPullParserException, NoSuchAlgorithmException;
 
+    /**
+     * Update the metadata of an artifact with a single version, without rebuilding it from all the versions
+     *
+     * @param storageId           String
+     * @param repositoryId        String
+     * @param artifactVersionPath String the version directory, for example org/carlspring/strongbox/metadata/1.2
+     *
+     * @throws IOException
+     */
+    void updateMetadata(String storageId,
+                        String repositoryId,
+                        String artifactVersionPath)
+            throws IOException;
+
     /**
      * Merge existing artifact metadata with mergeMetadata.
      *
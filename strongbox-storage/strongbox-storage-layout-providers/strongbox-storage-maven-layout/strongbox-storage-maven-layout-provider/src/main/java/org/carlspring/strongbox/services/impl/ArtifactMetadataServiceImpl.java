@@ -4,6 +4,7 @@ import org.carlspring.maven.commons.util.ArtifactUtils;
 import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
+import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
@@ -18,6 +19,7 @@ import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
 import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import org.carlspring.strongbox.storage.metadata.MetadataType;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.UnknownRepositoryTypeException;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -59,6 +61,9 @@ public class ArtifactMetadataServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
     public ArtifactMetadataServiceImpl()
     {
     }
@@ -125,9 +130,36 @@ public class ArtifactMetadataServiceImpl
 
         ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
         locator.setOperation(operation);
+        locator.setParallelism(propertiesBooter.getLocatorParallelism());
+        locator.setCheckpointPath(ArtifactDirectoryLocator.resolveCheckpointPath(repositoryBasePath,
+                                                                                 "rebuild-metadata"));
         locator.locateArtifactDirectories();
     }
 
+    @Override
+    public void updateMetadata(String storageId,
+                               String repositoryId,
+                               String artifactVersionPath)
+            throws IOException
+    {
+        Storage storage = getConfiguration().getStorage(storageId);
+        Repository repository = storage.getRepository(repositoryId);
+
+        RepositoryPath artifactVersionDirectoryPath = repositoryPathResolver.resolve(repository, artifactVersionPath);
+
+        try
+        {
+            mavenMetadataManager.updateMetadata(artifactVersionDirectoryPath);
+        }
+        catch (ProviderImplementationException | UnknownRepositoryTypeException e)
+        {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        artifactEventListenerRegistry.dispatchArtifactMetadataStoredEvent(
+                artifactVersionDirectoryPath.getParent().resolve(MetadataHelper.MAVEN_METADATA_XML));
+    }
+
     @Override
     public void mergeMetadata(MavenArtifact artifact,
                               Metadata mergeMetadata)
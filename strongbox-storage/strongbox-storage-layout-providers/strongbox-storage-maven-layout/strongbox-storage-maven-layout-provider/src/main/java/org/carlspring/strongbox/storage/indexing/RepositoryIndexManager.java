@@ -3,17 +3,28 @@ package org.carlspring.strongbox.storage.indexing;
 import org.carlspring.strongbox.config.MavenIndexerEnabledCondition;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactIndexesService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
@@ -31,23 +42,161 @@ public class RepositoryIndexManager
      * K: storageId:repositoryId:type[local|remote]
      * V: index
      */
-    private Map<String, RepositoryIndexer> indexes = new LinkedHashMap<>();
+    private Map<String, RepositoryIndexer> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * The indexers which are opened on the first use.
+     * <p>
+     * K: storageId:repositoryId:type[local|remote]
+     * V: opens the index
+     */
+    private final Map<String, RepositoryIndexerOpener> lazyIndexes = new ConcurrentHashMap<>();
 
     @Inject
     private ConfigurationManager configurationManager;
 
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    /**
+     * The {@link ArtifactIndexesService} depends on this manager, so it's looked up when needed.
+     */
+    @Inject
+    private ApplicationContext applicationContext;
+
+    /**
+     * How often the queued index updates are applied and the searchers are refreshed.
+     */
+    @Value("${strongbox.indexer.refreshIntervalMillis:1000}")
+    private long refreshIntervalMillis;
+
+    private ScheduledExecutorService refreshExecutor;
+
+    private ExecutorService rebuildExecutor;
+
+    /**
+     * K: storageId:repositoryId
+     */
+    private final Set<String> pendingRebuilds = ConcurrentHashMap.newKeySet();
+
     public RepositoryIndexManager()
     {
     }
 
+    @PostConstruct
+    private void init()
+    {
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "repository-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshExecutor.scheduleWithFixedDelay(this::flushIndexers,
+                                               refreshIntervalMillis,
+                                               refreshIntervalMillis,
+                                               TimeUnit.MILLISECONDS);
+
+        rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "repository-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void flushIndexers()
+    {
+        for (RepositoryIndexer repositoryIndexer : new ArrayList<>(indexes.values()))
+        {
+            try
+            {
+                repositoryIndexer.flush();
+            }
+            catch (Exception e)
+            {
+                logger.error("Unable to flush indexer for contextId " + repositoryIndexer.getContextId(), e);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the local index of the repository in the background, for the indexers which had to drop some of their
+     * updates. The rebuilds are run one at a time, and a repository which already waits for its rebuild isn't queued
+     * again.
+     */
+    public void scheduleRebuild(String storageId,
+                                String repositoryId)
+    {
+        String key = storageId + ":" + repositoryId;
+        if (!pendingRebuilds.add(key))
+        {
+            return;
+        }
+
+        logger.warn("Scheduled the rebuild of the index of [{}].", key);
+
+        rebuildExecutor.execute(() -> {
+            pendingRebuilds.remove(key);
+            try
+            {
+                Repository repository = getConfiguration().getStorage(storageId).getRepository(repositoryId);
+                if (repository == null)
+                {
+                    return;
+                }
+
+                applicationContext.getBean(ArtifactIndexesService.class)
+                                  .rebuildIndex(repositoryPathResolver.resolve(repository));
+            }
+            catch (Exception e)
+            {
+                logger.error("Unable to rebuild the index of " + key, e);
+            }
+        });
+    }
+
+    /**
+     * @return the number of the queued artifact updates of all the indexers
+     */
+    public long getQueueDepth()
+    {
+        return indexes.values().stream().mapToLong(RepositoryIndexer::getQueueDepth).sum();
+    }
+
+    /**
+     * @return the longest time an artifact update of any indexer has been waiting, in milliseconds
+     */
+    public long getIndexingLag()
+    {
+        return indexes.values().stream().mapToLong(RepositoryIndexer::getIndexingLag).max().orElse(0);
+    }
+
+    public long getFlushedUpdates()
+    {
+        return indexes.values().stream().mapToLong(RepositoryIndexer::getFlushedUpdates).sum();
+    }
+
+    public long getFlushedBatches()
+    {
+        return indexes.values().stream().mapToLong(RepositoryIndexer::getFlushedBatches).sum();
+    }
+
+    public long getFlushTime(TimeUnit timeUnit)
+    {
+        return indexes.values().stream().mapToLong(i -> i.getFlushTime(timeUnit)).sum();
+    }
+
     @PreDestroy
     private void close()
     {
+        refreshExecutor.shutdownNow();
+        rebuildExecutor.shutdownNow();
+
+        // the index files are kept, so that the indexes which have been closed cleanly aren't rebuilt on the next start
         indexes.forEach((contextId, repositoryIndexer) ->
                         {
                             try
                             {
-                                closeIndexer(contextId, repositoryIndexer, false);
+                                repositoryIndexer.close(false);
                             }
                             catch (IOException e)
                             {
@@ -61,6 +210,8 @@ public class RepositoryIndexManager
 
     public void closeIndexersForStorage(String storageId)
     {
+        lazyIndexes.keySet().removeIf(contextId -> contextId.substring(0, contextId.indexOf(':')).equals(storageId));
+
         indexes.keySet()
                .stream()
                .filter(contextId -> contextId.substring(0, contextId.indexOf(':'))
@@ -96,6 +247,8 @@ public class RepositoryIndexManager
     public void closeIndexer(String contextId)
             throws IOException
     {
+        lazyIndexes.remove(contextId);
+
         closeIndexer(contextId, indexes.get(contextId));
     }
 
@@ -140,20 +293,111 @@ public class RepositoryIndexManager
 
     public RepositoryIndexer getRepositoryIndexer(String contextId)
     {
+        RepositoryIndexer repositoryIndexer = indexes.get(contextId);
+        if (repositoryIndexer != null)
+        {
+            return repositoryIndexer;
+        }
+
+        RepositoryIndexerOpener opener = lazyIndexes.get(contextId);
+        if (opener == null)
+        {
+            return indexes.get(contextId);
+        }
+
+        // Only one thread opens the index, the others wait for it on the opener, outside of the map's locks.
+        synchronized (opener)
+        {
+            repositoryIndexer = indexes.get(contextId);
+            if (repositoryIndexer != null || lazyIndexes.get(contextId) != opener)
+            {
+                return repositoryIndexer;
+            }
+
+            return openRepositoryIndexer(contextId, opener);
+        }
+    }
+
+    /**
+     * The opener stays registered until the index has been opened, so that a failed attempt is retried by the next
+     * {@link #getRepositoryIndexer(String)} call.
+     */
+    private RepositoryIndexer openRepositoryIndexer(String contextId,
+                                                    RepositoryIndexerOpener opener)
+    {
+        logger.debug("Opening indexer for " + contextId + "...");
+
+        RepositoryIndexer repositoryIndexer;
+        try
+        {
+            repositoryIndexer = opener.open();
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to open indexer for contextId " + contextId, e);
+
+            return null;
+        }
+
+        indexes.put(contextId, repositoryIndexer);
+        if (lazyIndexes.remove(contextId, opener))
+        {
+            return repositoryIndexer;
+        }
+
+        // The indexer has been closed or replaced while it was being opened.
+        if (indexes.remove(contextId, repositoryIndexer))
+        {
+            try
+            {
+                repositoryIndexer.close(false);
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to close indexer for contextId " + contextId, e);
+            }
+        }
+
         return indexes.get(contextId);
     }
 
     public RepositoryIndexer addRepositoryIndexer(String contextId,
                                                   RepositoryIndexer value)
     {
+        lazyIndexes.remove(contextId);
+
         return indexes.put(contextId, value);
     }
 
+    /**
+     * Registers an indexer which is opened by the first {@link #getRepositoryIndexer(String)} call, instead of an
+     * opened one.
+     */
+    public void registerRepositoryIndexer(String contextId,
+                                          RepositoryIndexerOpener opener)
+    {
+        if (!indexes.containsKey(contextId))
+        {
+            lazyIndexes.put(contextId, opener);
+        }
+    }
+
     public RepositoryIndexer removeRepositoryIndexer(String contextId)
     {
+        lazyIndexes.remove(contextId);
+
         return indexes.remove(contextId);
     }
 
+    @FunctionalInterface
+    public interface RepositoryIndexerOpener
+    {
+
+        RepositoryIndexer open()
+                throws IOException;
+
+    }
+
     public Configuration getConfiguration()
     {
         return configurationManager.getConfiguration();
@@ -8,15 +8,24 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.search.SearchResult;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.commons.collections.CollectionUtils;
+import com.google.common.collect.Iterables;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.BooleanQuery.Builder;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.maven.index.*;
 import org.apache.maven.index.Scanner;
 import org.apache.maven.index.context.IndexCreator;
@@ -26,7 +35,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
 import static org.apache.lucene.search.BooleanClause.Occur.MUST;
-
+import static org.apache.lucene.search.BooleanClause.Occur.SHOULD;
+
+/**
+ * The artifact additions and removals are queued and applied to the Lucene index in batches, keyed by the
+ * {@link ArtifactInfo#UINFO} of the artifact, so that only the last update of an artifact within a batch is applied.
+ * The batches are flushed by the {@link RepositoryIndexManager} on the near-real-time interval, when the queue reaches
+ * the batch size, and before the searches of this indexer, so that the searchers see the updates made before them.
+ * <p>
+ * The additions and the removals of a batch which fail to be applied are re-queued, unless the artifact has been
+ * updated since, and retried with an exponential backoff, up to {@link #MAX_FLUSH_ATTEMPTS} times. Meanwhile, the
+ * producers which find the queue full wait for the retry. The updates which still fail are dropped and the index of
+ * the repository is rebuilt to catch up with them. The updates queued after the indexer has been closed are dropped.
+ * <p>
+ * The queue is kept in memory only, so the indexer which is closed with all its updates applied leaves the
+ * {@link #getCleanShutdownMarker(RepositoryPath)} next to its index directory. Without it, the index may miss some
+ * artifacts and has to be rebuilt when the repository is initialized.
+ */
 public class RepositoryIndexer
 {
 
@@ -40,6 +65,21 @@ public class RepositoryIndexer
 
     private static final WhitespaceAnalyzer luceneAnalyzer = new WhitespaceAnalyzer();
 
+    /**
+     * Stays below the default {@link BooleanQuery#getMaxClauseCount()}.
+     */
+    private static final int MAX_QUERY_CLAUSES = 512;
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    static final int MAX_FLUSH_ATTEMPTS = 5;
+
+    private static final long INITIAL_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final String CLEAN_SHUTDOWN_MARKER_SUFFIX = ".clean-shutdown";
+
     private Indexer indexer;
 
     private Scanner scanner;
@@ -62,6 +102,46 @@ public class RepositoryIndexer
 
     private ApplicationContext applicationContext;
 
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * K: UINFO
+     * V: the artifact to add, or `null` to remove it
+     */
+    private Map<String, ArtifactContext> pendingUpdates = new LinkedHashMap<>();
+
+    private Map<String, ArtifactInfo> pendingRemovals = new HashMap<>();
+
+    /**
+     * The time in nanoseconds when the oldest pending update was queued.
+     */
+    private long pendingSince;
+
+    private final Object flushLock = new Object();
+
+    private boolean closed;
+
+    /**
+     * The number of consecutive flushes which failed to apply some of the updates.
+     */
+    private int failedFlushes;
+
+    /**
+     * The time in nanoseconds before which the failed updates are not retried.
+     */
+    private long retryAfter;
+
+    /**
+     * Set once some updates have been dropped after {@link #MAX_FLUSH_ATTEMPTS}.
+     */
+    private boolean droppedUpdates;
+
+    private final AtomicLong flushedUpdates = new AtomicLong();
+
+    private final AtomicLong flushedBatches = new AtomicLong();
+
+    private final AtomicLong flushTimeNanos = new AtomicLong();
+
 
     public RepositoryIndexer(String contextId)
     {
@@ -71,48 +151,348 @@ public class RepositoryIndexer
     public void addArtifactToIndex(final RepositoryPath artifactPath)
             throws IOException
     {
+        final ArtifactContext artifactContext;
         try
         {
             final ArtifactContextProducer artifactContextProducer = applicationContext.getBean(
                     ArtifactContextProducer.class, artifactPath);
-            ArtifactContext artifactContext = artifactContextProducer.getArtifactContext(indexingContext,
-                                                                                         artifactPath.toAbsolutePath().toFile());
+            artifactContext = artifactContextProducer.getArtifactContext(indexingContext,
+                                                                         artifactPath.toAbsolutePath().toFile());
+        }
+        catch (Exception e) // it's not really a critical problem, artifacts could be added to index later
+        {
+            logger.warn("Unable to add artifacts to index", e);
+
+            return;
+        }
+
+        if (artifactContext == null)
+        {
+            return;
+        }
+
+        enqueue(artifactContext.getArtifactInfo().getUinfo(), artifactContext, null);
+    }
+
+    public void delete(final Collection<ArtifactInfo> artifactInfos)
+            throws IOException
+    {
+        for (final ArtifactInfo artifactInfo : artifactInfos)
+        {
+            enqueue(artifactInfo.getUinfo(), null, artifactInfo);
+        }
+    }
+
+    private void enqueue(String uinfo,
+                         ArtifactContext addition,
+                         ArtifactInfo removal)
+    {
+        boolean full;
+        synchronized (this)
+        {
+            awaitRetry();
+
+            if (closed)
+            {
+                logger.debug("Dropped the update of [{}], index [{}] is closed.", uinfo, contextId);
+
+                return;
+            }
+
+            if (pendingUpdates.isEmpty())
+            {
+                pendingSince = System.nanoTime();
+            }
+
+            // the last update of the artifact wins
+            pendingUpdates.remove(uinfo);
+            pendingUpdates.put(uinfo, addition);
+            if (removal != null)
+            {
+                pendingRemovals.put(uinfo, removal);
+            }
+            else
+            {
+                pendingRemovals.remove(uinfo);
+            }
 
-            if (artifactContext == null)
+            full = pendingUpdates.size() >= batchSize;
+        }
+
+        if (full)
+        {
+            // back pressure: the producers wait for the batch instead of growing the queue
+            flush();
+        }
+    }
+
+    /**
+     * While the failed updates wait for their retry, the queue can't be flushed, so the producers which find it full
+     * wait for the retry instead of growing it.
+     */
+    private synchronized void awaitRetry()
+    {
+        while (!closed && failedFlushes > 0 && pendingUpdates.size() >= batchSize)
+        {
+            long retryDelay = retryAfter - System.nanoTime();
+            if (retryDelay <= 0)
             {
                 return;
             }
-            final ArtifactInfo artifactInfo = artifactContext.getArtifactInfo();
 
-            // preserve duplicates
-            if (CollectionUtils.isNotEmpty(
-                    search(artifactInfo)))
+            try
+            {
+                TimeUnit.NANOSECONDS.timedWait(this, retryDelay);
+            }
+            catch (InterruptedException e)
             {
+                Thread.currentThread().interrupt();
+
                 return;
             }
-            getIndexer().addArtifactToIndex(artifactContext, indexingContext);
         }
-        catch (Exception e) // it's not really a critical problem, artifacts could be added to index later
+    }
+
+    /**
+     * Applies the queued updates to the index, as one batch of additions and one batch of removals, and refreshes the
+     * searchers of the {@link IndexingContext}. Nothing is applied while the failed updates wait for a retry.
+     */
+    public void flush()
+    {
+        flush(false);
+    }
+
+    private void flush(boolean ignoreBackoff)
+    {
+        synchronized (flushLock)
         {
-            logger.warn("Unable to add artifacts to index", e);
+            Map<String, ArtifactContext> updates;
+            Map<String, ArtifactInfo> removals;
+            long queuedSince;
+            synchronized (this)
+            {
+                if (closed || pendingUpdates.isEmpty())
+                {
+                    return;
+                }
+                if (!ignoreBackoff && failedFlushes > 0 && System.nanoTime() - retryAfter < 0)
+                {
+                    return;
+                }
+
+                updates = pendingUpdates;
+                removals = pendingRemovals;
+                queuedSince = pendingSince;
+
+                pendingUpdates = new LinkedHashMap<>();
+                pendingRemovals = new HashMap<>();
+            }
+
+            long start = System.nanoTime();
+
+            Map<String, ArtifactContext> failedUpdates = new LinkedHashMap<>();
+            Map<String, ArtifactInfo> failedRemovals = new HashMap<>();
+
+            // the additions replace the documents with the same UINFO, so only the removals have to be checked
+            // against the index, to not write removal records for the artifacts which have never been indexed
+            try
+            {
+                List<ArtifactContext> deletions = new ArrayList<>();
+                for (String uinfo : findIndexed(removals.keySet()))
+                {
+                    deletions.add(new SafeArtifactContext(new ArtifactContext(null, null, null,
+                                                                              removals.get(uinfo), null)));
+                }
+
+                if (!deletions.isEmpty())
+                {
+                    getIndexer().deleteArtifactsFromIndex(deletions, indexingContext);
+                }
+            }
+            catch (Exception e)
+            {
+                logger.warn(String.format("Unable to apply [%s] removals to index [%s]", removals.size(), contextId), e);
+
+                removals.forEach((uinfo, artifactInfo) -> {
+                    failedUpdates.put(uinfo, null);
+                    failedRemovals.put(uinfo, artifactInfo);
+                });
+            }
+
+            List<ArtifactContext> additions = new ArrayList<>();
+            updates.values().stream().filter(Objects::nonNull).forEach(additions::add);
+            try
+            {
+                if (!additions.isEmpty())
+                {
+                    getIndexer().addArtifactsToIndex(additions, indexingContext);
+                }
+            }
+            catch (Exception e)
+            {
+                logger.warn(String.format("Unable to apply [%s] additions to index [%s]", additions.size(), contextId),
+                            e);
+
+                updates.forEach((uinfo, artifactContext) -> {
+                    if (artifactContext != null)
+                    {
+                        failedUpdates.put(uinfo, artifactContext);
+                    }
+                });
+            }
+
+            requeue(failedUpdates, failedRemovals, queuedSince);
+
+            long end = System.nanoTime();
+            flushedUpdates.addAndGet(updates.size() - failedUpdates.size());
+            flushedBatches.incrementAndGet();
+            flushTimeNanos.addAndGet(end - start);
+
+            logger.debug("Applied [{}] of [{}] updates to index [{}] in [{}] ms, lag [{}] ms.",
+                         updates.size() - failedUpdates.size(), updates.size(), contextId,
+                         TimeUnit.NANOSECONDS.toMillis(end - start),
+                         TimeUnit.NANOSECONDS.toMillis(end - queuedSince));
         }
     }
 
-    public void delete(final Collection<ArtifactInfo> artifactInfos)
+    /**
+     * Puts the failed updates back in front of the queue, except for the artifacts which have been updated since.
+     */
+    private synchronized void requeue(Map<String, ArtifactContext> failedUpdates,
+                                      Map<String, ArtifactInfo> failedRemovals,
+                                      long queuedSince)
+    {
+        if (failedUpdates.isEmpty())
+        {
+            failedFlushes = 0;
+            notifyAll();
+
+            return;
+        }
+        if (closed)
+        {
+            return;
+        }
+
+        if (++failedFlushes >= MAX_FLUSH_ATTEMPTS)
+        {
+            logger.error(String.format("Dropped [%s] updates of index [%s] after [%s] failed attempts.",
+                                       failedUpdates.size(), contextId, failedFlushes));
+            failedFlushes = 0;
+            droppedUpdates = true;
+            notifyAll();
+
+            // the index has to be rebuilt to catch up with these artifacts
+            scheduleRebuild();
+
+            return;
+        }
+
+        long retryDelay = Math.min(INITIAL_RETRY_DELAY_NANOS << (failedFlushes - 1), MAX_RETRY_DELAY_NANOS);
+        retryAfter = System.nanoTime() + retryDelay;
+
+        Map<String, ArtifactContext> updates = new LinkedHashMap<>();
+        failedUpdates.forEach((uinfo, artifactContext) -> {
+            if (pendingUpdates.containsKey(uinfo))
+            {
+                return;
+            }
+
+            updates.put(uinfo, artifactContext);
+            if (failedRemovals.containsKey(uinfo))
+            {
+                pendingRemovals.put(uinfo, failedRemovals.get(uinfo));
+            }
+        });
+        if (updates.isEmpty())
+        {
+            return;
+        }
+
+        updates.putAll(pendingUpdates);
+        pendingUpdates = updates;
+        pendingSince = queuedSince;
+    }
+
+    private void scheduleRebuild()
+    {
+        if (!contextId.endsWith(":" + IndexTypeEnum.LOCAL.getType()))
+        {
+            // the remote index catches up with its next download
+            return;
+        }
+
+        try
+        {
+            applicationContext.getBean(RepositoryIndexManager.class).scheduleRebuild(storageId, repositoryId);
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Unable to schedule the rebuild of index [%s]", contextId), e);
+        }
+    }
+
+    private Set<String> findIndexed(Set<String> uinfos)
             throws IOException
     {
-        final List<ArtifactContext> delete = new ArrayList<>();
-        for (final ArtifactInfo artifactInfo : artifactInfos)
+        Set<String> result = new HashSet<>();
+        if (uinfos.isEmpty())
+        {
+            return result;
+        }
+
+        IndexSearcher indexSearcher = indexingContext.acquireIndexSearcher();
+        try
         {
-            // preserve extra delete index records
-            if (CollectionUtils.isEmpty(search(artifactInfo)))
+            for (List<String> chunk : Iterables.partition(uinfos, MAX_QUERY_CLAUSES))
             {
-                continue;
+                Builder queryBuilder = new Builder();
+                chunk.forEach(uinfo -> queryBuilder.add(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)), SHOULD));
+
+                TopDocs topDocs = indexSearcher.search(queryBuilder.build(), chunk.size());
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs)
+                {
+                    result.add(indexSearcher.doc(scoreDoc.doc).get(ArtifactInfo.UINFO));
+                }
             }
-            delete.add(new SafeArtifactContext(new ArtifactContext(null, null, null, artifactInfo, null)));
+        }
+        finally
+        {
+            indexingContext.releaseIndexSearcher(indexSearcher);
         }
 
-        getIndexer().deleteArtifactsFromIndex(delete, indexingContext);
+        return result;
+    }
+
+    /**
+     * @return the number of the artifacts with queued updates
+     */
+    public synchronized int getQueueDepth()
+    {
+        return pendingUpdates.size();
+    }
+
+    /**
+     * @return how long the oldest queued update has been waiting, in milliseconds
+     */
+    public synchronized long getIndexingLag()
+    {
+        return pendingUpdates.isEmpty() ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pendingSince);
+    }
+
+    public long getFlushedUpdates()
+    {
+        return flushedUpdates.get();
+    }
+
+    public long getFlushedBatches()
+    {
+        return flushedBatches.get();
+    }
+
+    public long getFlushTime(TimeUnit timeUnit)
+    {
+        return timeUnit.convert(flushTimeNanos.get(), TimeUnit.NANOSECONDS);
     }
 
     public Set<SearchResult> search(final ArtifactInfo artifactInfo)
@@ -132,6 +512,8 @@ public class RepositoryIndexer
                                     final String classifier)
             throws IOException
     {
+        flush();
+
         final Builder booleanQueryBuiler = new Builder();
 
         if (groupId != null)
@@ -194,6 +576,8 @@ public class RepositoryIndexer
     public Set<SearchResult> search(final String queryText)
             throws ParseException, IOException
     {
+        flush();
+
         try
         {
             final Query query = new MultiFieldQueryParser(luceneFields, luceneAnalyzer).parse(queryText);
@@ -242,6 +626,8 @@ public class RepositoryIndexer
     public Set<SearchResult> searchBySHA1(final String checksum)
             throws IOException
     {
+        flush();
+
         final Builder booleanQueryBuilder = new Builder();
 
         booleanQueryBuilder.add(getIndexer().constructQuery(MAVEN.SHA1, new SourcedSearchExpression(checksum)), MUST);
@@ -307,13 +693,99 @@ public class RepositoryIndexer
     public void close()
             throws IOException
     {
-        indexer.closeIndexingContext(indexingContext, false);
+        flush(true);
+
+        Boolean clean;
+        synchronized (flushLock)
+        {
+            clean = markClosed();
+            indexer.closeIndexingContext(indexingContext, false);
+        }
+
+        markCleanShutdown(clean);
     }
 
     public void close(boolean deleteFiles)
             throws IOException
     {
-        indexingContext.close(deleteFiles);
+        if (!deleteFiles)
+        {
+            flush(true);
+        }
+
+        Boolean clean;
+        synchronized (flushLock)
+        {
+            clean = markClosed();
+            indexingContext.close(deleteFiles);
+        }
+
+        markCleanShutdown(deleteFiles ? Boolean.FALSE : clean);
+    }
+
+    /**
+     * @return `true` if all the updates have been applied to the index, `null` if it has already been closed
+     */
+    private synchronized Boolean markClosed()
+    {
+        if (closed)
+        {
+            return null;
+        }
+
+        boolean clean = !droppedUpdates && pendingUpdates.isEmpty();
+
+        closed = true;
+        pendingUpdates.clear();
+        pendingRemovals.clear();
+        notifyAll();
+
+        return clean;
+    }
+
+    private void markCleanShutdown(Boolean clean)
+    {
+        if (indexDir == null || clean == null)
+        {
+            return;
+        }
+
+        Path marker = getCleanShutdownMarker(indexDir);
+        try
+        {
+            if (clean)
+            {
+                Files.write(marker, new byte[0]);
+            }
+            else
+            {
+                Files.deleteIfExists(marker);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Unable to update the clean shutdown marker of index [%s]", contextId), e);
+        }
+    }
+
+    /**
+     * @return the file which tells that the index in the given directory has been closed with all its updates applied
+     */
+    public static Path getCleanShutdownMarker(RepositoryPath indexDir)
+    {
+        Path dir = indexDir.toFile().toPath();
+
+        return dir.resolveSibling(dir.getFileName() + CLEAN_SHUTDOWN_MARKER_SUFFIX);
+    }
+
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
     }
 
     public IndexerConfiguration getIndexerConfiguration()
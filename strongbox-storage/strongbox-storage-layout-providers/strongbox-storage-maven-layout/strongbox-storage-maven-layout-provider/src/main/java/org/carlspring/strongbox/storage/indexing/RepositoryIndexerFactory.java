@@ -18,6 +18,7 @@ import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.creator.JarFileContentsIndexCreator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
@@ -41,6 +42,9 @@ public class RepositoryIndexerFactory
     @Inject
     private ConfigurationManager configurationManager;
 
+    @Value("${strongbox.indexer.batchSize:" + RepositoryIndexer.DEFAULT_BATCH_SIZE + "}")
+    private int batchSize;
+
     public RepositoryIndexer createRepositoryIndexer(String storageId,
                                                      String repositoryId,
                                                      String indexType,
@@ -69,6 +73,7 @@ public class RepositoryIndexerFactory
         repositoryIndexer.setScanner(indexerConfiguration.getScanner());
         repositoryIndexer.setConfiguration(configurationManager.getConfiguration());
         repositoryIndexer.setApplicationContext(applicationContext);
+        repositoryIndexer.setBatchSize(batchSize);
 
         return repositoryIndexer;
     }
@@ -264,6 +264,114 @@ public class MavenMetadataManager
         }
     }
 
+    /**
+     * Updates the metadata of an artifact with a single, newly stored, version directory, instead of collecting all
+     * the versions as {@link #generateMetadata(RepositoryPath, VersionCollectionRequest)} does. The metadata is
+     * generated from all the versions if there is none yet, or it can't be read.
+     */
+    public void updateMetadata(RepositoryPath artifactVersionDirectoryPath)
+            throws IOException,
+                   ProviderImplementationException,
+                   UnknownRepositoryTypeException
+    {
+        RepositoryPath artifactGroupDirectoryPath = artifactVersionDirectoryPath.getParent();
+        Repository repository = artifactGroupDirectoryPath.getRepository();
+
+        boolean release = repository.getPolicy().equals(RepositoryPolicyEnum.RELEASE.getPolicy());
+        if (!release && !repository.getPolicy().equals(RepositoryPolicyEnum.SNAPSHOT.getPolicy()))
+        {
+            generateMetadata(artifactGroupDirectoryPath,
+                             new VersionCollector().collectVersions(artifactGroupDirectoryPath.toAbsolutePath()));
+
+            return;
+        }
+
+        VersionCollector versionCollector = new VersionCollector();
+        VersionCollectionRequest request = versionCollector.collectVersion(artifactGroupDirectoryPath.toAbsolutePath(),
+                                                                           artifactVersionDirectoryPath.toAbsolutePath());
+        if (request.getMetadataVersions().isEmpty())
+        {
+            return;
+        }
+        String version = request.getMetadataVersions().get(0).getVersion();
+
+        Lock lock = repositoryPathLock.lock(artifactGroupDirectoryPath).writeLock();
+        lock.lock();
+        try
+        {
+            Metadata metadata = null;
+            if (Files.exists(MetadataHelper.getMetadataPath(artifactGroupDirectoryPath)))
+            {
+                try
+                {
+                    metadata = readMetadata(artifactGroupDirectoryPath);
+                }
+                catch (XmlPullParserException e)
+                {
+                    logger.warn("Unable to read the metadata of " + artifactGroupDirectoryPath +
+                                ", generating it from all the versions.", e);
+                }
+            }
+
+            if (metadata == null)
+            {
+                generateMetadata(artifactGroupDirectoryPath,
+                                 versionCollector.collectVersions(artifactGroupDirectoryPath.toAbsolutePath()));
+
+                return;
+            }
+
+            if (new MetadataMerger().mergeVersion(metadata, version, release))
+            {
+                storeMetadata(artifactGroupDirectoryPath, null, metadata, MetadataType.ARTIFACT_ROOT_LEVEL);
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (!release)
+        {
+            Pair<String, String> artifactGroup = MavenArtifactUtils.getArtifactGroupId(artifactGroupDirectoryPath);
+            generateSnapshotVersioningMetadata(artifactGroup.getValue0(), artifactGroup.getValue1(),
+                                               artifactVersionDirectoryPath.toAbsolutePath(), version, true);
+        }
+
+        if (!request.getPlugins().isEmpty())
+        {
+            updateMavenPluginMetadata(artifactGroupDirectoryPath.getParent(), request.getPlugins());
+        }
+
+        logger.debug("Updated Maven metadata of " + artifactGroupDirectoryPath + " with version " + version + ".");
+    }
+
+    private void updateMavenPluginMetadata(RepositoryPath pluginMetadataPath,
+                                           List<Plugin> plugins)
+            throws IOException
+    {
+        doInLock(pluginMetadataPath, path ->
+        {
+            try
+            {
+                Path metadataPath = MetadataHelper.getMetadataPath(pluginMetadataPath, null,
+                                                                   MetadataType.PLUGIN_GROUP_LEVEL);
+
+                Metadata pluginMetadata = Files.exists(metadataPath) ?
+                                          readMetadata(Files.newInputStream(metadataPath)) : new Metadata();
+
+                if (new MetadataMerger().mergePlugins(pluginMetadata, plugins))
+                {
+                    storeMetadata(pluginMetadataPath, null, pluginMetadata, MetadataType.PLUGIN_GROUP_LEVEL);
+                }
+            }
+            catch (IOException | XmlPullParserException e)
+            {
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+    }
+
     private void generateMavenPluginMetadata(String groupId, String aritfactId, RepositoryPath pluginMetadataPath, List<Plugin> plugins) throws IOException
     {
         Metadata pluginMetadata = new Metadata();
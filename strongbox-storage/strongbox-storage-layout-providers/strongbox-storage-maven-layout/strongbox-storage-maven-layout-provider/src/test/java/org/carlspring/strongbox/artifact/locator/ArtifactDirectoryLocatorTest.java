@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.artifact.locator;
 
+import org.carlspring.strongbox.artifact.locator.handlers.AbstractArtifactLocationHandler;
 import org.carlspring.strongbox.artifact.locator.handlers.ArtifactLocationReportOperation;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -12,6 +13,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 
 import org.junit.jupiter.api.AfterEach;
@@ -179,6 +185,76 @@ public class ArtifactDirectoryLocatorTest
         System.out.println(output);
     }
 
+    @Test
+    public void testLocateDirectoriesInParallelAfterCheckpoint()
+            throws IOException
+    {
+        Storage storage = configurationManagementService.getConfiguration().getStorage(STORAGE0);
+        Repository repository = storage.getRepository("releases");
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).toAbsolutePath();
+
+        Set<String> visitedPaths = ConcurrentHashMap.newKeySet();
+        VisitRecordingOperation operation = new VisitRecordingOperation(visitedPaths);
+        operation.setBasePath(repositoryPath.resolve("org").relativize());
+
+        Path checkpointPath = ArtifactDirectoryLocator.resolveCheckpointPath(repositoryPath, "locator-test");
+
+        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setBasedir(repositoryPath);
+        locator.setOperation(operation);
+        locator.setParallelism(4);
+        locator.setCheckpointPath(checkpointPath);
+        locator.setCheckpointKey("mode=test");
+
+        // the walk of "org" was interrupted after the "org/apache/maven" subtree
+        Files.createDirectories(checkpointPath.getParent());
+        Files.write(checkpointPath,
+                    Arrays.asList(locator.getStartingPath().toString(), "mode=test", "apache/maven"));
+
+        locator.locateArtifactDirectories();
+
+        assertFalse(visitedPaths.contains(normalize("org/apache/maven/location-utils/1.0.1")));
+        assertTrue(visitedPaths.contains(normalize("org/carlspring/maven")));
+        assertTrue(visitedPaths.contains(normalize("org/carlspring/maven/locator-testing/2.1")));
+        assertTrue(visitedPaths.contains(normalize("org/carlspring/strongbox/locator/foo-locator/1.2")));
+        assertTrue(visitedPaths.contains(normalize("org/carlspring/strongbox/locator/utils/2.3")));
+        assertFalse(Files.exists(checkpointPath));
+    }
+
+    @Test
+    public void testCheckpointOfOtherParametersIsDiscarded()
+            throws IOException
+    {
+        Storage storage = configurationManagementService.getConfiguration().getStorage(STORAGE0);
+        Repository repository = storage.getRepository("releases");
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).toAbsolutePath();
+
+        Set<String> visitedPaths = ConcurrentHashMap.newKeySet();
+        VisitRecordingOperation operation = new VisitRecordingOperation(visitedPaths);
+        operation.setBasePath(repositoryPath.resolve("org").relativize());
+
+        Path checkpointPath = ArtifactDirectoryLocator.resolveCheckpointPath(repositoryPath, "locator-test");
+
+        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setBasedir(repositoryPath);
+        locator.setOperation(operation);
+        locator.setCheckpointPath(checkpointPath);
+        locator.setCheckpointKey("mode=full");
+
+        // an interrupted walk of "org" with other parameters doesn't count
+        Files.createDirectories(checkpointPath.getParent());
+        Files.write(checkpointPath,
+                    Arrays.asList(locator.getStartingPath().toString(), "mode=test", "apache/maven"));
+
+        locator.locateArtifactDirectories();
+
+        assertTrue(visitedPaths.contains(normalize("org/apache/maven/location-utils/1.0.1")));
+        assertTrue(visitedPaths.contains(normalize("org/carlspring/maven/locator-testing/2.1")));
+        assertFalse(Files.exists(checkpointPath));
+    }
+
     private String normalize(String path)
     {
         if (!File.separator.equals("/"))
@@ -189,4 +265,32 @@ public class ArtifactDirectoryLocatorTest
         return path;
     }
 
+    private static class VisitRecordingOperation
+            extends AbstractArtifactLocationHandler
+    {
+
+        private final Set<String> visitedPaths;
+
+        private VisitRecordingOperation(Set<String> visitedPaths)
+        {
+            this.visitedPaths = visitedPaths;
+        }
+
+        @Override
+        public void execute(RepositoryPath directoryPath)
+        {
+            visitedPaths.add(directoryPath.relativize().toString());
+        }
+
+        @Override
+        public VisitRecordingOperation fork()
+        {
+            VisitRecordingOperation result = new VisitRecordingOperation(visitedPaths);
+            result.setBasePath(getBasePath());
+
+            return result;
+        }
+
+    }
+
 }
@@ -0,0 +1,215 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.commons.encryption.EncryptionAlgorithmsEnum;
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.providers.repository.ProxyRepositoryProvider;
+import org.carlspring.strongbox.storage.repository.MavenRepositoryFactory;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.storage.repository.remote.MutableRemoteRepository;
+
+import javax.inject.Inject;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.carlspring.strongbox.util.MessageDigestUtils.calculateChecksum;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+@SpringBootTest
+@ActiveProfiles({ "MockedRestArtifactResolverTestConfig",
+                  "test" })
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(SAME_THREAD)
+public class MavenMetadataExpirationStaleWindowCaseTest
+        extends BaseMavenMetadataExpirationTest
+{
+
+    private static final int STALE_WINDOW_SECONDS = 10;
+
+    @Inject
+    private ProxyRepositoryProvider proxyRepositoryProvider;
+
+    @Inject
+    private MavenRepositoryFactory repositoryFactory;
+
+    @Inject
+    private MavenMetadataExpiredRepositoryPathHandler metadataExpiredRepositoryPathHandler;
+
+    private CountDownLatch revalidationsBlocked;
+
+    @BeforeEach
+    public void initialize(TestInfo testInfo)
+            throws Exception
+    {
+        createRepository(STORAGE0,
+                         getRepositoryName(REPOSITORY_LOCAL_SOURCE, testInfo),
+                         RepositoryPolicyEnum.SNAPSHOT.getPolicy(),
+                         false);
+
+        createRepository(STORAGE0,
+                         getRepositoryName(REPOSITORY_HOSTED, testInfo),
+                         RepositoryPolicyEnum.SNAPSHOT.getPolicy(),
+                         false);
+
+        mockHostedRepositoryMetadataUpdate(getRepositoryName(REPOSITORY_HOSTED, testInfo),
+                                           getRepositoryName(REPOSITORY_LOCAL_SOURCE, testInfo),
+                                           versionLevelMetadata,
+                                           artifactLevelMetadata,
+                                           testInfo);
+
+        MutableRemoteRepository remoteRepository = new MutableRemoteRepository();
+        remoteRepository.setUrl("http://localhost:48080/storages/" + STORAGE0 + "/" +
+                                getRepositoryName(REPOSITORY_HOSTED, testInfo) + "/");
+        remoteRepository.setMetadataStaleWindowSeconds(STALE_WINDOW_SECONDS);
+
+        MutableRepository repository = repositoryFactory.createRepository(getRepositoryName(REPOSITORY_PROXY,
+                                                                                            testInfo));
+        repository.setRemoteRepository(remoteRepository);
+        repository.setLayout(Maven2LayoutProvider.ALIAS);
+        repository.setType(RepositoryTypeEnum.PROXY.getType());
+
+        createRepository(STORAGE0, repository);
+
+        mockResolvingProxiedRemoteArtifactsToHostedRepository(testInfo);
+
+        revalidationsBlocked = new CountDownLatch(1);
+    }
+
+    @Test
+    public void metadataExpiredWithinStaleWindowShouldBeServedWhileRevalidated(TestInfo testInfo)
+            throws Exception
+    {
+        final RepositoryPath proxiedPath = fetchProxiedMetadata(testInfo);
+        final String staleChecksum = calculateChecksum(proxiedPath, EncryptionAlgorithmsEnum.SHA1.getAlgorithm());
+        final String hostedChecksum = updateHostedMetadata(testInfo);
+
+        // modified longer ago than the stale window, but expired within it
+        Files.setLastModifiedTime(proxiedPath, FileTime.from(Instant.now()
+                                                                    .minus(Maven2LayoutProvider.METADATA_EXPIRATION)
+                                                                    .minusSeconds(STALE_WINDOW_SECONDS / 2)));
+        blockRevalidations();
+
+        proxyRepositoryProvider.fetchPath(proxiedPath);
+        assertEquals(staleChecksum, calculateChecksum(proxiedPath, EncryptionAlgorithmsEnum.SHA1.getAlgorithm()));
+
+        revalidationsBlocked.countDown();
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!hostedChecksum.equals(calculateChecksum(proxiedPath, EncryptionAlgorithmsEnum.SHA1.getAlgorithm())) &&
+               System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(100);
+        }
+        assertEquals(hostedChecksum, calculateChecksum(proxiedPath, EncryptionAlgorithmsEnum.SHA1.getAlgorithm()));
+    }
+
+    @Test
+    public void metadataExpiredBeforeStaleWindowShouldBeRevalidatedOnRequest(TestInfo testInfo)
+            throws Exception
+    {
+        final RepositoryPath proxiedPath = fetchProxiedMetadata(testInfo);
+        final String hostedChecksum = updateHostedMetadata(testInfo);
+
+        Files.setLastModifiedTime(proxiedPath, oneHourAgo());
+        blockRevalidations();
+
+        proxyRepositoryProvider.fetchPath(proxiedPath);
+        assertEquals(hostedChecksum, calculateChecksum(proxiedPath, EncryptionAlgorithmsEnum.SHA1.getAlgorithm()));
+    }
+
+    private RepositoryPath fetchProxiedMetadata(TestInfo testInfo)
+            throws Exception
+    {
+        final RepositoryPath proxiedPath = resolvePath(getRepositoryName(REPOSITORY_PROXY, testInfo),
+                                                       true,
+                                                       "maven-metadata.xml",
+                                                       testInfo);
+        proxyRepositoryProvider.fetchPath(proxiedPath);
+        assertTrue(RepositoryFiles.artifactExists(proxiedPath));
+
+        return proxiedPath;
+    }
+
+    private String updateHostedMetadata(TestInfo testInfo)
+            throws Exception
+    {
+        mockHostedRepositoryMetadataUpdate(getRepositoryName(REPOSITORY_HOSTED, testInfo),
+                                           getRepositoryName(REPOSITORY_LOCAL_SOURCE, testInfo),
+                                           versionLevelMetadata,
+                                           artifactLevelMetadata,
+                                           testInfo);
+
+        final RepositoryPath hostedPath = resolvePath(getRepositoryName(REPOSITORY_HOSTED, testInfo),
+                                                      true,
+                                                      "maven-metadata.xml",
+                                                      testInfo);
+
+        return calculateChecksum(hostedPath, EncryptionAlgorithmsEnum.SHA1.getAlgorithm());
+    }
+
+    /**
+     * Occupies all the revalidation workers, so that a background revalidation can't complete before
+     * {@link #revalidationsBlocked} is released.
+     */
+    private void blockRevalidations()
+    {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(
+                metadataExpiredRepositoryPathHandler, "executor");
+        for (int i = 0; i < executor.getCorePoolSize(); i++)
+        {
+            executor.execute(() -> {
+                try
+                {
+                    revalidationsBlocked.await(30, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    @AfterEach
+    public void removeRepositories(TestInfo testInfo)
+            throws Exception
+    {
+        revalidationsBlocked.countDown();
+
+        removeRepositories(getRepositories(testInfo));
+    }
+
+    private Set<MutableRepository> getRepositories(TestInfo testInfo)
+    {
+        Set<MutableRepository> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE0,
+                                              getRepositoryName(REPOSITORY_HOSTED, testInfo),
+                                              Maven2LayoutProvider.ALIAS));
+        repositories.add(createRepositoryMock(STORAGE0,
+                                              getRepositoryName(REPOSITORY_PROXY, testInfo),
+                                              Maven2LayoutProvider.ALIAS));
+        repositories.add(createRepositoryMock(STORAGE0,
+                                              getRepositoryName(REPOSITORY_LOCAL_SOURCE, testInfo),
+                                              Maven2LayoutProvider.ALIAS));
+        return repositories;
+    }
+
+}
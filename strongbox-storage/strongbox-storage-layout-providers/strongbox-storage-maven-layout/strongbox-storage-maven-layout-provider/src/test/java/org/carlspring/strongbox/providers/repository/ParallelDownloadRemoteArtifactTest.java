@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.providers.repository;
 
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsAccumulator;
+import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
@@ -20,6 +22,8 @@ import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.Resource;
 import org.springframework.test.context.ActiveProfiles;
@@ -44,17 +48,22 @@ public class ParallelDownloadRemoteArtifactTest
 
     private RemoteArtifactInputStreamStub remoteArtifactInputStream;
 
+    private RestArtifactResolver artifactResolver;
+
     public Map<InputStream, Thread> repoteRepositoryConnectionOwnerMap = new ConcurrentHashMap<>();
 
     @Inject
     private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private ArtifactDownloadStatisticsAccumulator artifactDownloadStatisticsAccumulator;
     
     @BeforeEach
     public void setup()
         throws Exception
     {
         remoteArtifactInputStream = new RemoteArtifactInputStreamStub(jarArtifact);
-        prepareArtifactResolverContext(remoteArtifactInputStream, true);
+        artifactResolver = prepareArtifactResolverContext(remoteArtifactInputStream, true);
     }
 
     @Test
@@ -92,6 +101,12 @@ public class ParallelDownloadRemoteArtifactTest
         assertEquals(concurrency, result.size());
 
         assertArrayEquals(expected, actual);
+
+        // The concurrent requests wait for the first one, instead of downloading the artifact again.
+        Mockito.verify(artifactResolver, Mockito.times(1)).get(ArgumentMatchers.anyString(),
+                                                               ArgumentMatchers.anyLong());
+
+        artifactDownloadStatisticsAccumulator.flush();
         
         RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
 
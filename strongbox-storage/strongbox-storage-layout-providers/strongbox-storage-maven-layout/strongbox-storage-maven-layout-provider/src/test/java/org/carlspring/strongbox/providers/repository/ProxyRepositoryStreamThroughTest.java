@@ -0,0 +1,347 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryStreamThrough;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.ArtifactStorageException;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Downloads of proxied artifacts which are written into the client response while they are being cached.
+ */
+@ActiveProfiles({ "MockedRestArtifactResolverTestConfig", "test" })
+@SpringBootTest
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+public class ProxyRepositoryStreamThroughTest
+        extends RetryDownloadArtifactTestBase
+{
+
+    private static final String STORAGE_ID = "storage-common-proxies";
+
+    private static final String REPOSITORY_ID = "maven-central";
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
+
+    @Test
+    public void slowClientShouldHoldNeitherTheFetchLockNorATransaction()
+        throws Exception
+    {
+        prepareArtifactResolverContext(jarArtifact.getInputStream(), true);
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(STORAGE_ID, REPOSITORY_ID, getJarPath());
+        ClientStreamThrough client = new SlowClientStreamThrough(repositoryPath);
+
+        RepositoryPath result = resolvePath(client);
+
+        assertEquals(repositoryPath, result);
+        assertTrue(Files.exists(getDestinationPath()));
+        assertArrayEquals(getJarBytes(), client.response.toByteArray());
+        assertTrue(client.completed);
+    }
+
+    @Test
+    public void slowClientShouldNotDelayTheCoalescedFetches()
+        throws Exception
+    {
+        prepareArtifactResolverContext(jarArtifact.getInputStream(), true);
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(STORAGE_ID, REPOSITORY_ID, getJarPath());
+        BlockedClientStreamThrough client = new BlockedClientStreamThrough();
+
+        CompletableFuture<RepositoryPath> download = CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return resolvePath(client);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try
+        {
+            assertTrue(client.started.await(10, TimeUnit.SECONDS));
+
+            // The client is stuck on its first byte, while the artifact gets cached and another fetch of it completes.
+            RepositoryPath result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                                                              () -> artifactResolutionService.resolvePath(STORAGE_ID,
+                                                                                                          REPOSITORY_ID,
+                                                                                                          getJarPath()));
+
+            assertEquals(repositoryPath, result);
+            assertTrue(Files.exists(getDestinationPath()));
+            assertEquals(0, client.response.size());
+        }
+        finally
+        {
+            client.release.countDown();
+        }
+
+        assertEquals(repositoryPath, download.get(10, TimeUnit.SECONDS));
+        assertArrayEquals(getJarBytes(), client.response.toByteArray());
+        assertTrue(client.completed);
+    }
+
+    @Test
+    public void upstreamFailureShouldAbortTheResponse()
+        throws Exception
+    {
+        prepareArtifactResolverContext(new RetryDownloadArtifactWithPermanentFailureStartingAtSomePointTest.PermanentBrokenArtifactInputStream(jarArtifact),
+                                       true);
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(STORAGE_ID, REPOSITORY_ID, getJarPath());
+        ClientStreamThrough client = new ClientStreamThrough();
+
+        IOException exception = assertThrows(IOException.class, () -> resolvePath(client));
+
+        assertEquals("Connection lost.", exception.getMessage());
+        assertFalse(Files.exists(getDestinationPath()));
+        // The partial download is removed from the storage's temporary directory too.
+        assertFalse(Files.exists(RepositoryFiles.temporary(repositoryPath).getTarget()));
+        assertTrue(client.response.size() > 0);
+        assertTrue(client.response.size() < getJarBytes().length);
+        assertFalse(client.completed);
+    }
+
+    @Test
+    public void checksumFailureAfterAllTheBytesShouldAbortTheResponse()
+        throws Exception
+    {
+        prepareArtifactResolverContext(jarArtifact.getInputStream(), true);
+
+        ArtifactManagementService artifactManagementService = (ArtifactManagementService) ReflectionTestUtils.getField(proxyRepositoryArtifactResolver,
+                                                                                                                       "artifactManagementService");
+        ArtifactManagementService failingArtifactManagementService = Mockito.mock(ArtifactManagementService.class,
+                                                                                  AdditionalAnswers.delegatesTo(artifactManagementService));
+        // The artifact is fully read before the failure, like a mismatch found once all the bytes are written.
+        Mockito.doAnswer(invocation -> {
+            IOUtils.copy(invocation.<InputStream>getArgument(1), NullOutputStream.NULL_OUTPUT_STREAM);
+
+            throw new ArtifactStorageException("Checksum mismatch.");
+        })
+               .when(failingArtifactManagementService)
+               .storeWithoutTransaction(ArgumentMatchers.argThat(p -> p != null && p.endsWith(getJarArtifact())),
+                                        ArgumentMatchers.any(InputStream.class));
+
+        ReflectionTestUtils.setField(proxyRepositoryArtifactResolver, "artifactManagementService",
+                                     failingArtifactManagementService);
+        try
+        {
+            ClientStreamThrough client = new ClientStreamThrough();
+
+            IOException exception = assertThrows(IOException.class, () -> resolvePath(client));
+
+            assertEquals("Checksum mismatch.", exception.getMessage());
+            assertFalse(Files.exists(getDestinationPath()));
+            assertArrayEquals(getJarBytes(), client.response.toByteArray());
+            assertFalse(client.completed);
+        }
+        finally
+        {
+            ReflectionTestUtils.setField(proxyRepositoryArtifactResolver, "artifactManagementService",
+                                         artifactManagementService);
+        }
+    }
+
+    private RepositoryPath resolvePath(ClientStreamThrough client)
+        throws IOException
+    {
+        ProxyRepositoryStreamThrough.bind(client);
+        try
+        {
+            return artifactResolutionService.resolvePath(STORAGE_ID, REPOSITORY_ID, getJarPath());
+        }
+        finally
+        {
+            ProxyRepositoryStreamThrough.unbind();
+        }
+    }
+
+    private Path getDestinationPath()
+    {
+        return getVaultDirectoryPath().resolve("storages")
+                                      .resolve(STORAGE_ID)
+                                      .resolve(REPOSITORY_ID)
+                                      .resolve(getJarPath());
+    }
+
+    private byte[] getJarBytes()
+        throws IOException
+    {
+        try (InputStream is = jarArtifact.getInputStream())
+        {
+            return IOUtils.toByteArray(is);
+        }
+    }
+
+    @Override
+    protected String getArtifactVersion()
+    {
+        return "3.4";
+    }
+
+    /**
+     * Client response, which is complete only if it has been flushed after the last byte.
+     */
+    private static class ClientStreamThrough
+            extends ProxyRepositoryStreamThrough
+    {
+
+        protected final ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        protected boolean completed;
+
+        @Override
+        protected OutputStream open(RepositoryPath repositoryPath)
+        {
+            return new OutputStream()
+            {
+
+                @Override
+                public void write(int b)
+                    throws IOException
+                {
+                    write(new byte[]{ (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b,
+                                  int off,
+                                  int len)
+                    throws IOException
+                {
+                    onWrite();
+                    response.write(b, off, len);
+                }
+
+                @Override
+                public void flush()
+                {
+                    completed = true;
+                }
+
+            };
+        }
+
+        protected void onWrite()
+            throws IOException
+        {
+        }
+
+    }
+
+    /**
+     * Takes no byte until it's released.
+     */
+    private static class BlockedClientStreamThrough
+            extends ClientStreamThrough
+    {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void onWrite()
+            throws IOException
+        {
+            started.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new IOException(e);
+            }
+        }
+
+    }
+
+    /**
+     * Checks, while it's being served, that the download into the cache can proceed without it.
+     */
+    private class SlowClientStreamThrough
+            extends ClientStreamThrough
+    {
+
+        private final RepositoryPath repositoryPath;
+
+        private SlowClientStreamThrough(RepositoryPath repositoryPath)
+        {
+            this.repositoryPath = repositoryPath;
+        }
+
+        @Override
+        protected void onWrite()
+            throws IOException
+        {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+
+            Lock lock = repositoryPathLock.lock(repositoryPath, "remote-fetch").writeLock();
+            assertTrue(CompletableFuture.supplyAsync(() -> {
+                boolean locked = lock.tryLock();
+                if (locked)
+                {
+                    lock.unlock();
+                }
+
+                return locked;
+            }).join());
+
+            try
+            {
+                Thread.sleep(10);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new IOException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Fetches of a path which another cluster node is fetching, see
+ * {@link ProxyRepositoryArtifactResolver#fetchRemoteResourceIfMissing(RepositoryPath, ProxyRepositoryArtifactResolver.LocalResolver)}.
+ */
+@ActiveProfiles({ "MockedRestArtifactResolverTestConfig", "test" })
+@SpringBootTest
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+public class RemoteFetchLockTest
+        extends RetryDownloadArtifactTestBase
+{
+
+    private static final String STORAGE_ID = "storage-common-proxies";
+
+    private static final String REPOSITORY_ID = "maven-central";
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
+
+    @Test
+    public void pathCachedWhileWaitingForTheLockShouldNotBeFetchedAgain()
+        throws Exception
+    {
+        RestArtifactResolver artifactResolver = prepareArtifactResolverContext(jarArtifact.getInputStream(), true);
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(STORAGE_ID, REPOSITORY_ID, getJarPath());
+
+        // another node holds the lock while it fetches the path, and has cached it once it releases the lock
+        AtomicInteger localResolutions = new AtomicInteger();
+        Lock lock = repositoryPathLock.lock(repositoryPath, "remote-fetch").writeLock();
+        lock.lock();
+
+        CompletableFuture<RepositoryPath> fetch;
+        try
+        {
+            fetch = CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    return proxyRepositoryArtifactResolver.fetchRemoteResourceIfMissing(repositoryPath,
+                                                                                        p -> localResolutions.incrementAndGet() > 1 ? p : null);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            while (localResolutions.get() == 0)
+            {
+                Thread.sleep(10);
+            }
+            assertFalse(fetch.isDone());
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        assertEquals(repositoryPath, fetch.get(30, TimeUnit.SECONDS));
+        assertEquals(2, localResolutions.get());
+        Mockito.verify(artifactResolver, Mockito.never()).get(ArgumentMatchers.anyString(),
+                                                              ArgumentMatchers.anyLong());
+        Mockito.verify(artifactResolver, Mockito.never()).get(ArgumentMatchers.anyString());
+    }
+
+    @Override
+    protected String getArtifactVersion()
+    {
+        return "3.5";
+    }
+
+}
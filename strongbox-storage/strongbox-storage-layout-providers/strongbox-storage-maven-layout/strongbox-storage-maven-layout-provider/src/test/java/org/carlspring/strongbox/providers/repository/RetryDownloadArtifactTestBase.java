@@ -106,8 +106,8 @@ public abstract class RetryDownloadArtifactTestBase
 
     protected abstract String getArtifactVersion();
 
-    void prepareArtifactResolverContext(final InputStream artifactInputStream,
-                                        final boolean rangeRquestSupported)
+    RestArtifactResolver prepareArtifactResolverContext(final InputStream artifactInputStream,
+                                                        final boolean rangeRquestSupported)
     {
         
         RemoteRepositoryRetryArtifactDownloadConfiguration configuration = configurationManager.getConfiguration()
@@ -133,6 +133,8 @@ public abstract class RetryDownloadArtifactTestBase
 
         Mockito.when(artifactResolverFactory.newInstance(ArgumentMatchers.any(RemoteRepository.class)))
                .thenReturn(artifactResolver);
+
+        return artifactResolver;
     }
 
     abstract static class BrokenArtifactInputStream
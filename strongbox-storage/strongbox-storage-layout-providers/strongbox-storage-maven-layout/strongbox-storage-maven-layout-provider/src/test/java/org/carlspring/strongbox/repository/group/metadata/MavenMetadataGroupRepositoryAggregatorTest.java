@@ -0,0 +1,158 @@
+package org.carlspring.strongbox.repository.group.metadata;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MavenMetadataGroupRepositoryAggregatorTest
+{
+
+    private static final String METADATA_PATH = "org/carlspring/strongbox/mmgra/maven-metadata.xml";
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Mock
+    private MavenMetadataGroupRepositoryComponent mavenMetadataGroupRepositoryComponent;
+
+    private MavenMetadataGroupRepositoryAggregator aggregator;
+
+    private RepositoryPath metadataPath;
+
+    private RepositoryPath artifactPath;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        aggregator = new MavenMetadataGroupRepositoryAggregator();
+        ReflectionTestUtils.setField(aggregator,
+                                     "mavenMetadataGroupRepositoryComponent",
+                                     mavenMetadataGroupRepositoryComponent);
+        ReflectionTestUtils.setField(aggregator, "threads", 2);
+
+        artifactPath = Mockito.mock(RepositoryPath.class);
+        metadataPath = repositoryPath("releases", METADATA_PATH);
+        Mockito.when(metadataPath.getParent()).thenReturn(artifactPath);
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        // don't wait for the delayed aggregations
+        for (ExecutorService executor : (ExecutorService[]) ReflectionTestUtils.getField(aggregator, "executors"))
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStoresWithinTheDelayAreCoalesced()
+        throws Exception
+    {
+        init(200);
+
+        for (int i = 0; i < 5; i++)
+        {
+            aggregator.aggregate(metadataPath);
+        }
+
+        assertEquals(4, aggregator.getCoalescedUpdates());
+
+        Mockito.verify(mavenMetadataGroupRepositoryComponent, Mockito.timeout(TIMEOUT_MILLIS))
+               .updateGroupsContaining(artifactPath);
+        Mockito.verify(mavenMetadataGroupRepositoryComponent, Mockito.after(500).times(1))
+               .updateGroupsContaining(artifactPath);
+        assertEquals(0, aggregator.getPendingAggregations());
+        assertEquals(1, aggregator.getAggregations());
+    }
+
+    @Test
+    public void testGroupReadRunsPendingAggregation()
+        throws Exception
+    {
+        init(TimeUnit.MINUTES.toMillis(1));
+
+        aggregator.aggregate(metadataPath);
+
+        Mockito.verify(mavenMetadataGroupRepositoryComponent, Mockito.never()).updateGroupsContaining(artifactPath);
+
+        aggregator.awaitAggregation(repositoryPath("group", METADATA_PATH));
+
+        Mockito.verify(mavenMetadataGroupRepositoryComponent).updateGroupsContaining(artifactPath);
+        assertEquals(0, aggregator.getPendingAggregations());
+
+        // the aggregation isn't run again when its delay expires
+        aggregator.awaitAggregation(repositoryPath("group", METADATA_PATH));
+
+        Mockito.verify(mavenMetadataGroupRepositoryComponent).updateGroupsContaining(artifactPath);
+    }
+
+    @Test
+    public void testStoreDuringRunningAggregationIsAggregatedAgain()
+        throws Exception
+    {
+        init(50);
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            running.countDown();
+            release.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+            return null;
+        }).doNothing().when(mavenMetadataGroupRepositoryComponent).updateGroupsContaining(artifactPath);
+
+        aggregator.aggregate(metadataPath);
+        assertTrue(running.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        // the running aggregation has already read the metadata, so this store needs a new one
+        aggregator.aggregate(metadataPath);
+
+        assertEquals(0, aggregator.getCoalescedUpdates());
+        assertEquals(1, aggregator.getPendingAggregations());
+
+        release.countDown();
+
+        Mockito.verify(mavenMetadataGroupRepositoryComponent, Mockito.timeout(TIMEOUT_MILLIS).times(2))
+               .updateGroupsContaining(artifactPath);
+    }
+
+    private void init(long delayMillis)
+    {
+        ReflectionTestUtils.setField(aggregator, "delayMillis", delayMillis);
+        ReflectionTestUtils.invokeMethod(aggregator, "init");
+    }
+
+    private RepositoryPath repositoryPath(String repositoryId,
+                                          String path)
+    {
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.getId()).thenReturn("storage0");
+
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getId()).thenReturn(repositoryId);
+        Mockito.when(repository.getStorage()).thenReturn(storage);
+
+        RepositoryPath repositoryPath = Mockito.mock(RepositoryPath.class);
+        Mockito.when(repositoryPath.getRepository()).thenReturn(repository);
+        ReflectionTestUtils.setField(repositoryPath, "path", path);
+
+        return repositoryPath;
+    }
+
+}
@@ -0,0 +1,231 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.maven.commons.util.ArtifactUtils;
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.artifact.generator.MavenArtifactGenerator;
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+import org.carlspring.strongbox.testing.TestCaseWithMavenArtifactGenerationAndIndexing;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository;
+
+import javax.inject.Inject;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+/**
+ * Covers {@link ArtifactMetadataService#updateMetadata(String, String, String)}, as it is called by
+ * {@link org.carlspring.strongbox.event.artifact.MavenArtifactStoredEventListener} when a POM is stored.
+ */
+@SpringBootTest(properties = "strongbox.maven.metadata.updateOnStore=true")
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class ArtifactMetadataServiceUpdateOnStoreTest
+        extends TestCaseWithMavenArtifactGenerationAndIndexing
+{
+
+    private static final String R1 = "amsuos-releases1";
+
+    private static final String R2 = "amsuos-snapshots";
+
+    private static final String R3 = "amsuos-releases2";
+
+    private static final String R4 = "amsuos-releases3";
+
+    private static final String GROUP_ID = "org.carlspring.strongbox.update";
+
+    private static final String GROUP_PATH = "org/carlspring/strongbox/update";
+
+    @Inject
+    private ArtifactMetadataService artifactMetadataService;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testReleaseVersionIsMergedOnStore(@TestRepository(repositoryId = R1,
+                                                                  layout = MavenArtifactCoordinates.LAYOUT_NAME,
+                                                                  policy = RepositoryPolicyEnum.RELEASE)
+                                                  Repository repository)
+            throws Exception
+    {
+        String artifactPath = GROUP_PATH + "/release";
+
+        deploy(R1, GROUP_ID + ":release:1.0", "jar");
+        deploy(R1, GROUP_ID + ":release:1.2", "jar");
+        deploy(R1, GROUP_ID + ":release:1.1", "jar");
+
+        Metadata metadata = artifactMetadataService.getMetadata(STORAGE0, R1, artifactPath);
+        Versioning versioning = metadata.getVersioning();
+
+        assertEquals(GROUP_ID, metadata.getGroupId(), "Incorrect groupId!");
+        assertEquals("release", metadata.getArtifactId(), "Incorrect artifactId!");
+        assertEquals(Arrays.asList("1.0", "1.1", "1.2"), versioning.getVersions(), "Unexpected set of versions!");
+        assertEquals("1.2", versioning.getLatest(), "Incorrect latest version!");
+        assertEquals("1.2", versioning.getRelease(), "Incorrect latest release version!");
+        assertNotNull(versioning.getLastUpdated(), "Failed to set lastUpdated field!");
+
+        // Only the stored version is read, not the other version directories.
+        generateArtifact(getRepositoryBasedir(STORAGE0, R1).getAbsolutePath(), GROUP_ID + ":release", "1.3");
+        deploy(R1, GROUP_ID + ":release:1.4", "jar");
+
+        versioning = artifactMetadataService.getMetadata(STORAGE0, R1, artifactPath).getVersioning();
+
+        assertEquals(Arrays.asList("1.0", "1.1", "1.2", "1.4"), versioning.getVersions(),
+                     "Unexpected set of versions!");
+        assertEquals("1.4", versioning.getRelease(), "Incorrect latest release version!");
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testSnapshotVersionIsMergedOnStore(@TestRepository(repositoryId = R2,
+                                                                   layout = MavenArtifactCoordinates.LAYOUT_NAME,
+                                                                   policy = RepositoryPolicyEnum.SNAPSHOT)
+                                                   Repository repository)
+            throws Exception
+    {
+        String artifactPath = GROUP_PATH + "/snapshot";
+
+        deploy(R2, GROUP_ID + ":snapshot:1.0-20181017.101010-1", "jar");
+        deploy(R2, GROUP_ID + ":snapshot:1.0-20181017.111010-2", "jar");
+        deploy(R2, GROUP_ID + ":snapshot:1.1-20181017.101010-1", "jar");
+
+        Versioning versioning = artifactMetadataService.getMetadata(STORAGE0, R2, artifactPath).getVersioning();
+
+        assertEquals(Arrays.asList("1.0-SNAPSHOT", "1.1-SNAPSHOT"), versioning.getVersions(),
+                     "Unexpected set of versions!");
+        assertEquals("1.1-SNAPSHOT", versioning.getLatest(), "Incorrect latest version!");
+        assertNull(versioning.getRelease(), "A snapshot repository has no release!");
+
+        Metadata snapshotMetadata = artifactMetadataService.getMetadata(STORAGE0,
+                                                                        R2,
+                                                                        artifactPath + "/1.0-SNAPSHOT");
+
+        assertEquals("1.0-SNAPSHOT", snapshotMetadata.getVersion());
+        assertTrue(snapshotMetadata.getVersioning()
+                                   .getSnapshotVersions()
+                                   .stream()
+                                   .anyMatch(v -> "1.0-20181017.111010-2".equals(v.getVersion())),
+                   "The last snapshot build is missing from the snapshot metadata!");
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testPluginIsMergedOnStore(@TestRepository(repositoryId = R3,
+                                                          layout = MavenArtifactCoordinates.LAYOUT_NAME,
+                                                          policy = RepositoryPolicyEnum.RELEASE)
+                                          Repository repository)
+            throws Exception
+    {
+        deploy(R3, GROUP_ID + ":strongbox-update-maven-plugin:1.0", "maven-plugin");
+        deploy(R3, GROUP_ID + ":strongbox-update-maven-plugin:1.1", "maven-plugin");
+
+        Versioning versioning = artifactMetadataService.getMetadata(STORAGE0,
+                                                                    R3,
+                                                                    GROUP_PATH + "/strongbox-update-maven-plugin")
+                                                       .getVersioning();
+
+        assertEquals(Arrays.asList("1.0", "1.1"), versioning.getVersions(), "Unexpected set of versions!");
+
+        Metadata pluginMetadata = artifactMetadataService.getMetadata(STORAGE0, R3, GROUP_PATH);
+
+        assertEquals(1, pluginMetadata.getPlugins().size(), "Incorrect number of plugins!");
+        assertEquals("strongbox-update-maven-plugin", pluginMetadata.getPlugins().get(0).getArtifactId());
+        assertEquals("strongbox-update", pluginMetadata.getPlugins().get(0).getPrefix());
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testMissingMetadataIsGeneratedFromAllVersions(@TestRepository(repositoryId = R4,
+                                                                              layout = MavenArtifactCoordinates.LAYOUT_NAME,
+                                                                              policy = RepositoryPolicyEnum.RELEASE)
+                                                              Repository repository)
+            throws Exception
+    {
+        String artifactPath = GROUP_PATH + "/fallback";
+        Path metadataPath = getRepositoryBasedir(STORAGE0, R4).toPath()
+                                                              .resolve(artifactPath)
+                                                              .resolve(MetadataHelper.MAVEN_METADATA_XML);
+
+        generateArtifact(getRepositoryBasedir(STORAGE0, R4).getAbsolutePath(), GROUP_ID + ":fallback", "1.0", "1.1");
+
+        assertFalse(Files.exists(metadataPath));
+
+        deploy(R4, GROUP_ID + ":fallback:1.2", "jar");
+
+        Versioning versioning = artifactMetadataService.getMetadata(STORAGE0, R4, artifactPath).getVersioning();
+
+        assertEquals(Arrays.asList("1.0", "1.1", "1.2"), versioning.getVersions(), "Unexpected set of versions!");
+
+        // An unreadable metadata file is generated from all the versions as well.
+        generateArtifact(getRepositoryBasedir(STORAGE0, R4).getAbsolutePath(), GROUP_ID + ":fallback", "1.3");
+        Files.write(metadataPath, "<metadata>".getBytes());
+
+        deploy(R4, GROUP_ID + ":fallback:1.4", "jar");
+
+        versioning = artifactMetadataService.getMetadata(STORAGE0, R4, artifactPath).getVersioning();
+
+        assertEquals(Arrays.asList("1.0", "1.1", "1.2", "1.3", "1.4"), versioning.getVersions(),
+                     "Unexpected set of versions!");
+        assertEquals("1.4", versioning.getRelease(), "Incorrect latest release version!");
+    }
+
+    /**
+     * Generates the artifact outside of the repository and stores it, the POM last, the way a client deploys it.
+     */
+    private void deploy(String repositoryId,
+                        String gav,
+                        String packaging)
+            throws Exception
+    {
+        Path generatorBasePath = getVaultDirectoryPath().resolve(".temp")
+                                                        .resolve(getClass().getSimpleName())
+                                                        .resolve(repositoryId);
+
+        Artifact artifact = ArtifactUtils.getArtifactFromGAVTC(gav);
+        new MavenArtifactGenerator(generatorBasePath).generate(artifact, packaging);
+
+        String artifactPath = ArtifactUtils.convertArtifactToPath(artifact);
+        String pomPath = ArtifactUtils.convertArtifactToPath(ArtifactUtils.getPOMArtifact(artifact));
+
+        store(repositoryId, generatorBasePath, artifactPath);
+        store(repositoryId, generatorBasePath, pomPath);
+    }
+
+    private void store(String repositoryId,
+                       Path generatorBasePath,
+                       String path)
+            throws Exception
+    {
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(STORAGE0, repositoryId, path);
+        try (InputStream is = Files.newInputStream(generatorBasePath.resolve(Paths.get(path))))
+        {
+            artifactManagementService.store(repositoryPath, is);
+        }
+    }
+
+}
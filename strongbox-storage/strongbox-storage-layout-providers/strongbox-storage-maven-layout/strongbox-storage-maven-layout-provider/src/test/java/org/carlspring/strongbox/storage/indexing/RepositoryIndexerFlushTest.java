@@ -0,0 +1,202 @@
+package org.carlspring.strongbox.storage.indexing;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactContextProducer;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.Indexer;
+import org.apache.maven.index.context.IndexingContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationContext;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+
+public class RepositoryIndexerFlushTest
+{
+
+    @Mock
+    private Indexer indexer;
+
+    @Mock
+    private IndexingContext indexingContext;
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    private RepositoryIndexer repositoryIndexer;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        repositoryIndexer = new RepositoryIndexer("storage0:releases:local");
+        repositoryIndexer.setIndexer(indexer);
+        repositoryIndexer.setIndexingContext(indexingContext);
+        repositoryIndexer.setApplicationContext(applicationContext);
+    }
+
+    @Test
+    public void testFailedRemovalsDoNotSkipAdditions()
+        throws Exception
+    {
+        Mockito.when(indexingContext.acquireIndexSearcher()).thenThrow(new IOException("Index is not readable."));
+
+        repositoryIndexer.addArtifactToIndex(artifactPath("1.0"));
+        repositoryIndexer.delete(Collections.singletonList(artifactInfo("1.1")));
+
+        repositoryIndexer.flush();
+
+        Mockito.verify(indexer).addArtifactsToIndex(anyCollection(), any(IndexingContext.class));
+        assertEquals(1, repositoryIndexer.getQueueDepth(), "The failed removal should have been re-queued!");
+
+        // the retry waits for the backoff
+        repositoryIndexer.flush();
+
+        Mockito.verify(indexingContext, Mockito.times(1)).acquireIndexSearcher();
+        assertEquals(1, repositoryIndexer.getQueueDepth());
+    }
+
+    @Test
+    public void testFailedAdditionsAreRetried()
+        throws Exception
+    {
+        Mockito.doThrow(new IOException("Index is not writable."))
+               .doNothing()
+               .when(indexer)
+               .addArtifactsToIndex(anyCollection(), any(IndexingContext.class));
+
+        repositoryIndexer.addArtifactToIndex(artifactPath("1.0"));
+        repositoryIndexer.flush();
+
+        assertEquals(1, repositoryIndexer.getQueueDepth(), "The failed addition should have been re-queued!");
+
+        // the pending updates are applied on close regardless of the backoff
+        repositoryIndexer.close();
+
+        Mockito.verify(indexer, Mockito.times(2)).addArtifactsToIndex(anyCollection(), any(IndexingContext.class));
+        assertEquals(0, repositoryIndexer.getQueueDepth());
+    }
+
+    @Test
+    public void testFailedAdditionIsNotRetriedAfterNewerUpdate()
+        throws Exception
+    {
+        Mockito.doThrow(new IOException("Index is not writable."))
+               .when(indexer)
+               .addArtifactsToIndex(anyCollection(), any(IndexingContext.class));
+
+        repositoryIndexer.addArtifactToIndex(artifactPath("1.0"));
+        repositoryIndexer.flush();
+
+        // the artifact is removed before the failed addition is retried
+        repositoryIndexer.delete(Collections.singletonList(artifactInfo("1.0")));
+
+        assertEquals(1, repositoryIndexer.getQueueDepth());
+
+        repositoryIndexer.close();
+
+        Mockito.verify(indexer, Mockito.times(1)).addArtifactsToIndex(anyCollection(), any(IndexingContext.class));
+        Mockito.verify(indexingContext).acquireIndexSearcher();
+    }
+
+    @Test
+    public void testUpdatesAfterCloseAreDropped()
+        throws Exception
+    {
+        repositoryIndexer.close();
+
+        repositoryIndexer.addArtifactToIndex(artifactPath("1.0"));
+        repositoryIndexer.delete(Collections.singletonList(artifactInfo("1.1")));
+
+        assertEquals(0, repositoryIndexer.getQueueDepth());
+
+        repositoryIndexer.flush();
+
+        Mockito.verify(indexer, Mockito.never()).addArtifactsToIndex(anyCollection(), any(IndexingContext.class));
+        Mockito.verify(indexer, Mockito.never()).deleteArtifactsFromIndex(anyCollection(),
+                                                                         any(IndexingContext.class));
+    }
+
+    @Test
+    public void testCloseWithAllUpdatesAppliedLeavesCleanShutdownMarker()
+        throws Exception
+    {
+        Path marker = RepositoryIndexer.getCleanShutdownMarker(indexDir());
+
+        repositoryIndexer.addArtifactToIndex(artifactPath("1.0"));
+        repositoryIndexer.close();
+
+        assertTrue(Files.exists(marker));
+    }
+
+    /**
+     * The updates which are still queued are lost with the indexer, so the index has to be rebuilt on the next start.
+     */
+    @Test
+    public void testCloseWithQueuedUpdatesRemovesCleanShutdownMarker()
+        throws Exception
+    {
+        Path marker = RepositoryIndexer.getCleanShutdownMarker(indexDir());
+        Files.write(marker, new byte[0]);
+
+        Mockito.doThrow(new IOException("Index is not writable."))
+               .when(indexer)
+               .addArtifactsToIndex(anyCollection(), any(IndexingContext.class));
+
+        repositoryIndexer.addArtifactToIndex(artifactPath("1.0"));
+        repositoryIndexer.close();
+
+        assertFalse(Files.exists(marker));
+    }
+
+    private RepositoryPath indexDir()
+        throws IOException
+    {
+        File indexDirectory = Files.createTempDirectory("repository-indexer").resolve("local").toFile();
+
+        RepositoryPath indexDir = Mockito.mock(RepositoryPath.class);
+        Mockito.when(indexDir.toFile()).thenReturn(indexDirectory);
+        repositoryIndexer.setIndexDir(indexDir);
+
+        return indexDir;
+    }
+
+    private RepositoryPath artifactPath(String version)
+        throws IOException
+    {
+        File artifactFile = new File("strongbox-commons-" + version + ".jar");
+
+        RepositoryPath artifactPath = Mockito.mock(RepositoryPath.class);
+        Mockito.when(artifactPath.toAbsolutePath()).thenReturn(artifactPath);
+        Mockito.when(artifactPath.toFile()).thenReturn(artifactFile);
+
+        ArtifactContextProducer artifactContextProducer = Mockito.mock(ArtifactContextProducer.class);
+        Mockito.when(artifactContextProducer.getArtifactContext(indexingContext, artifactFile))
+               .thenReturn(new ArtifactContext(null, artifactFile, null, artifactInfo(version), null));
+        Mockito.when(applicationContext.getBean(ArtifactContextProducer.class, artifactPath))
+               .thenReturn(artifactContextProducer);
+
+        return artifactPath;
+    }
+
+    private ArtifactInfo artifactInfo(String version)
+    {
+        return new ArtifactInfo("releases", "org.carlspring.strongbox", "strongbox-commons", version, null, "jar");
+    }
+
+}
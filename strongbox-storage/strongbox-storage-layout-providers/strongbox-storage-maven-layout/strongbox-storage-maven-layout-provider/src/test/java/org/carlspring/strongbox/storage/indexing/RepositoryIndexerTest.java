@@ -118,6 +118,32 @@ public class RepositoryIndexerTest
         assertEquals(0, search.size(), "org.carlspring.strongbox:strongbox-commons:1.0 should have been deleted!");
     }
 
+    @Test
+    public void testQueuedUpdatesAreCoalesced() throws Exception
+    {
+        RepositoryIndexer repositoryIndexer = repositoryIndexManager.get().getRepositoryIndexer(STORAGE0 + ":" +
+                                                                                                REPOSITORY_RELEASES + ":" +
+                                                                                                IndexTypeEnum.LOCAL.getType());
+
+        IndexedMavenRepositoryFeatures features = (IndexedMavenRepositoryFeatures) getFeatures();
+        features.reIndex(STORAGE0, REPOSITORY_RELEASES, "org/carlspring/strongbox/strongbox-commons");
+
+        Set<SearchResult> search = repositoryIndexer.search("org.carlspring.strongbox", "strongbox-commons", "1.1",
+                                                            "jar", null);
+        assertEquals(1, search.size(), "org.carlspring.strongbox:strongbox-commons:1.1 should have been indexed!");
+
+        repositoryIndexer.delete(asArtifactInfo(search));
+        repositoryIndexer.delete(asArtifactInfo(search));
+
+        // the refresh may have applied the removals already
+        assertTrue(repositoryIndexer.getQueueDepth() <= 1, "The removals of the same artifact should be coalesced!");
+
+        search = repositoryIndexer.search("org.carlspring.strongbox", "strongbox-commons", "1.1", null, null);
+
+        assertEquals(0, search.size(), "The search should see the queued removal!");
+        assertEquals(0, repositoryIndexer.getQueueDepth());
+    }
+
     private Collection<ArtifactInfo> asArtifactInfo(Set<SearchResult> results)
     {
         Collection<ArtifactInfo> artifactInfos = new LinkedHashSet<>();
@@ -0,0 +1,194 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the `maven-metadata.xml` work of a deploy into an artifact with {@link #versionCount} versions: the
+ * incremental {@link MavenMetadataManager#updateMetadata} path, which reads the stored version's POM and the existing
+ * metadata, against the full {@link VersionCollector#collectVersions} rebuild, which reads the POM of every version.
+ * <p>
+ * Both write the resulting metadata to a file, the way {@link MavenMetadataManager} stores it, so the difference is the
+ * cost of the collection.
+ * <p>
+ * Run with: `mvn test-compile exec:java -Dexec.mainClass=org.carlspring.strongbox.storage.metadata.MavenMetadataUpdateBenchmark -Dexec.classpathScope=test`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MavenMetadataUpdateBenchmark
+{
+
+    private static final String GROUP_ID = "org.carlspring.strongbox.benchmark";
+
+    private static final String ARTIFACT_ID = "nightly";
+
+    @Param({ "10", "100", "1000", "5000" })
+    private int versionCount;
+
+    private Path artifactBasePath;
+
+    /**
+     * The version directory of the deployed version, which the existing metadata doesn't list yet.
+     */
+    private Path deployedVersionPath;
+
+    private Path metadataPath;
+
+    private Path outputPath;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        artifactBasePath = Files.createTempDirectory("metadata-benchmark").resolve(ARTIFACT_ID);
+        metadataPath = artifactBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML);
+        outputPath = artifactBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML + ".out");
+
+        Metadata metadata = new Metadata();
+        metadata.setGroupId(GROUP_ID);
+        metadata.setArtifactId(ARTIFACT_ID);
+
+        MetadataMerger metadataMerger = new MetadataMerger();
+        for (int i = 0; i < versionCount; i++)
+        {
+            String version = "1.0." + i;
+            Path versionPath = writePom(version);
+
+            if (i < versionCount - 1)
+            {
+                metadataMerger.mergeVersion(metadata, version, true);
+            }
+            else
+            {
+                deployedVersionPath = versionPath;
+            }
+        }
+
+        try (Writer writer = Files.newBufferedWriter(metadataPath, StandardCharsets.UTF_8))
+        {
+            new MetadataXpp3Writer().write(writer, metadata);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException
+    {
+        try (Stream<Path> paths = Files.walk(artifactBasePath.getParent()))
+        {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Metadata updateMetadata()
+        throws IOException, XmlPullParserException
+    {
+        VersionCollectionRequest request = new VersionCollector().collectVersion(artifactBasePath,
+                                                                                 deployedVersionPath);
+
+        Metadata metadata;
+        try (Reader reader = Files.newBufferedReader(metadataPath, StandardCharsets.UTF_8))
+        {
+            metadata = new MetadataXpp3Reader().read(reader);
+        }
+
+        new MetadataMerger().mergeVersion(metadata, request.getMetadataVersions().get(0).getVersion(), true);
+
+        return writeMetadata(metadata);
+    }
+
+    @Benchmark
+    public Metadata rebuildMetadata()
+        throws IOException
+    {
+        VersionCollectionRequest request = new VersionCollector().collectVersions(artifactBasePath);
+
+        Metadata metadata = new Metadata();
+        metadata.setGroupId(GROUP_ID);
+        metadata.setArtifactId(ARTIFACT_ID);
+        metadata.setVersioning(request.getVersioning());
+
+        // the same as MavenMetadataManager.generateMetadata does in a release repository
+        Versioning versioning = metadata.getVersioning();
+        String latestVersion = request.getMetadataVersions().get(request.getMetadataVersions().size() - 1).getVersion();
+        versioning.setRelease(latestVersion);
+        versioning.setLatest(latestVersion);
+        MetadataHelper.setLastUpdated(versioning);
+
+        return writeMetadata(metadata);
+    }
+
+    private Path writePom(String version)
+        throws IOException
+    {
+        Path versionPath = Files.createDirectories(artifactBasePath.resolve(version));
+
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId(GROUP_ID);
+        model.setArtifactId(ARTIFACT_ID);
+        model.setVersion(version);
+        model.setPackaging("jar");
+
+        try (Writer writer = Files.newBufferedWriter(versionPath.resolve(ARTIFACT_ID + "-" + version + ".pom"),
+                                                     StandardCharsets.UTF_8))
+        {
+            new MavenXpp3Writer().write(writer, model);
+        }
+
+        return versionPath;
+    }
+
+    private Metadata writeMetadata(Metadata metadata)
+        throws IOException
+    {
+        try (Writer writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8))
+        {
+            new MetadataXpp3Writer().write(writer, metadata);
+        }
+
+        return metadata;
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(MavenMetadataUpdateBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
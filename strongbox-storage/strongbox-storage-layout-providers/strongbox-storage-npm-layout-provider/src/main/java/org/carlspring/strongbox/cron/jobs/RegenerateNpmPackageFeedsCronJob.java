@@ -0,0 +1,69 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedManager;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Repairs the materialized package documents of a hosted npm repository by regenerating them from the stored
+ * package versions.
+ */
+public class RegenerateNpmPackageFeedsCronJob
+        extends JavaCronJob
+{
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobRequiredField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobRequiredField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))));
+
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+
+        Repository repository = configurationManager.getRepository(storageId, repositoryId);
+        if (repository == null || !NpmLayoutProvider.ALIAS.equals(repository.getLayout()) ||
+            !repository.isHostedRepository())
+        {
+            logger.warn(String.format("[%s:%s] is not a hosted npm repository.", storageId, repositoryId));
+
+            return;
+        }
+
+        npmPackageFeedManager.regeneratePackageFeeds(repository);
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(RegenerateNpmPackageFeedsCronJob.class.getName())
+                                .name("Regenerate Npm Package Feeds Cron Job")
+                                .description("Regenerate Npm Package Feeds Cron Job")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
@@ -1,8 +1,12 @@
 package org.carlspring.strongbox.providers.layout;
 
 import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 
+import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +22,9 @@ public class NpmFileSystemProvider extends LayoutFileSystemProvider
     @Inject
     private NpmLayoutProvider layoutProvider;
 
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
     public NpmFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
         super(storageFileSystemProvider);
@@ -29,4 +36,29 @@ public class NpmFileSystemProvider extends LayoutFileSystemProvider
         return layoutProvider;
     }
 
+    @Override
+    public void delete(Path path,
+                       boolean force)
+        throws IOException
+    {
+        boolean directory = Files.isDirectory(path);
+        super.delete(path, force);
+        if (!directory)
+        {
+            return;
+        }
+
+        try
+        {
+            npmPackageFeedManager.directoryDeleted((RepositoryPath) path);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error(String.format("Failed to update the package document after [%s] was deleted, it can be "
+                                       + "regenerated.",
+                                       path),
+                         e);
+        }
+    }
+
 }
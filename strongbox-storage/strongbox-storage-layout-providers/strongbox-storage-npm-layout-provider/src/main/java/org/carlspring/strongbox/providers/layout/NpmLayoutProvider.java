@@ -58,7 +58,8 @@ public class NpmLayoutProvider
     }
 
     public boolean isNpmMetadata(RepositoryPath path) {
-        return path.getFileName().toString().endsWith("package-lock.json") || path.getFileName().toString().endsWith("npm-shrinkwrap.json");
+        return path.getFileName().toString().endsWith("package-lock.json") || path.getFileName().toString().endsWith("npm-shrinkwrap.json") ||
+               NpmPackageFeedManager.isPackageFeed(path);
     }
     
     @Override
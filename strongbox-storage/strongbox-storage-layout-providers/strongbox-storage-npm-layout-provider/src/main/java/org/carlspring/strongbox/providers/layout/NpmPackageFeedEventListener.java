@@ -0,0 +1,88 @@
+package org.carlspring.strongbox.providers.layout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the published and deleted package versions of the hosted npm repositories to the materialized package
+ * documents.
+ */
+@Component
+public class NpmPackageFeedEventListener
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackageFeedEventListener.class);
+
+    private static final String PACKAGE_EXTENSION = ".tgz";
+
+    private static final String PACKAGE_CHECKSUM_EXTENSION = PACKAGE_EXTENSION + ".sha1";
+
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        RepositoryPath repositoryPath = event.getPath();
+        Repository repository = repositoryPath.getRepository();
+        if (!NpmLayoutProvider.ALIAS.equals(repository.getLayout()) || !repository.isHostedRepository())
+        {
+            return;
+        }
+
+        String fileName = repositoryPath.getFileName().toString();
+        try
+        {
+            if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType() &&
+                fileName.endsWith(PACKAGE_EXTENSION))
+            {
+                npmPackageFeedManager.removeVersion(repository,
+                                                    NpmArtifactCoordinates.parse(RepositoryFiles.relativizePath(repositoryPath)));
+            }
+            else if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() ||
+                     event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType())
+            {
+                if (fileName.endsWith(PACKAGE_EXTENSION))
+                {
+                    updateVersion(repositoryPath);
+                }
+                else if (fileName.endsWith(PACKAGE_CHECKSUM_EXTENSION))
+                {
+                    // the published checksum replaces the calculated one
+                    updateVersion(repositoryPath.resolveSibling(fileName.substring(0, fileName.length() - ".sha1".length())));
+                }
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error(String.format("Failed to update the package document for [%s], it can be regenerated.",
+                                       repositoryPath),
+                         e);
+        }
+    }
+
+    private void updateVersion(RepositoryPath packagePath)
+        throws IOException
+    {
+        if (!Files.exists(packagePath) || packagePath.getArtifactEntry() == null)
+        {
+            return;
+        }
+
+        npmPackageFeedManager.updateVersion(packagePath);
+    }
+
+}
@@ -0,0 +1,367 @@
+package org.carlspring.strongbox.providers.layout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+import javax.inject.Inject;
+
+import org.apache.commons.io.IOUtils;
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
+import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.npm.metadata.DistTags;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.PackageVersion;
+import org.carlspring.strongbox.npm.metadata.Time;
+import org.carlspring.strongbox.npm.metadata.Versions;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.repository.RepositoryProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps the npm package documents (the {@link PackageFeed}s) of the hosted repositories materialized as
+ * {@value #PACKAGE_FEED_FILE_NAME} files in the package directories, next to the package versions.
+ * <p>
+ * The documents are updated version by version as the packages are published and deleted, and are fully regenerated
+ * from the stored versions when they are missing or as a repair operation.
+ */
+@Component
+public class NpmPackageFeedManager
+{
+
+    public static final String PACKAGE_FEED_FILE_NAME = "package-feed.json";
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackageFeedManager.class);
+
+    @Inject
+    @NpmObjectMapper
+    private ObjectMapper npmJacksonMapper;
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private NpmPackageSupplier npmPackageSupplier;
+
+    /**
+     * @return `true` for the materialized package document and its temporary copy
+     */
+    public static boolean isPackageFeed(RepositoryPath path)
+    {
+        return path.getFileName() != null && path.getFileName().toString().startsWith(PACKAGE_FEED_FILE_NAME);
+    }
+
+    /**
+     * Writes the materialized package document, generating it first if it doesn't exist yet.
+     */
+    public void writePackageFeed(Repository repository,
+                                 String packageId,
+                                 OutputStream out)
+        throws IOException
+    {
+        RepositoryPath packageFeedPath = resolvePackageFeedPath(repository, packageId);
+        if (!Files.exists(packageFeedPath))
+        {
+            regeneratePackageFeed(repository, packageId);
+        }
+        if (!Files.exists(packageFeedPath))
+        {
+            // no versions published
+            out.write(npmJacksonMapper.writeValueAsBytes(newPackageFeed(packageId)));
+
+            return;
+        }
+
+        // the document is always replaced at once, so it's read without locking
+        try (InputStream in = Files.newInputStream(packageFeedPath))
+        {
+            IOUtils.copy(in, out);
+        }
+    }
+
+    /**
+     * Builds the package document from the package versions found by the repository provider.
+     */
+    public PackageFeed buildPackageFeed(Repository repository,
+                                        String packageId)
+    {
+        PackageFeed packageFeed = newPackageFeed(packageId);
+
+        NpmArtifactCoordinates c = NpmArtifactCoordinates.of(packageId, "0.0.0");
+        Predicate predicate = Predicate.empty();
+        predicate.and(CoordinateTokens.equal("extension", "tgz"));
+        predicate.and(CoordinateTokens.equal("name", c.getName()));
+        if (c.getScope() != null)
+        {
+            predicate.and(CoordinateTokens.equal("scope", c.getScope()));
+        }
+
+        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        Paginator paginator = new Paginator();
+        paginator.setProperty("version");
+
+        List<Path> searchResult = provider.search(repository.getStorage().getId(), repository.getId(), predicate,
+                                                  paginator);
+        searchResult.stream().map(npmPackageSupplier).forEach(p -> addVersion(packageFeed, p));
+
+        return packageFeed;
+    }
+
+    /**
+     * Repair operation, rebuilds the materialized package document from the stored package versions.
+     */
+    public void regeneratePackageFeed(Repository repository,
+                                      String packageId)
+        throws IOException
+    {
+        RepositoryPath packageFeedPath = resolvePackageFeedPath(repository, packageId);
+
+        Lock lock = repositoryPathLock.lock(packageFeedPath).writeLock();
+        lock.lock();
+        try
+        {
+            PackageFeed packageFeed = buildPackageFeed(repository, packageId);
+            if (packageFeed.getVersions().getAdditionalProperties().isEmpty())
+            {
+                Files.deleteIfExists(packageFeedPath);
+
+                return;
+            }
+
+            store(packageFeedPath, packageFeed);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Repair operation, rebuilds the materialized package documents of all the packages in the repository.
+     */
+    public void regeneratePackageFeeds(Repository repository)
+        throws IOException
+    {
+        RepositoryPath root = repositoryPathResolver.resolve(repository);
+        try (DirectoryStream<Path> groups = Files.newDirectoryStream(root, this::isPackageDirectory))
+        {
+            for (Path group : groups)
+            {
+                try (DirectoryStream<Path> names = Files.newDirectoryStream(group, this::isPackageDirectory))
+                {
+                    for (Path name : names)
+                    {
+                        String groupName = group.getFileName().toString();
+                        String packageName = name.getFileName().toString();
+
+                        regeneratePackageFeed(repository,
+                                              NpmArtifactCoordinates.calculatePackageId(groupName.startsWith("@") ?
+                                                                                        groupName : null,
+                                                                                        packageName));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces the version of the given package tarball.
+     */
+    public void updateVersion(RepositoryPath packagePath)
+        throws IOException
+    {
+        NpmPackageDesc packageDesc = npmPackageSupplier.apply(packagePath);
+        String packageId = packageDesc.getNpmPackage().getName();
+        Repository repository = packagePath.getRepository();
+        RepositoryPath packageFeedPath = resolvePackageFeedPath(repository, packageId);
+
+        Lock lock = repositoryPathLock.lock(packageFeedPath).writeLock();
+        lock.lock();
+        try
+        {
+            PackageFeed packageFeed = Files.exists(packageFeedPath) ? load(packageFeedPath) : null;
+            if (packageFeed == null)
+            {
+                packageFeed = buildPackageFeed(repository, packageId);
+            }
+            else
+            {
+                addVersion(packageFeed, packageDesc);
+            }
+
+            store(packageFeedPath, packageFeed);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the version of the given package tarball.
+     */
+    public void removeVersion(Repository repository,
+                              NpmArtifactCoordinates coordinates)
+        throws IOException
+    {
+        String packageId = coordinates.getId();
+        RepositoryPath packageFeedPath = resolvePackageFeedPath(repository, packageId);
+        if (!Files.exists(packageFeedPath))
+        {
+            return;
+        }
+
+        boolean regenerate;
+        Lock lock = repositoryPathLock.lock(packageFeedPath).writeLock();
+        lock.lock();
+        try
+        {
+            PackageFeed packageFeed = load(packageFeedPath);
+            // the latest version moves to another one, which is only known from the stored versions
+            regenerate = packageFeed == null || coordinates.getVersion().equals(packageFeed.getDistTags().getLatest());
+            if (!regenerate)
+            {
+                packageFeed.getVersions().getAdditionalProperties().remove(coordinates.getVersion());
+                packageFeed.getTime().getAdditionalProperties().remove(coordinates.getVersion());
+
+                store(packageFeedPath, packageFeed);
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (regenerate)
+        {
+            regeneratePackageFeed(repository, packageId);
+        }
+    }
+
+    /**
+     * Applies a deleted directory, which fires no artifact events. Below a package directory, e.g. for a version,
+     * the package document is regenerated from the remaining versions. The document of a deleted package directory
+     * is deleted along with it.
+     */
+    public void directoryDeleted(RepositoryPath directoryPath)
+        throws IOException
+    {
+        Repository repository = directoryPath.getRepository();
+        if (!repository.isHostedRepository())
+        {
+            return;
+        }
+
+        String[] segments = RepositoryFiles.relativizePath(directoryPath).split("/");
+        if (segments.length < 3)
+        {
+            return;
+        }
+
+        String groupName = segments[0];
+        regeneratePackageFeed(repository,
+                              NpmArtifactCoordinates.calculatePackageId(groupName.startsWith("@") ? groupName : null,
+                                                                        segments[1]));
+    }
+
+    public RepositoryPath resolvePackageFeedPath(Repository repository,
+                                                 String packageId)
+    {
+        NpmArtifactCoordinates c = NpmArtifactCoordinates.of(packageId, "0.0.0");
+
+        return repositoryPathResolver.resolve(repository, String.format("%s/%s/%s", c.getGroup(), c.getName(),
+                                                                        PACKAGE_FEED_FILE_NAME));
+    }
+
+    private PackageFeed newPackageFeed(String packageId)
+    {
+        PackageFeed packageFeed = new PackageFeed();
+
+        packageFeed.setName(packageId);
+        packageFeed.setAdditionalProperty("_id", packageId);
+        packageFeed.setVersions(new Versions());
+        packageFeed.setTime(new Time());
+        packageFeed.setDistTags(new DistTags());
+
+        return packageFeed;
+    }
+
+    private void addVersion(PackageFeed packageFeed,
+                            NpmPackageDesc packageDesc)
+    {
+        PackageVersion npmPackage = packageDesc.getNpmPackage();
+        packageFeed.getVersions().setAdditionalProperty(npmPackage.getVersion(), npmPackage);
+
+        Time npmTime = packageFeed.getTime();
+        npmTime.setAdditionalProperty(npmPackage.getVersion(), packageDesc.getReleaseDate());
+
+        Date created = npmTime.getCreated();
+        npmTime.setCreated(created == null || created.before(packageDesc.getReleaseDate()) ?
+                           packageDesc.getReleaseDate() : created);
+
+        Date modified = npmTime.getModified();
+        npmTime.setModified(modified == null || modified.before(packageDesc.getReleaseDate()) ?
+                            packageDesc.getReleaseDate() : modified);
+
+        if (packageDesc.isLastVersion())
+        {
+            packageFeed.getDistTags().setLatest(npmPackage.getVersion());
+        }
+    }
+
+    private PackageFeed load(RepositoryPath packageFeedPath)
+    {
+        try (InputStream in = Files.newInputStream(packageFeedPath))
+        {
+            return npmJacksonMapper.readValue(in, PackageFeed.class);
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to read [%s], it will be regenerated.", packageFeedPath), e);
+
+            return null;
+        }
+    }
+
+    private void store(RepositoryPath packageFeedPath,
+                       PackageFeed packageFeed)
+        throws IOException
+    {
+        // the document is replaced at once, so that it's never read half written
+        RepositoryPath tempPath = packageFeedPath.resolveSibling(PACKAGE_FEED_FILE_NAME + ".tmp");
+        Files.write(tempPath, npmJacksonMapper.writeValueAsBytes(packageFeed));
+        Files.move(tempPath, packageFeedPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private boolean isPackageDirectory(Path path)
+    {
+        return Files.isDirectory(path) && !path.getFileName().toString().startsWith(".");
+    }
+
+}
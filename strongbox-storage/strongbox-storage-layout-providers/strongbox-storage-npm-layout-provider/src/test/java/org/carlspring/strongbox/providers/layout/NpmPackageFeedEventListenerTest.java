@@ -0,0 +1,186 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.generator.NpmPackageGenerator;
+import org.carlspring.strongbox.config.NpmLayoutProviderTestConfig;
+import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.PackageVersion;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.NpmRepositoryTestCase;
+
+import javax.inject.Inject;
+import javax.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@ContextConfiguration(classes = NpmLayoutProviderTestConfig.class)
+@ActiveProfiles(profiles = "test")
+@SpringBootTest
+public class NpmPackageFeedEventListenerTest
+        extends NpmRepositoryTestCase
+{
+
+    private static final String STORAGE = "npm-package-feed-storage";
+
+    private static final String REPOSITORY = "npfelt-releases";
+
+    private static final String PACKAGE_ID = "@carlspring/npm-package-feed";
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
+    @Inject
+    @NpmObjectMapper
+    private ObjectMapper npmJacksonMapper;
+
+    private Repository repository;
+
+    @BeforeAll
+    public static void cleanUp()
+        throws Exception
+    {
+        cleanUp(getRepositoriesToClean());
+    }
+
+    @BeforeEach
+    public void initialize()
+        throws Exception
+    {
+        createStorage(STORAGE);
+        createRepository(STORAGE, createRepositoryMock(STORAGE, REPOSITORY, NpmLayoutProvider.ALIAS));
+
+        repository = configurationManagementService.getConfiguration().getRepository(STORAGE, REPOSITORY);
+    }
+
+    @AfterEach
+    public void removeRepositories()
+        throws IOException,
+               JAXBException
+    {
+        removeRepositories(getRepositoriesToClean());
+    }
+
+    public static Set<MutableRepository> getRepositoriesToClean()
+    {
+        Set<MutableRepository> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE, REPOSITORY, NpmLayoutProvider.ALIAS));
+
+        return repositories;
+    }
+
+    @Test
+    public void testStoredVersionsAreAdded()
+        throws Exception
+    {
+        String shasum = store(NpmArtifactCoordinates.of(PACKAGE_ID, "1.0.0"));
+        store(NpmArtifactCoordinates.of(PACKAGE_ID, "1.0.1"));
+
+        Map<String, PackageVersion> versions = loadPackageFeed().getVersions().getAdditionalProperties();
+        assertEquals(2, versions.size());
+        assertEquals(shasum, versions.get("1.0.0").getDist().getShasum());
+    }
+
+    @Test
+    public void testRedeployedVersionIsReplaced()
+        throws Exception
+    {
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(PACKAGE_ID, "1.0.0");
+        String shasum = store(coordinates);
+        String redeployedShasum = store(coordinates);
+        assertNotEquals(shasum, redeployedShasum);
+
+        Map<String, PackageVersion> versions = loadPackageFeed().getVersions().getAdditionalProperties();
+        assertEquals(1, versions.size());
+        assertEquals(redeployedShasum, versions.get("1.0.0").getDist().getShasum());
+    }
+
+    @Test
+    public void testDeletedVersionsAreRemoved()
+        throws Exception
+    {
+        NpmArtifactCoordinates first = NpmArtifactCoordinates.of(PACKAGE_ID, "1.0.0");
+        NpmArtifactCoordinates second = NpmArtifactCoordinates.of(PACKAGE_ID, "1.0.1");
+        NpmArtifactCoordinates third = NpmArtifactCoordinates.of(PACKAGE_ID, "1.0.2");
+        store(first);
+        store(second);
+        store(third);
+
+        // the tarball
+        artifactManagementService.delete(repositoryPathResolver.resolve(repository, third), true);
+        assertEquals(2, loadPackageFeed().getVersions().getAdditionalProperties().size());
+
+        // the version directory, which fires no artifact events
+        artifactManagementService.delete(repositoryPathResolver.resolve(repository, second).getParent(), true);
+        Map<String, PackageVersion> versions = loadPackageFeed().getVersions().getAdditionalProperties();
+        assertEquals(1, versions.size());
+        assertEquals("1.0.0", versions.keySet().iterator().next());
+
+        // the package directory
+        RepositoryPath packageFeedPath = npmPackageFeedManager.resolvePackageFeedPath(repository, PACKAGE_ID);
+        artifactManagementService.delete(packageFeedPath.getParent(), true);
+        assertFalse(Files.exists(packageFeedPath));
+    }
+
+    /**
+     * Stores a newly generated tarball along with its checksum, as `npm publish` does.
+     *
+     * @return the published checksum
+     */
+    private String store(NpmArtifactCoordinates coordinates)
+        throws IOException
+    {
+        NpmPackageGenerator generator = new NpmPackageGenerator(
+                Files.createTempDirectory("npm-package-feed").toString());
+        Path packagePath = generator.of(coordinates).buildPackage();
+        String shasum = generator.getPackageJson().getDist().getShasum();
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, coordinates);
+        try (InputStream is = Files.newInputStream(packagePath))
+        {
+            artifactManagementService.store(repositoryPath, is);
+        }
+        try (InputStream is = new ByteArrayInputStream(shasum.getBytes()))
+        {
+            artifactManagementService.store(repositoryPath.resolveSibling(repositoryPath.getFileName() + ".sha1"),
+                                            is);
+        }
+
+        return shasum;
+    }
+
+    private PackageFeed loadPackageFeed()
+        throws IOException
+    {
+        try (InputStream is = Files.newInputStream(npmPackageFeedManager.resolvePackageFeedPath(repository,
+                                                                                                PACKAGE_ID)))
+        {
+            return npmJacksonMapper.readValue(is, PackageFeed.class);
+        }
+    }
+
+}
@@ -1,6 +1,8 @@
 package org.carlspring.strongbox.artifact.coordinates;
 
 import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.domain.ArtifactMetadata;
+import org.carlspring.strongbox.domain.NugetArtifactMetadata;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
 import org.carlspring.strongbox.storage.metadata.nuget.Nupkg;
@@ -39,6 +41,18 @@ public class PathNupkg implements Nupkg
         
         this.path = path;
         this.artifactCoordinates = (NugetArtifactCoordinates) path.getArtifactEntry().getArtifactCoordinates();
+
+        ArtifactMetadata artifactMetadata = path.getArtifactEntry().getArtifactMetadata();
+        if (artifactMetadata instanceof NugetArtifactMetadata)
+        {
+            // the package files are not touched if the metadata has been already extracted
+            NugetArtifactMetadata nugetArtifactMetadata = (NugetArtifactMetadata) artifactMetadata;
+            this.nuspecFile = nugetArtifactMetadata.toNuspec(artifactCoordinates.getId(), getVersion());
+            this.hash = Optional.ofNullable(nugetArtifactMetadata.getPackageHash()).orElseGet(this::createHashSafe);
+
+            return;
+        }
+
         this.nuspecFile = createNuspecFile();
         this.hash = createHash();
     }
@@ -60,6 +74,19 @@ public class PathNupkg implements Nupkg
         return hash;
     }
 
+    private String createHashSafe()
+    {
+        try
+        {
+            return createHash();
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to read checksum for [%s]", path), e);
+            return null;
+        }
+    }
+
     private String createHash()
         throws IOException,
         UnsupportedEncodingException
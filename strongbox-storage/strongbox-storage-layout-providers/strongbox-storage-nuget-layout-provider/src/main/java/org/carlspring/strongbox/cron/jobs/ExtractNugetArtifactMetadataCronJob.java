@@ -0,0 +1,158 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.NugetArtifactMetadata;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.NugetArtifactMetadataHandler;
+import org.carlspring.strongbox.providers.layout.NugetLayoutProvider;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Extracts the {@link NugetArtifactMetadata} of the NuGet packages which have been stored before the metadata was
+ * kept in the database, or of all the packages with `forceExtraction`.
+ */
+public class ExtractNugetArtifactMetadataCronJob
+        extends JavaCronJob
+{
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final String PROPERTY_FORCE_EXTRACTION = "forceExtraction";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
+            new CronJobBooleanTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_FORCE_EXTRACTION))));
+
+    @Inject
+    private NugetArtifactMetadataHandler nugetArtifactMetadataHandler;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+        boolean forceExtraction = Boolean.valueOf(config.getProperty(PROPERTY_FORCE_EXTRACTION));
+
+        List<Repository> repositories = new ArrayList<>();
+        for (Storage storage : configurationManager.getConfiguration().getStorages().values())
+        {
+            if (storageId != null && !storageId.equals(storage.getId()))
+            {
+                continue;
+            }
+
+            storage.getRepositories()
+                   .values()
+                   .stream()
+                   .filter(r -> repositoryId == null || repositoryId.equals(r.getId()))
+                   .filter(r -> NugetLayoutProvider.ALIAS.equals(r.getLayout()) && !r.isGroupRepository())
+                   .forEach(repositories::add);
+        }
+
+        for (Repository repository : repositories)
+        {
+            extractMetadata(repository, forceExtraction);
+        }
+    }
+
+    private void extractMetadata(Repository repository,
+                                 boolean forceExtraction)
+            throws IOException
+    {
+        Collection<Path> packagePaths;
+        try (Stream<Path> paths = Files.walk(repositoryPathResolver.resolve(repository)))
+        {
+            packagePaths = paths.filter(p -> Files.isRegularFile(p) &&
+                                             NugetArtifactMetadataHandler.isPackage((RepositoryPath) p))
+                                .collect(Collectors.toList());
+        }
+
+        int count = 0;
+        for (Path path : packagePaths)
+        {
+            RepositoryPath repositoryPath = (RepositoryPath) path;
+
+            Lock lock = repositoryPathLock.lock(repositoryPath, ArtifactEntry.class.getSimpleName()).writeLock();
+            lock.lock();
+            try
+            {
+                ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
+                if (artifactEntry == null ||
+                    !forceExtraction && artifactEntry.getArtifactMetadata() instanceof NugetArtifactMetadata)
+                {
+                    continue;
+                }
+
+                artifactEntry = nugetArtifactMetadataHandler.extractMetadata(repositoryPath);
+                if (artifactEntry != null)
+                {
+                    artifactEntryService.save(artifactEntry);
+                    count++;
+                }
+            }
+            catch (IOException e)
+            {
+                logger.error(String.format("Failed to extract metadata of [%s].", repositoryPath), e);
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        logger.info(String.format("Extracted metadata of [%s] packages in [%s:%s].", count,
+                                  repository.getStorage().getId(), repository.getId()));
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(ExtractNugetArtifactMetadataCronJob.class.getName())
+                                .name("Extract Nuget Artifact Metadata Cron Job")
+                                .description("Extract Nuget Artifact Metadata Cron Job")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
@@ -0,0 +1,325 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.storage.metadata.nuget.Dependencies;
+import org.carlspring.strongbox.storage.metadata.nuget.Dependency;
+import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec.Metadata;
+import org.carlspring.strongbox.storage.metadata.nuget.rss.EntryProperties;
+import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageEntry;
+
+import javax.persistence.Entity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The `.nuspec` fields of a NuGet package which are needed to serve the package feeds, so that the feeds don't have
+ * to open the `.nupkg` of every package they list.
+ */
+@Entity
+public class NugetArtifactMetadata
+        extends ArtifactMetadata
+{
+
+    private String title;
+
+    private String authors;
+
+    private String owners;
+
+    private String description;
+
+    private String summary;
+
+    private String releaseNotes;
+
+    private String copyright;
+
+    private String iconUrl;
+
+    private String licenseUrl;
+
+    private String projectUrl;
+
+    private Boolean requireLicenseAcceptance;
+
+    private List<String> tags;
+
+    /**
+     * The dependencies in the RSS `id:versionRange[:framework]` format.
+     */
+    private List<String> dependencies;
+
+    /**
+     * Base64 encoded SHA-512 digest of the package.
+     */
+    private String packageHash;
+
+    public NugetArtifactMetadata()
+    {
+    }
+
+    public static NugetArtifactMetadata of(Nuspec nuspec,
+                                           String packageHash)
+    {
+        NugetArtifactMetadata result = new NugetArtifactMetadata();
+        result.setNuspec(nuspec);
+        result.setPackageHash(packageHash);
+
+        return result;
+    }
+
+    /**
+     * Creates the metadata from the entry of a remote repository feed.
+     */
+    public static NugetArtifactMetadata of(PackageEntry packageEntry)
+        throws NugetFormatException
+    {
+        EntryProperties properties = packageEntry.getProperties();
+
+        NugetArtifactMetadata result = new NugetArtifactMetadata();
+        result.title = properties.getTitle();
+        result.authors = packageEntry.getAuthor() != null ? packageEntry.getAuthor().getName() : null;
+        result.description = properties.getDescription();
+        result.summary = properties.getSummary();
+        result.releaseNotes = properties.getReleaseNotes();
+        result.copyright = properties.getCopyright();
+        result.iconUrl = properties.getIconUrl();
+        result.licenseUrl = properties.getLicenseUrl();
+        result.projectUrl = properties.getProjectUrl();
+        result.requireLicenseAcceptance = properties.getRequireLicenseAcceptance();
+        result.tags = properties.getTags() != null ? new ArrayList<>(properties.getTags()) : new ArrayList<>();
+        result.dependencies = properties.getDependenciesList()
+                                        .stream()
+                                        .map(Dependency::toString)
+                                        .collect(Collectors.toList());
+        result.packageHash = properties.getPackageHash();
+
+        return result;
+    }
+
+    public void setNuspec(Nuspec nuspec)
+    {
+        Metadata metadata = nuspec.getMetadata();
+
+        title = metadata.title;
+        authors = metadata.authors;
+        owners = metadata.owners;
+        description = metadata.description;
+        summary = metadata.summary;
+        releaseNotes = metadata.releaseNotes;
+        copyright = metadata.copyright;
+        iconUrl = metadata.iconUrl;
+        licenseUrl = metadata.licenseUrl;
+        projectUrl = metadata.projectUrl;
+        requireLicenseAcceptance = metadata.requireLicenseAcceptance;
+        tags = new ArrayList<>(nuspec.getTags());
+        dependencies = nuspec.getDependencies()
+                             .stream()
+                             .map(Dependency::toString)
+                             .collect(Collectors.toList());
+    }
+
+    /**
+     * Restores the package specification, as far as the feeds need it.
+     */
+    public Nuspec toNuspec(String id,
+                           SemanticVersion version)
+        throws NugetFormatException
+    {
+        Nuspec result = new Nuspec();
+
+        Metadata metadata = result.getMetadata();
+        metadata.id = id;
+        metadata.version = version;
+        metadata.title = title != null ? title : id;
+        metadata.authors = authors;
+        metadata.owners = owners;
+        metadata.description = description;
+        metadata.summary = summary;
+        metadata.releaseNotes = releaseNotes;
+        metadata.copyright = copyright;
+        metadata.iconUrl = iconUrl;
+        metadata.licenseUrl = licenseUrl;
+        metadata.projectUrl = projectUrl;
+        metadata.requireLicenseAcceptance = requireLicenseAcceptance;
+        metadata.tags = getTags().isEmpty() ? null : new ArrayList<>(getTags());
+
+        List<Dependency> dependencyList = new ArrayList<>();
+        for (String dependency : getDependencies())
+        {
+            Dependency d = Dependency.parseString(dependency);
+            if (d != null)
+            {
+                dependencyList.add(d);
+            }
+        }
+        metadata.dependencies = dependencyList.isEmpty() ? null : new Dependencies(dependencyList, null);
+
+        return result;
+    }
+
+    public String getTitle()
+    {
+        return title;
+    }
+
+    public void setTitle(String title)
+    {
+        this.title = title;
+    }
+
+    public String getAuthors()
+    {
+        return authors;
+    }
+
+    public void setAuthors(String authors)
+    {
+        this.authors = authors;
+    }
+
+    public String getOwners()
+    {
+        return owners;
+    }
+
+    public void setOwners(String owners)
+    {
+        this.owners = owners;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+
+    public void setDescription(String description)
+    {
+        this.description = description;
+    }
+
+    public String getSummary()
+    {
+        return summary;
+    }
+
+    public void setSummary(String summary)
+    {
+        this.summary = summary;
+    }
+
+    public String getReleaseNotes()
+    {
+        return releaseNotes;
+    }
+
+    public void setReleaseNotes(String releaseNotes)
+    {
+        this.releaseNotes = releaseNotes;
+    }
+
+    public String getCopyright()
+    {
+        return copyright;
+    }
+
+    public void setCopyright(String copyright)
+    {
+        this.copyright = copyright;
+    }
+
+    public String getIconUrl()
+    {
+        return iconUrl;
+    }
+
+    public void setIconUrl(String iconUrl)
+    {
+        this.iconUrl = iconUrl;
+    }
+
+    public String getLicenseUrl()
+    {
+        return licenseUrl;
+    }
+
+    public void setLicenseUrl(String licenseUrl)
+    {
+        this.licenseUrl = licenseUrl;
+    }
+
+    public String getProjectUrl()
+    {
+        return projectUrl;
+    }
+
+    public void setProjectUrl(String projectUrl)
+    {
+        this.projectUrl = projectUrl;
+    }
+
+    public Boolean getRequireLicenseAcceptance()
+    {
+        return requireLicenseAcceptance;
+    }
+
+    public void setRequireLicenseAcceptance(Boolean requireLicenseAcceptance)
+    {
+        this.requireLicenseAcceptance = requireLicenseAcceptance;
+    }
+
+    public List<String> getTags()
+    {
+        if (tags == null)
+        {
+            tags = new ArrayList<>();
+        }
+        return tags;
+    }
+
+    public void setTags(List<String> tags)
+    {
+        this.tags = tags;
+    }
+
+    public List<String> getDependencies()
+    {
+        if (dependencies == null)
+        {
+            dependencies = new ArrayList<>();
+        }
+        return dependencies;
+    }
+
+    public void setDependencies(List<String> dependencies)
+    {
+        this.dependencies = dependencies;
+    }
+
+    public String getPackageHash()
+    {
+        return packageHash;
+    }
+
+    public void setPackageHash(String packageHash)
+    {
+        this.packageHash = packageHash;
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder("NugetArtifactMetadata{");
+        sb.append("title='").append(title).append('\'');
+        sb.append(", authors='").append(authors).append('\'');
+        sb.append(", tags=").append(tags);
+        sb.append(", dependencies=").append(dependencies);
+        sb.append(", packageHash='").append(packageHash).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+
+}
@@ -1,8 +1,10 @@
 package org.carlspring.strongbox.nuget.filter;
 
+import org.antlr.v4.runtime.tree.TerminalNode;
 import org.apache.commons.lang3.StringUtils;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.criteria.ArtifactEntryCriteria;
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.Predicate.BooleanOperator;
@@ -10,7 +12,6 @@ import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.FilterContext;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.FilterExpContext;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpContext;
-import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpFunctionContext;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpLeftContext;
 
 /**
@@ -85,41 +86,18 @@ public class NugetODataQueryVisitor extends NugetODataFilterBaseVisitor<Predicat
             return Predicate.of(ExpOperator.CONTAINS.of("tagSet.name", ArtifactTag.LAST_VERSION));
         }
 
-        Predicate p = visitTokenExpLeft(ctx.vTokenExpLeft);
-
         String attributeValue = ctx.vTokenExpRight.getText();
         attributeValue = StringUtils.unwrap(attributeValue, "'");
-        p.getExpression().setValue(attributeValue);
 
-        return p;
+        // the coordinate tokens are case-insensitive, so `tolower()` needs no expression of its own
+        return CoordinateTokens.equal(coordinateName(ctx.vTokenExpLeft), attributeValue);
     }
 
-    @Override
-    public Predicate visitTokenExpLeft(TokenExpLeftContext ctx)
+    private String coordinateName(TokenExpLeftContext ctx)
     {
-        if (ctx.ATTRIBUTE() != null)
-        {
-            String attribute = ctx.ATTRIBUTE().getText();
-            return Predicate.of(ExpOperator.EQ.of(String.format("artifactCoordinates.coordinates.%s",
-                                                                attribute),
-                                                  null));
-        }
-        return visitTokenExpFunction(ctx.tokenExpFunction());
-    }
-
-    @Override
-    public Predicate visitTokenExpFunction(TokenExpFunctionContext ctx)
-    {
-        String attribute = ctx.ATTRIBUTE().getText().toLowerCase();
-
-        if (ctx.fuctionExp().TO_LOWER() != null)
-        {
-            attribute = String.format("%s.toLowerCase()", attribute);
-        }
+        TerminalNode attribute = ctx.ATTRIBUTE() != null ? ctx.ATTRIBUTE() : ctx.tokenExpFunction().ATTRIBUTE();
 
-        return Predicate.of(ExpOperator.EQ.of(String.format("artifactCoordinates.coordinates.%s",
-                                                            attribute),
-                                              null));
+        return attribute.getText().toLowerCase();
     }
 
 }
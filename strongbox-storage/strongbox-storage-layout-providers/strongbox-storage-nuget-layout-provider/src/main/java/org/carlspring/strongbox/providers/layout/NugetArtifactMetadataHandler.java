@@ -0,0 +1,140 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactMetadata;
+import org.carlspring.strongbox.domain.NugetArtifactMetadata;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+import org.carlspring.strongbox.storage.metadata.nuget.TempNupkgFile;
+
+import javax.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Extracts the {@link NugetArtifactMetadata} from the `.nuspec` of a stored or redeployed `.nupkg`, once, so that the
+ * package feeds are served from the database.
+ */
+@Component
+public class NugetArtifactMetadataHandler
+        extends AsyncArtifactEntryHandler
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NugetArtifactMetadataHandler.class);
+
+    private static final String PACKAGE_EXTENSION = ".nupkg";
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    public NugetArtifactMetadataHandler()
+    {
+        super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED, ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED);
+    }
+
+    public static boolean isPackage(RepositoryPath repositoryPath)
+    {
+        return NugetLayoutProvider.ALIAS.equals(repositoryPath.getRepository().getLayout()) &&
+               repositoryPath.getFileName().toString().endsWith(PACKAGE_EXTENSION);
+    }
+
+    @Override
+    protected boolean supports(RepositoryPath repositoryPath)
+    {
+        return isPackage(repositoryPath);
+    }
+
+    @Override
+    protected ArtifactEntry handleEvent(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        return extractMetadata(repositoryPath);
+    }
+
+    /**
+     * @return the {@link ArtifactEntry} of the package with the metadata set, or `null` if there is no entry or no
+     *         readable `.nuspec` in the package
+     */
+    public ArtifactEntry extractMetadata(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
+        if (artifactEntry == null)
+        {
+            logger.warn(String.format("No [%s] for [%s].", ArtifactEntry.class.getSimpleName(), repositoryPath));
+
+            return null;
+        }
+
+        Nuspec nuspec;
+        Lock lock = repositoryPathLock.lock(repositoryPath).readLock();
+        lock.lock();
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(repositoryPath)))
+        {
+            nuspec = TempNupkgFile.loadNuspec(is);
+        }
+        catch (NugetFormatException e)
+        {
+            logger.warn(String.format("Failed to read .nuspec of [%s].", repositoryPath), e);
+
+            return null;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (nuspec == null)
+        {
+            logger.warn(String.format("No .nuspec in [%s].", repositoryPath));
+
+            return null;
+        }
+
+        ArtifactMetadata artifactMetadata = artifactEntry.getArtifactMetadata();
+        NugetArtifactMetadata nugetArtifactMetadata = artifactMetadata instanceof NugetArtifactMetadata ?
+                (NugetArtifactMetadata) artifactMetadata : new NugetArtifactMetadata();
+        nugetArtifactMetadata.setNuspec(nuspec);
+        nugetArtifactMetadata.setPackageHash(resolvePackageHash(repositoryPath, artifactEntry));
+
+        artifactEntry.setArtifactMetadata(nugetArtifactMetadata);
+
+        return artifactEntry;
+    }
+
+    private String resolvePackageHash(RepositoryPath repositoryPath,
+                                      ArtifactEntry artifactEntry)
+        throws IOException
+    {
+        String packageHash = artifactEntry.getChecksums().get(MessageDigestAlgorithms.SHA_512);
+        if (packageHash != null)
+        {
+            return packageHash;
+        }
+
+        // the digest isn't in the database, use the checksum file
+        RepositoryPath checksumPath = repositoryPath.resolveSibling(repositoryPath.getFileName() + ".sha512");
+        if (!Files.exists(checksumPath))
+        {
+            return null;
+        }
+
+        List<String> lines = Files.readAllLines(checksumPath);
+
+        return lines.size() == 1 ? lines.get(0) : null;
+    }
+
+}
@@ -13,6 +13,7 @@ import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
+import org.carlspring.strongbox.domain.NugetArtifactMetadata;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
@@ -26,6 +27,7 @@ import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageEntry;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageFeed;
 import org.carlspring.strongbox.storage.repository.ImmutableRepository;
@@ -231,6 +233,15 @@ public class NugetRepositoryFeatures
 
             remoteArtifactEntry.setSizeInBytes(packageEntry.getProperties().getPackageSize());
 
+            try
+            {
+                remoteArtifactEntry.setArtifactMetadata(NugetArtifactMetadata.of(packageEntry));
+            }
+            catch (NugetFormatException e)
+            {
+                logger.warn(String.format("Failed to read metadata of remote package [%s]", c.toPath()), e);
+            }
+
             if (Boolean.TRUE.equals(packageEntry.getProperties().getIsLatestVersion()))
             {
                 remoteArtifactEntry.getTagSet().add(lastVersionTag);
@@ -0,0 +1,51 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactMetadata;
+import org.carlspring.strongbox.domain.NugetArtifactMetadata;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * Declares the {@link ArtifactMetadata} and {@link NugetArtifactMetadata} classes, and the
+ * {@link ArtifactEntry#getArtifactMetadata()} link property, which the database schema doesn't have yet.
+ */
+@Component
+@DependsOn("liquibase")
+class NugetArtifactMetadataInitializer
+{
+
+    private static final String GENERIC_ENTITY_CLASS = "GenericEntity";
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @PostConstruct
+    public void init()
+    {
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            String artifactMetadataSuperClass = session.getMetadata().getSchema().existsClass(GENERIC_ENTITY_CLASS) ?
+                    String.format(" EXTENDS %s", GENERIC_ENTITY_CLASS) : "";
+
+            session.command(String.format("CREATE CLASS %s IF NOT EXISTS%s",
+                                          ArtifactMetadata.class.getSimpleName(),
+                                          artifactMetadataSuperClass))
+                   .close();
+            session.command(String.format("CREATE CLASS %s IF NOT EXISTS EXTENDS %s",
+                                          NugetArtifactMetadata.class.getSimpleName(),
+                                          ArtifactMetadata.class.getSimpleName()))
+                   .close();
+            session.command(String.format("CREATE PROPERTY ArtifactEntry.artifactMetadata IF NOT EXISTS LINK %s",
+                                          ArtifactMetadata.class.getSimpleName()))
+                   .close();
+        }
+    }
+
+}
@@ -102,6 +102,23 @@ public class Nuspec implements Serializable
     @XmlElementWrapper(name = "files", namespace = NUSPEC_XML_NAMESPACE_2011)
     private List<NugetFile> files;
 
+    /**
+     * The context is thread safe and expensive to create, so it's shared, unlike the (un)marshallers.
+     */
+    private static volatile JAXBContext jaxbContext;
+
+    private static JAXBContext getJaxbContext()
+        throws JAXBException
+    {
+        JAXBContext result = jaxbContext;
+        if (result == null)
+        {
+            result = JAXBContext.newInstance(Nuspec.class);
+            jaxbContext = result;
+        }
+        return result;
+    }
+
     /**
      * Recovers package information from XML
      *
@@ -116,8 +133,7 @@ public class Nuspec implements Serializable
     {
         try
         {
-            JAXBContext context = JAXBContext.newInstance(Nuspec.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
+            Unmarshaller unmarshaller = getJaxbContext().createUnmarshaller();
             unmarshaller.setEventHandler(new NuspecXmlValidationEventHandler());
             XMLReader reader = XMLReaderFactory.createXMLReader();
             NugetNamespaceFilter inFilter = new NugetNamespaceFilter();
@@ -401,8 +417,7 @@ public class Nuspec implements Serializable
     public void saveTo(OutputStream outputStream)
         throws JAXBException
     {
-        JAXBContext context = JAXBContext.newInstance(this.getClass());
-        Marshaller marshaller = context.createMarshaller();
+        Marshaller marshaller = getJaxbContext().createMarshaller();
         marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
         marshaller.marshal(this, outputStream);
     }
@@ -26,7 +26,6 @@ import java.util.List;
 import java.util.Map;
 
 import javax.xml.XMLConstants;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAccessType;
@@ -64,8 +63,7 @@ public class EntryProperties
     public static EntryProperties parse(InputStream inputStream)
         throws JAXBException
     {
-        JAXBContext context = JAXBContext.newInstance(EntryProperties.class);
-        Unmarshaller unmarshaller = context.createUnmarshaller();
+        Unmarshaller unmarshaller = PackageFeed.getJaxbContext().createUnmarshaller();
         return (EntryProperties) unmarshaller.unmarshal(inputStream);
     }
 
@@ -24,7 +24,6 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAccessType;
@@ -61,8 +60,7 @@ public class PackageEntry
     public static PackageEntry parse(InputStream inputStream)
         throws JAXBException
     {
-        JAXBContext context = JAXBContext.newInstance(PackageEntry.class);
-        Unmarshaller unmarshaller = context.createUnmarshaller();
+        Unmarshaller unmarshaller = PackageFeed.getJaxbContext().createUnmarshaller();
         return (PackageEntry) unmarshaller.unmarshal(inputStream);
     }
 
@@ -21,12 +21,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
@@ -35,10 +38,13 @@ import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
+import javax.xml.namespace.QName;
 
 import org.apache.xml.serialize.OutputFormat;
 import org.apache.xml.serialize.XMLSerializer;
 import org.carlspring.strongbox.storage.metadata.nuget.XmlWritable;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 
 /**
  *
@@ -46,17 +52,42 @@ import org.carlspring.strongbox.storage.metadata.nuget.XmlWritable;
  */
 @XmlRootElement(name = "feed", namespace = PackageFeed.ATOM_XML_NAMESPACE)
 @XmlAccessorType(XmlAccessType.NONE)
-@XmlType(propOrder = { "title", "id", "updated", "link", "entries" })
+@XmlType(propOrder = { "title", "id", "updated", "links", "entries" })
 public class PackageFeed implements XmlWritable
 {
 
     public static final String ATOM_XML_NAMESPACE = "http://www.w3.org/2005/Atom";
 
+    private static final String SELF_LINK_REL = "self";
+
+    private static final String NEXT_LINK_REL = "next";
+
+    /**
+     * The context is thread safe and expensive to create, so it's shared, unlike the (un)marshallers.
+     */
+    private static volatile JAXBContext jaxbContext;
+
+    /**
+     * @return the context of the feed classes, including {@link PackageEntry} and {@link EntryProperties}
+     * @throws JAXBException
+     *             context creation error
+     */
+    static JAXBContext getJaxbContext()
+        throws JAXBException
+    {
+        JAXBContext result = jaxbContext;
+        if (result == null)
+        {
+            result = JAXBContext.newInstance(PackageFeed.class);
+            jaxbContext = result;
+        }
+        return result;
+    }
+
     public static PackageFeed parse(InputStream inputStream)
         throws JAXBException
     {
-        JAXBContext context = JAXBContext.newInstance(PackageFeed.class);
-        Unmarshaller unmarshaller = context.createUnmarshaller();
+        Unmarshaller unmarshaller = getJaxbContext().createUnmarshaller();
         return (PackageFeed) unmarshaller.unmarshal(inputStream);
     }
 
@@ -79,10 +110,12 @@ public class PackageFeed implements XmlWritable
     private Date updated;
 
     /**
-     * Link to packages
+     * Link to packages, and to the next page of the packages, if there is one
      */
     @XmlElement(name = "link", namespace = ATOM_XML_NAMESPACE)
-    private Link link = new Link("self", "Packages", "Packages");
+    private List<Link> links = new ArrayList<>(Collections.singletonList(new Link(SELF_LINK_REL,
+                                                                                  "Packages",
+                                                                                  "Packages")));
 
     /**
      * Packet descriptions
@@ -146,7 +179,7 @@ public class PackageFeed implements XmlWritable
      */
     public String getLink()
     {
-        return link.getHref();
+        return getLinkHref(SELF_LINK_REL);
     }
 
     /**
@@ -155,7 +188,40 @@ public class PackageFeed implements XmlWritable
      */
     public void setLink(String link)
     {
-        this.link = new Link("self", "Packages", link);
+        setLink(new Link(SELF_LINK_REL, "Packages", link));
+    }
+
+    /**
+     * @return link to the next page of the packages, `null` if this is the last page
+     */
+    public String getNextLink()
+    {
+        return getLinkHref(NEXT_LINK_REL);
+    }
+
+    /**
+     * @param nextLink
+     *            link to the next page of the packages, `null` if this is the last page
+     */
+    public void setNextLink(String nextLink)
+    {
+        if (nextLink == null)
+        {
+            links.removeIf(l -> NEXT_LINK_REL.equals(l.getRel()));
+            return;
+        }
+        setLink(new Link(NEXT_LINK_REL, null, nextLink));
+    }
+
+    private String getLinkHref(String rel)
+    {
+        return links.stream().filter(l -> rel.equals(l.getRel())).map(Link::getHref).findFirst().orElse(null);
+    }
+
+    private void setLink(Link link)
+    {
+        links.removeIf(l -> link.getRel().equals(l.getRel()));
+        links.add(link);
     }
 
     /**
@@ -183,9 +249,28 @@ public class PackageFeed implements XmlWritable
     public void writeXml(OutputStream outputStream)
         throws JAXBException
     {
-        // Initial Serialization
-        JAXBContext context = JAXBContext.newInstance(this.getClass());
-        Marshaller marshaller = context.createMarshaller();
+        writeXml(outputStream, getEntries().stream());
+    }
+
+    /**
+     * Writes the feed as an XML document to a stream, with the given entries instead of the {@link #getEntries()}.
+     * <p>
+     * The entries are marshalled one by one as they are pulled from the stream, so that the whole feed is never held
+     * in memory.
+     *
+     * @param outputStream
+     *            stream for recording
+     * @param entries
+     *            feed entries
+     * @throws JAXBException
+     *             XML conversion error
+     */
+    public void writeXml(OutputStream outputStream,
+                         Stream<? extends PackageEntry> entries)
+        throws JAXBException
+    {
+        Marshaller marshaller = getJaxbContext().createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
         Map<String, String> uriToPrefix = new HashMap<>();
         uriToPrefix.put("http://www.w3.org/2005/Atom", "atom");
         uriToPrefix.put("http://schemas.microsoft.com/ado/2007/08/dataservices/metadata", "m");
@@ -193,7 +278,59 @@ public class PackageFeed implements XmlWritable
         uriToPrefix.put("http://schemas.microsoft.com/ado/2007/08/dataservices", "d");
         NugetPrefixFilter filter = new NugetPrefixFilter(uriToPrefix);
         filter.setContentHandler(new XMLSerializer(outputStream, new OutputFormat()));
-        marshaller.marshal(this, filter);
+
+        try
+        {
+            filter.startDocument();
+            filter.startElement(ATOM_XML_NAMESPACE, "feed", "feed", new AttributesImpl());
+
+            marshal(marshaller, filter, "title", Title.class, title);
+            marshal(marshaller, filter, "id", String.class, id);
+            marshal(marshaller, filter, "updated", Date.class, updated);
+            for (Link link : links)
+            {
+                if (!NEXT_LINK_REL.equals(link.getRel()))
+                {
+                    marshal(marshaller, filter, "link", Link.class, link);
+                }
+            }
+
+            for (PackageEntry entry : (Iterable<? extends PackageEntry>) entries::iterator)
+            {
+                marshal(marshaller, filter, "entry", PackageEntry.class, entry);
+            }
+
+            // OData puts the link of the next page after the entries
+            for (Link link : links)
+            {
+                if (NEXT_LINK_REL.equals(link.getRel()))
+                {
+                    marshal(marshaller, filter, "link", Link.class, link);
+                }
+            }
+
+            filter.endElement(ATOM_XML_NAMESPACE, "feed", "feed");
+            filter.endDocument();
+        }
+        catch (SAXException e)
+        {
+            throw new JAXBException(e);
+        }
+    }
+
+    private static <T> void marshal(Marshaller marshaller,
+                                    NugetPrefixFilter filter,
+                                    String name,
+                                    Class<T> type,
+                                    T value)
+        throws JAXBException
+    {
+        if (value == null)
+        {
+            // the same as the empty fields of the feed are skipped
+            return;
+        }
+        marshaller.marshal(new JAXBElement<>(new QName(ATOM_XML_NAMESPACE, name), type, value), filter);
     }
 
 }
@@ -0,0 +1,38 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.storage.metadata.nuget.NugetTestResourceUtil;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NugetArtifactMetadataTest
+{
+
+    @Test
+    public void testRestoreNuspec()
+        throws Exception
+    {
+        // GIVEN
+        Nuspec nuspec = Nuspec.parse(NugetTestResourceUtil.getAsStream("nuspec/NHibernate.nuspec.xml"));
+
+        // WHEN
+        NugetArtifactMetadata artifactMetadata = NugetArtifactMetadata.of(nuspec, "c2hhNTEyLWNoZWNrc3Vt");
+        Nuspec result = artifactMetadata.toNuspec(nuspec.getId(), nuspec.getVersion());
+
+        // THEN
+        assertEquals("c2hhNTEyLWNoZWNrc3Vt", artifactMetadata.getPackageHash(), "Package hash");
+        assertEquals(nuspec.getId(), result.getId(), "Package ID");
+        assertEquals(nuspec.getVersion(), result.getVersion(), "Package Version");
+        assertEquals(nuspec.getAuthors(), result.getAuthors(), "Authors");
+        assertEquals(nuspec.getOwners(), result.getOwners(), "Owners");
+        assertEquals(nuspec.isRequireLicenseAcceptance(), result.isRequireLicenseAcceptance(),
+                     "License Verification Required");
+        assertEquals(nuspec.getDescription(), result.getDescription(), "Description");
+        assertEquals(nuspec.getSummary(), result.getSummary(), "Short Description");
+        assertArrayEquals(nuspec.getTags().toArray(), result.getTags().toArray(), "Tags");
+        assertArrayEquals(nuspec.getDependencies().toArray(), result.getDependencies().toArray(), "Dependencies");
+    }
+
+}
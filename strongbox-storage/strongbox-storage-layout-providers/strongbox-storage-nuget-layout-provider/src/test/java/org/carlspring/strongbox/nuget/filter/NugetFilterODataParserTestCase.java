@@ -18,9 +18,13 @@ import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
 import javax.xml.bind.JAXBException;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,6 +32,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
@@ -108,4 +113,50 @@ public class NugetFilterODataParserTestCase extends TestCaseWithNugetPackageGene
         assertEquals(Long.valueOf(1), queryTemplate.select(selector));
     }
 
+    @Test
+    @Transactional
+    public void testSearchIgnoresCase()
+        throws Exception
+    {
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
+
+        NugetODataFilterQueryParser t = new NugetODataFilterQueryParser(
+                "Id eq 'ORG.Carlspring.Strongbox.Nuget.Test.NFPT' and Version eq '1.0.8'");
+        Predicate predicate = t.parseQuery().getPredicate();
+
+        selector.where(Predicate.of(ExpOperator.EQ.of("storageId", STORAGE0)))
+                .and(Predicate.of(ExpOperator.EQ.of("repositoryId", REPOSITORY_RELEASES_1)))
+                .and(predicate);
+
+        selector.select("count(*)");
+
+        QueryTemplate<Long, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+        assertEquals(Long.valueOf(1), queryTemplate.select(selector));
+    }
+
+    @Test
+    @Transactional
+    public void testSearchUsesCoordinateTokensIndex()
+    {
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
+
+        NugetODataFilterQueryParser t = new NugetODataFilterQueryParser(
+                "Id eq 'Org.Carlspring.Strongbox.Nuget.Test.Nfpt'");
+        Predicate predicate = t.parseQuery().getPredicate();
+
+        selector.where(Predicate.of(ExpOperator.EQ.of("storageId", STORAGE0)))
+                .and(Predicate.of(ExpOperator.EQ.of("repositoryId", REPOSITORY_RELEASES_1)))
+                .and(predicate);
+
+        OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+        String sQuery = queryTemplate.calculateQueryString(selector);
+
+        ODocument plan = queryTemplate.getEmDelegate()
+                                      .command(new OCommandSQL("EXPLAIN " + sQuery))
+                                      .execute(queryTemplate.exposeParameterMap(selector.getPredicate()));
+
+        assertThat(plan.<Collection<String>>field("involvedIndexes"),
+                   CoreMatchers.hasItem("idx_artifact_entry_coordinate_tokens"));
+    }
+
 }
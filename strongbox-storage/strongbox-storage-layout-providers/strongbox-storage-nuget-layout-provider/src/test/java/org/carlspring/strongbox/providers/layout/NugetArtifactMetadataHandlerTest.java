@@ -0,0 +1,167 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.PathNupkg;
+import org.carlspring.strongbox.config.NugetLayoutProviderTestConfig;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.NugetArtifactMetadata;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryManagementService;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.TestCaseWithNugetPackageGeneration;
+
+import javax.inject.Inject;
+import javax.xml.bind.JAXBException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = NugetLayoutProviderTestConfig.class)
+public class NugetArtifactMetadataHandlerTest
+        extends TestCaseWithNugetPackageGeneration
+{
+
+    private static final String REPOSITORY_RELEASES = "namht-releases";
+
+    private static final String PACKAGE_ID = "namht.package";
+
+    private static final String PACKAGE_VERSION = "1.0.0";
+
+    @Inject
+    private RepositoryManagementService repositoryManagementService;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @BeforeAll
+    public static void cleanUp()
+        throws Exception
+    {
+        cleanUp(getRepositoriesToClean());
+    }
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        MutableRepository repository = createRepositoryMock(STORAGE0, REPOSITORY_RELEASES, NugetLayoutProvider.ALIAS);
+        configurationManagementService.saveRepository(STORAGE0, repository);
+        repositoryManagementService.createRepository(STORAGE0, REPOSITORY_RELEASES);
+    }
+
+    @AfterEach
+    public void removeRepositories()
+        throws IOException, JAXBException
+    {
+        removeRepositories(getRepositoriesToClean());
+    }
+
+    public static Set<MutableRepository> getRepositoriesToClean()
+    {
+        Set<MutableRepository> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE0, REPOSITORY_RELEASES, NugetLayoutProvider.ALIAS));
+
+        return repositories;
+    }
+
+    @Test
+    public void testMetadataIsPersistedOnStoreAndRedeploy()
+        throws Exception
+    {
+        store("namht.dependency:1.0.0");
+
+        NugetArtifactMetadata artifactMetadata = findArtifactMetadata();
+        assertEquals("carlspring", artifactMetadata.getAuthors());
+        assertEquals("Strongbox Nuget package for tests", artifactMetadata.getDescription());
+        assertNotNull(artifactMetadata.getPackageHash());
+        assertEquals(1, artifactMetadata.getDependencies().size());
+        assertTrue(artifactMetadata.getDependencies().get(0).startsWith("namht.dependency:"));
+
+        store("namht.other-dependency:2.0.0");
+
+        artifactMetadata = findArtifactMetadata();
+        assertEquals(1, artifactMetadata.getDependencies().size());
+        assertTrue(artifactMetadata.getDependencies().get(0).startsWith("namht.other-dependency:"));
+    }
+
+    /**
+     * The feed entries are built from the stored metadata, so a package file which can't be read anymore is still
+     * listed.
+     */
+    @Test
+    public void testFeedEntryIsReadFromMetadata()
+        throws Exception
+    {
+        RepositoryPath repositoryPath = store("namht.dependency:1.0.0");
+        String packageHash = findArtifactMetadata().getPackageHash();
+
+        Repository repository = configurationManagementService.getConfiguration()
+                                                          .getRepository(STORAGE0, REPOSITORY_RELEASES);
+        Files.write(Paths.get(repository.getBasedir()).resolve(RepositoryFiles.relativizePath(repositoryPath)),
+                    new byte[0]);
+
+        PathNupkg nupkg = new PathNupkg(repositoryPathResolver.resolve(STORAGE0,
+                                                                       REPOSITORY_RELEASES,
+                                                                       coordinates().toPath()));
+        Nuspec nuspec = nupkg.getNuspec();
+
+        assertEquals(PACKAGE_ID, nuspec.getId());
+        assertEquals("carlspring", nuspec.getAuthors());
+        assertEquals(1, nuspec.getDependencies().size());
+        assertEquals(packageHash, nupkg.getHash());
+    }
+
+    private RepositoryPath store(String dependency)
+        throws Exception
+    {
+        Path packageFilePath = generatePackageFile(PACKAGE_ID, PACKAGE_VERSION, dependency);
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(STORAGE0,
+                                                                       REPOSITORY_RELEASES,
+                                                                       coordinates().toPath());
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageFilePath)))
+        {
+            artifactManagementService.validateAndStore(repositoryPath, is);
+        }
+
+        return repositoryPath;
+    }
+
+    private NugetArtifactMetadata findArtifactMetadata()
+    {
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(STORAGE0,
+                                                                           REPOSITORY_RELEASES,
+                                                                           coordinates().toPath());
+        assertNotNull(artifactEntry);
+        assertTrue(artifactEntry.getArtifactMetadata() instanceof NugetArtifactMetadata);
+
+        return (NugetArtifactMetadata) artifactEntry.getArtifactMetadata();
+    }
+
+    private NugetArtifactCoordinates coordinates()
+    {
+        return new NugetArtifactCoordinates(PACKAGE_ID, PACKAGE_VERSION, "nupkg");
+    }
+
+}
@@ -2,6 +2,7 @@ package org.carlspring.strongbox.providers.repository;
 
 import org.carlspring.strongbox.config.NugetLayoutProviderTestConfig;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.criteria.InvalidCursorException;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.providers.layout.NugetLayoutProvider;
@@ -31,6 +32,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
 /**
@@ -206,4 +210,59 @@ public class NugetGroupRepositoryProviderTest
         assertEquals(Long.valueOf(12), count);
     }
 
+    @Test
+    public void testGroupSearchByCursor()
+    {
+        Repository repository = configurationManager.getRepository(STORAGE0 + ":" + REPOSITORY_GROUP);
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        Predicate p = Predicate.empty();
+
+        Set<Path> result = new LinkedHashSet<>();
+        String cursor = Paginator.FIRST_PAGE_CURSOR;
+        int pages = 0;
+        do
+        {
+            Paginator paginator = new Paginator();
+            paginator.setLimit(5);
+            paginator.setCursor(cursor);
+
+            List<Path> page = repositoryProvider.search(STORAGE0, REPOSITORY_GROUP, p, paginator);
+
+            assertTrue(page.size() <= 5);
+            result.addAll(page);
+
+            cursor = paginator.getNextCursor();
+            pages++;
+        }
+        while (cursor != null && pages < 10);
+
+        assertNull(cursor);
+        assertEquals(12, result.size());
+    }
+
+    @Test
+    public void testGroupSearchByStaleCursor()
+    {
+        Repository repository = configurationManager.getRepository(STORAGE0 + ":" + REPOSITORY_GROUP);
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        // the cursor of a member which is no longer in the group
+        Paginator paginator = new Paginator();
+        paginator.setLimit(5);
+        paginator.setCursor(Paginator.encodeCursor(STORAGE0 + ":grpt-removed-member|"));
+
+        assertThrows(InvalidCursorException.class,
+                     () -> repositoryProvider.search(STORAGE0, REPOSITORY_GROUP, Predicate.empty(), paginator));
+
+        // the member without its own cursor
+        Paginator memberOnlyPaginator = new Paginator();
+        memberOnlyPaginator.setLimit(5);
+        memberOnlyPaginator.setCursor(Paginator.encodeCursor(STORAGE0 + ":" + REPOSITORY_RELEASES_1));
+
+        assertThrows(InvalidCursorException.class,
+                     () -> repositoryProvider.search(STORAGE0, REPOSITORY_GROUP, Predicate.empty(),
+                                                     memberOnlyPaginator));
+    }
+
 }
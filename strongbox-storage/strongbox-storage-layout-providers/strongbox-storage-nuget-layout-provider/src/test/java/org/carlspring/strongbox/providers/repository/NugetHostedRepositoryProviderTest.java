@@ -0,0 +1,186 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.config.NugetLayoutProviderTestConfig;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.InvalidCursorException;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.layout.NugetLayoutProvider;
+import org.carlspring.strongbox.services.RepositoryManagementService;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.TestCaseWithNugetPackageGeneration;
+
+import javax.inject.Inject;
+import javax.xml.bind.JAXBException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the keyset pages of the {@link HostedRepositoryProvider} search, see {@link Paginator#getCursor()}.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = NugetLayoutProviderTestConfig.class)
+public class NugetHostedRepositoryProviderTest
+        extends TestCaseWithNugetPackageGeneration
+{
+
+    private static final String REPOSITORY_RELEASES = "hrpt-releases";
+
+    private static final int PACKAGE_COUNT = 12;
+
+    private static final int PAGE_SIZE = 5;
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryManagementService repositoryManagementService;
+
+    @BeforeAll
+    public static void cleanUp()
+        throws Exception
+    {
+        cleanUp(getRepositoriesToClean());
+    }
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        MutableRepository repository = createRepositoryMock(STORAGE0, REPOSITORY_RELEASES, NugetLayoutProvider.ALIAS);
+        repository.setLayout(NugetLayoutProvider.ALIAS);
+        configurationManagementService.saveRepository(STORAGE0, repository);
+        repositoryManagementService.createRepository(STORAGE0, REPOSITORY_RELEASES);
+
+        generateRepositoryPackages(STORAGE0, REPOSITORY_RELEASES, "hrpt.search.package", PACKAGE_COUNT);
+    }
+
+    @AfterEach
+    public void removeRepositories()
+        throws IOException,
+        JAXBException
+    {
+        removeRepositories(getRepositoriesToClean());
+    }
+
+    public static Set<MutableRepository> getRepositoriesToClean()
+    {
+        Set<MutableRepository> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE0, REPOSITORY_RELEASES, NugetLayoutProvider.ALIAS));
+
+        return repositories;
+    }
+
+    @Test
+    public void testSearchByCursor()
+    {
+        RepositoryProvider repositoryProvider = getRepositoryProvider();
+
+        Paginator paginator = new Paginator();
+        Set<Path> expected = new LinkedHashSet<>(repositoryProvider.search(STORAGE0,
+                                                                           REPOSITORY_RELEASES,
+                                                                           Predicate.empty(),
+                                                                           paginator));
+        assertNull(paginator.getNextCursor(), "Only the cursor pages return a cursor.");
+        assertEquals(PACKAGE_COUNT, expected.size());
+
+        List<Integer> pageSizes = new ArrayList<>();
+        Set<Path> result = new LinkedHashSet<>();
+        String cursor = Paginator.FIRST_PAGE_CURSOR;
+        do
+        {
+            paginator = new Paginator();
+            paginator.setLimit(PAGE_SIZE);
+            paginator.setCursor(cursor);
+
+            List<Path> page = repositoryProvider.search(STORAGE0, REPOSITORY_RELEASES, Predicate.empty(), paginator);
+
+            pageSizes.add(page.size());
+            result.addAll(page);
+
+            cursor = paginator.getNextCursor();
+        }
+        while (cursor != null && pageSizes.size() < PACKAGE_COUNT);
+
+        assertEquals(Arrays.asList(5, 5, 2), pageSizes);
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testSearchByInvalidCursor()
+    {
+        RepositoryProvider repositoryProvider = getRepositoryProvider();
+
+        for (String cursor : Arrays.asList("not base64", Paginator.encodeCursor("not-a-record-id")))
+        {
+            Paginator paginator = new Paginator();
+            paginator.setCursor(cursor);
+
+            assertThrows(InvalidCursorException.class,
+                         () -> repositoryProvider.search(STORAGE0, REPOSITORY_RELEASES, Predicate.empty(), paginator));
+        }
+    }
+
+    /**
+     * A cursor page selects the records after the cursor in the order of the last `idx_artifact` field, instead of
+     * skipping the records of the previous pages. Which index the planner picks isn't asserted, it depends on the
+     * OrientDB version and on the other conditions of the search.
+     */
+    @Test
+    public void testCursorPageQuery()
+    {
+        Paginator paginator = new Paginator();
+        paginator.setLimit(PAGE_SIZE);
+        paginator.setSkip(PAGE_SIZE);
+        paginator.setCursor(Paginator.encodeCursor("#1:2"));
+        paginator.setCursorProperty(HostedRepositoryProvider.CURSOR_PROPERTY);
+
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
+        selector.where(Predicate.of(ExpOperator.EQ.of("storageId", STORAGE0)))
+                .and(Predicate.of(ExpOperator.EQ.of("repositoryId", REPOSITORY_RELEASES)));
+        selector.with(paginator);
+
+        String sQuery = new OQueryTemplate<Object, ArtifactEntry>().calculateQueryString(selector);
+
+        assertTrue(sQuery.contains(String.format(" AND artifactCoordinates > :%s", OQueryTemplate.CURSOR_PARAMETER)),
+                   sQuery);
+        assertTrue(sQuery.contains(" ORDER BY artifactCoordinates ASC"), sQuery);
+        assertTrue(sQuery.endsWith(" LIMIT " + PAGE_SIZE), sQuery);
+        assertFalse(sQuery.contains(" SKIP "), sQuery);
+    }
+
+    private RepositoryProvider getRepositoryProvider()
+    {
+        Repository repository = configurationManager.getRepository(STORAGE0 + ":" + REPOSITORY_RELEASES);
+
+        return repositoryProviderRegistry.getProvider(repository.getType());
+    }
+
+}
@@ -1,20 +1,25 @@
 package org.carlspring.strongbox.storage.metadata.nuget.rss;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
+import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 import javax.xml.bind.JAXBException;
 
 import org.apache.commons.io.FileUtils;
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
 import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.config.NugetBootersTestConfig;
 import org.carlspring.strongbox.storage.metadata.nuget.NugetTestResourceUtil;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
 import org.carlspring.strongbox.storage.metadata.nuget.TempNupkgFile;
 import org.carlspring.strongbox.testing.TestCaseWithNugetPackageGeneration;
 import org.junit.jupiter.api.AfterEach;
@@ -25,6 +30,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.StringContains.containsString;
 
@@ -145,4 +151,72 @@ public class PackageFeedTest
             assertThat(resultXml, containsString("name>" + author + "<"));
         }
     }
+
+    /**
+     * Checks that the feed written entry by entry is read back as a whole
+     *
+     * @throws Exception
+     *             error during the test
+     */
+    @Test
+    public void testMarshallStreamedFeed()
+        throws Exception
+    {
+        // GIVEN
+        PackageFeed feed = new PackageFeed();
+        feed.setId("http://localhost:48080/storages/storage-nuget/nuget-releases/");
+        feed.setUpdated(new Date());
+
+        // WHEN
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        feed.writeXml(outputStream, IntStream.range(0, 3).mapToObj(i -> {
+            Nuspec nuspec = new Nuspec();
+            nuspec.getMetadata().id = "NUnit";
+            nuspec.getMetadata().version = SemanticVersion.parse("2.5." + i);
+
+            return new PackageEntry(nuspec, "", 0L, new Date());
+        }));
+
+        // THEN
+        PackageFeed result = PackageFeed.parse(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(feed.getId(), result.getId(), "ID");
+        assertEquals(3, result.getEntries().size(), "Number of packages");
+        assertEquals("2.5.2", result.getEntries().get(2).getProperties().getVersion().toString(), "Version");
+        assertThat(new String(outputStream.toByteArray()), containsString("<atom:feed"));
+    }
+
+    /**
+     * Checks that the link of the next page is written after the entries and read back
+     *
+     * @throws Exception
+     *             error during the test
+     */
+    @Test
+    public void testMarshallNextLink()
+        throws Exception
+    {
+        // GIVEN
+        String nextLink = "http://localhost:48080/storages/storage-nuget/nuget-releases/Packages()?$skiptoken=abc";
+
+        PackageFeed feed = new PackageFeed();
+        feed.setId("http://localhost:48080/storages/storage-nuget/nuget-releases/");
+        feed.setNextLink(nextLink);
+
+        Nuspec nuspec = new Nuspec();
+        nuspec.getMetadata().id = "NUnit";
+        nuspec.getMetadata().version = SemanticVersion.parse("2.5.0");
+        feed.getEntries().add(new PackageEntry(nuspec, "", 0L, new Date()));
+
+        // WHEN
+        String resultXml = feed.getXml();
+
+        // THEN
+        assertTrue(resultXml.lastIndexOf("rel=\"next\"") > resultXml.lastIndexOf("entry>"),
+                   "The next link is not after the entries");
+
+        PackageFeed result = PackageFeed.parse(new ByteArrayInputStream(resultXml.getBytes()));
+        assertEquals("Packages", result.getLink(), "Link");
+        assertEquals(nextLink, result.getNextLink(), "Next link");
+        assertEquals(1, result.getEntries().size(), "Number of packages");
+    }
 }
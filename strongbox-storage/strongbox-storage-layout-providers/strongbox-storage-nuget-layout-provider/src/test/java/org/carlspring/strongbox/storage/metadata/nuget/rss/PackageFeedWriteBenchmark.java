@@ -0,0 +1,138 @@
+package org.carlspring.strongbox.storage.metadata.nuget.rss;
+
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.xml.serialize.OutputFormat;
+import org.apache.xml.serialize.XMLSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares writing a feed of {@link #versionCount} package versions entry by entry with
+ * {@link PackageFeed#writeXml(java.io.OutputStream, java.util.stream.Stream)} against building all the entries first
+ * and marshalling the whole feed with a new {@link JAXBContext}, as it was done before.
+ * <p>
+ * Run with: `mvn test-compile exec:java -Dexec.mainClass=org.carlspring.strongbox.storage.metadata.nuget.rss.PackageFeedWriteBenchmark -Dexec.classpathScope=test`
+ * <p>
+ * The allocation rate is reported by the `gc` profiler which the runner enables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx256m" })
+public class PackageFeedWriteBenchmark
+{
+
+    private static final String FEED_ID = "http://localhost:48080/storages/storage-nuget/nuget-releases/";
+
+    @Param({ "10000" })
+    private int versionCount;
+
+    private List<Nuspec> nuspecs;
+
+    @Setup
+    public void setup()
+    {
+        nuspecs = new ArrayList<>(versionCount);
+        for (int i = 0; i < versionCount; i++)
+        {
+            Nuspec nuspec = new Nuspec();
+            nuspec.getMetadata().id = "Org.Carlspring.Strongbox.Benchmark";
+            nuspec.getMetadata().version = SemanticVersion.parse(String.format("1.%s.%s", i / 100, i % 100));
+            nuspec.getMetadata().title = nuspec.getMetadata().id;
+            nuspec.getMetadata().authors = "carlspring";
+            nuspec.getMetadata().description = "Strongbox NuGet feed benchmark package";
+
+            nuspecs.add(nuspec);
+        }
+    }
+
+    @Benchmark
+    public void inMemoryFeed()
+        throws JAXBException
+    {
+        PackageFeed feed = newFeed();
+        List<PackageEntry> entries = new ArrayList<>(versionCount);
+        for (Nuspec nuspec : nuspecs)
+        {
+            entries.add(newEntry(nuspec));
+        }
+        feed.setEntries(entries);
+
+        JAXBContext context = JAXBContext.newInstance(PackageFeed.class);
+        Marshaller marshaller = context.createMarshaller();
+        Map<String, String> uriToPrefix = new HashMap<>();
+        uriToPrefix.put("http://www.w3.org/2005/Atom", "atom");
+        uriToPrefix.put("http://schemas.microsoft.com/ado/2007/08/dataservices/metadata", "m");
+        uriToPrefix.put("http://schemas.microsoft.com/ado/2007/08/dataservices/scheme", "ds");
+        uriToPrefix.put("http://schemas.microsoft.com/ado/2007/08/dataservices", "d");
+        NugetPrefixFilter filter = new NugetPrefixFilter(uriToPrefix);
+        filter.setContentHandler(new XMLSerializer(new NullOutputStream(), new OutputFormat()));
+        marshaller.marshal(feed, filter);
+    }
+
+    @Benchmark
+    public void streamedFeed()
+        throws JAXBException
+    {
+        newFeed().writeXml(new NullOutputStream(), nuspecs.stream().map(this::newEntry));
+    }
+
+    private PackageFeed newFeed()
+    {
+        PackageFeed feed = new PackageFeed();
+        feed.setId(FEED_ID);
+        feed.setUpdated(new Date());
+        feed.setTitle("Packages");
+
+        return feed;
+    }
+
+    private PackageEntry newEntry(Nuspec nuspec)
+    {
+        return new PackageEntry(nuspec, "c2hhNTEyLWNoZWNrc3Vt", 1024L, new Date())
+        {
+
+            @Override
+            protected String getRootUri()
+            {
+                return FEED_ID;
+            }
+        };
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(PackageFeedWriteBenchmark.class.getSimpleName())
+                                       .addProfiler("gc")
+                                       .build()).run();
+    }
+
+}
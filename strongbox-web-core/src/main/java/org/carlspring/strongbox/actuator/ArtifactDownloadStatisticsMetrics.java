@@ -0,0 +1,55 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsAccumulator;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes {@link ArtifactDownloadStatisticsAccumulator} state through the `metrics` actuator endpoint.
+ */
+@Component
+public class ArtifactDownloadStatisticsMetrics implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.artifact.download.statistics";
+
+    @Inject
+    private ArtifactDownloadStatisticsAccumulator accumulator;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder(PREFIX + ".pending", accumulator, ArtifactDownloadStatisticsAccumulator::getPendingEntries)
+             .description("Artifacts with downloads not yet flushed into the database")
+             .register(registry);
+        Gauge.builder(PREFIX + ".flush.lag", accumulator, ArtifactDownloadStatisticsAccumulator::getFlushLagMillis)
+             .description("Age of the oldest download not yet flushed into the database")
+             .baseUnit("milliseconds")
+             .register(registry);
+        Gauge.builder(PREFIX + ".flush.duration", accumulator,
+                      ArtifactDownloadStatisticsAccumulator::getLastFlushDurationMillis)
+             .baseUnit("milliseconds")
+             .register(registry);
+
+        FunctionCounter.builder(PREFIX + ".recorded", accumulator,
+                                ArtifactDownloadStatisticsAccumulator::getRecordedDownloads)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".flushed", accumulator,
+                                ArtifactDownloadStatisticsAccumulator::getFlushedDownloads)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".dropped", accumulator,
+                                ArtifactDownloadStatisticsAccumulator::getDroppedDownloads)
+                       .description("Downloads not counted because too many artifacts were pending")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".flush.failures", accumulator,
+                                ArtifactDownloadStatisticsAccumulator::getFailedFlushes)
+                       .register(registry);
+    }
+
+}
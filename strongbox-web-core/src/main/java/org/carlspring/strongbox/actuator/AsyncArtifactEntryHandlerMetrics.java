@@ -0,0 +1,70 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes {@link AsyncArtifactEntryHandler} executor statistics, tagged by handler, through the `metrics` actuator
+ * endpoint.
+ */
+@Component
+public class AsyncArtifactEntryHandlerMetrics implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.artifact.entry.handler";
+
+    @Inject
+    private List<AsyncArtifactEntryHandler> handlers;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        for (AsyncArtifactEntryHandler handler : handlers)
+        {
+            Tags tags = Tags.of("handler", handler.getClass().getSimpleName());
+
+            Gauge.builder(PREFIX + ".queue", handler, AsyncArtifactEntryHandler::getQueueDepth)
+                 .tags(tags)
+                 .description("Events waiting for the handler executor")
+                 .register(registry);
+            Gauge.builder(PREFIX + ".active", handler, AsyncArtifactEntryHandler::getActiveCount)
+                 .tags(tags)
+                 .register(registry);
+
+            FunctionTimer.builder(PREFIX + ".latency", handler,
+                                  AsyncArtifactEntryHandler::getHandledEvents,
+                                  h -> h.getTotalHandlingTime(TimeUnit.MILLISECONDS),
+                                  TimeUnit.MILLISECONDS)
+                         .tags(tags)
+                         .description("Time from the event submission to the handling completion")
+                         .register(registry);
+
+            FunctionCounter.builder(PREFIX + ".coalesced", handler, AsyncArtifactEntryHandler::getCoalescedEvents)
+                           .tags(tags)
+                           .description("Events merged with an already queued event for the same path")
+                           .register(registry);
+            FunctionCounter.builder(PREFIX + ".rejected", handler, AsyncArtifactEntryHandler::getRejectedEvents)
+                           .tags(tags)
+                           .description("Events which didn't fit into the handler queue")
+                           .register(registry);
+            FunctionCounter.builder(PREFIX + ".retries", handler, AsyncArtifactEntryHandler::getRetries)
+                           .tags(tags)
+                           .register(registry);
+            FunctionCounter.builder(PREFIX + ".failures", handler, AsyncArtifactEntryHandler::getFailures)
+                           .tags(tags)
+                           .register(registry);
+        }
+    }
+
+}
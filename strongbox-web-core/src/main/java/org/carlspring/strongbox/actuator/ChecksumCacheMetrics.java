@@ -0,0 +1,42 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes {@link ChecksumCacheManager} state through the `metrics` actuator endpoint.
+ */
+@Component
+public class ChecksumCacheMetrics implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.checksum.cache";
+
+    @Inject
+    private ChecksumCacheManager checksumCacheManager;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder(PREFIX + ".size", checksumCacheManager, ChecksumCacheManager::getSize)
+             .register(registry);
+
+        FunctionCounter.builder(PREFIX + ".hits", checksumCacheManager, ChecksumCacheManager::getHits)
+                       .description("Uploaded checksums validated against the cached artifact checksum")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".misses", checksumCacheManager, ChecksumCacheManager::getMisses)
+                       .description("Uploaded checksums without the cached artifact checksum")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".evictions", checksumCacheManager, ChecksumCacheManager::getEvictions)
+                       .description("Artifact checksums evicted because of the size bound or lifetime")
+                       .register(registry);
+    }
+
+}
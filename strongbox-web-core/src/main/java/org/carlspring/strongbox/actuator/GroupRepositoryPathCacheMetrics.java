@@ -0,0 +1,45 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryPathCache;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes {@link GroupRepositoryPathCache} state through the `metrics` actuator endpoint.
+ */
+@Component
+public class GroupRepositoryPathCacheMetrics implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.group.path.cache";
+
+    @Inject
+    private GroupRepositoryPathCache groupRepositoryPathCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder(PREFIX + ".size", groupRepositoryPathCache, GroupRepositoryPathCache::getSize)
+             .register(registry);
+
+        FunctionCounter.builder(PREFIX + ".hits", groupRepositoryPathCache, GroupRepositoryPathCache::getHits)
+                       .description("Group paths resolved from the cached member")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".negative.hits", groupRepositoryPathCache,
+                                GroupRepositoryPathCache::getNegativeHits)
+                       .description("Group paths known to be missing in all the members")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".misses", groupRepositoryPathCache, GroupRepositoryPathCache::getMisses)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".invalidations", groupRepositoryPathCache,
+                                GroupRepositoryPathCache::getInvalidations)
+                       .register(registry);
+    }
+
+}
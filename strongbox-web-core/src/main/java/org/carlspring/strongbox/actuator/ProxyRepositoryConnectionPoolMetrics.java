@@ -0,0 +1,43 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the utilization of the connection pool shared by the proxy repository clients through the `metrics`
+ * actuator endpoint.
+ */
+@Component
+public class ProxyRepositoryConnectionPoolMetrics implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.proxy.connection.pool";
+
+    @Inject
+    private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        ProxyRepositoryConnectionPoolConfigurationService service = proxyRepositoryConnectionPoolConfigurationService;
+
+        Gauge.builder(PREFIX + ".leased", service, s -> s.getTotalStats().getLeased())
+             .description("Connections in use by the remote repository requests")
+             .register(registry);
+        Gauge.builder(PREFIX + ".available", service, s -> s.getTotalStats().getAvailable())
+             .description("Kept alive connections ready to be reused")
+             .register(registry);
+        Gauge.builder(PREFIX + ".pending", service, s -> s.getTotalStats().getPending())
+             .description("Requests waiting for a connection")
+             .register(registry);
+        Gauge.builder(PREFIX + ".max", service, s -> s.getTotalStats().getMax())
+             .register(registry);
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes {@link ProxyRepositoryArtifactResolver} remote fetch statistics through the `metrics` actuator endpoint.
+ */
+@Component
+public class ProxyRepositoryFetchMetrics implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.proxy.fetch";
+
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder(PREFIX + ".inflight", proxyRepositoryArtifactResolver,
+                      ProxyRepositoryArtifactResolver::getInFlightFetches)
+             .register(registry);
+
+        FunctionCounter.builder(PREFIX + ".remote", proxyRepositoryArtifactResolver,
+                                ProxyRepositoryArtifactResolver::getRemoteFetches)
+                       .description("Resources downloaded from remote repositories")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".coalesced", proxyRepositoryArtifactResolver,
+                                ProxyRepositoryArtifactResolver::getCoalescedFetches)
+                       .description("Fetches which waited for a download already in progress")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".failures", proxyRepositoryArtifactResolver,
+                                ProxyRepositoryArtifactResolver::getFailedFetches)
+                       .register(registry);
+    }
+
+}
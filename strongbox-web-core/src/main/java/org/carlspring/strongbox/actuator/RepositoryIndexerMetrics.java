@@ -0,0 +1,55 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexManager;
+
+import javax.inject.Inject;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the Maven Indexer update queues of the {@link RepositoryIndexManager} through the `metrics` actuator
+ * endpoint.
+ */
+@Component
+public class RepositoryIndexerMetrics implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.maven.indexer";
+
+    @Inject
+    private Optional<RepositoryIndexManager> repositoryIndexManager;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        if (!repositoryIndexManager.isPresent())
+        {
+            return;
+        }
+        RepositoryIndexManager manager = repositoryIndexManager.get();
+
+        Gauge.builder(PREFIX + ".queue", manager, RepositoryIndexManager::getQueueDepth)
+             .description("Artifact updates waiting to be applied to the indexes")
+             .register(registry);
+        Gauge.builder(PREFIX + ".lag", manager, RepositoryIndexManager::getIndexingLag)
+             .description("Age of the oldest artifact update waiting to be applied, in milliseconds")
+             .register(registry);
+
+        FunctionTimer.builder(PREFIX + ".flush", manager,
+                              RepositoryIndexManager::getFlushedBatches,
+                              m -> m.getFlushTime(TimeUnit.MILLISECONDS),
+                              TimeUnit.MILLISECONDS)
+                     .description("Batches of artifact updates applied to the indexes")
+                     .register(registry);
+        FunctionCounter.builder(PREFIX + ".flushed.updates", manager, RepositoryIndexManager::getFlushedUpdates)
+                       .register(registry);
+    }
+
+}
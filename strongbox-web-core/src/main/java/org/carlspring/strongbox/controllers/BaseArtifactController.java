@@ -1,16 +1,26 @@
 package org.carlspring.strongbox.controllers;
 
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryStreamThrough;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.utils.ArtifactControllerHelper;
+import org.carlspring.strongbox.utils.ArtifactControllerHelper.ResolvedRange;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -21,6 +31,21 @@ public abstract class BaseArtifactController
     @Inject
     protected ArtifactManagementService artifactManagementService;
 
+    /**
+     * Send whole files with {@link java.nio.channels.FileChannel#transferTo(long, long, WritableByteChannel)} instead
+     * of copying them through the decorated {@link RepositoryInputStream}. The Servlet API only provides a stream, so
+     * this is still a buffered copy, but without the checksum calculation and the flush after every chunk.
+     */
+    @Value("${strongbox.download.transferTo.enabled:true}")
+    private boolean transferToEnabled;
+
+    /**
+     * Stream proxied artifacts to the client while they are being downloaded and cached, see
+     * {@link #resolvePath(HttpServletRequest, HttpServletResponse, HttpHeaders, String, String, String)}.
+     */
+    @Value("${strongbox.proxy.streamThrough.enabled:true}")
+    private boolean streamThroughEnabled;
+
     protected Storage getStorage(String storageId)
     {
         return configurationManager.getConfiguration().getStorage(storageId);
@@ -32,6 +57,62 @@ public abstract class BaseArtifactController
         return getStorage(storageId).getRepository(repositoryId);
     }
 
+    /**
+     * Same as {@link org.carlspring.strongbox.services.ArtifactResolutionService#resolvePath(String, String, String)},
+     * but if a proxied artifact has to be downloaded first, it's written into the response while it's being downloaded
+     * and cached, and {@link #provideArtifactDownloadResponse(HttpServletRequest, HttpServletResponse, HttpHeaders,
+     * RepositoryPath)} doesn't send it again.
+     */
+    protected RepositoryPath resolvePath(HttpServletRequest request,
+                                         HttpServletResponse response,
+                                         HttpHeaders httpHeaders,
+                                         String storageId,
+                                         String repositoryId,
+                                         String path)
+            throws IOException
+    {
+        if (!streamThroughEnabled || !isStreamThroughApplicable(request, httpHeaders))
+        {
+            return artifactResolutionService.resolvePath(storageId, repositoryId, path);
+        }
+
+        ResponseStreamThrough streamThrough = new ResponseStreamThrough(response);
+        request.setAttribute(ResponseStreamThrough.class.getName(), streamThrough);
+
+        ProxyRepositoryStreamThrough.bind(streamThrough);
+        try
+        {
+            return artifactResolutionService.resolvePath(storageId, repositoryId, path);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            if (streamThrough.isServed())
+            {
+                // The response is committed, the exception makes the container abort the connection instead of
+                // completing the chunked response, so the client can't take the partial artifact as complete.
+                logger.warn(String.format("Abort the response for [%s/%s/%s].", storageId, repositoryId, path));
+            }
+
+            throw e;
+        }
+        finally
+        {
+            ProxyRepositoryStreamThrough.unbind();
+        }
+    }
+
+    /**
+     * Only plain downloads can be streamed through, ranged and conditional requests need the cached file.
+     */
+    private boolean isStreamThroughApplicable(HttpServletRequest request,
+                                              HttpHeaders httpHeaders)
+    {
+        return request.getMethod().equals(RequestMethod.GET.name())
+               && !ArtifactControllerHelper.isRangedRequest(httpHeaders)
+               && httpHeaders.getFirst(HttpHeaders.IF_NONE_MATCH) == null
+               && httpHeaders.getFirst(HttpHeaders.IF_MODIFIED_SINCE) == null;
+    }
+
     protected boolean provideArtifactDownloadResponse(HttpServletRequest request,
                                                       HttpServletResponse response,
                                                       HttpHeaders httpHeaders,
@@ -39,23 +120,54 @@ public abstract class BaseArtifactController
             throws Exception
     {
         logger.debug("Resolved path: " + repositoryPath);
-        
+
+        Object streamThrough = request.getAttribute(ResponseStreamThrough.class.getName());
+        if (streamThrough instanceof ResponseStreamThrough && ((ResponseStreamThrough) streamThrough).isServed())
+        {
+            logger.debug(String.format("Served [%s] while downloading.", repositoryPath));
+            response.flushBuffer();
+
+            return repositoryPath != null;
+        }
+
         ArtifactControllerHelper.provideArtifactHeaders(response, repositoryPath);
         if (response.getStatus() == HttpStatus.NOT_FOUND.value())
         {
             return false;
         }
+        else if (ArtifactControllerHelper.checkNotModified(request, response, repositoryPath))
+        {
+            logger.debug(String.format("Not modified [%s].", repositoryPath));
+
+            return true;
+        }
         else if (request.getMethod().equals(RequestMethod.HEAD.name()))
         {
             return true;
         }
 
-        InputStream is = artifactResolutionService.getInputStream(repositoryPath);
-        if (ArtifactControllerHelper.isRangedRequest(httpHeaders))
+        RepositoryInputStream is = artifactResolutionService.getInputStream(repositoryPath);
+        if (ArtifactControllerHelper.isRangedRequest(httpHeaders)
+                && ArtifactControllerHelper.isRangeApplicable(request, response, repositoryPath)
+                && is.isTransferable())
         {
             logger.debug("Detected ranged request.");
 
-            ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+            long length = Files.size(repositoryPath);
+            List<ResolvedRange> ranges = ArtifactControllerHelper.resolveRanges(httpHeaders, length);
+            if (ranges != null)
+            {
+                ArtifactControllerHelper.handlePartialDownload(is, ranges, length, response);
+
+                return true;
+            }
+        }
+
+        if (transferToEnabled && is.isTransferable() && hasChecksums(repositoryPath))
+        {
+            transferToResponse(is, Files.size(repositoryPath), response);
+
+            return true;
         }
 
         copyToResponse(is, response);
@@ -63,4 +175,80 @@ public abstract class BaseArtifactController
         return true;
     }
 
+    /**
+     * The file can be sent as is, without the checksum calculation on the fly, only if its checksums are already
+     * stored.
+     */
+    private boolean hasChecksums(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        if (Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)))
+        {
+            return true;
+        }
+
+        return repositoryPath.getFileSystem()
+                             .provider()
+                             .resolveChecksumPathMap(repositoryPath)
+                             .values()
+                             .stream()
+                             .allMatch(Files::exists);
+    }
+
+    protected void transferToResponse(RepositoryInputStream is,
+                                      long length,
+                                      HttpServletResponse response)
+            throws IOException
+    {
+        try (RepositoryInputStream inputStream = is;
+             WritableByteChannel channel = Channels.newChannel(response.getOutputStream()))
+        {
+            long totalBytes = inputStream.transferTo(channel);
+            if (totalBytes != length)
+            {
+                // Fail the request, so that the client doesn't take the truncated response as complete.
+                throw new IOException(String.format("Transferred [%s] of [%s] bytes.", totalBytes, length));
+            }
+
+            logger.debug(String.format("Transferred [%s] bytes.", totalBytes));
+        }
+
+        response.flushBuffer();
+    }
+
+    private static class ResponseStreamThrough
+            extends ProxyRepositoryStreamThrough
+    {
+
+        private final HttpServletResponse response;
+
+        private boolean served;
+
+        private ResponseStreamThrough(HttpServletResponse response)
+        {
+            this.response = response;
+        }
+
+        @Override
+        protected OutputStream open(RepositoryPath repositoryPath)
+            throws IOException
+        {
+            if (served || response.isCommitted())
+            {
+                return null;
+            }
+
+            served = true;
+            ArtifactControllerHelper.provideContentType(response, repositoryPath);
+
+            return response.getOutputStream();
+        }
+
+        public boolean isServed()
+        {
+            return served;
+        }
+
+    }
+
 }
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.controllers;
 
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.providers.search.SearchException;
 import org.carlspring.strongbox.services.ArtifactSearchService;
 import org.carlspring.strongbox.storage.search.SearchRequest;
@@ -12,6 +13,7 @@ import java.net.URLDecoder;
 
 import io.swagger.annotations.*;
 import org.apache.lucene.queryparser.classic.ParseException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +21,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * @author Alex Oreshkevich
@@ -40,6 +43,8 @@ public class SearchController
      * @param storageId
      * @param repositoryId
      * @param query
+     * @param limit the size of the page, the results are paged by cursor if it or the cursor is given
+     * @param cursor the cursor of the page, as returned by the previous one; the first page if omitted
      * @return
      * @throws IOException
      * @throws ParseException
@@ -59,6 +64,10 @@ public class SearchController
                                  @RequestParam(name = "q") final String query,
                                  @ApiParam(value = "The search provider", required = false)
                                  @RequestParam(name = "searchProvider", required = false) final String searchProvider,
+                                 @ApiParam(value = "The size of the page", required = false)
+                                 @RequestParam(name = "limit", required = false) final Integer limit,
+                                 @ApiParam(value = "The cursor of the page, returned by the previous one", required = false)
+                                 @RequestParam(name = "cursor", required = false) final String cursor,
                                  HttpServletRequest request)
             throws IOException, SearchException
     {
@@ -68,33 +77,57 @@ public class SearchController
         logger.debug("[search] " + q + "\n\taccept " + accept + "\n\tstorageId = " +
                      storageId + "\n\trepositoryId = " + repositoryId);
 
+        Paginator paginator = null;
+        if (limit != null || cursor != null)
+        {
+            paginator = new Paginator();
+            paginator.setLimit(limit);
+            paginator.setCursor(cursor == null ? Paginator.FIRST_PAGE_CURSOR : cursor);
+        }
+
         if (accept.equalsIgnoreCase(MediaType.TEXT_PLAIN_VALUE))
         {
-            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider);
+            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider, paginator);
 
-            return ResponseEntity.ok(artifacts.toString());
+            return withNextLink(ResponseEntity.ok(), artifacts).body(artifacts.toString());
         }
         else
         {
             // Apparently, the JSON root tag's name is based on the name of the object
             // which the Jersey method returns, hence this is "artifacts".
             @SuppressWarnings("UnnecessaryLocalVariable")
-            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider);
+            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider, paginator);
 
-            return ResponseEntity.ok(artifacts);
+            return withNextLink(ResponseEntity.ok(), artifacts).body(artifacts);
         }
     }
 
     private SearchResults getSearchResults(String storageId,
                                            String repositoryId,
                                            String query,
-                                           String searchProvider)
+                                           String searchProvider,
+                                           Paginator paginator)
             throws SearchException
     {
-        return artifactSearchService.search(new SearchRequest(storageId,
-                                                              repositoryId,
-                                                              query,
-                                                              searchProvider));
+        SearchRequest searchRequest = new SearchRequest(storageId, repositoryId, query, searchProvider);
+        searchRequest.setPaginator(paginator);
+
+        return artifactSearchService.search(searchRequest);
+    }
+
+    private ResponseEntity.BodyBuilder withNextLink(ResponseEntity.BodyBuilder response,
+                                                    SearchResults artifacts)
+    {
+        if (artifacts.getNextCursor() == null)
+        {
+            return response;
+        }
+
+        String nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                                                     .replaceQueryParam("cursor", artifacts.getNextCursor())
+                                                     .toUriString();
+
+        return response.header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextPage));
     }
 
 }
@@ -111,7 +111,7 @@ public class MavenArtifactController
         }
         
         path = correctIndexPathIfNecessary(path);
-        RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
+        RepositoryPath repositoryPath = resolvePath(request, response, httpHeaders, storageId, repositoryId, path);
         
         provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
     }
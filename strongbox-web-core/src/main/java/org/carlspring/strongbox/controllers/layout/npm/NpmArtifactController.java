@@ -29,6 +29,7 @@ import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.io.IOUtils;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
 import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
 import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
@@ -36,15 +37,13 @@ import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.npm.NpmSearchRequest;
 import org.carlspring.strongbox.npm.NpmViewRequest;
-import org.carlspring.strongbox.npm.metadata.DistTags;
 import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.PackageVersion;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
-import org.carlspring.strongbox.npm.metadata.Time;
-import org.carlspring.strongbox.npm.metadata.Versions;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.NpmPackageDesc;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedManager;
 import org.carlspring.strongbox.providers.layout.NpmPackageSupplier;
 import org.carlspring.strongbox.providers.layout.NpmSearchResultSupplier;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
@@ -113,6 +112,9 @@ public class NpmArtifactController extends BaseArtifactController
     @Inject
     private NpmPackageSupplier npmPackageSupplier;
 
+    @Inject
+    private NpmPackageFeedManager npmPackageFeedManager;
+
     @Inject
     private NpmSearchResultSupplier npmSearchResultSupplier;
     
@@ -148,12 +150,12 @@ public class NpmArtifactController extends BaseArtifactController
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
         
         Predicate predicate = Predicate.empty();
-        predicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "tgz")));
+        predicate.and(CoordinateTokens.equal("extension", "tgz"));
         predicate.and(Predicate.of(ExpOperator.CONTAINS.of("tagSet.name", ArtifactTag.LAST_VERSION)));
         
         Predicate lkePredicate = Predicate.empty().nested();
-        lkePredicate.or(Predicate.of(ExpOperator.LIKE.of("artifactCoordinates.coordinates.name.toLowerCase()", text + "%")));
-        lkePredicate.or(Predicate.of(ExpOperator.LIKE.of("artifactCoordinates.coordinates.scope.toLowerCase()", text + "%")));
+        lkePredicate.or(CoordinateTokens.like("name", text + "%"));
+        lkePredicate.or(CoordinateTokens.like("scope", text + "%"));
         predicate.or(lkePredicate);
         
         
@@ -231,50 +233,16 @@ public class NpmArtifactController extends BaseArtifactController
         
         Repository repository = getRepository(storageId, repositoryId);
 
-        PackageFeed packageFeed = new PackageFeed();
-
-        packageFeed.setName(packageId);
-        packageFeed.setAdditionalProperty("_id", packageId);
-        
-        Predicate predicate = createSearchPredicate(packageScope, packageName);
-
-        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
-
-        Paginator paginator = new Paginator();
-        paginator.setProperty("version");
-
-        List<Path> searchResult = provider.search(storageId, repositoryId, predicate, paginator);
-
-        Versions versions = new Versions();
-        packageFeed.setVersions(versions);
-
-        Time npmTime = new Time();
-        packageFeed.setTime(npmTime);
-
-        DistTags distTags = new DistTags();
-        packageFeed.setDistTags(distTags);
-
-        searchResult.stream().map(npmPackageSupplier).forEach(p -> {
-            PackageVersion npmPackage = p.getNpmPackage();
-            versions.setAdditionalProperty(npmPackage.getVersion(), npmPackage);
-
-            npmTime.setAdditionalProperty(npmPackage.getVersion(), p.getReleaseDate());
-
-            Date created = npmTime.getCreated();
-            npmTime.setCreated(created == null || created.before(p.getReleaseDate()) ? p.getReleaseDate() : created);
-
-            Date modified = npmTime.getModified();
-            npmTime.setModified(modified == null || modified.before(p.getReleaseDate()) ? p.getReleaseDate()
-                    : modified);
+        response.setContentType(MediaType.APPLICATION_JSON);
 
-            if (p.isLastVersion())
-            {
-                distTags.setLatest(npmPackage.getVersion());
-            }
+        if (repository.isHostedRepository())
+        {
+            npmPackageFeedManager.writePackageFeed(repository, packageId, response.getOutputStream());
 
-        });
+            return;
+        }
 
-        response.setContentType(MediaType.APPLICATION_JSON);
+        PackageFeed packageFeed = npmPackageFeedManager.buildPackageFeed(repository, packageId);
         response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(packageFeed));
     }
 
@@ -289,21 +257,6 @@ public class NpmArtifactController extends BaseArtifactController
         viewPackageFeedWithScope(storageId, repositoryId, null, packageName, response);
     }
 
-    private Predicate createSearchPredicate(String packageScope,
-                                            String packageName)
-    {
-        Predicate rootPredicate = Predicate.empty();
-
-        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "tgz")));
-        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.name", packageName)));
-        if (packageScope != null)
-        {
-            rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.scope", packageScope)));
-        }
-
-        return rootPredicate;
-    }
-
     @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
     @RequestMapping(path = "{storageId}/{repositoryId}/{packageScope}/{packageName}/-/{packageName}-{packageVersion}.{packageExtension}",
                     method = { RequestMethod.GET, RequestMethod.HEAD })
@@ -330,7 +283,7 @@ public class NpmArtifactController extends BaseArtifactController
             return;
         }
 
-        RepositoryPath path = artifactResolutionService.resolvePath(storageId, repositoryId, coordinates.toPath());
+        RepositoryPath path = resolvePath(request, response, httpHeaders, storageId, repositoryId, coordinates.toPath());
         provideArtifactDownloadResponse(request, response, httpHeaders, path);
     }
 
@@ -359,7 +312,7 @@ public class NpmArtifactController extends BaseArtifactController
             return;
         }
 
-        RepositoryPath path = artifactResolutionService.resolvePath(storageId, repositoryId, coordinates.toPath());
+        RepositoryPath path = resolvePath(request, response, httpHeaders, storageId, repositoryId, coordinates.toPath());
         provideArtifactDownloadResponse(request, response, httpHeaders, path);
     }
 
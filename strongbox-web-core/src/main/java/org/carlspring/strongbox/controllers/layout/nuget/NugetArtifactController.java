@@ -15,13 +15,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.servlet.ServletInputStream;
@@ -36,8 +34,8 @@ import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.PathNupkg;
 import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.artifact.criteria.CoordinateTokens;
 import org.carlspring.strongbox.controllers.BaseArtifactController;
-import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.domain.ArtifactEntry;
@@ -54,7 +52,6 @@ import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
-import org.carlspring.strongbox.storage.metadata.nuget.Nupkg;
 import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
 import org.carlspring.strongbox.storage.metadata.nuget.TempNupkgFile;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.EntryProperties;
@@ -80,6 +77,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -101,6 +99,8 @@ public class NugetArtifactController extends BaseArtifactController
 
     public final static String ROOT_CONTEXT = "/storages";
 
+    private static final String DEFAULT_ORDER_BY = "Id";
+
     @Inject
     private ArtifactManagementService nugetArtifactManagementService;
 
@@ -177,9 +177,10 @@ public class NugetArtifactController extends BaseArtifactController
                                             @ApiParam(value = "The repositoryId", required = true) @PathVariable(name = "repositoryId") String repositoryId,
                                             @PathVariable(name = "searchCommandName") String searchCommandName,
                                             @RequestParam(name = "$filter", required = false) String filter,
-                                            @RequestParam(name = "$orderby", required = false, defaultValue = "Id") String orderBy,
+                                            @RequestParam(name = "$orderby", required = false) String orderBy,
                                             @RequestParam(name = "$skip", required = false) Integer skip,
                                             @RequestParam(name = "$top", required = false) Integer top,
+                                            @RequestParam(name = "$skiptoken", required = false) String skipToken,
                                             @RequestParam(name = "searchTerm", required = false) String searchTerm,
                                             @RequestParam(name = "targetFramework", required = false) String targetFramework,
                                             HttpServletResponse response)
@@ -197,53 +198,95 @@ public class NugetArtifactController extends BaseArtifactController
                                    storageId,
                                    repositoryId);
 
-        Collection<? extends Nupkg> files;
-        files = getPackages(storageId,
-                            repositoryId,
-                            filter,
-                            orderBy,
-                            normalizedSearchTerm,
-                            targetFramework,
-                            skip,
-                            top);
+        Paginator paginator = new Paginator();
+        paginator.setSkip(skip);
+        paginator.setLimit(top);
+        paginator.setProperty(orderBy == null ? DEFAULT_ORDER_BY : orderBy);
+        if (skipToken != null)
+        {
+            paginator.setCursor(skipToken);
+        }
+        else if (orderBy == null && (skip == null || skip == 0))
+        {
+            // NuGet clients only follow the next links, so the first page starts the cursor paging; the cursor pages
+            // are in the storage order, so a requested `$orderby` keeps the `$skip` paging
+            paginator.setCursor(Paginator.FIRST_PAGE_CURSOR);
+        }
+
+        List<Path> files = getPackages(storageId,
+                                       repositoryId,
+                                       filter,
+                                       normalizedSearchTerm,
+                                       paginator);
 
-        PackageFeed feed = transform(feedId, files);
+        String nextPage = null;
+        if (paginator.getNextCursor() != null)
+        {
+            nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                                                  .replaceQueryParam("$skip")
+                                                  .replaceQueryParam("$skiptoken", paginator.getNextCursor())
+                                                  .toUriString();
+            response.setHeader(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextPage));
+        }
 
         response.setHeader("content-type", MediaType.APPLICATION_XML);
-        feed.writeXml(response.getOutputStream());
+        writeFeed(feedId, nextPage, files, response.getOutputStream());
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
     
-    private PackageFeed transform(String feedId,
-                                  Collection<? extends Nupkg> files)
+    /**
+     * Writes the feed entries as they are created, one package at a time, so that the parsed packages and the
+     * entries of the whole feed are never held in memory.
+     *
+     * @param nextPage the link of the next page of the feed, `null` if this is the last page
+     */
+    private void writeFeed(String feedId,
+                           String nextPage,
+                           List<Path> files,
+                           OutputStream outputStream)
+        throws JAXBException
     {
         PackageFeed feed = new PackageFeed();
-        // feed.setId(getContext().getRootUri().toString());
         feed.setId(feedId);
         feed.setUpdated(new Date());
         feed.setTitle("Packages");
-        List<PackageEntry> packageEntrys = new ArrayList<>();
-        for (Nupkg nupkg : files)
+        feed.setNextLink(nextPage);
+
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        feed.writeXml(outputStream,
+                      files.stream()
+                           .map(p -> createPackageEntry(feedId, (RepositoryPath) p, lastVersionTag))
+                           .filter(Objects::nonNull));
+
+        logger.debug("Got {} packages", files.size());
+    }
+
+    private PackageEntry createPackageEntry(String feedId,
+                                            RepositoryPath path,
+                                            ArtifactTag lastVersionTag)
+    {
+        try
         {
-            try
-            {
-                PackageEntry entry = createPackageEntry(feedId, (PathNupkg) nupkg);
-                calculateFeedEntryProperties((PathNupkg) nupkg, entry.getProperties());
-                packageEntrys.add(entry);
-            }
-            catch (NoSuchAlgorithmException | IOException | NugetFormatException e)
-            {
-                logger.error("Failed to parse package " + nupkg, e);
-            }
+            PathNupkg nupkg = new PathNupkg(path);
+            PackageEntry entry = createPackageEntry(feedId, nupkg);
+            calculateFeedEntryProperties(nupkg, entry.getProperties(), lastVersionTag);
+
+            return entry;
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to parse package [%s]", path), e);
+
+            return null;
         }
-        logger.debug("Got {} packages", new Object[] { packageEntrys.size() });
-        feed.setEntries(packageEntrys);
-        return feed;
     }
 
     private void calculateFeedEntryProperties(PathNupkg nupkg,
-                                              EntryProperties properties) throws IOException
+                                              EntryProperties properties,
+                                              ArtifactTag lastVersionTag)
+        throws IOException
     {
         RepositoryPath path = nupkg.getPath();
         ArtifactEntry artifactEntry = path.getArtifactEntry();
@@ -261,7 +304,6 @@ public class NugetArtifactController extends BaseArtifactController
         properties.setRating(Double.valueOf(0));
         properties.setVersionRating(Double.valueOf(0));
 
-        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
         if (artifactEntry.getTagSet().contains(lastVersionTag))
         {
             properties.setIsLatestVersion(true);
@@ -308,64 +350,56 @@ public class NugetArtifactController extends BaseArtifactController
         Paginator paginator = new Paginator();
         paginator.setProperty("artifactCoordinates.coordinates.version");
 
-        Predicate predicate = Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.id", normalisedPackageId));
+        Predicate predicate = CoordinateTokens.equal("id", normalisedPackageId);
 
-        Collection<? extends Nupkg> files = searchNupkg(storageId, repositoryId, provider, paginator, predicate);
+        List<Path> files = provider.search(storageId, repositoryId, predicate, paginator);
 
         String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
                                    storageId,
                                    repositoryId);
 
-        PackageFeed feed = transform(feedId, files);
-
         response.setHeader("Content-Type", MediaType.APPLICATION_XML);
-        feed.writeXml(response.getOutputStream());
+        writeFeed(feedId, null, files, response.getOutputStream());
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    public Collection<? extends Nupkg> getPackages(String storageId,
-                                                   String repositoryId,
-                                                   String filter,
-                                                   String orderBy,
-                                                   String searchTerm,
-                                                   String targetFramework,
-                                                   Integer skip,
-                                                   Integer top)
+    public List<Path> getPackages(String storageId,
+                                  String repositoryId,
+                                  String filter,
+                                  String orderBy,
+                                  String searchTerm,
+                                  String targetFramework,
+                                  Integer skip,
+                                  Integer top)
     {
-        Repository repository = getRepository(storageId, repositoryId);
-        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
-
         Paginator paginator = new Paginator();
         paginator.setSkip(skip);
         paginator.setLimit(top);
         paginator.setProperty(orderBy);
 
-        Predicate rootPredicate = createSearchPredicate(filter, searchTerm);
-
-        return searchNupkg(storageId, repositoryId, provider, paginator, rootPredicate);
+        return getPackages(storageId, repositoryId, filter, searchTerm, paginator);
     }
 
-    private List<PathNupkg> searchNupkg(String storageId,
-                                        String repositoryId,
-                                        RepositoryProvider provider,
-                                        Paginator paginator,
-                                        Predicate predicate)
+    /**
+     * With a {@link Paginator#getCursor()} the packages are paged by the `$skiptoken` continuation token, in the
+     * storage order, and the token of the next page is set into the paginator.
+     *
+     * @throws org.carlspring.strongbox.data.criteria.InvalidCursorException if the `$skiptoken` is invalid, or it
+     *         points to a member which is no longer in the group
+     */
+    private List<Path> getPackages(String storageId,
+                                   String repositoryId,
+                                   String filter,
+                                   String searchTerm,
+                                   Paginator paginator)
     {
-        return provider.search(storageId, repositoryId, predicate, paginator)
-                       .stream()
-                       .map(p -> {
-                           try
-                           {
-                               return new PathNupkg((RepositoryPath) p);
-                           }
-                           catch (Exception e)
-                           {
-                               logger.error(String.format("Failed to resolve Nuget package path [%s]", p), e);
-                               return null;
-                           }
-                       })
-                       .collect(Collectors.toList());
+        Repository repository = getRepository(storageId, repositoryId);
+        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        Predicate rootPredicate = createSearchPredicate(filter, searchTerm);
+
+        return provider.search(storageId, repositoryId, rootPredicate, paginator);
     }
 
     private Predicate createSearchPredicate(String filter,
@@ -379,12 +413,11 @@ public class NugetArtifactController extends BaseArtifactController
            rootPredicate = t.parseQuery().getPredicate();
         }
 
-        rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "nupkg")));
+        rootPredicate.and(CoordinateTokens.equal("extension", "nupkg"));
 
         if (searchTerm != null && !searchTerm.trim().isEmpty())
         {
-            rootPredicate.and(Predicate.of(ExpOperator.LIKE.of("artifactCoordinates.coordinates.id",
-                                                               "%" + searchTerm + "%")));
+            rootPredicate.and(CoordinateTokens.like("id", "%" + searchTerm + "%"));
         }
         return rootPredicate;
     }
@@ -121,7 +121,7 @@ public class RawArtifactController
             return;
         }
 
-        RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
+        RepositoryPath repositoryPath = resolvePath(request, response, httpHeaders, storageId, repositoryId, path);
         provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
     }
 
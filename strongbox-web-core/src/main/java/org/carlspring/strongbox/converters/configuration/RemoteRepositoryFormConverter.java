@@ -26,6 +26,10 @@ public enum RemoteRepositoryFormConverter
         result.setPassword(source.getPassword());
         result.setChecksumPolicy(source.getChecksumPolicy());
         result.setCheckIntervalSeconds(source.getCheckIntervalSeconds());
+        if (source.getMetadataStaleWindowSeconds() != null)
+        {
+            result.setMetadataStaleWindowSeconds(source.getMetadataStaleWindowSeconds());
+        }
         result.setAllowsDirectoryBrowsing(source.isAllowsDirectoryBrowsing());
         result.setAutoImportRemoteSSLCertificate(source.isAutoImportRemoteSSLCertificate());
         return result;
@@ -3,10 +3,11 @@ package org.carlspring.strongbox.security.vote;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.carlspring.strongbox.controllers.layout.maven.MavenArtifactController;
-import org.carlspring.strongbox.users.domain.AccessModel;
+import org.carlspring.strongbox.users.domain.PathPrivilegesTrie;
 import org.carlspring.strongbox.users.dto.UserAccessModelReadContract;
 import org.carlspring.strongbox.users.userdetails.SpringSecurityUser;
 import org.carlspring.strongbox.utils.UrlUtils;
@@ -19,6 +20,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.CacheBuilder;
+
 /**
  * @author sbespalov
  *
@@ -27,6 +30,14 @@ import org.springframework.stereotype.Component;
 public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVoter
 {
 
+    /**
+     * The path privilege tries compiled from the principal access models. The access model instances are shared by the
+     * principals of a user until the user changes, and the keys are compared by identity, so a changed access model
+     * gets its own trie and the stale one is collected along with it.
+     */
+    private final Map<UserAccessModelReadContract, PathPrivilegesTrie> pathPrivilegesTries =
+            CacheBuilder.newBuilder().weakKeys().<UserAccessModelReadContract, PathPrivilegesTrie>build().asMap();
+
     public ExtendedAuthoritiesVoter()
     {
         super(new ExpressionBasedPreInvocationAdvice());
@@ -97,8 +108,10 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
                 return authorities;
             }
 
-            // assign privileges based on custom user access model
-            final Collection<String> customAuthorities = AccessModel.getPathPrivileges(accessModel, UrlUtils.getRequestUri());
+            // assign privileges based on custom user access model, compiled once per access model
+            final Collection<String> customAuthorities = pathPrivilegesTries.computeIfAbsent(accessModel,
+                                                                                             PathPrivilegesTrie::of)
+                                                                            .getPathPrivileges(requestUri);
             if (customAuthorities == null || customAuthorities.isEmpty())
             {
                 return authorities;
@@ -1,28 +1,36 @@
 package org.carlspring.strongbox.utils;
 
-import org.carlspring.commons.http.range.ByteRange;
-import org.carlspring.commons.http.range.ByteRangeHeaderParser;
-import org.carlspring.strongbox.io.ByteRangeInputStream;
-import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.FilterInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import static org.springframework.http.HttpStatus.PARTIAL_CONTENT;
 import static org.springframework.http.HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
 
@@ -33,97 +41,254 @@ public class ArtifactControllerHelper
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactControllerHelper.class);
 
+    /**
+     * More ranges than this, once the overlapping and adjacent ones are merged, are ignored and the whole file is sent
+     * instead, so that a request can't make the server send the same bytes many times or seek for tiny ranges.
+     */
+    public static final int MAX_RANGES = 16;
+
+    private static final String[] ETAG_DIGEST_ALGORITHMS = { MessageDigestAlgorithms.SHA_1,
+                                                             MessageDigestAlgorithms.SHA_256 };
+
 
     private ArtifactControllerHelper()
     {
     }
 
-    public static void handlePartialDownload(InputStream is,
-                                             HttpHeaders headers,
-                                             HttpServletResponse response)
-            throws IOException
+    /**
+     * Parses the `Range` header into the satisfiable ranges of a file with given length, see RFC 7233. Overlapping and
+     * adjacent ranges are merged, so the result is ordered by the start of the range.
+     *
+     * @return satisfiable ranges, empty if there are none, or `null` if the header is malformed or has more than
+     *         {@link #MAX_RANGES} ranges, and should be ignored
+     */
+    public static List<ResolvedRange> resolveRanges(HttpHeaders headers,
+                                                    long length)
     {
-        ByteRangeHeaderParser parser = new ByteRangeHeaderParser(headers.getFirst(HEADER_NAME_RANGE));
-        List<ByteRange> ranges = parser.getRanges();
-        if (ranges.size() == 1)
+        List<HttpRange> httpRanges;
+        try
         {
-            logger.debug("Received request for a partial download with a single range.");
-            handlePartialDownloadWithSingleRange(is, (ByteRange) ranges.get(0), response);
+            httpRanges = HttpRange.parseRanges(headers.getFirst(HEADER_NAME_RANGE));
         }
-        else
+        catch (IllegalArgumentException e)
         {
-            logger.debug("Received request for a partial download with multiple ranges.");
-            handlePartialDownloadWithMultipleRanges(is, ranges, response);
+            logger.debug(String.format("Ignore malformed range header [%s].", headers.getFirst(HEADER_NAME_RANGE)));
+
+            return null;
         }
+
+        List<ResolvedRange> result = new ArrayList<>();
+        for (HttpRange httpRange : httpRanges)
+        {
+            long start;
+            try
+            {
+                start = httpRange.getRangeStart(length);
+            }
+            catch (IllegalArgumentException e)
+            {
+                // Unsatisfiable range, the remaining ones can still be served.
+                continue;
+            }
+            if (start >= length)
+            {
+                continue;
+            }
+
+            result.add(new ResolvedRange(start, httpRange.getRangeEnd(length)));
+        }
+
+        result = mergeRanges(result);
+        if (result.size() > MAX_RANGES)
+        {
+            logger.debug(String.format("Ignore range header with [%s] ranges.", result.size()));
+
+            return null;
+        }
+
+        return result;
     }
 
-    public static void handlePartialDownloadWithSingleRange(InputStream is,
-                                                            ByteRange byteRange,
-                                                            HttpServletResponse response)
-            throws IOException
+    private static List<ResolvedRange> mergeRanges(List<ResolvedRange> ranges)
     {
-        ByteRangeInputStream bris = StreamUtils.findSource(ByteRangeInputStream.class, (FilterInputStream)is);
-        long length = StreamUtils.getLength(bris);
-        if (byteRange.getOffset() < length)
+        if (ranges.size() < 2)
         {
-            long partialLength = calculatePartialRangeLength(byteRange, length);
+            return ranges;
+        }
+
+        List<ResolvedRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(ResolvedRange::getStart));
+
+        List<ResolvedRange> result = new ArrayList<>();
+        ResolvedRange current = sorted.get(0);
+        for (ResolvedRange range : sorted.subList(1, sorted.size()))
+        {
+            if (range.getStart() <= current.getEnd() + 1)
+            {
+                current = new ResolvedRange(current.getStart(), Math.max(current.getEnd(), range.getEnd()));
+            }
+            else
+            {
+                result.add(current);
+                current = range;
+            }
+        }
+        result.add(current);
 
-            logger.debug("Calculated partial range length ->>> " + partialLength + "\n");
+        return result;
+    }
 
-            StreamUtils.setCurrentByteRange(bris, byteRange);
+    /**
+     * Checks the `If-Range` precondition against the `ETag` and `Last-Modified` headers set by
+     * {@link #provideArtifactHeaders(HttpServletResponse, RepositoryPath)}.
+     *
+     * @return `true` if the `Range` header should be applied, `false` if the whole file should be sent
+     */
+    public static boolean isRangeApplicable(HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            RepositoryPath path)
+        throws IOException
+    {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null)
+        {
+            return true;
+        }
 
-            response.setHeader("Content-Length", partialLength + "");
-            response.setStatus(PARTIAL_CONTENT.value());
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+        {
+            // Strong comparison, weak ETags never match.
+            String eTag = response.getHeader(HttpHeaders.ETAG);
 
-            prepareResponseBuilderForPartialRequest(byteRange, length, response);
+            return !ifRange.startsWith("W/") && eTag != null && !eTag.startsWith("W/") && eTag.equals(ifRange);
         }
-        else
+
+        long ifRangeDate;
+        try
         {
-            response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
         }
+        catch (IllegalArgumentException e)
+        {
+            return false;
+        }
+
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        return ifRangeDate / 1000 == lastModified / 1000;
     }
 
-    public static void handlePartialDownloadWithMultipleRanges(InputStream is,
-                                                               List<ByteRange> byteRanges,
-                                                               HttpServletResponse response)
-            throws IOException
+    /**
+     * Writes the requested ranges of the file into the response: a single range as is, multiple ranges as
+     * `multipart/byteranges`. The ranges are read with positional {@link java.nio.channels.FileChannel} reads.
+     */
+    public static void handlePartialDownload(RepositoryInputStream is,
+                                             List<ResolvedRange> ranges,
+                                             long length,
+                                             HttpServletResponse response)
+        throws IOException
     {
-        // XXX: this is not implemented yet
-        response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        try (RepositoryInputStream inputStream = is)
+        {
+            if (ranges.isEmpty())
+            {
+                logger.debug("Received request for a partial download with unsatisfiable ranges.");
+
+                response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setHeader(HttpHeaders.CONTENT_LENGTH, "0");
+
+                return;
+            }
+
+            if (ranges.size() == 1)
+            {
+                logger.debug("Received request for a partial download with a single range.");
+
+                handlePartialDownloadWithSingleRange(inputStream, ranges.get(0), length, response);
+            }
+            else
+            {
+                logger.debug("Received request for a partial download with multiple ranges.");
+
+                handlePartialDownloadWithMultipleRanges(inputStream, ranges, length, response);
+            }
+        }
+
+        response.flushBuffer();
     }
 
-    public static long calculatePartialRangeLength(ByteRange byteRange,
-                                                   long length)
+    private static void handlePartialDownloadWithSingleRange(RepositoryInputStream is,
+                                                             ResolvedRange range,
+                                                             long length,
+                                                             HttpServletResponse response)
+        throws IOException
     {
-        if (byteRange.getLimit() > 0L && byteRange.getOffset() > 0L)
-        {
-            logger.debug("Partial content byteRange.getOffset: " + byteRange.getOffset());
-            logger.debug("Partial content byteRange.getLimit: " + byteRange.getLimit());
-            logger.debug("Partial content length: " + (byteRange.getLimit() - byteRange.getOffset()));
+        response.setStatus(PARTIAL_CONTENT.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, range.toContentRange(length));
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(range.getLength()));
 
-            return byteRange.getLimit() - byteRange.getOffset();
+        try (WritableByteChannel channel = Channels.newChannel(response.getOutputStream()))
+        {
+            transferRange(is, channel, range);
         }
-        else if (length > 0L && byteRange.getOffset() > 0L && byteRange.getLimit() == 0L)
+    }
+
+    private static void handlePartialDownloadWithMultipleRanges(RepositoryInputStream is,
+                                                                List<ResolvedRange> ranges,
+                                                                long length,
+                                                                HttpServletResponse response)
+        throws IOException
+    {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        String contentType = response.getContentType();
+
+        List<byte[]> partHeaders = new ArrayList<>();
+        long contentLength = 0;
+        for (ResolvedRange range : ranges)
         {
-            logger.debug("Partial content length: " + (length - byteRange.getOffset()));
-            return length - byteRange.getOffset();
+            String partHeader = String.format("\r\n--%s\r\n%s: %s\r\n%s: %s\r\n\r\n",
+                                              boundary,
+                                              HttpHeaders.CONTENT_TYPE, contentType,
+                                              HttpHeaders.CONTENT_RANGE, range.toContentRange(length));
+            byte[] partHeaderBytes = partHeader.getBytes(StandardCharsets.US_ASCII);
+
+            partHeaders.add(partHeaderBytes);
+            contentLength += partHeaderBytes.length + range.getLength();
         }
-        else
+        byte[] closeDelimiter = String.format("\r\n--%s--\r\n", boundary).getBytes(StandardCharsets.US_ASCII);
+        contentLength += closeDelimiter.length;
+
+        response.setStatus(PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
+
+        OutputStream os = response.getOutputStream();
+        WritableByteChannel channel = Channels.newChannel(os);
+        for (int i = 0; i < ranges.size(); i++)
         {
-            return -1L;
+            ResolvedRange range = ranges.get(i);
+
+            os.write(partHeaders.get(i));
+            transferRange(is, channel, range);
         }
+        os.write(closeDelimiter);
+        os.close();
     }
 
-    public static void prepareResponseBuilderForPartialRequest(ByteRange br,
-                                                               long length,
-                                                               HttpServletResponse response)
+    private static void transferRange(RepositoryInputStream is,
+                                      WritableByteChannel channel,
+                                      ResolvedRange range)
+        throws IOException
     {
-        response.setHeader("Accept-Ranges", "bytes");
-        response.setHeader("Content-Range",
-                           "bytes " + br.getOffset() + "-" + (length - 1L) + "/" + length);
-
-        logger.debug("Content-Range HEADER ->>> " + response.getHeader("Content-Range"));
-        response.setHeader("Pragma", "no-cache");
+        long totalBytes = is.transferTo(channel, range.getStart(), range.getLength());
+        if (totalBytes != range.getLength())
+        {
+            // Fail the request, so that the client doesn't take the truncated response as complete.
+            throw new IOException(String.format("Transferred [%s] of [%s] bytes of range [%s-%s].",
+                                                totalBytes, range.getLength(), range.getStart(), range.getEnd()));
+        }
     }
 
     public static boolean isRangedRequest(HttpHeaders headers)
@@ -155,6 +320,35 @@ public class ArtifactControllerHelper
         response.setHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
                 ZonedDateTime.ofInstant(fileAttributes.lastModifiedTime().toInstant(), ZoneId.systemDefault())));
 
+        provideContentType(response, path);
+
+        response.setHeader("Accept-Ranges", "bytes");
+
+        Map<String, String> checksums = new HashMap<>();
+        path.getFileSystem().provider().resolveChecksumPathMap(path).entrySet().stream().forEach(e -> {
+            String checksumValue;
+            try
+            {
+                checksumValue = new String(Files.readAllBytes(e.getValue()), "UTF-8").trim();
+            }
+            catch (IOException ioe)
+            {
+                return;
+            }
+            checksums.put(e.getKey(), checksumValue);
+            String checksumName = String.format("Checksum-%s",
+                                                e.getKey().toUpperCase().replaceAll("-", ""));
+            response.setHeader(checksumName,
+                               checksumValue);
+        });
+
+        response.setHeader(HttpHeaders.ETAG, calculateETag(fileAttributes, checksums));
+    }
+
+    public static void provideContentType(HttpServletResponse response,
+                                          RepositoryPath path)
+        throws IOException
+    {
         // TODO: This is far from optimal and will need to have a content type approach at some point:
         if (RepositoryFiles.isChecksum(path) || (path.getFileName().toString().endsWith(".properties")))
         {
@@ -172,25 +366,85 @@ public class ArtifactControllerHelper
         {
             response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
         }
+    }
 
-        response.setHeader("Accept-Ranges", "bytes");
-
-        path.getFileSystem().provider().resolveChecksumPathMap(path).entrySet().stream().forEach(e -> {
-            String checksumValue;
-            try
-            {
-                checksumValue = new String(Files.readAllBytes(e.getValue()), "UTF-8").trim();
-            }
-            catch (IOException ioe)
+    /**
+     * Strong ETag is the stored SHA-1 or SHA-256 checksum of the file, if there is no such checksum then the weak ETag
+     * is calculated from the file size and modification time.
+     */
+    public static String calculateETag(RepositoryFileAttributes fileAttributes,
+                                       Map<String, String> checksums)
+    {
+        for (String algorithm : ETAG_DIGEST_ALGORITHMS)
+        {
+            String checksum = checksums.get(algorithm);
+            if (checksum != null && !checksum.isEmpty())
             {
-                return;
+                // Checksum files can contain the file name after the checksum value.
+                return "\"" + checksum.split("\\s+")[0] + "\"";
             }
-            String checksumName = String.format("Checksum-%s",
-                                                e.getKey().toUpperCase().replaceAll("-", ""));
-            response.setHeader(checksumName,
-                               checksumValue);
-        });
-        
+        }
+
+        return String.format("W/\"%s-%s\"",
+                             Long.toHexString(fileAttributes.size()),
+                             Long.toHexString(fileAttributes.lastModifiedTime().toMillis()));
+    }
+
+    /**
+     * Evaluates the `If-None-Match` and `If-Modified-Since` request headers against the headers set by
+     * {@link #provideArtifactHeaders(HttpServletResponse, RepositoryPath)}, so it should be called after it. If the
+     * client already has the current version of the file, the response status is set to `304`.
+     *
+     * @return `true` if the response body should not be sent
+     */
+    public static boolean checkNotModified(HttpServletRequest request,
+                                           HttpServletResponse response,
+                                           RepositoryPath path)
+        throws IOException
+    {
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        return new ServletWebRequest(request, response).checkNotModified(eTag, lastModified);
+    }
+
+    /**
+     * Byte range with both bounds resolved against the file length, the end is inclusive.
+     */
+    public static class ResolvedRange
+    {
+
+        private final long start;
+
+        private final long end;
+
+        public ResolvedRange(long start,
+                             long end)
+        {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart()
+        {
+            return start;
+        }
+
+        public long getEnd()
+        {
+            return end;
+        }
+
+        public long getLength()
+        {
+            return end - start + 1;
+        }
+
+        public String toContentRange(long length)
+        {
+            return String.format("bytes %s-%s/%s", start, end, length);
+        }
+
     }
 
 }
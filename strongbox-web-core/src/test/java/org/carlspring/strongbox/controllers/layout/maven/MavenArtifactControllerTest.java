@@ -22,6 +22,7 @@ import org.carlspring.strongbox.storage.search.SearchRequest;
 import org.carlspring.strongbox.storage.search.SearchResult;
 import org.carlspring.strongbox.storage.search.SearchResults;
 import org.carlspring.strongbox.util.MessageDigestUtils;
+import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 import org.carlspring.strongbox.yaml.configuration.repository.MutableMavenRepositoryConfiguration;
 
 import javax.inject.Inject;
@@ -42,6 +43,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.StringJoiner;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -463,6 +465,125 @@ public class MavenArtifactControllerTest
         assertHeadersEquals(headersFromGET, headersFromHEAD);
     }
 
+    @Test
+    public void testConditionalFetch()
+            throws Exception
+    {
+        String url = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES1;
+        String pathToPom = "/org/carlspring/strongbox/browse/foo-bar/2.4/foo-bar-2.4.pom";
+        String artifactPath = url + pathToPom;
+
+        Headers headers = client.getHeadersFromGET(artifactPath);
+        String eTag = headers.getValue("ETag");
+        String lastModified = headers.getValue("Last-Modified");
+        assertNotNull(eTag);
+
+        String sha1 = MessageDigestUtils.readChecksumFile(client.getResource(artifactPath + ".sha1", true));
+        assertEquals("\"" + sha1 + "\"", eTag);
+
+        given().header("If-None-Match", eTag)
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        given().header("If-None-Match", "\"no-such-etag\"")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        given().header("If-Modified-Since", lastModified)
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    public void testRangedFetch()
+            throws Exception
+    {
+        String url = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES1;
+        String pathToJar = "/org/carlspring/strongbox/partial/partial-foo/3.1/partial-foo-3.1.jar";
+        String artifactPath = url + pathToJar;
+
+        Headers headers = client.getHeadersFromGET(artifactPath);
+        long length = Long.parseLong(headers.getValue("Content-Length"));
+        String eTag = headers.getValue("ETag");
+
+        // Suffix range
+        given().header("Range", "bytes=-10")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+               .header("Content-Range", String.format("bytes %s-%s/%s", length - 10, length - 1, length))
+               .header("Content-Length", "10");
+
+        // Range starting at 0
+        given().header("Range", "bytes=0-9")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+               .header("Content-Range", String.format("bytes 0-9/%s", length));
+
+        // Multiple ranges
+        MockMvcResponse response = given().header("Range", "bytes=0-9,20-29")
+                                          .when()
+                                          .get(artifactPath);
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.statusCode());
+        assertThat(response.contentType()).startsWith("multipart/byteranges");
+        assertThat(response.asString()).contains(String.format("bytes 0-9/%s", length),
+                                                 String.format("bytes 20-29/%s", length));
+
+        // Overlapping and adjacent ranges are merged into one
+        given().header("Range", "bytes=0-9,5-14,15-19")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+               .header("Content-Range", String.format("bytes 0-19/%s", length))
+               .header("Content-Length", "20");
+
+        // Too many ranges send the whole file
+        StringJoiner manyRanges = new StringJoiner(",", "bytes=", "");
+        for (int i = 0; i <= ArtifactControllerHelper.MAX_RANGES; i++)
+        {
+            manyRanges.add(String.format("%s-%s", i * 2, i * 2));
+        }
+        given().header("Range", manyRanges.toString())
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .header("Content-Length", String.valueOf(length));
+
+        // Unsatisfiable range
+        given().header("Range", String.format("bytes=%s-", length))
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value())
+               .header("Content-Range", "bytes */" + length);
+
+        // If-Range which doesn't match the ETag sends the whole file
+        given().header("Range", "bytes=0-9")
+               .header("If-Range", "\"no-such-etag\"")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        given().header("Range", "bytes=0-9")
+               .header("If-Range", eTag)
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.PARTIAL_CONTENT.value());
+    }
+
     private void assertHeadersEquals(Headers h1,
                                      Headers h2)
     {
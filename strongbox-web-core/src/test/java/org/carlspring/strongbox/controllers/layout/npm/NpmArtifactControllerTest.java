@@ -3,8 +3,11 @@ package org.carlspring.strongbox.controllers.layout.npm;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
 import org.carlspring.strongbox.artifact.generator.NpmPackageGenerator;
 import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
 import org.carlspring.strongbox.rest.common.NpmRestAssuredBaseTest;
+import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.repository.MutableRepository;
 import org.carlspring.strongbox.storage.repository.NpmRepositoryFactory;
 import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
@@ -24,6 +27,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 @IntegrationTest
 public class NpmArtifactControllerTest
@@ -35,6 +41,12 @@ public class NpmArtifactControllerTest
     @Inject
     private NpmRepositoryFactory npmRepositoryFactory;
 
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
     @Value("${strongbox.url}")
     private String contextBaseUrl;
 
@@ -114,6 +126,75 @@ public class NpmArtifactControllerTest
                .statusCode(HttpStatus.NOT_FOUND.value());
     }
     
+    @Test
+    public void testPackageFeedFollowsStoreRedeployAndDelete()
+        throws Exception
+    {
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of("@carlspring/npm-test-feed", "1.0.0");
+        NpmArtifactCoordinates nextCoordinates = NpmArtifactCoordinates.of(coordinates.getId(), "1.0.1");
+        String packageFeedUrl = contextBaseUrl + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES + "/" +
+                                coordinates.getId();
+
+        publish(coordinates, "store");
+        String shasum = publish(nextCoordinates, "store");
+
+        given().header("User-Agent", "npm/*")
+               .when()
+               .get(packageFeedUrl)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("versions.'1.0.0'", notNullValue())
+               .body("versions.'1.0.1'.dist.shasum", equalTo(shasum));
+
+        // Redeploy
+        String redeployedShasum = publish(nextCoordinates, "redeploy");
+        assertNotEquals(shasum, redeployedShasum);
+
+        given().header("User-Agent", "npm/*")
+               .when()
+               .get(packageFeedUrl)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("versions.'1.0.1'.dist.shasum", equalTo(redeployedShasum));
+
+        // Delete the version directory, which fires no artifact events
+        RepositoryPath versionPath = repositoryPathResolver.resolve(STORAGE0, REPOSITORY_RELEASES,
+                                                                    nextCoordinates.toPath()).getParent();
+        artifactManagementService.delete(versionPath, true);
+
+        given().header("User-Agent", "npm/*")
+               .when()
+               .get(packageFeedUrl)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("versions.'1.0.0'", notNullValue())
+               .body("versions.'1.0.1'", nullValue());
+    }
+
+    private String publish(NpmArtifactCoordinates coordinates,
+                           String generation)
+        throws Exception
+    {
+        NpmPackageGenerator generator = new NpmPackageGenerator(
+                Files.createTempDirectory("npm-test-feed-" + generation).toString());
+        Path publishJsonPath = generator.of(coordinates).buildPublishJson();
+
+        given().header("User-Agent", "npm/*")
+               .header("Content-Type", "application/json")
+               .body(Files.readAllBytes(publishJsonPath))
+               .when()
+               .put(contextBaseUrl + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES + "/" +
+                    coordinates.getId())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        return generator.getPackageJson().getDist().getShasum();
+    }
+
     @Test
     public void testPackageCommonFlow()
         throws Exception
@@ -23,12 +23,15 @@ import io.restassured.http.Header;
 import io.restassured.http.Headers;
 import io.restassured.module.mockmvc.config.RestAssuredMockMvcConfig;
 import io.restassured.module.mockmvc.specification.MockMvcRequestSpecification;
+import io.restassured.path.xml.XmlPath;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -306,6 +309,115 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
                .body("feed.entry[0].title", equalTo("Org.Carlspring.Strongbox.Nuget.Test.Search"));
     }
 
+    @Test
+    public void testPackageSearchBySkipToken()
+        throws Exception
+    {
+        String searchUrl = getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 +
+                           "/Search()?$top=1&searchTerm=Test.SkipToken&targetFramework=";
+
+        List<String> packageIds = Arrays.asList("Org.Carlspring.Strongbox.Nuget.Test.SkipToken.A",
+                                                "Org.Carlspring.Strongbox.Nuget.Test.SkipToken.B");
+        for (String packageId : packageIds)
+        {
+            byte[] packageContent = readPackageContent(generatePackageFile(packageId, "1.0.0"));
+
+            createPushRequest(packageContent).when()
+                                             .put(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" +
+                                                  REPOSITORY_RELEASES_1 + "/")
+                                             .peek()
+                                             .then()
+                                             .statusCode(HttpStatus.CREATED.value());
+        }
+
+        // The first page is requested as the NuGet clients do, with `$top` only, and links to the next one, in the
+        // header and in the feed.
+        XmlPath firstPage = given().header("User-Agent", "NuGet/*")
+                                   .when()
+                                   .get(searchUrl)
+                                   .then()
+                                   .statusCode(HttpStatus.OK.value())
+                                   .header("Link", containsString("rel=\"next\""))
+                                   .extract()
+                                   .xmlPath();
+
+        assertEquals(1, firstPage.getList("feed.entry").size());
+        String nextPage = firstPage.getString("feed.link.find { it.@rel == 'next' }.@href");
+        assertNotNull(nextPage);
+        String skipToken = nextPage.substring(nextPage.indexOf("$skiptoken=") + "$skiptoken=".length());
+
+        // The second page holds the other package, the pages are in the storage order.
+        String secondPageTitle = given().header("User-Agent", "NuGet/*")
+                                        .when()
+                                        .get(searchUrl + "&$skiptoken=" + skipToken)
+                                        .then()
+                                        .statusCode(HttpStatus.OK.value())
+                                        .and()
+                                        .assertThat()
+                                        .body("feed.entry.size()", equalTo(1))
+                                        .extract()
+                                        .path("feed.entry[0].title");
+
+        assertTrue(packageIds.contains(secondPageTitle));
+        assertNotEquals(firstPage.getString("feed.entry[0].title"), secondPageTitle);
+
+        // A token which wasn't returned by the feed is a bad request.
+        for (String invalidSkipToken : Arrays.asList("not+base64", "bm90LWEtcmVjb3JkLWlk"))
+        {
+            given().header("User-Agent", "NuGet/*")
+                   .when()
+                   .get(searchUrl + "&$skiptoken=" + invalidSkipToken)
+                   .then()
+                   .statusCode(HttpStatus.BAD_REQUEST.value());
+        }
+    }
+
+    @Test
+    public void testPackageSearchOrderedFirstPage()
+        throws Exception
+    {
+        String searchUrl = getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" + REPOSITORY_RELEASES_1 +
+                           "/Search()?$top=1&$orderby=artifactCoordinates.coordinates.id" +
+                           "&searchTerm=Test.OrderBy&targetFramework=";
+
+        // Pushed in the reverse order, so that the storage order of the cursor pages differs from the requested one.
+        List<String> packageIds = Arrays.asList("Org.Carlspring.Strongbox.Nuget.Test.OrderBy.B",
+                                                "Org.Carlspring.Strongbox.Nuget.Test.OrderBy.A");
+        for (String packageId : packageIds)
+        {
+            byte[] packageContent = readPackageContent(generatePackageFile(packageId, "1.0.0"));
+
+            createPushRequest(packageContent).when()
+                                             .put(getContextBaseUrl() + "/storages/" + STORAGE_ID + "/" +
+                                                  REPOSITORY_RELEASES_1 + "/")
+                                             .peek()
+                                             .then()
+                                             .statusCode(HttpStatus.CREATED.value());
+        }
+
+        // The first page keeps the requested `$orderby`, and so it's paged by `$skip`, without a `$skiptoken` link.
+        XmlPath firstPage = given().header("User-Agent", "NuGet/*")
+                                   .when()
+                                   .get(searchUrl)
+                                   .then()
+                                   .statusCode(HttpStatus.OK.value())
+                                   .header("Link", nullValue())
+                                   .extract()
+                                   .xmlPath();
+
+        assertEquals(1, firstPage.getList("feed.entry").size());
+        assertEquals("Org.Carlspring.Strongbox.Nuget.Test.OrderBy.A", firstPage.getString("feed.entry[0].title"));
+
+        given().header("User-Agent", "NuGet/*")
+               .when()
+               .get(searchUrl + "&$skip=1")
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .and()
+               .assertThat()
+               .body("feed.entry[0].title", equalTo("Org.Carlspring.Strongbox.Nuget.Test.OrderBy.B"));
+    }
+
     @Test
     public void testLastVersionPackageSearch()
         throws Exception
@@ -29,6 +29,9 @@ public class RemoteRepositoryForm
     @PositiveOrZero(message = "A checkIntervalSeconds must be positive or zero.")
     private Integer checkIntervalSeconds;
 
+    @PositiveOrZero(message = "A metadataStaleWindowSeconds must be positive or zero.")
+    private Integer metadataStaleWindowSeconds;
+
     private boolean allowsDirectoryBrowsing = true;
 
     private boolean autoImportRemoteSSLCertificate;
@@ -83,6 +86,16 @@ public class RemoteRepositoryForm
         this.checkIntervalSeconds = checkIntervalSeconds;
     }
 
+    public Integer getMetadataStaleWindowSeconds()
+    {
+        return metadataStaleWindowSeconds;
+    }
+
+    public void setMetadataStaleWindowSeconds(Integer metadataStaleWindowSeconds)
+    {
+        this.metadataStaleWindowSeconds = metadataStaleWindowSeconds;
+    }
+
     public boolean isAllowsDirectoryBrowsing()
     {
         return allowsDirectoryBrowsing;